@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+#
+# Compara el tiempo de inicio del servicio en sus tres modos de ejecución:
+#   jit    - jar ejecutable estándar
+#   aot    - jar con procesamiento AOT de Spring y archivo AppCDS
+#   native - imagen nativa de GraalVM
+#
+# Para cada modo construye la imagen Docker, la inicia RUNS veces contra el
+# PostgreSQL y Redis de docker-compose, y mide el tiempo hasta que
+# /actuator/health/readiness responde UP (incluye el calentamiento) y el tiempo
+# informado por Spring ("Started CalculationApplication in X seconds").
+#
+# Uso: scripts/startup-benchmark.sh [modos...]   (por defecto: jit aot native)
+# Variables: RUNS (por defecto 5), PORT (por defecto 18081), NETWORK (red de docker-compose)
+
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+RUNS=${RUNS:-5}
+PORT=${PORT:-18081}
+MODES=("${@:-jit aot native}")
+read -r -a MODES <<< "${MODES[*]}"
+NETWORK=${NETWORK:-$(basename "$PWD")_backend}
+
+docker compose up -d postgres redis >/dev/null
+
+build() {
+  case "$1" in
+    jit)
+      docker build -q -t calculation-service:jit -f - . >/dev/null <<'DOCKERFILE'
+FROM eclipse-temurin:21-jdk as builder
+WORKDIR /app
+COPY gradlew .
+COPY gradle/ gradle/
+COPY build.gradle settings.gradle ./
+COPY src/ src/
+RUN ./gradlew bootJar --no-daemon
+FROM eclipse-temurin:21-jre
+WORKDIR /app
+COPY --from=builder /app/build/libs/*.jar app.jar
+ENTRYPOINT ["java", "-jar", "app.jar"]
+DOCKERFILE
+      ;;
+    aot) docker build -q --build-arg TRACING_EXPORTER=none -t calculation-service:aot -f Dockerfile . >/dev/null ;;
+    native) docker build -q --build-arg TRACING_EXPORTER=none -t calculation-service:native -f Dockerfile.native . >/dev/null ;;
+    *) echo "Modo desconocido: $1" >&2; exit 1 ;;
+  esac
+}
+
+now_ms() {
+  date +%s%3N
+}
+
+run_once() {
+  local mode=$1 container start ready spring
+  start=$(now_ms)
+  container=$(docker run -d --rm --network "$NETWORK" -p "$PORT:8081" \
+    -e SERVER_PORT=8080 \
+    -e MANAGEMENT_SERVER_PORT=8081 \
+    -e SPRING_DATASOURCE_URL=jdbc:postgresql://postgres:5432/calculation \
+    -e SPRING_DATA_REDIS_HOST=redis \
+    -e TRACING_EXPORTER=none \
+    "calculation-service:$mode")
+  until curl -sf "http://localhost:$PORT/actuator/health/readiness" | grep -q '"UP"'; do
+    sleep 0.05
+  done
+  ready=$(( $(now_ms) - start ))
+  spring=$(docker logs "$container" 2>&1 | sed -n 's/.*Started CalculationApplication in \([0-9.]*\) seconds.*/\1/p')
+  docker stop "$container" >/dev/null
+  echo "$ready ${spring:-?}"
+}
+
+printf '%-8s %6s %12s %14s\n' modo corrida readiness_ms spring_started_s
+for mode in "${MODES[@]}"; do
+  build "$mode"
+  total=0
+  for run in $(seq 1 "$RUNS"); do
+    read -r ready spring < <(run_once "$mode")
+    total=$(( total + ready ))
+    printf '%-8s %6s %12s %14s\n' "$mode" "$run" "$ready" "$spring"
+  done
+  printf '%-8s %6s %12s\n' "$mode" prom $(( total / RUNS ))
+done
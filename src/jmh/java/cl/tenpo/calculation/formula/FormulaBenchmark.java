@@ -0,0 +1,109 @@
+package cl.tenpo.calculation.formula;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cl.tenpo.calculation.formula.FormulaNode.Binary;
+import cl.tenpo.calculation.formula.FormulaNode.Call;
+import cl.tenpo.calculation.formula.FormulaNode.Constant;
+import cl.tenpo.calculation.formula.FormulaNode.Negate;
+import cl.tenpo.calculation.formula.FormulaNode.Variable;
+
+/**
+ * Compara la evaluación de las fórmulas de cálculo compiladas ({@link FormulaPlan})
+ * con la interpretación directa del árbol sintáctico, buscando las variables
+ * por nombre, con y sin volver a parsear la fórmula en cada request, y con el
+ * cálculo fijo anterior a las fórmulas configurables. Ejecutar con
+ * {@code ./gradlew jmh}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormulaBenchmark {
+
+	@Param({ "(num1 + num2) + (num1 + num2) * percentage / 100",
+			"if(num1 + num2 <= 1000, (num1 + num2) * (1 + 5 / 100), (num1 + num2) * (1 + 3 / 100)) + min(num1 * percentage / 100, 25)" })
+	public String expression;
+
+	private final BigDecimal num1 = BigDecimal.valueOf(740);
+
+	private final BigDecimal num2 = BigDecimal.valueOf(365);
+
+	private final BigDecimal percentage = new BigDecimal("12.5");
+
+	private FormulaNode tree;
+
+	private FormulaPlan plan;
+
+	@Setup
+	public void setUp() {
+		this.tree = FormulaParser.parse(this.expression);
+		this.plan = FormulaPlan.compile(this.expression);
+	}
+
+	@Benchmark
+	public BigDecimal hardcoded() {
+		BigDecimal sum = this.num1.add(this.num2);
+		return sum.add(sum.multiply(this.percentage).divide(BigDecimal.valueOf(100)));
+	}
+
+	@Benchmark
+	public BigDecimal interpretedPerRequest() {
+		return interpret(FormulaParser.parse(this.expression), this.variables());
+	}
+
+	@Benchmark
+	public BigDecimal interpretedTree() {
+		return interpret(this.tree, this.variables());
+	}
+
+	@Benchmark
+	public BigDecimal compiled() {
+		return this.plan.evaluate(this.num1, this.num2, this.percentage);
+	}
+
+	private Map<String, BigDecimal> variables() {
+		return Map.of("num1", this.num1, "num2", this.num2, "percentage", this.percentage);
+	}
+
+	/**
+	 * Intérprete directo del árbol sintáctico, sin calcular las subexpresiones
+	 * constantes al compilar.
+	 */
+	private static BigDecimal interpret(FormulaNode node, Map<String, BigDecimal> variables) {
+		if (node instanceof Constant constant) {
+			return constant.value();
+		}
+		if (node instanceof Variable variable) {
+			return variables.get(variable.variable().identifier());
+		}
+		if (node instanceof Negate negate) {
+			return interpret(negate.operand(), variables).negate();
+		}
+		if (node instanceof Binary binary) {
+			return binary.operator().apply(interpret(binary.left(), variables), interpret(binary.right(), variables));
+		}
+		Call call = (Call) node;
+		List<BigDecimal> arguments = new ArrayList<>(call.arguments().size());
+		call.arguments().forEach(argument -> arguments.add(interpret(argument, variables)));
+		return call.function().apply(arguments);
+	}
+}
@@ -0,0 +1,134 @@
+package cl.tenpo.calculation.grpc;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import cl.tenpo.calculation.grpc.v1.CalculationRequest;
+import cl.tenpo.calculation.grpc.v1.CalculationResponse;
+import cl.tenpo.calculation.grpc.v1.CalculatorGrpc;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Compara el throughput de un cálculo por {@code GET /calculation} (HTTP/1.1,
+ * conexiones persistentes) con el servicio gRPC, unario y con
+ * {@code CalculateStream} en lotes de {@value #STREAM_BATCH} requests. A
+ * diferencia de los demás benchmarks, mide contra una instancia en ejecución
+ * (por ejemplo {@code docker compose up}) en {@code benchmark.http-url} y
+ * {@code benchmark.grpc-target}, por defecto {@code localhost:8080} y
+ * {@code localhost:9090}. Ejecutar con {@code ./gradlew jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class TransportBenchmark {
+
+	private static final int STREAM_BATCH = 100;
+
+	private final AtomicLong ids = new AtomicLong();
+
+	private HttpClient httpClient;
+
+	private URI calculationUri;
+
+	private ManagedChannel channel;
+
+	private CalculatorGrpc.CalculatorBlockingStub blockingStub;
+
+	private CalculatorGrpc.CalculatorStub asyncStub;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+		this.calculationUri = URI.create(
+				System.getProperty("benchmark.http-url", "http://localhost:8080") + "/calculation?num1=5&num2=5");
+		this.channel = ManagedChannelBuilder.forTarget(System.getProperty("benchmark.grpc-target", "localhost:9090"))
+				.usePlaintext()
+				.build();
+		this.blockingStub = CalculatorGrpc.newBlockingStub(this.channel);
+		this.asyncStub = CalculatorGrpc.newStub(this.channel);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws InterruptedException {
+		this.channel.shutdown().awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	@Benchmark
+	public String rest() throws IOException, InterruptedException {
+		HttpResponse<String> response = this.httpClient.send(HttpRequest.newBuilder(this.calculationUri).build(),
+				HttpResponse.BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IllegalStateException("Respuesta HTTP " + response.statusCode());
+		}
+		return response.body();
+	}
+
+	@Benchmark
+	public String grpcUnary() {
+		return this.blockingStub.calculate(this.request()).getResult();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(STREAM_BATCH)
+	public long grpcStream() throws InterruptedException {
+		CountDownLatch completed = new CountDownLatch(1);
+		AtomicLong received = new AtomicLong();
+		StreamObserver<CalculationRequest> requests = this.asyncStub.calculateStream(new StreamObserver<>() {
+
+			@Override
+			public void onNext(CalculationResponse response) {
+				received.incrementAndGet();
+			}
+
+			@Override
+			public void onError(Throwable t) {
+				completed.countDown();
+			}
+
+			@Override
+			public void onCompleted() {
+				completed.countDown();
+			}
+		});
+		for (int i = 0; i < STREAM_BATCH; i++) {
+			requests.onNext(this.request());
+		}
+		requests.onCompleted();
+		completed.await();
+		if (received.get() != STREAM_BATCH) {
+			throw new IllegalStateException("Respuestas recibidas: " + received.get());
+		}
+		return received.get();
+	}
+
+	private CalculationRequest request() {
+		return CalculationRequest.newBuilder().setId(this.ids.incrementAndGet()).setNum1(5).setNum2(5).build();
+	}
+}
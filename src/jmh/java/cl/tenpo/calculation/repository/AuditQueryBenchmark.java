@@ -0,0 +1,110 @@
+package cl.tenpo.calculation.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cl.tenpo.calculation.CalculationApplication;
+import cl.tenpo.calculation.dto.RequestAuditDto;
+import cl.tenpo.calculation.entity.RequestAudit;
+
+/**
+ * Compara la lectura de una página de auditorías como entidades administradas
+ * en una transacción de lectura-escritura (comportamiento anterior) con la
+ * proyección a DTO en una transacción de solo lectura, sobre 100.000 registros
+ * en H2. Ejecutar con {@code ./gradlew jmh}; el profiler {@code gc} configurado
+ * en el build informa la asignación de memoria por operación.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AuditQueryBenchmark {
+
+	private static final int ROWS = 100_000;
+
+	@Param({ "20", "500" })
+	int pageSize;
+
+	private ConfigurableApplicationContext context;
+
+	private RequestAuditRepository repository;
+
+	private TransactionTemplate readWrite;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		this.context = new SpringApplicationBuilder(CalculationApplication.class)
+				.web(WebApplicationType.NONE)
+				.properties(
+						"spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+						"spring.datasource.driver-class-name=org.h2.Driver",
+						"spring.datasource.username=sa",
+						"spring.datasource.password=",
+						"spring.jpa.hibernate.ddl-auto=create-drop",
+						"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+						"audit.archive.enabled=false",
+						"percentage.snapshot.enabled=false",
+						"warmup.enabled=false",
+						"grpc.enabled=false")
+				.run();
+		this.repository = this.context.getBean(RequestAuditRepository.class);
+		this.readWrite = new TransactionTemplate(this.context.getBean(PlatformTransactionManager.class));
+		LocalDateTime start = LocalDateTime.now().minusDays(1);
+		this.context.getBean(JdbcTemplate.class).batchUpdate(
+				"insert into request_audit (request_time, endpoint, incoming, result, success) values (?, ?, ?, ?, ?)",
+				IntStream.range(0, ROWS)
+						.mapToObj(i -> new Object[] { Timestamp.valueOf(start.plusNanos(i * 1_000_000L)),
+								"GET /calculation", "[" + i + ", 5]", "11.00", Boolean.TRUE })
+						.toList());
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		this.context.close();
+	}
+
+	@Benchmark
+	public List<RequestAuditDto> entities() {
+		return this.readWrite.execute(status -> this.repository.findAll(PageRequest.of(10, this.pageSize))
+				.map(AuditQueryBenchmark::toDto)
+				.getContent());
+	}
+
+	@Benchmark
+	public List<RequestAuditDto> projection() {
+		return this.repository.findAllAsDto(PageRequest.of(10, this.pageSize)).getContent();
+	}
+
+	private static RequestAuditDto toDto(RequestAudit audit) {
+		return new RequestAuditDto(audit.getRequestTime(), audit.getEndpoint(), audit.getIncoming(),
+				audit.getResult(), audit.isSuccess(), audit.getCount() != null ? audit.getCount() : 1L,
+				audit.getFirstSeen() != null ? audit.getFirstSeen() : audit.getRequestTime(),
+				audit.getLastSeen() != null ? audit.getLastSeen() : audit.getRequestTime(), audit.getFormulaVersion());
+	}
+}
@@ -0,0 +1,104 @@
+package cl.tenpo.calculation.web;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import cl.tenpo.calculation.controller.GlobalExceptionHandler;
+import cl.tenpo.calculation.dto.ErrorResponseDto;
+
+/**
+ * Compara la serialización de las respuestas de cálculo y de error con Jackson
+ * (comportamiento anterior) y con los conversores propios. Ejecutar con
+ * {@code ./gradlew jmh}; el profiler {@code gc} configurado en el build informa
+ * la asignación de memoria por operación ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+	private static final BigDecimal RESULT = new BigDecimal("11.00");
+
+	private static final String MESSAGE = "Límite de concurrencia excedido";
+
+	private final MappingJackson2HttpMessageConverter jackson = new MappingJackson2HttpMessageConverter(
+			Jackson2ObjectMapperBuilder.json().build());
+
+	private final BigDecimalHttpMessageConverter bigDecimalConverter = new BigDecimalHttpMessageConverter();
+
+	private final ErrorResponseHttpMessageConverter errorConverter = new ErrorResponseHttpMessageConverter(
+			GlobalExceptionHandler.FIXED_ERRORS);
+
+	private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+
+	@Setup
+	public void setUp() {
+		this.buffer.reset();
+	}
+
+	@Benchmark
+	public int calculationJackson() throws IOException {
+		this.jackson.write(RESULT, MediaType.APPLICATION_JSON, this.output());
+		return this.buffer.size();
+	}
+
+	@Benchmark
+	public int calculationCustom() throws IOException {
+		this.bigDecimalConverter.write(RESULT, MediaType.APPLICATION_JSON, this.output());
+		return this.buffer.size();
+	}
+
+	@Benchmark
+	public int errorJackson() throws IOException {
+		this.jackson.write(new ErrorResponseDto(429, MESSAGE, ZonedDateTime.now()), MediaType.APPLICATION_JSON,
+				this.output());
+		return this.buffer.size();
+	}
+
+	@Benchmark
+	public int errorCustom() throws IOException {
+		this.errorConverter.write(new ErrorResponseDto(429, MESSAGE, CachedClock.now()), MediaType.APPLICATION_JSON,
+				this.output());
+		return this.buffer.size();
+	}
+
+	private HttpOutputMessage output() {
+		this.buffer.reset();
+		HttpHeaders headers = new HttpHeaders();
+		return new HttpOutputMessage() {
+
+			@Override
+			public OutputStream getBody() {
+				return ResponseSerializationBenchmark.this.buffer;
+			}
+
+			@Override
+			public HttpHeaders getHeaders() {
+				return headers;
+			}
+		};
+	}
+}
@@ -3,16 +3,25 @@ package cl.tenpo.calculation;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
- * Aplicación principal de Spring Boot para el servicio de cálculo.
+ * Aplicación principal de Spring Boot para el servicio de cálculo. En modo de
+ * reproducción de tráfico ({@code replay.enabled}) finaliza al terminar la
+ * reproducción, con el código de salida de
+ * {@link cl.tenpo.calculation.replay.ReplayRunner}.
  */
 @SpringBootApplication
 @EnableAsync
+@EnableScheduling
 public class CalculationApplication {
 	public static void main(String[] args) {
-		SpringApplication.run(CalculationApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(CalculationApplication.class, args);
+		if (context.getEnvironment().getProperty("replay.enabled", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 }
 
@@ -0,0 +1,285 @@
+package cl.tenpo.calculation.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.LongPredicate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.springframework.stereotype.Component;
+
+import cl.tenpo.calculation.config.AuditArchiveProperties;
+import cl.tenpo.calculation.dto.RequestAuditDto;
+import cl.tenpo.calculation.entity.RequestAudit;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Almacenamiento "frío" de auditorías en archivos columnares comprimidos.
+ * <p>
+ * Cada archivo se llama {@code audit-<desde>-<hasta>-<cantidad>-<id>.col.gz}, con
+ * el rango de fechas (en microsegundos desde epoch) y la cantidad de filas que
+ * contiene, de modo que las consultas por rango descartan archivos y cuentan
+ * filas sin abrirlos, y el id de su primera auditoría, que lo hace único. Los
+ * archivos se recorren en orden cronológico y, dentro de cada archivo, las filas
+ * están ordenadas por fecha.
+ * <p>
+ * Un archivo se escribe primero como pendiente ({@code .pending}, ignorado por
+ * las consultas) y se publica una vez eliminadas sus filas de la base de datos.
+ */
+@Component
+@Slf4j
+public class AuditArchiveStore {
+
+	private static final Pattern FILE_NAME = Pattern.compile("audit-(-?\\d+)-(-?\\d+)-(\\d+)(?:-\\d+)?\\.col\\.gz");
+
+	private static final Pattern PENDING_NAME = Pattern.compile("audit--?\\d+--?\\d+-\\d+-(\\d+)\\.col\\.gz\\.pending");
+
+	private static final String PENDING_SUFFIX = ".pending";
+
+	private final Path directory;
+
+	public AuditArchiveStore(AuditArchiveProperties properties) {
+		this.directory = properties.directory();
+	}
+
+	/**
+	 * Archiva las auditorías indicadas en un nuevo archivo, publicado de inmediato.
+	 *
+	 * @param rows Auditorías a archivar, ordenadas por fecha
+	 * @return El archivo generado
+	 * @throws IOException si ocurre un error de escritura
+	 */
+	public Path write(List<RequestAudit> rows) throws IOException {
+		return this.publish(this.writePending(rows));
+	}
+
+	/**
+	 * Archiva las auditorías indicadas en un nuevo archivo pendiente, que las
+	 * consultas ignoran hasta que se publica con {@link #publish(Path)}. El
+	 * archivo se escribe con un nombre temporal y se renombra al finalizar, por lo
+	 * que nunca queda un archivo pendiente incompleto.
+	 *
+	 * @param rows Auditorías a archivar, ordenadas por fecha y con id
+	 * @return El archivo pendiente
+	 * @throws IOException si ocurre un error de escritura
+	 */
+	public Path writePending(List<RequestAudit> rows) throws IOException {
+		Files.createDirectories(this.directory);
+		long from = ColumnarAuditCodec.toMicros(rows.get(0).getRequestTime());
+		long to = ColumnarAuditCodec.toMicros(rows.get(rows.size() - 1).getRequestTime());
+		Path file = this.directory.resolve("audit-" + from + "-" + to + "-" + rows.size() + "-"
+				+ rows.get(0).getId() + ".col.gz" + PENDING_SUFFIX);
+		Path tmp = Files.createTempFile(this.directory, "audit-", ".tmp");
+		try {
+			try (OutputStream out = Files.newOutputStream(tmp)) {
+				ColumnarAuditCodec.write(out, rows);
+			}
+			Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tmp);
+		}
+		return file;
+	}
+
+	/**
+	 * Publica un archivo pendiente, que pasa a incluirse en las consultas. Si el
+	 * archivo ya fue publicado (por ejemplo por otra réplica que comparte el
+	 * directorio) no hace nada.
+	 *
+	 * @param pending Archivo pendiente generado por {@link #writePending(List)}
+	 * @return El archivo publicado
+	 * @throws IOException si ocurre un error al renombrar el archivo
+	 */
+	public Path publish(Path pending) throws IOException {
+		String name = pending.getFileName().toString();
+		Path file = pending.resolveSibling(name.substring(0, name.length() - PENDING_SUFFIX.length()));
+		try {
+			Files.move(pending, file, StandardCopyOption.ATOMIC_MOVE);
+		} catch (NoSuchFileException e) {
+			if (!Files.exists(file)) {
+				throw e;
+			}
+		}
+		return file;
+	}
+
+	/**
+	 * Resuelve los archivos pendientes que quedaron de un archivado interrumpido
+	 * (por ejemplo por la caída del proceso): se publican los que corresponden a
+	 * filas ya eliminadas de la base de datos y se eliminan los demás, cuyas filas
+	 * se volverán a archivar. Debe invocarse sin otro archivado en curso.
+	 *
+	 * @param deleted Indica, para el id de la primera auditoría de un archivo,
+	 * 	si sus filas ya fueron eliminadas de la base de datos
+	 * @return La cantidad de archivos pendientes resueltos
+	 */
+	public int recoverPending(LongPredicate deleted) {
+		if (!Files.isDirectory(this.directory)) {
+			return 0;
+		}
+		List<Path> pending;
+		try (Stream<Path> paths = Files.list(this.directory)) {
+			pending = paths.filter(path -> PENDING_NAME.matcher(path.getFileName().toString()).matches()).toList();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		for (Path file : pending) {
+			Matcher matcher = PENDING_NAME.matcher(file.getFileName().toString());
+			matcher.matches();
+			if (deleted.test(Long.parseLong(matcher.group(1)))) {
+				try {
+					this.publish(file);
+					log.warn("Se publicó el archivo de auditoría pendiente {}", file);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			} else {
+				this.delete(file);
+				log.warn("Se eliminó el archivo de auditoría pendiente {}: sus filas siguen en la base de datos", file);
+			}
+		}
+		return pending.size();
+	}
+
+	/**
+	 * Elimina un archivo generado por {@link #writePending(List)}, por ejemplo si
+	 * no se pudieron eliminar de la base de datos las filas archivadas.
+	 *
+	 * @param file Archivo a eliminar
+	 */
+	public void delete(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.error("No se pudo eliminar el archivo de auditoría {}", file, e);
+		}
+	}
+
+	/**
+	 * Cuenta las auditorías archivadas en un rango de fechas.
+	 *
+	 * @param from Fecha desde (inclusive), o {@code null} para no acotar
+	 * @param to Fecha hasta (inclusive), o {@code null} para no acotar
+	 * @return La cantidad de auditorías archivadas en el rango
+	 */
+	public long count(LocalDateTime from, LocalDateTime to) {
+		Range range = Range.of(from, to);
+		long count = 0;
+		for (ArchiveFile file : this.files(range)) {
+			count += this.countInRange(file, range);
+		}
+		return count;
+	}
+
+	/**
+	 * Obtiene las auditorías archivadas en un rango de fechas, ordenadas por fecha.
+	 *
+	 * @param from Fecha desde (inclusive), o {@code null} para no acotar
+	 * @param to Fecha hasta (inclusive), o {@code null} para no acotar
+	 * @param offset Cantidad de auditorías del rango a omitir
+	 * @param limit Cantidad máxima de auditorías a devolver
+	 * @return Las auditorías archivadas
+	 */
+	public List<RequestAuditDto> find(LocalDateTime from, LocalDateTime to, long offset, int limit) {
+		Range range = Range.of(from, to);
+		List<RequestAuditDto> audits = new ArrayList<>();
+		long skip = offset;
+		for (ArchiveFile file : this.files(range)) {
+			if (audits.size() >= limit) {
+				break;
+			}
+			if (skip > 0) {
+				long count = this.countInRange(file, range);
+				if (skip >= count) {
+					skip -= count;
+					continue;
+				}
+			}
+			for (RequestAuditDto audit : this.read(file)) {
+				if (!range.contains(ColumnarAuditCodec.toMicros(audit.requestTime()))) {
+					continue;
+				}
+				if (skip > 0) {
+					skip--;
+				} else if (audits.size() < limit) {
+					audits.add(audit);
+				}
+			}
+		}
+		return audits;
+	}
+
+	private long countInRange(ArchiveFile file, Range range) {
+		if (range.contains(file.from()) && range.contains(file.to())) {
+			return file.count();
+		}
+		try (InputStream in = Files.newInputStream(file.path())) {
+			long count = 0;
+			for (long time : ColumnarAuditCodec.readTimes(in)) {
+				if (range.contains(time)) {
+					count++;
+				}
+			}
+			return count;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private List<RequestAuditDto> read(ArchiveFile file) {
+		try (InputStream in = Files.newInputStream(file.path())) {
+			return ColumnarAuditCodec.read(in);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private List<ArchiveFile> files(Range range) {
+		if (!Files.isDirectory(this.directory)) {
+			return List.of();
+		}
+		try (Stream<Path> paths = Files.list(this.directory)) {
+			return paths.map(ArchiveFile::parse)
+					.filter(file -> file != null && file.from() <= range.to() && file.to() >= range.from())
+					.sorted(Comparator.comparingLong(ArchiveFile::from))
+					.toList();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private record ArchiveFile(Path path, long from, long to, long count) {
+
+		private static ArchiveFile parse(Path path) {
+			Matcher matcher = FILE_NAME.matcher(path.getFileName().toString());
+			if (!matcher.matches()) {
+				return null;
+			}
+			return new ArchiveFile(path, Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)),
+					Long.parseLong(matcher.group(3)));
+		}
+	}
+
+	private record Range(long from, long to) {
+
+		private static Range of(LocalDateTime from, LocalDateTime to) {
+			return new Range(from != null ? ColumnarAuditCodec.toMicros(from) : Long.MIN_VALUE,
+					to != null ? ColumnarAuditCodec.toMicros(to) : Long.MAX_VALUE);
+		}
+
+		private boolean contains(long micros) {
+			return micros >= this.from && micros <= this.to;
+		}
+	}
+}
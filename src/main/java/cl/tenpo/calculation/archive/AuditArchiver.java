@@ -0,0 +1,115 @@
+package cl.tenpo.calculation.archive;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cl.tenpo.calculation.config.AuditArchiveProperties;
+import cl.tenpo.calculation.entity.RequestAudit;
+import cl.tenpo.calculation.repository.RequestAuditRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Tarea periódica que mueve las auditorías más antiguas que
+ * {@code audit.archive.max-age} desde la base de datos a archivos columnares.
+ * <p>
+ * Cada lote se escribe a un archivo pendiente y se elimina de la base de datos
+ * dentro de una misma transacción; el archivo se publica al confirmarse la
+ * transacción y se elimina si no se confirma. Si el proceso se interrumpe entre
+ * ambos pasos, el siguiente archivado resuelve el archivo pendiente según sus
+ * filas sigan o no en la base de datos, por lo que una auditoría nunca queda en
+ * ambos almacenamientos ni en ninguno.
+ * <p>
+ * Cada lote toma el lock de archivado de la base de datos, por lo que con
+ * varias réplicas solo una archiva a la vez; el directorio de archivos debe
+ * ser compartido por todas las réplicas que lo habilitan.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "audit.archive", name = "enabled", havingValue = "true")
+public class AuditArchiver {
+
+	@Autowired
+	RequestAuditRepository requestAuditRepository;
+
+	@Autowired
+	AuditArchiveStore auditArchiveStore;
+
+	@Autowired
+	AuditArchiveProperties properties;
+
+	@Autowired
+	TransactionTemplate transactionTemplate;
+
+	/**
+	 * Archiva en lotes todas las auditorías más antiguas que la antigüedad configurada.
+	 *
+	 * @return La cantidad de auditorías archivadas
+	 */
+	@Scheduled(initialDelayString = "${audit.archive.interval:PT1H}", fixedDelayString = "${audit.archive.interval:PT1H}")
+	public long archive() {
+		LocalDateTime cutoff = LocalDateTime.now().minus(this.properties.maxAge());
+		long archived = 0;
+		int batch;
+		do {
+			batch = this.transactionTemplate.execute(status -> this.archiveBatch(cutoff));
+			archived += batch;
+		} while (batch == this.properties.batchSize());
+		if (archived > 0) {
+			log.info("Se archivaron {} auditorías anteriores a {}", archived, cutoff);
+		}
+		return archived;
+	}
+
+	private int archiveBatch(LocalDateTime cutoff) {
+		if (!this.requestAuditRepository.tryLockArchive()) {
+			log.debug("Archivado de auditorías omitido: otra réplica está archivando");
+			return 0;
+		}
+		this.auditArchiveStore.recoverPending(id -> !this.requestAuditRepository.existsById(id));
+		List<RequestAudit> rows = this.requestAuditRepository.findByRequestTimeBeforeOrderByRequestTimeAsc(cutoff,
+				PageRequest.of(0, this.properties.batchSize()));
+		if (rows.isEmpty()) {
+			return 0;
+		}
+		Path pending;
+		try {
+			pending = this.auditArchiveStore.writePending(rows);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					auditArchiveStore.delete(pending);
+					return;
+				}
+				try {
+					auditArchiveStore.publish(pending);
+				} catch (IOException e) {
+					// Queda pendiente: el siguiente archivado lo publica
+					log.error("No se pudo publicar el archivo de auditoría {}", pending, e);
+				}
+			}
+		});
+		int deleted = this.requestAuditRepository.deleteByIds(rows.stream().map(RequestAudit::getId).toList());
+		if (deleted != rows.size()) {
+			throw new IllegalStateException("Se archivaron " + rows.size() + " auditorías pero se eliminaron " + deleted
+					+ ": otro proceso las modificó durante el archivado");
+		}
+		return rows.size();
+	}
+}
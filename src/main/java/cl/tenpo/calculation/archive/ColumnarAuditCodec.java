@@ -0,0 +1,302 @@
+package cl.tenpo.calculation.archive;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import cl.tenpo.calculation.dto.RequestAuditDto;
+import cl.tenpo.calculation.entity.RequestAudit;
+
+/**
+ * Codificador del formato columnar de los archivos de auditoría archivados.
+ * <p>
+ * El archivo es un stream gzip con una cabecera ({@code magic}, versión y
+ * cantidad de filas) seguida de una columna por campo, en este orden:
+ * <ol>
+ * <li>{@code requestTime}: microsegundos desde epoch (UTC), codificados como
+ * deltas zig-zag de largo variable respecto de la fila anterior.</li>
+ * <li>{@code endpoint}: diccionario de valores distintos seguido de un índice
+ * de largo variable por fila.</li>
+ * <li>{@code incoming} y {@code result}: strings UTF-8 con su largo como prefijo.</li>
+ * <li>{@code success}: un bit por fila.</li>
+ * <li>{@code count}: cantidad de requests de la fila (desde la versión 2), de largo variable.</li>
+ * <li>{@code lastSeen}: diferencia en microsegundos respecto de {@code requestTime}
+ * (desde la versión 2), de largo variable. {@code firstSeen} coincide con {@code requestTime}.</li>
+ * <li>{@code formulaVersion}: versión de la fórmula (desde la versión 3), con
+ * diccionario como {@code endpoint}.</li>
+ * </ol>
+ * Agrupar los valores de cada columna hace que gzip comprima mucho mejor que
+ * fila a fila, y que la columna de tiempos pueda leerse sin decodificar el resto.
+ */
+final class ColumnarAuditCodec {
+
+	private static final int MAGIC = 0x41554443; // "AUDC"
+
+	private static final int VERSION = 3;
+
+	private ColumnarAuditCodec() {
+	}
+
+	/**
+	 * Escribe las auditorías indicadas, que deben estar ordenadas por fecha.
+	 *
+	 * @param out Stream de destino
+	 * @param rows Auditorías a escribir
+	 * @throws IOException si ocurre un error de escritura
+	 */
+	static void write(OutputStream out, List<RequestAudit> rows) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(out)));
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		writeVarLong(data, rows.size());
+
+		long previous = 0;
+		for (RequestAudit row : rows) {
+			long micros = toMicros(row.getRequestTime());
+			writeVarLong(data, zigZag(micros - previous));
+			previous = micros;
+		}
+
+		writeDictionaryColumn(data, rows.stream().map(RequestAudit::getEndpoint).toList());
+
+		for (RequestAudit row : rows) {
+			writeString(data, row.getIncoming());
+		}
+		for (RequestAudit row : rows) {
+			writeString(data, row.getResult());
+		}
+
+		int bits = 0;
+		for (int i = 0; i < rows.size(); i++) {
+			if (rows.get(i).isSuccess()) {
+				bits |= 1 << (i % 8);
+			}
+			if (i % 8 == 7 || i == rows.size() - 1) {
+				data.writeByte(bits);
+				bits = 0;
+			}
+		}
+
+		for (RequestAudit row : rows) {
+			writeVarLong(data, row.getCount() != null ? row.getCount() : 1);
+		}
+		for (RequestAudit row : rows) {
+			LocalDateTime lastSeen = row.getLastSeen() != null ? row.getLastSeen() : row.getRequestTime();
+			writeVarLong(data, zigZag(toMicros(lastSeen) - toMicros(row.getRequestTime())));
+		}
+		writeDictionaryColumn(data, rows.stream().map(RequestAudit::getFormulaVersion).toList());
+		data.close();
+	}
+
+	/**
+	 * Lee solo la columna de fechas de un archivo.
+	 *
+	 * @param in Stream de origen
+	 * @return Las fechas de las auditorías, en microsegundos desde epoch
+	 * @throws IOException si ocurre un error de lectura o el formato es inválido
+	 */
+	static long[] readTimes(InputStream in) throws IOException {
+		try (DataInputStream data = open(in)) {
+			readVersion(data);
+			return readTimeColumn(data);
+		}
+	}
+
+	/**
+	 * Lee todas las columnas de un archivo.
+	 *
+	 * @param in Stream de origen
+	 * @return Las auditorías, en el orden en que fueron escritas
+	 * @throws IOException si ocurre un error de lectura o el formato es inválido
+	 */
+	static List<RequestAuditDto> read(InputStream in) throws IOException {
+		try (DataInputStream data = open(in)) {
+			int version = readVersion(data);
+			long[] times = readTimeColumn(data);
+			int rows = times.length;
+
+			String[] endpoints = readDictionaryColumn(data, rows);
+			String[] incoming = new String[rows];
+			for (int i = 0; i < rows; i++) {
+				incoming[i] = readString(data);
+			}
+			String[] results = new String[rows];
+			for (int i = 0; i < rows; i++) {
+				results[i] = readString(data);
+			}
+
+			boolean[] success = new boolean[rows];
+			int bits = 0;
+			for (int i = 0; i < rows; i++) {
+				if (i % 8 == 0) {
+					bits = data.readUnsignedByte();
+				}
+				success[i] = (bits & (1 << (i % 8))) != 0;
+			}
+			long[] counts = new long[rows];
+			long[] lastSeen = times.clone();
+			if (version >= 2) {
+				for (int i = 0; i < rows; i++) {
+					counts[i] = readVarLong(data);
+				}
+				for (int i = 0; i < rows; i++) {
+					lastSeen[i] += unZigZag(readVarLong(data));
+				}
+			} else {
+				Arrays.fill(counts, 1);
+			}
+			String[] formulaVersions = version >= 3 ? readDictionaryColumn(data, rows) : new String[rows];
+
+			List<RequestAuditDto> audits = new ArrayList<>(rows);
+			for (int i = 0; i < rows; i++) {
+				LocalDateTime requestTime = fromMicros(times[i]);
+				audits.add(new RequestAuditDto(requestTime, endpoints[i], incoming[i], results[i], success[i],
+						counts[i], requestTime, fromMicros(lastSeen[i]), formulaVersions[i]));
+			}
+			return audits;
+		}
+	}
+
+	private static DataInputStream open(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(new GZIPInputStream(in)));
+		if (data.readInt() != MAGIC) {
+			data.close();
+			throw new IOException("Archivo de auditoría con formato desconocido");
+		}
+		return data;
+	}
+
+	private static int readVersion(DataInputStream data) throws IOException {
+		int version = data.readUnsignedByte();
+		if (version < 1 || version > VERSION) {
+			throw new IOException("Versión de archivo de auditoría no soportada: " + version);
+		}
+		return version;
+	}
+
+	private static long[] readTimeColumn(DataInputStream data) throws IOException {
+		long[] times = new long[(int) readVarLong(data)];
+		long previous = 0;
+		for (int i = 0; i < times.length; i++) {
+			previous += unZigZag(readVarLong(data));
+			times[i] = previous;
+		}
+		return times;
+	}
+
+	/**
+	 * @param time Fecha a convertir
+	 * @return La fecha en microsegundos desde epoch, interpretada en UTC
+	 */
+	static long toMicros(LocalDateTime time) {
+		return ChronoUnit.MICROS.between(LocalDateTime.ofEpochSecond(0, 0, ZoneOffset.UTC), time);
+	}
+
+	/**
+	 * @param micros Microsegundos desde epoch, en UTC
+	 * @return La fecha correspondiente
+	 */
+	static LocalDateTime fromMicros(long micros) {
+		return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+				(int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+	}
+
+	/**
+	 * Escribe una columna de strings como un diccionario de valores distintos
+	 * seguido de un índice por fila (0 para {@code null}).
+	 */
+	private static void writeDictionaryColumn(DataOutputStream data, List<String> column) throws IOException {
+		Map<String, Integer> dictionary = new HashMap<>();
+		List<String> values = new ArrayList<>();
+		int[] indexes = new int[column.size()];
+		for (int i = 0; i < column.size(); i++) {
+			String value = column.get(i);
+			indexes[i] = value == null ? 0 : dictionary.computeIfAbsent(value, key -> {
+				values.add(key);
+				return values.size();
+			});
+		}
+		writeVarLong(data, values.size());
+		for (String value : values) {
+			writeString(data, value);
+		}
+		for (int index : indexes) {
+			writeVarLong(data, index);
+		}
+	}
+
+	private static String[] readDictionaryColumn(DataInputStream data, int rows) throws IOException {
+		String[] dictionary = new String[(int) readVarLong(data) + 1];
+		for (int i = 1; i < dictionary.length; i++) {
+			dictionary[i] = readString(data);
+		}
+		String[] column = new String[rows];
+		for (int i = 0; i < rows; i++) {
+			column[i] = dictionary[(int) readVarLong(data)];
+		}
+		return column;
+	}
+
+	private static void writeString(DataOutputStream data, String value) throws IOException {
+		if (value == null) {
+			writeVarLong(data, 0);
+			return;
+		}
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(data, bytes.length + 1L);
+		data.write(bytes);
+	}
+
+	private static String readString(DataInputStream data) throws IOException {
+		int length = (int) readVarLong(data);
+		if (length == 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length - 1];
+		data.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private static void writeVarLong(DataOutputStream data, long value) throws IOException {
+		while ((value & ~0x7FL) != 0) {
+			data.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		data.writeByte((int) value);
+	}
+
+	private static long readVarLong(DataInputStream data) throws IOException {
+		long value = 0;
+		for (int shift = 0; shift < 64; shift += 7) {
+			int b = data.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Entero de largo variable inválido");
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
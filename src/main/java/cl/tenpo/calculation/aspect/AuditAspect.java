@@ -1,18 +1,31 @@
 package cl.tenpo.calculation.aspect;
 
+import java.lang.annotation.Annotation;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.multipart.MultipartFile;
 
+import cl.tenpo.calculation.controller.CalculationController;
+import cl.tenpo.calculation.jfr.AuditRequestEvent;
 import cl.tenpo.calculation.service.AuditService;
+import cl.tenpo.calculation.service.CalculationService;
+import cl.tenpo.calculation.service.IdempotencyService;
+import cl.tenpo.calculation.warmup.WarmupFilter;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import jakarta.servlet.http.HttpServletRequest;
 
 /**
@@ -23,13 +36,29 @@ import jakarta.servlet.http.HttpServletRequest;
 public class AuditAspect {
 
 	private static final String METHOD_OPERATION_SEPARATOR = " ";
+
+	/**
+	 * Headers que forman parte de los parámetros auditados, porque cambian el
+	 * resultado del request.
+	 */
+	private static final Set<String> AUDITED_HEADERS = Set.of(CalculationController.TENANT_HEADER);
 	
 	@Autowired
 	AuditService auditService;
 
+	@Autowired
+	ObservationRegistry observationRegistry;
+
 	/**
 	 * Intercepta las peticiones a los controllers y registra la información
-	 * necesaria para la auditoría.
+	 * necesaria para la auditoría. Los headers (como {@code Idempotency-Key}) no
+	 * forman parte de los parámetros auditados, salvo el tenant, que se agrega al
+	 * final de los parámetros cuando está presente; los archivos se auditan por su
+	 * nombre original, y no se auditan los requests de calentamiento ni los que
+	 * repiten la respuesta de una ejecución previa idempotente. La creación de
+	 * jobs de cálculo masivo no se audita aquí, ya que cada job se audita al
+	 * finalizar con el resumen de sus filas. Si el request calculó un resultado, se
+	 * audita también la versión de la fórmula usada.
 	 * 
 	 * @param joinPoint El punto de unión que representa la llamada al método del
 	 * controller.
@@ -37,16 +66,23 @@ public class AuditAspect {
 	 * @throws Throwable Si ocurre algún error durante la ejecución del método del
 	 * 	controller.
 	 */
-	@Around("execution(* cl.tenpo.calculation.controller..*Controller.*(..))")
+	@Around("execution(* cl.tenpo.calculation.controller..*Controller.*(..))"
+			+ " && !execution(* cl.tenpo.calculation.controller.CalculationJobController.submit(..))")
 	public Object logRequest(ProceedingJoinPoint joinPoint) throws Throwable {
+		AuditRequestEvent event = new AuditRequestEvent();
+		event.begin();
 		LocalDateTime requestTime = LocalDateTime.now();
 		HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes())
 				.getRequest();
 		String endpoint = request.getMethod() + METHOD_OPERATION_SEPARATOR + request.getRequestURI();
-		List<Object> params = Arrays.asList(joinPoint.getArgs());
+		List<Object> params = auditedParams(joinPoint);
 		Object result = null;
 		boolean success = true;
 		Object response = null;
+		Observation observation = Observation.createNotStarted("audit.request", this.observationRegistry)
+				.highCardinalityKeyValue("endpoint", endpoint)
+				.start();
+		Observation.Scope scope = observation.openScope();
 		try {
 			result = joinPoint.proceed();
 			response = result;
@@ -54,9 +90,52 @@ public class AuditAspect {
 		} catch (Throwable ex) {
 			success = false;
 			response = ex.getMessage();
+			observation.error(ex);
 			throw ex;
 		} finally {
-			this.auditService.auditRequest(requestTime, endpoint, params, response, success);
+			if (request.getAttribute(IdempotencyService.REPLAYED_ATTRIBUTE) == null
+					&& request.getAttribute(WarmupFilter.WARMUP_ATTRIBUTE) == null) {
+				this.auditService.auditRequest(requestTime, endpoint, params, response, success,
+						(String) request.getAttribute(CalculationService.FORMULA_VERSION_ATTRIBUTE));
+			}
+			scope.close();
+			observation.stop();
+			event.end();
+			if (event.shouldCommit()) {
+				event.endpoint = endpoint;
+				event.success = success;
+				event.commit();
+			}
 		}
 	}
+
+	private static List<Object> auditedParams(ProceedingJoinPoint joinPoint) {
+		Object[] args = joinPoint.getArgs();
+		if (!(joinPoint.getSignature() instanceof MethodSignature signature)) {
+			return Arrays.stream(args).map(AuditAspect::auditedValue).toList();
+		}
+		Annotation[][] annotations = signature.getMethod().getParameterAnnotations();
+		List<Object> params = new ArrayList<>(args.length);
+		for (int i = 0; i < args.length; i++) {
+			RequestHeader header = Arrays.stream(annotations[i])
+					.filter(RequestHeader.class::isInstance)
+					.map(RequestHeader.class::cast)
+					.findFirst()
+					.orElse(null);
+			if (header == null) {
+				params.add(auditedValue(args[i]));
+			} else if (args[i] != null && AUDITED_HEADERS.contains(headerName(header))) {
+				params.add(args[i]);
+			}
+		}
+		return params;
+	}
+
+	private static String headerName(RequestHeader header) {
+		return header.name().isEmpty() ? header.value() : header.name();
+	}
+
+	private static Object auditedValue(Object arg) {
+		return arg instanceof MultipartFile file ? file.getOriginalFilename() : arg;
+	}
 }
@@ -0,0 +1,99 @@
+package cl.tenpo.calculation.aspect;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.server.ResponseStatusException;
+
+import cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimiter;
+import cl.tenpo.calculation.limiter.ConcurrencyLimitExceededException;
+import cl.tenpo.calculation.service.IdempotencyService;
+import cl.tenpo.calculation.warmup.WarmupFilter;
+import jakarta.validation.ConstraintViolationException;
+
+/**
+ * Aspecto que aplica el limitador adaptativo de concurrencia a los métodos
+ * anotados con {@link cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimit}.
+ * Se ejecuta antes que el aspecto de auditoría, por lo que los requests
+ * rechazados no se auditan. Los requests de calentamiento ({@link WarmupFilter})
+ * no pasan por el limitador, para que sus latencias, medidas con el código aún
+ * sin compilar por el JIT, no definan el RTT mínimo ni el límite inicial.
+ * Los requests idempotentes repetidos o que esperaron a otra ejecución con la
+ * misma clave se informan con {@code onIgnore()}: su latencia refleja la espera
+ * (o la ausencia de trabajo), no la capacidad del servicio.
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConcurrencyLimitAspect {
+
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	public ConcurrencyLimitAspect(AdaptiveConcurrencyLimiter limiter) {
+		this.limiter = limiter;
+	}
+
+	/**
+	 * Reserva un lugar en el limitador antes de ejecutar el método y lo libera
+	 * al finalizar, informando la latencia medida o el tipo de error.
+	 *
+	 * @param joinPoint El punto de unión que representa la llamada al método protegido.
+	 * @return El resultado del método protegido.
+	 * @throws Throwable Si el método protegido lanza una excepción.
+	 * @throws ConcurrencyLimitExceededException Si se excede el límite de concurrencia vigente.
+	 */
+	@Around("@annotation(cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimit)")
+	public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+		if (WarmupFilter.isWarmupRequest()) {
+			return joinPoint.proceed();
+		}
+		if (!this.limiter.tryAcquire()) {
+			throw new ConcurrencyLimitExceededException(this.limiter.getLimit());
+		}
+		long start = System.nanoTime();
+		try {
+			Object result = joinPoint.proceed();
+			if (isIdempotentWaitOrReplay()) {
+				this.limiter.onIgnore();
+			} else {
+				this.limiter.onSuccess(System.nanoTime() - start);
+			}
+			return result;
+		} catch (Throwable ex) {
+			if (isClientError(ex) || isIdempotentWaitOrReplay()) {
+				this.limiter.onIgnore();
+			} else {
+				this.limiter.onDropped();
+			}
+			throw ex;
+		}
+	}
+
+	/**
+	 * Determina si el request actual devolvió un resultado idempotente guardado
+	 * o esperó a otra ejecución con la misma clave.
+	 */
+	private static boolean isIdempotentWaitOrReplay() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		return attributes != null
+				&& (attributes.getAttribute(IdempotencyService.REPLAYED_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null
+						|| attributes.getAttribute(IdempotencyService.WAITED_ATTRIBUTE,
+								RequestAttributes.SCOPE_REQUEST) != null);
+	}
+
+	/**
+	 * Determina si la excepción corresponde a un error del cliente, que no dice
+	 * nada sobre la salud del servicio ni de sus dependencias.
+	 */
+	private static boolean isClientError(Throwable ex) {
+		if (ex instanceof ResponseStatusException statusEx) {
+			return statusEx.getStatusCode().is4xxClientError();
+		}
+		return ex instanceof IllegalArgumentException || ex instanceof ConstraintViolationException;
+	}
+}
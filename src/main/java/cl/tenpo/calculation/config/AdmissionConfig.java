@@ -0,0 +1,54 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import cl.tenpo.calculation.limiter.AdmissionControlInterceptor;
+import cl.tenpo.calculation.limiter.PriorityAdmissionController;
+import cl.tenpo.calculation.limiter.RequestPriority;
+
+/**
+ * Configuración de la capa de admisión por prioridad: clasifica los endpoints
+ * en críticos y best-effort según los paths configurados.
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+@ConditionalOnProperty(prefix = "admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final AdmissionProperties props;
+
+    public AdmissionConfig(AdmissionProperties props) {
+        this.props = props;
+    }
+
+    /**
+     * Bean de la capa de admisión por prioridad.
+     *
+     * @return El controlador de admisión
+     */
+    @Bean
+    public PriorityAdmissionController priorityAdmissionController() {
+        return new PriorityAdmissionController(this.props);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        PriorityAdmissionController admissionController = this.priorityAdmissionController();
+        if (!this.props.critical().paths().isEmpty()) {
+            registry.addInterceptor(new AdmissionControlInterceptor(admissionController, RequestPriority.CRITICAL))
+                    .addPathPatterns(this.props.critical().paths());
+        }
+        if (!this.props.bestEffort().paths().isEmpty()) {
+            registry.addInterceptor(new AdmissionControlInterceptor(admissionController, RequestPriority.BEST_EFFORT))
+                    .addPathPatterns(this.props.bestEffort().paths());
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la configuración de la capa de admisión por prioridad.
+ *
+ * @param enabled Indica si la capa de admisión está habilitada
+ * @param shedQueueDelay Demora en cola a partir de la cual se descartan los requests best-effort
+ * @param overloadHold Tiempo durante el cual se sigue considerando sobrecargado el servicio
+ * luego de observar una demora en cola mayor a {@code shedQueueDelay}
+ * @param critical Presupuesto de los endpoints críticos
+ * @param bestEffort Presupuesto de los endpoints best-effort
+ */
+@ConfigurationProperties(prefix = "admission")
+public record AdmissionProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("50ms") Duration shedQueueDelay,
+    @DefaultValue("1s") Duration overloadHold,
+    @DefaultValue Budget critical,
+    @DefaultValue Budget bestEffort
+) {
+
+    /**
+     * Presupuesto de concurrencia de una clase de endpoints.
+     *
+     * @param maxConcurrent Cantidad máxima de requests en ejecución
+     * @param maxQueueWait Tiempo máximo de espera en cola antes de rechazar el request
+     * @param paths Patrones de paths de los endpoints de esta clase
+     */
+    public record Budget(
+        @DefaultValue("50") int maxConcurrent,
+        @DefaultValue("500ms") Duration maxQueueWait,
+        @DefaultValue List<String> paths
+    ) {}
+}
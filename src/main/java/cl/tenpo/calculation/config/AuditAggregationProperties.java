@@ -0,0 +1,22 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la agregación en memoria de auditorías idénticas.
+ *
+ * @param enabled Indica si las auditorías idénticas se agregan antes de persistirse
+ * @param window Ventana de tiempo durante la cual se agregan las auditorías antes de persistirlas
+ * @param maxKeys Cantidad máxima de auditorías distintas agregadas en memoria; al superarla se persisten sin agregar
+ * @param maxAttempts Cantidad de volcados en los que un agregado puede fallar por sus datos antes de descartarse
+ */
+@ConfigurationProperties(prefix = "audit.aggregation")
+public record AuditAggregationProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("1s") Duration window,
+    @DefaultValue("10000") int maxKeys,
+    @DefaultValue("3") int maxAttempts
+) {}
@@ -0,0 +1,26 @@
+package cl.tenpo.calculation.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para el archivado de auditorías antiguas en archivos
+ * columnares comprimidos.
+ *
+ * @param enabled Indica si se ejecuta periódicamente el archivado; con varias réplicas, {@code directory} debe ser compartido
+ * @param directory Directorio donde se guardan los archivos de auditoría archivados
+ * @param maxAge Antigüedad a partir de la cual una auditoría se mueve de la base de datos a archivo
+ * @param batchSize Cantidad máxima de auditorías por archivo
+ * @param interval Intervalo entre ejecuciones del archivado
+ */
+@ConfigurationProperties(prefix = "audit.archive")
+public record AuditArchiveProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("audit-archive") Path directory,
+    @DefaultValue("P30D") Duration maxAge,
+    @DefaultValue("50000") int batchSize,
+    @DefaultValue("PT1H") Duration interval
+) {}
@@ -0,0 +1,47 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import cl.tenpo.calculation.health.AuditBacklogCheck;
+import cl.tenpo.calculation.runtime.AsyncTaskActivity;
+
+/**
+ * Indicador de salud de las auditorías pendientes cuando las verificaciones en
+ * segundo plano están deshabilitadas ({@code health.checks.enabled=false}). El
+ * grupo de readiness incluye {@code auditBacklog}, por lo que el indicador debe
+ * existir en ambos modos; sin el scheduler, la cola se verifica en cada probe,
+ * ya que solo lee contadores en memoria.
+ */
+@Configuration
+@EnableConfigurationProperties(HealthCheckProperties.class)
+@ConditionalOnProperty(prefix = "health.checks", name = "enabled", havingValue = "false")
+public class AuditBacklogHealthConfig {
+
+    /**
+     * Bean del indicador de salud de las auditorías pendientes, evaluado en el
+     * thread del probe.
+     *
+     * @return El indicador de salud de las auditorías pendientes
+     */
+    @Bean
+    public HealthIndicator auditBacklogHealthIndicator(
+            @Qualifier("applicationTaskExecutor") ObjectProvider<ThreadPoolTaskExecutor> asyncExecutor,
+            AsyncTaskActivity asyncTaskActivity, HealthCheckProperties props) {
+        AuditBacklogCheck check = new AuditBacklogCheck(asyncExecutor, asyncTaskActivity, props.maxAuditBacklog());
+        return () -> {
+            try {
+                return Health.up().withDetails(check.check()).build();
+            } catch (IllegalStateException e) {
+                return Health.down().withDetail("error", e.getMessage()).build();
+            }
+        };
+    }
+}
@@ -0,0 +1,14 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las propiedades de auditoría: archivado, agregación, búsqueda
+ * y paginación.
+ */
+@Configuration
+@EnableConfigurationProperties({ AuditArchiveProperties.class, AuditAggregationProperties.class,
+		AuditSearchProperties.class, AuditPaginationProperties.class })
+public class AuditConfig {
+}
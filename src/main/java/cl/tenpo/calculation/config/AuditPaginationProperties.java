@@ -0,0 +1,33 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la paginación de las consultas de auditoría.
+ *
+ * @param countStrategy Cómo se obtiene el total de auditorías de cada consulta
+ */
+@ConfigurationProperties(prefix = "audit.pagination")
+public record AuditPaginationProperties(
+    @DefaultValue("exact") CountStrategy countStrategy
+) {
+
+    /**
+     * Estrategia de conteo del total de auditorías de la base de datos.
+     */
+    public enum CountStrategy {
+
+        /** {@code count(*)} sobre la tabla; recorre todas las filas del rango. */
+        EXACT,
+
+        /**
+         * Estimación del planificador de PostgreSQL, sin leer la tabla. En otras
+         * bases de datos se cuenta en forma exacta.
+         */
+        ESTIMATED,
+
+        /** Sin total: solo se informa si la página es la última. */
+        NONE
+    }
+}
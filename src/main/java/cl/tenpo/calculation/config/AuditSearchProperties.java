@@ -0,0 +1,22 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la búsqueda de texto en las auditorías.
+ *
+ * @param minLength Largo mínimo del texto buscado; los índices de trigramas no se utilizan con menos de 3 caracteres
+ * @param maxResults Cantidad máxima de auditorías devueltas por búsqueda
+ * @param timeout Tiempo máximo de la consulta a la base de datos
+ * @param createIndexes Indica si se crean al iniciar los índices de trigramas (solo PostgreSQL, extensión pg_trgm)
+ */
+@ConfigurationProperties(prefix = "audit.search")
+public record AuditSearchProperties(
+    @DefaultValue("3") int minLength,
+    @DefaultValue("500") int maxResults,
+    @DefaultValue("5s") Duration timeout,
+    @DefaultValue("true") boolean createIndexes
+) {}
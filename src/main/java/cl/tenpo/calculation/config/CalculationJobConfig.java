@@ -0,0 +1,12 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las propiedades de los jobs de cálculo masivo.
+ */
+@Configuration
+@EnableConfigurationProperties(CalculationJobProperties.class)
+public class CalculationJobConfig {
+}
@@ -0,0 +1,29 @@
+package cl.tenpo.calculation.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para los jobs de cálculo masivo.
+ *
+ * @param directory Directorio donde se guardan los archivos de entrada y de resultado de los jobs
+ * @param parallelism Cantidad de threads del ForkJoinPool que procesa las filas (0 = cantidad de procesadores)
+ * @param chunkSize Cantidad de filas por bloque procesado en paralelo
+ * @param maxConcurrentJobs Cantidad máxima de jobs ejecutándose al mismo tiempo
+ * @param maxQueuedJobs Cantidad máxima de jobs en espera de ejecución
+ * @param retention Tiempo durante el cual se conservan los jobs finalizados y sus archivos
+ * @param purgeInterval Intervalo entre ejecuciones de la limpieza de jobs expirados
+ */
+@ConfigurationProperties(prefix = "calculation.jobs")
+public record CalculationJobProperties(
+    @DefaultValue("calculation-jobs") Path directory,
+    @DefaultValue("0") int parallelism,
+    @DefaultValue("10000") int chunkSize,
+    @DefaultValue("2") int maxConcurrentJobs,
+    @DefaultValue("20") int maxQueuedJobs,
+    @DefaultValue("P1D") Duration retention,
+    @DefaultValue("PT10M") Duration purgeInterval
+) {}
@@ -0,0 +1,26 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimiter;
+
+/**
+ * Configuración del limitador adaptativo de concurrencia del endpoint de cálculo.
+ */
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Bean del limitador de concurrencia utilizado por el endpoint de cálculo.
+     *
+     * @param props Propiedades de configuración del limitador
+     * @return El limitador adaptativo de concurrencia
+     */
+    @Bean
+    public AdaptiveConcurrencyLimiter calculationConcurrencyLimiter(ConcurrencyLimitProperties props) {
+        return new AdaptiveConcurrencyLimiter(props);
+    }
+}
@@ -0,0 +1,28 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la configuración del limitador adaptativo de concurrencia.
+ *
+ * @param initialLimit Límite de concurrencia inicial
+ * @param minLimit Límite mínimo, usado también en la primera medición de la latencia sin carga
+ * @param maxLimit Límite máximo
+ * @param rttBuffer Tolerancia sobre la latencia sin carga antes de reducir el límite (0.25 = 25%)
+ * @param sampleWindow Cantidad de muestras por ventana de ajuste del límite
+ * @param minRttSamples Cantidad de muestras para medir la latencia sin carga
+ * @param minRttRecalcWindow Cantidad de muestras entre cada nueva medición de la latencia sin carga
+ * @param backoffRatio Factor de reducción del límite ante errores de dependencias
+ */
+@ConfigurationProperties(prefix = "calculation.concurrency-limit")
+public record ConcurrencyLimitProperties(
+    @DefaultValue("20") int initialLimit,
+    @DefaultValue("3") int minLimit,
+    @DefaultValue("200") int maxLimit,
+    @DefaultValue("0.25") double rttBuffer,
+    @DefaultValue("100") int sampleWindow,
+    @DefaultValue("50") int minRttSamples,
+    @DefaultValue("10000") int minRttRecalcWindow,
+    @DefaultValue("0.9") double backoffRatio
+) {}
@@ -0,0 +1,12 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las propiedades de la fórmula de cálculo.
+ */
+@Configuration
+@EnableConfigurationProperties(FormulaProperties.class)
+public class FormulaConfig {
+}
@@ -0,0 +1,16 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la fórmula del endpoint de cálculo.
+ *
+ * @param expression Fórmula activa al iniciar, en función de {@code num1}, {@code num2} y {@code percentage}
+ * @param planCacheSize Cantidad máxima de fórmulas compiladas conservadas en memoria
+ */
+@ConfigurationProperties(prefix = "calculation.formula")
+public record FormulaProperties(
+    @DefaultValue("(num1 + num2) + (num1 + num2) * percentage / 100") String expression,
+    @DefaultValue("64") int planCacheSize
+) {}
@@ -0,0 +1,83 @@
+package cl.tenpo.calculation.config;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import cl.tenpo.calculation.grpc.CalculationGrpcService;
+import cl.tenpo.calculation.grpc.GrpcServerLifecycle;
+import cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimiter;
+import cl.tenpo.calculation.limiter.PriorityAdmissionController;
+import cl.tenpo.calculation.service.AuditService;
+import cl.tenpo.calculation.service.CalculationService;
+
+/**
+ * Configuración del servidor gRPC de cálculo, que se expone en un puerto
+ * propio junto a la API REST.
+ */
+@Configuration
+@EnableConfigurationProperties(GrpcProperties.class)
+@ConditionalOnProperty(prefix = "grpc", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class GrpcConfig {
+
+    /**
+     * Bean del executor que atiende las llamadas gRPC.
+     *
+     * @param props Propiedades del servidor gRPC
+     * @return El executor de gRPC
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService grpcExecutor(GrpcProperties props) {
+        return Executors.newFixedThreadPool(props.threads(), new CustomizableThreadFactory("grpc-"));
+    }
+
+    /**
+     * Bean del executor que calcula los requests de {@code CalculateStream}. Su
+     * cola es acotada, por lo que, cuando se llena, los requests se rechazan y se
+     * responden con 503 en vez de acumularse en memoria.
+     *
+     * @param props Propiedades del servidor gRPC
+     * @return El executor de los streams gRPC
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService grpcStreamExecutor(GrpcProperties props) {
+        return new ThreadPoolExecutor(props.streamThreads(), props.streamThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(props.streamQueueCapacity()), new CustomizableThreadFactory("grpc-stream-"));
+    }
+
+    /**
+     * Bean del servicio gRPC de cálculo.
+     *
+     * @return El servicio gRPC de cálculo
+     */
+    @Bean
+    public CalculationGrpcService calculationGrpcService(CalculationService calculationService,
+            AuditService auditService, AdaptiveConcurrencyLimiter limiter,
+            ObjectProvider<PriorityAdmissionController> admissionController,
+            @Qualifier("grpcStreamExecutor") ExecutorService grpcStreamExecutor, GrpcProperties props) {
+        return new CalculationGrpcService(calculationService, auditService, limiter,
+                admissionController.getIfAvailable(), grpcStreamExecutor, props.maxInflightPerStream());
+    }
+
+    /**
+     * Bean del servidor gRPC.
+     *
+     * @return El ciclo de vida del servidor gRPC
+     */
+    @Bean
+    public GrpcServerLifecycle grpcServer(GrpcProperties props, CalculationGrpcService calculationGrpcService,
+            @Qualifier("grpcExecutor") ExecutorService grpcExecutor) {
+        return new GrpcServerLifecycle(props, List.of(calculationGrpcService), grpcExecutor);
+    }
+}
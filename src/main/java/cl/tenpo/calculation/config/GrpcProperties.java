@@ -0,0 +1,30 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para el servidor gRPC de cálculo.
+ *
+ * @param enabled Habilita el servidor gRPC
+ * @param port Puerto del servidor gRPC (HTTP/2 sin TLS)
+ * @param threads Cantidad de threads que atienden las llamadas gRPC
+ * @param streamThreads Cantidad de threads que calculan los requests de {@code CalculateStream}
+ * @param streamQueueCapacity Cantidad máxima de requests de streams en espera de un thread; los que exceden se responden con 503
+ * @param maxConcurrentCallsPerConnection Cantidad máxima de llamadas concurrentes por conexión
+ * @param maxInflightPerStream Cantidad máxima de cálculos en curso por stream; el resto espera en el control de flujo de HTTP/2
+ * @param shutdownGracePeriod Espera máxima de las llamadas en curso al detener el servidor
+ */
+@ConfigurationProperties(prefix = "grpc")
+public record GrpcProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("9090") int port,
+    @DefaultValue("200") int threads,
+    @DefaultValue("64") int streamThreads,
+    @DefaultValue("1024") int streamQueueCapacity,
+    @DefaultValue("1024") int maxConcurrentCallsPerConnection,
+    @DefaultValue("256") int maxInflightPerStream,
+    @DefaultValue("10s") Duration shutdownGracePeriod
+) {}
@@ -0,0 +1,133 @@
+package cl.tenpo.calculation.config;
+
+import java.sql.Connection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import cl.tenpo.calculation.health.AuditBacklogCheck;
+import cl.tenpo.calculation.health.CachedHealthIndicator;
+import cl.tenpo.calculation.health.HealthCheckScheduler;
+import cl.tenpo.calculation.runtime.AsyncTaskActivity;
+import cl.tenpo.calculation.service.PercentageService;
+import cl.tenpo.calculation.service.external.LatencyWeightedPercentageService;
+import cl.tenpo.calculation.service.external.PercentageLookup;
+import cl.tenpo.calculation.service.external.PercentageServiceProxyImpl;
+
+/**
+ * Configuración de los indicadores de salud de las dependencias, verificadas
+ * en segundo plano y consultadas por los probes desde la última verificación.
+ * Los beans {@code dbHealthIndicator} y {@code redisHealthIndicator}
+ * reemplazan a los indicadores de Spring Boot, que consultan la base de datos
+ * y Redis en cada request a {@code /actuator/health}. Con
+ * {@code health.checks.enabled=false} se usan los indicadores de Spring Boot y
+ * {@code auditBacklog} lo provee {@link AuditBacklogHealthConfig}.
+ */
+@Configuration
+@EnableConfigurationProperties(HealthCheckProperties.class)
+@ConditionalOnProperty(prefix = "health.checks", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class HealthCheckConfig {
+
+    /**
+     * Bean del indicador de salud de PostgreSQL: obtiene una conexión del pool
+     * y la valida.
+     *
+     * @return El indicador de salud de la base de datos
+     */
+    @Bean
+    public CachedHealthIndicator dbHealthIndicator(DataSource dataSource, HealthCheckProperties props) {
+        int timeoutSeconds = (int) Math.max(1, props.timeout().toSeconds());
+        return new CachedHealthIndicator("Base de datos", () -> {
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(timeoutSeconds)) {
+                    throw new IllegalStateException("La conexión a la base de datos no es válida");
+                }
+                return Map.of("database", connection.getMetaData().getDatabaseProductName());
+            }
+        }, props.failureThreshold(), props.timeout());
+    }
+
+    /**
+     * Bean del indicador de salud de Redis: envía un PING, sin pasar por el
+     * circuit breaker de Redis.
+     *
+     * @return El indicador de salud de Redis
+     */
+    @Bean
+    public CachedHealthIndicator redisHealthIndicator(RedisConnectionFactory redisConnectionFactory,
+            HealthCheckProperties props) {
+        return new CachedHealthIndicator("Redis", () -> {
+            try (RedisConnection connection = redisConnectionFactory.getConnection()) {
+                return Map.of("ping", connection.ping());
+            }
+        }, props.failureThreshold(), props.timeout());
+    }
+
+    /**
+     * Bean del indicador de salud del servicio externo de porcentaje: lo consulta
+     * directamente, sin reintentos ni la cache de respaldo, e informa el estado
+     * de cada proveedor y el origen del último porcentaje utilizado en los cálculos.
+     * Con varios proveedores, la consulta no pasa por la selección por latencia,
+     * para no alterar sus promedios ni consumir la llamada de prueba.
+     *
+     * @return El indicador de salud del servicio de porcentaje
+     */
+    @Bean
+    public CachedHealthIndicator percentageProviderHealthIndicator(
+            @Qualifier("externalPercentageService") PercentageService externalPercentageService,
+            PercentageServiceProxyImpl percentageService, HealthCheckProperties props) {
+        return new CachedHealthIndicator("Servicio de porcentaje", () -> {
+            Map<String, Object> details = new LinkedHashMap<>();
+            if (externalPercentageService instanceof LatencyWeightedPercentageService providers) {
+                details.put("percentage", providers.check());
+                details.put("providers", providers.providers());
+            } else {
+                details.put("percentage", externalPercentageService.getPercentage());
+            }
+            PercentageLookup lastLookup = percentageService.lastLookup();
+            if (lastLookup != null) {
+                details.put("lastSource", lastLookup.source());
+                details.put("lastObtainedAt", lastLookup.obtainedAt().toString());
+            }
+            return details;
+        }, props.failureThreshold(), props.timeout());
+    }
+
+    /**
+     * Bean del indicador de salud de las auditorías pendientes: falla mientras
+     * la cola del executor de {@code @Async} supera {@code health.checks.max-audit-backlog}.
+     *
+     * @return El indicador de salud de las auditorías pendientes
+     */
+    @Bean
+    public CachedHealthIndicator auditBacklogHealthIndicator(
+            @Qualifier("applicationTaskExecutor") ObjectProvider<ThreadPoolTaskExecutor> asyncExecutor,
+            AsyncTaskActivity asyncTaskActivity, HealthCheckProperties props) {
+        return new CachedHealthIndicator("Auditoría",
+                new AuditBacklogCheck(asyncExecutor, asyncTaskActivity, props.maxAuditBacklog()),
+                props.failureThreshold(), props.timeout());
+    }
+
+    /**
+     * Bean del scheduler que verifica las dependencias en segundo plano.
+     *
+     * @return El scheduler de las verificaciones de salud
+     */
+    @Bean
+    public HealthCheckScheduler healthCheckScheduler(List<CachedHealthIndicator> indicators,
+            HealthCheckProperties props) {
+        return new HealthCheckScheduler(indicators, props);
+    }
+}
@@ -0,0 +1,24 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para las verificaciones de salud ejecutadas en segundo plano.
+ *
+ * @param enabled Habilita las verificaciones en segundo plano; deshabilitadas se utilizan los indicadores de Spring Boot
+ * @param interval Intervalo entre verificaciones de cada dependencia
+ * @param timeout Tiempo máximo de cada verificación; superado se considera fallida
+ * @param failureThreshold Cantidad de verificaciones fallidas consecutivas a partir de la cual el indicador pasa a DOWN
+ * @param maxAuditBacklog Cantidad máxima de auditorías pendientes de persistir
+ */
+@ConfigurationProperties(prefix = "health.checks")
+public record HealthCheckProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("10s") Duration interval,
+    @DefaultValue("2s") Duration timeout,
+    @DefaultValue("3") int failureThreshold,
+    @DefaultValue("10000") int maxAuditBacklog
+) {}
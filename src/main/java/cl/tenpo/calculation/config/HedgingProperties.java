@@ -0,0 +1,31 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la configuración de requests "hedged" al
+ * servicio externo de porcentaje.
+ *
+ * @param enabled Indica si se envían requests de respaldo
+ * @param percentile Percentil de la latencia observada a partir del cual se envía el request de respaldo
+ * @param minDelay Demora mínima antes de enviar un request de respaldo
+ * @param minSamples Cantidad mínima de latencias observadas antes de empezar a enviar requests de respaldo
+ * @param sampleWindow Cantidad de latencias recientes consideradas para calcular el percentil
+ * @param budgetRatio Carga extra máxima admitida, como fracción de los requests principales (0.05 = 5%)
+ * @param maxBurst Cantidad máxima de requests de respaldo acumulables en el presupuesto
+ * @param threads Cantidad de threads dedicados a las llamadas al servicio externo
+ */
+@ConfigurationProperties(prefix = "percentage.hedging")
+public record HedgingProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("0.95") double percentile,
+    @DefaultValue("5ms") Duration minDelay,
+    @DefaultValue("100") int minSamples,
+    @DefaultValue("1000") int sampleWindow,
+    @DefaultValue("0.05") double budgetRatio,
+    @DefaultValue("10") int maxBurst,
+    @DefaultValue("16") int threads
+) {}
@@ -0,0 +1,23 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para el soporte de {@code Idempotency-Key} en el
+ * endpoint de cálculo.
+ *
+ * @param ttl Tiempo de vida en Redis del resultado asociado a cada clave
+ * @param lockTtl Tiempo de vida del lock de ejecución; debe superar la duración máxima de un cálculo (incluidos los reintentos)
+ * @param waitTimeout Tiempo máximo que un request duplicado espera el resultado de la ejecución en curso
+ * @param pollInterval Intervalo de consulta del resultado cuando la ejecución en curso está en otra réplica
+ */
+@ConfigurationProperties(prefix = "calculation.idempotency")
+public record IdempotencyProperties(
+    @DefaultValue("24h") Duration ttl,
+    @DefaultValue("15s") Duration lockTtl,
+    @DefaultValue("15s") Duration waitTimeout,
+    @DefaultValue("50ms") Duration pollInterval
+) {}
@@ -0,0 +1,47 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import cl.tenpo.calculation.dto.CalculationJobDto;
+import cl.tenpo.calculation.dto.ErrorResponseDto;
+import cl.tenpo.calculation.dto.PageDto;
+import cl.tenpo.calculation.dto.RequestAuditDto;
+import cl.tenpo.calculation.entity.RequestAudit;
+import cl.tenpo.calculation.service.external.PercentageServiceProxyImpl;
+import io.github.resilience4j.retry.annotation.Retry;
+
+/**
+ * Hints de reflexión para la imagen nativa de GraalVM, para los tipos que se
+ * acceden por reflexión y que el procesamiento AOT de Spring no detecta por sí solo:
+ * los DTOs que Jackson serializa, la entidad de auditoría y el método de
+ * fallback que Resilience4j resuelve por nombre.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.CalculationRuntimeHints.class)
+@RegisterReflectionForBinding({ CalculationJobDto.class, ErrorResponseDto.class, PageDto.class,
+        RequestAuditDto.class })
+public class NativeHintsConfig {
+
+    /**
+     * Registra los hints que no pueden expresarse con anotaciones.
+     */
+    static class CalculationRuntimeHints implements RuntimeHintsRegistrar {
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection().registerType(RequestAudit.class, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                    MemberCategory.INVOKE_DECLARED_METHODS, MemberCategory.DECLARED_FIELDS);
+            // Resilience4j busca el fallbackMethod de @Retry por nombre en la clase anotada
+            hints.reflection().registerType(PercentageServiceProxyImpl.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+            hints.reflection().registerType(Retry.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la cache en Redis del porcentaje obtenido del
+ * servicio externo.
+ *
+ * @param ttl Tiempo de vida del porcentaje en Redis
+ * @param rewriteAfter Tiempo tras el cual se reescribe el porcentaje aunque no haya cambiado, para renovar su tiempo de vida. Debe ser menor que {@code ttl}
+ */
+@ConfigurationProperties(prefix = "percentage.cache")
+public record PercentageCacheProperties(
+    @DefaultValue("PT30M") Duration ttl,
+    @DefaultValue("PT15S") Duration rewriteAfter
+) {}
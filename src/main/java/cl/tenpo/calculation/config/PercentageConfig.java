@@ -0,0 +1,45 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import cl.tenpo.calculation.service.PercentageService;
+import cl.tenpo.calculation.service.external.LatencyWeightedPercentageService;
+import cl.tenpo.calculation.service.external.PercentageServiceExternalMockedImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuración de las propiedades del servicio de porcentaje y sus políticas
+ * de acceso al servicio externo.
+ */
+@Configuration
+@EnableConfigurationProperties({ HedgingProperties.class, PercentageCacheProperties.class,
+		PercentageSnapshotProperties.class, TenantPercentageProperties.class, PercentageProvidersProperties.class })
+public class PercentageConfig {
+
+    /**
+     * Bean del servicio externo de porcentaje, compuesto por los proveedores de
+     * {@code percentage.providers.instances} (un único proveedor sin latencia si
+     * no se configura ninguno).
+     *
+     * @param props Propiedades de los proveedores de porcentaje
+     * @param meterRegistry Registro de métricas
+     * @return El servicio externo de porcentaje
+     */
+    @Bean
+    public LatencyWeightedPercentageService externalPercentageService(PercentageProvidersProperties props,
+            MeterRegistry meterRegistry) {
+        Map<String, PercentageService> providers = new LinkedHashMap<>();
+        props.instances().forEach(instance -> providers.put(instance.name(),
+                new PercentageServiceExternalMockedImpl(instance.latency(), instance.failureRate())));
+        if (providers.isEmpty()) {
+            providers.put("default", new PercentageServiceExternalMockedImpl(Duration.ZERO, 0));
+        }
+        return new LatencyWeightedPercentageService(providers, props, meterRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para los proveedores del porcentaje y la selección
+ * entre ellos según su latencia y tasa de error.
+ *
+ * @param instances Proveedores del porcentaje; el servicio externo es un mock, por lo que cada uno se simula con la latencia y la tasa de error indicadas
+ * @param smoothing Peso de cada nueva llamada en los promedios móviles exponenciales (EWMA) de latencia y tasa de error
+ * @param maxErrorRate Tasa de error a partir de la cual un proveedor deja de recibir llamadas
+ * @param retryUnhealthyAfter Espera antes de enviar una llamada de prueba a un proveedor que dejó de recibir llamadas
+ * @param latencyHalfLife Tiempo sin llamadas en el que la latencia esperada de un proveedor se reduce a la mitad, para que un proveedor que fue lento vuelva a recibir una llamada y se mida de nuevo
+ */
+@ConfigurationProperties(prefix = "percentage.providers")
+public record PercentageProvidersProperties(
+    @DefaultValue List<Instance> instances,
+    @DefaultValue("0.2") double smoothing,
+    @DefaultValue("0.5") double maxErrorRate,
+    @DefaultValue("5s") Duration retryUnhealthyAfter,
+    @DefaultValue("10s") Duration latencyHalfLife
+) {
+
+    /**
+     * Proveedor del porcentaje.
+     *
+     * @param name Nombre del proveedor, utilizado en logs y métricas
+     * @param latency Latencia simulada de cada llamada
+     * @param failureRate Fracción de las llamadas que fallan (0.1 = 10%)
+     */
+    public record Instance(
+        String name,
+        @DefaultValue("0ms") Duration latency,
+        @DefaultValue("0") double failureRate
+    ) {}
+}
@@ -0,0 +1,24 @@
+package cl.tenpo.calculation.config;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la copia local del último porcentaje obtenido
+ * del servicio externo.
+ *
+ * @param enabled Indica si se guarda y utiliza la copia local del porcentaje
+ * @param file Archivo donde se guarda la copia local
+ * @param maxStaleness Antigüedad máxima de la copia local para ser utilizada
+ * @param rewriteAfter Tiempo tras el cual se reescribe la copia aunque el porcentaje no haya cambiado, para renovar su fecha
+ */
+@ConfigurationProperties(prefix = "percentage.snapshot")
+public record PercentageSnapshotProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("percentage-snapshot.properties") Path file,
+    @DefaultValue("P1D") Duration maxStaleness,
+    @DefaultValue("PT5M") Duration rewriteAfter
+) {}
@@ -1,10 +1,16 @@
 package cl.tenpo.calculation.config;
 
+import org.springframework.boot.autoconfigure.data.redis.LettuceClientConfigurationBuilderCustomizer;
+import org.springframework.boot.autoconfigure.data.redis.RedisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.SocketOptions;
+import io.lettuce.core.TimeoutOptions;
+
 /**
  * Configuración de Redis para la aplicación.
  */
@@ -18,4 +24,23 @@ class RedisConfig {
     template.setConnectionFactory(redisConnectionFactory);
     return template;
   }
+
+  /**
+   * Mientras la conexión con Redis está caída, Lettuce rechaza los comandos de
+   * inmediato en lugar de encolarlos hasta reconectar, de modo que ningún request
+   * espera el timeout de cada comando. Se mantienen los timeouts de
+   * {@code spring.data.redis.timeout} y {@code spring.data.redis.connect-timeout}.
+   */
+  @Bean
+  LettuceClientConfigurationBuilderCustomizer rejectCommandsWhileDisconnected(RedisProperties redisProperties) {
+    SocketOptions.Builder socketOptions = SocketOptions.builder();
+    if (redisProperties.getConnectTimeout() != null) {
+      socketOptions.connectTimeout(redisProperties.getConnectTimeout());
+    }
+    return builder -> builder.clientOptions(ClientOptions.builder()
+        .socketOptions(socketOptions.build())
+        .timeoutOptions(TimeoutOptions.enabled())
+        .disconnectedBehavior(ClientOptions.DisconnectedBehavior.REJECT_COMMANDS)
+        .build());
+  }
 }
@@ -0,0 +1,12 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuración de las propiedades del modo de reproducción de tráfico.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplayProperties.class)
+public class ReplayConfig {
+}
@@ -0,0 +1,38 @@
+package cl.tenpo.calculation.config;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para el modo de reproducción del tráfico registrado
+ * en la auditoría.
+ *
+ * @param enabled Indica si la aplicación se ejecuta en modo reproducción: reproduce el tráfico y finaliza
+ * @param target URL base de la instancia contra la que se reproducen los requests
+ * @param from Fecha desde (inclusive) de las auditorías a reproducir, o {@code null} para no acotar
+ * @param to Fecha hasta (inclusive) de las auditorías a reproducir, o {@code null} para no acotar
+ * @param speed Velocidad respecto del tráfico original: 1 la reproduce a la velocidad original, 2 al doble, 0 lo más rápido posible
+ * @param concurrency Cantidad máxima de requests en curso contra la instancia destino
+ * @param timeout Tiempo máximo de espera de cada request
+ * @param fetchSize Cantidad de auditorías leídas por cada viaje a la base de datos
+ * @param report Archivo donde se escribe el reporte en formato JSON
+ * @param maxMismatchSamples Cantidad máxima de diferencias incluidas como ejemplo en el reporte
+ */
+@ConfigurationProperties(prefix = "replay")
+public record ReplayProperties(
+    @DefaultValue("false") boolean enabled,
+    @DefaultValue("http://localhost:18080") URI target,
+    LocalDateTime from,
+    LocalDateTime to,
+    @DefaultValue("1") double speed,
+    @DefaultValue("32") int concurrency,
+    @DefaultValue("5s") Duration timeout,
+    @DefaultValue("1000") int fetchSize,
+    @DefaultValue("replay-report.json") Path report,
+    @DefaultValue("100") int maxMismatchSamples
+) {}
@@ -0,0 +1,26 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Registro de propiedades para la cache de porcentajes por tenant (comercio o
+ * producto).
+ *
+ * @param maxMemory Memoria máxima estimada ocupada por la cache local; al superarla se descartan los tenants menos frecuentes
+ * @param localTtl Tiempo de vida de cada porcentaje en la cache local
+ * @param redisBatchSize Cantidad máxima de tenants consultados a Redis en un mismo {@code MGET}
+ * @param redisBatchDelay Espera máxima para agrupar en un mismo {@code MGET} los tenants que no están en la cache local
+ * @param providerThreads Cantidad de threads dedicados a consultar al servicio externo los porcentajes que no están en Redis
+ */
+@ConfigurationProperties(prefix = "percentage.tenants")
+public record TenantPercentageProperties(
+    @DefaultValue("64MB") DataSize maxMemory,
+    @DefaultValue("PT30S") Duration localTtl,
+    @DefaultValue("256") int redisBatchSize,
+    @DefaultValue("1ms") Duration redisBatchDelay,
+    @DefaultValue("16") int providerThreads
+) {}
@@ -0,0 +1,74 @@
+package cl.tenpo.calculation.config;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.CompositeTaskDecorator;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+
+import cl.tenpo.calculation.runtime.AsyncTaskActivity;
+import cl.tenpo.calculation.tracing.FileSpanExporter;
+import cl.tenpo.calculation.tracing.TailSamplingSpanExporter;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.aop.ObservedAspect;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Configuración de la instrumentación de trazas: habilita {@code @Observed},
+ * propaga el contexto de la traza a los métodos {@code @Async} y define el
+ * exportador local (archivo u OTLP) con muestreo tail-based.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    /**
+     * Bean del aspecto que crea observaciones para los métodos anotados con {@code @Observed}.
+     *
+     * @param observationRegistry Registro de observaciones
+     * @return El aspecto de observaciones
+     */
+    @Bean
+    public ObservedAspect observedAspect(ObservationRegistry observationRegistry) {
+        return new ObservedAspect(observationRegistry);
+    }
+
+    /**
+     * Decorador de tareas que propaga el contexto (traza actual) al executor de
+     * {@code @Async}, para que la auditoría quede dentro de la traza del request,
+     * y registra la actividad del executor en {@link AsyncTaskActivity}. Ambos se
+     * combinan en un único bean porque Spring Boot solo aplica el decorador si es único.
+     *
+     * @param asyncTaskActivity Contadores de las tareas del executor
+     * @return El decorador de tareas
+     */
+    @Bean
+    public TaskDecorator asyncTaskDecorator(AsyncTaskActivity asyncTaskActivity) {
+        return new CompositeTaskDecorator(
+                List.of(new ContextPropagatingTaskDecorator(), asyncTaskActivity.taskDecorator()));
+    }
+
+    /**
+     * Exportador de spans con muestreo tail-based hacia el destino configurado.
+     *
+     * @param props Propiedades de trazas
+     * @return El exportador de spans
+     * @throws IOException Si no se puede abrir el archivo de trazas
+     */
+    @Bean
+    @ConditionalOnExpression("'${tracing.exporter:none}' != 'none'")
+    public SpanExporter tailSamplingSpanExporter(TracingProperties props) throws IOException {
+        SpanExporter delegate = "otlp".equals(props.exporter())
+                ? OtlpHttpSpanExporter.builder().setEndpoint(props.otlpEndpoint()).build()
+                : new FileSpanExporter(Path.of(props.file()));
+        return new TailSamplingSpanExporter(delegate, props.slowThreshold().toNanos(), props.baselineRatio(),
+                props.decisionWait().toNanos(), props.maxPendingTraces());
+    }
+}
@@ -0,0 +1,28 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la exportación de trazas.
+ *
+ * @param exporter Destino de las trazas: {@code none}, {@code file} o {@code otlp}
+ * @param file Archivo donde se escriben las trazas cuando el exportador es {@code file}
+ * @param otlpEndpoint Endpoint OTLP/HTTP del colector cuando el exportador es {@code otlp}
+ * @param slowThreshold Duración a partir de la cual una traza se conserva siempre
+ * @param baselineRatio Fracción de las trazas rápidas y exitosas que se conservan
+ * @param decisionWait Tiempo máximo de espera del span raíz de una traza antes de descartarla
+ * @param maxPendingTraces Cantidad máxima de trazas pendientes de decisión en memoria
+ */
+@ConfigurationProperties(prefix = "tracing")
+public record TracingProperties(
+    @DefaultValue("none") String exporter,
+    @DefaultValue("traces.jsonl") String file,
+    @DefaultValue("http://localhost:4318/v1/traces") String otlpEndpoint,
+    @DefaultValue("500ms") Duration slowThreshold,
+    @DefaultValue("0.01") double baselineRatio,
+    @DefaultValue("30s") Duration decisionWait,
+    @DefaultValue("10000") int maxPendingTraces
+) {}
@@ -0,0 +1,24 @@
+package cl.tenpo.calculation.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Registro de propiedades para la fase de calentamiento previa a recibir tráfico.
+ *
+ * @param enabled Indica si se ejecuta el calentamiento al iniciar la aplicación
+ * @param iterations Cantidad de requests de calentamiento enviados al endpoint de cálculo
+ * @param concurrency Cantidad de threads que envían los requests de calentamiento
+ * @param timeout Duración máxima del calentamiento; al superarla la aplicación comienza a recibir tráfico igualmente
+ * @param firstRequests Cantidad de requests reales, posteriores al calentamiento, cuya latencia se registra por separado
+ */
+@ConfigurationProperties(prefix = "warmup")
+public record WarmupProperties(
+    @DefaultValue("true") boolean enabled,
+    @DefaultValue("5000") int iterations,
+    @DefaultValue("2") int concurrency,
+    @DefaultValue("30s") Duration timeout,
+    @DefaultValue("1000") int firstRequests
+) {}
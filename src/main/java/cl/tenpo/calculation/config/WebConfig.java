@@ -0,0 +1,38 @@
+package cl.tenpo.calculation.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import cl.tenpo.calculation.controller.GlobalExceptionHandler;
+import cl.tenpo.calculation.web.BigDecimalHttpMessageConverter;
+import cl.tenpo.calculation.web.ErrorResponseHttpMessageConverter;
+
+/**
+ * Configuración de los conversores HTTP propios. Spring Boot los registra antes
+ * que los conversores por defecto, por lo que las respuestas de cálculo y de
+ * error no pasan por la negociación con Jackson.
+ */
+@Configuration
+public class WebConfig {
+
+    /**
+     * Bean del conversor para el resultado numérico del cálculo.
+     *
+     * @return El conversor de {@link java.math.BigDecimal}
+     */
+    @Bean
+    public BigDecimalHttpMessageConverter bigDecimalHttpMessageConverter() {
+        return new BigDecimalHttpMessageConverter();
+    }
+
+    /**
+     * Bean del conversor para las respuestas de error, con los errores de
+     * mensaje fijo de {@link GlobalExceptionHandler} codificados de antemano.
+     *
+     * @return El conversor de {@link cl.tenpo.calculation.dto.ErrorResponseDto}
+     */
+    @Bean
+    public ErrorResponseHttpMessageConverter errorResponseHttpMessageConverter() {
+        return new ErrorResponseHttpMessageConverter(GlobalExceptionHandler.FIXED_ERRORS);
+    }
+}
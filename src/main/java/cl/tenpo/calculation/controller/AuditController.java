@@ -1,6 +1,10 @@
 package cl.tenpo.calculation.controller;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -31,21 +35,51 @@ public class AuditController {
 	private AuditService auditService;
 
 	/**
-	 * Obtiene una lista paginada de requests auditados.
+	 * Obtiene una lista paginada de requests auditados. Si se indica un rango de
+	 * fechas, la búsqueda incluye también las auditorías archivadas.
 	 * 
 	 * @param page Pagina a obtener, por defecto 0.
 	 * @param size Tamaño de la pagina a obtener, por defecto 10.
+	 * @param from Fecha desde (inclusive), opcional.
+	 * @param to Fecha hasta (inclusive), opcional.
 	 * @return
 	 */
 	@GetMapping
-	@Operation(summary = "Obtiene una lista paginada de requests auditados", description = "Dados un número de página y un tamaño de página, devuelve una lista paginada de requests auditados.")
+	@Operation(summary = "Obtiene una lista paginada de requests auditados", description = "Dados un número de página y un tamaño de página, y opcionalmente un rango de fechas, devuelve una lista paginada de requests auditados.")
 	@ApiResponses(value = { 
 			@ApiResponse(responseCode = "200", description = "Búsqueda exitosa"),
 			@ApiResponse(responseCode = "400", description = "Parámetros inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
 			@ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))})	
 	public PageDto<RequestAuditDto> getAudit(
 			@RequestParam(name = "page", defaultValue = "0") @Min(value = 0, message = "page debe ser >= 0") @Parameter(description = "Número de página", required = false) int page,
-			@RequestParam(name = "size", defaultValue = "10") @Min(value = 0, message = "size debe ser >= 0") @Parameter(description = "Tamaño de página", required = false) int size) {
-		return auditService.getAll(page, size);
+			@RequestParam(name = "size", defaultValue = "10") @Min(value = 0, message = "size debe ser >= 0") @Parameter(description = "Tamaño de página", required = false) int size,
+			@RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Parameter(description = "Fecha desde (ISO-8601), inclusive", required = false) LocalDateTime from,
+			@RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Parameter(description = "Fecha hasta (ISO-8601), inclusive", required = false) LocalDateTime to) {
+		if (from == null && to == null) {
+			return auditService.getAll(page, size);
+		}
+		if (from != null && to != null && from.isAfter(to)) {
+			throw new IllegalArgumentException("from debe ser anterior o igual a to");
+		}
+		return auditService.getRange(from, to, page, size);
+	}
+
+	/**
+	 * Busca los requests auditados cuyos parámetros o resultado contienen un texto.
+	 * 
+	 * @param q Texto a buscar, literal.
+	 * @param limit Cantidad máxima de auditorías a devolver, por defecto 50.
+	 * @return
+	 */
+	@GetMapping("/search")
+	@Operation(summary = "Busca requests auditados por texto", description = "Devuelve los requests auditados, de los más recientes a los más antiguos, cuyos parámetros o resultado contienen el texto indicado (por ejemplo [5, 5]). No incluye las auditorías archivadas.")
+	@ApiResponses(value = { 
+			@ApiResponse(responseCode = "200", description = "Búsqueda exitosa"),
+			@ApiResponse(responseCode = "400", description = "Parámetros inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+			@ApiResponse(responseCode = "503", description = "La búsqueda superó el tiempo máximo", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))})	
+	public List<RequestAuditDto> search(
+			@RequestParam(name = "q") @Parameter(description = "Texto a buscar en los parámetros y el resultado", required = true) String q,
+			@RequestParam(name = "limit", defaultValue = "50") @Parameter(description = "Cantidad máxima de resultados", required = false) int limit) {
+		return auditService.search(q, limit);
 	}
 }
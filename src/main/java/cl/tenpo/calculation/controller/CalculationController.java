@@ -5,14 +5,16 @@ import java.math.BigDecimal;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import cl.tenpo.calculation.dto.ErrorResponseDto;
+import cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimit;
 import cl.tenpo.calculation.service.AuditService;
 import cl.tenpo.calculation.service.CalculationService;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import cl.tenpo.calculation.service.IdempotencyService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -22,6 +24,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 
 /**
  * Controlador para manejar los requests de cálculo de porcentajes.
@@ -33,31 +37,57 @@ import jakarta.validation.constraints.NotNull;
 		+ " servicio debe sumar ambos números y aplicar un porcentaje adicional al resultado de esa suma")
 public class CalculationController {
 
+	/**
+	 * Header con el tenant cuyo porcentaje se aplica.
+	 */
+	public static final String TENANT_HEADER = "X-Tenant-Id";
+
 	@Autowired
 	CalculationService calcService;
 
 	@Autowired
 	AuditService auditService;
 
+	@Autowired
+	IdempotencyService idempotencyService;
+
 	/**
 	 * Realiza la operación de cálculo de porcentaje.
 	 * 
 	 * @param num1 Primer operando de la operación.
 	 * @param num2 Segundo operando de la operación.
+	 * @param idempotencyKey Clave opcional para que los reintentos del cliente
+	 * 	obtengan el resultado ya calculado en lugar de volver a calcularlo.
+	 * @param tenant Tenant (comercio o producto) opcional cuyo porcentaje se aplica
+	 * 	en lugar del porcentaje general.
 	 * @return El resultado de la operación de cálculo de porcentaje.
 	 */
 	@GetMapping
-	@RateLimiter(name = "percentageCalculation")
+	@AdaptiveConcurrencyLimit
 	@Operation(summary = "Calcular suma con porcentaje", description = "Suma num1 y num2, y aplica un porcentaje adicional")
 	@ApiResponses(value = { 
 			@ApiResponse(responseCode = "200", description = "Cálculo exitoso"),
 			@ApiResponse(responseCode = "400", description = "Parámetros inválidos", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
-			@ApiResponse(responseCode = "429", description = "Demasiadas solicitudes (rate limit excedido)", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+			@ApiResponse(responseCode = "409", description = "Request con la misma Idempotency-Key en curso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+			@ApiResponse(responseCode = "422", description = "Idempotency-Key ya utilizada con otros parámetros", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+			@ApiResponse(responseCode = "429", description = "Demasiadas solicitudes (límite de concurrencia excedido)", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
 			@ApiResponse(responseCode = "500", description = "Error interno del servidor", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
 			@ApiResponse(responseCode = "503", description = "Servicio remoto no disponible", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))})
 	public BigDecimal calculate(
 			@RequestParam(name = "num1") @NotNull(message = "num1 es obligatorio") @Min(value = 0, message = "num1 debe ser >= 0") @Parameter(description = "Primer número entero de la entrada de la operacion (int)", required = true) int num1,
-			@RequestParam(name = "num2") @NotNull(message = "num1 es obligatorio") @Min(value = 0, message = "num1 debe ser >= 0") @Parameter(description = "Segundo número entero de la entrada de la operacion (int)", required = true) int num2) {
-		return this.calcService.calculate(num1, num2);
+			@RequestParam(name = "num2") @NotNull(message = "num1 es obligatorio") @Min(value = 0, message = "num1 debe ser >= 0") @Parameter(description = "Segundo número entero de la entrada de la operacion (int)", required = true) int num2,
+			@RequestHeader(name = "Idempotency-Key", required = false) @Size(min = 1, max = 128, message = "Idempotency-Key debe tener entre 1 y 128 caracteres") @Parameter(description = "Clave de idempotencia para reintentos seguros", required = false) String idempotencyKey,
+			@RequestHeader(name = TENANT_HEADER, required = false) @Pattern(regexp = "[A-Za-z0-9._:-]{1,64}", message = "X-Tenant-Id debe tener entre 1 y 64 caracteres alfanuméricos, '.', '_', ':' o '-'") @Parameter(description = "Tenant (comercio o producto) cuyo porcentaje se aplica", required = false) String tenant) {
+		if (idempotencyKey == null) {
+			return this.calculate(num1, num2, tenant);
+		}
+		String fingerprint = tenant == null ? num1 + "," + num2 : num1 + "," + num2 + "," + tenant;
+		return new BigDecimal(this.idempotencyService.execute(idempotencyKey, fingerprint,
+				() -> this.calculate(num1, num2, tenant).toString()));
+	}
+
+	private BigDecimal calculate(int num1, int num2, String tenant) {
+		return tenant == null ? this.calcService.calculate(num1, num2)
+				: this.calcService.calculateForTenant(num1, num2, tenant);
 	}
 }
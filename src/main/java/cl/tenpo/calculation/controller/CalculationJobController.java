@@ -0,0 +1,97 @@
+package cl.tenpo.calculation.controller;
+
+import java.net.URI;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestPart;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import cl.tenpo.calculation.dto.CalculationJobDto;
+import cl.tenpo.calculation.dto.ErrorResponseDto;
+import cl.tenpo.calculation.job.CalculationJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+/**
+ * Controlador para manejar los jobs de cálculo masivo sobre archivos.
+ */
+@RestController
+@RequestMapping("/calculation/jobs")
+@Tag(name = "API para realizar cálculos masivos", description = "Permite calcular la operación para cada fila de un"
+		+ " archivo CSV o NDJSON de forma asíncrona, aplicando el mismo porcentaje a todas las filas")
+public class CalculationJobController {
+
+	@Autowired
+	CalculationJobService calculationJobService;
+
+	/**
+	 * Crea un job de cálculo masivo para el archivo indicado.
+	 *
+	 * @param file Archivo CSV ({@code num1,num2} por fila) o NDJSON
+	 * 	({@code {"num1":5,"num2":5}} por línea).
+	 * @return El estado inicial del job, con su ubicación en el header {@code Location}.
+	 */
+	@PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+	@Operation(summary = "Crear job de cálculo masivo", description = "Recibe un archivo CSV o NDJSON y calcula cada fila de forma asíncrona")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "202", description = "Job aceptado"),
+			@ApiResponse(responseCode = "400", description = "Archivo inválido o vacío", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+			@ApiResponse(responseCode = "413", description = "Archivo demasiado grande", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+			@ApiResponse(responseCode = "503", description = "Demasiados jobs en curso", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))})
+	public ResponseEntity<CalculationJobDto> submit(
+			@RequestPart("file") @Parameter(description = "Archivo CSV o NDJSON con las filas a calcular", required = true) MultipartFile file) {
+		CalculationJobDto job = this.calculationJobService.submit(file);
+		return ResponseEntity.accepted().location(URI.create("/calculation/jobs/" + job.id())).body(job);
+	}
+
+	/**
+	 * Obtiene el estado de un job de cálculo masivo.
+	 *
+	 * @param id Identificador del job.
+	 * @return El estado y el progreso del job.
+	 */
+	@GetMapping("/{id}")
+	@Operation(summary = "Consultar job de cálculo masivo", description = "Devuelve el estado y la cantidad de filas procesadas del job")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Consulta exitosa"),
+			@ApiResponse(responseCode = "404", description = "Job no encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))})
+	public CalculationJobDto get(@PathVariable("id") @Parameter(description = "Identificador del job", required = true) String id) {
+		return this.calculationJobService.get(id);
+	}
+
+	/**
+	 * Descarga el archivo de resultados de un job finalizado.
+	 *
+	 * @param id Identificador del job.
+	 * @return El archivo de resultados, en el mismo formato que el de entrada.
+	 */
+	@GetMapping("/{id}/result")
+	@Operation(summary = "Descargar resultados del job", description = "Devuelve el archivo con el resultado o el error de cada fila, en el orden de entrada")
+	@ApiResponses(value = {
+			@ApiResponse(responseCode = "200", description = "Descarga exitosa"),
+			@ApiResponse(responseCode = "404", description = "Job no encontrado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class))),
+			@ApiResponse(responseCode = "409", description = "El job no finalizó correctamente", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponseDto.class)))})
+	public ResponseEntity<FileSystemResource> result(@PathVariable("id") @Parameter(description = "Identificador del job", required = true) String id) {
+		FileSystemResource result = this.calculationJobService.result(id);
+		return ResponseEntity.ok()
+				.contentType(this.calculationJobService.resultMediaType(id))
+				.header(HttpHeaders.CONTENT_DISPOSITION,
+						ContentDisposition.attachment().filename(result.getFilename()).build().toString())
+				.body(result);
+	}
+}
@@ -1,6 +1,6 @@
 package cl.tenpo.calculation.controller;
 
-import java.time.ZonedDateTime;
+import java.util.List;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -8,10 +8,14 @@ import org.springframework.web.bind.MissingServletRequestParameterException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.support.MissingServletRequestPartException;
 import org.springframework.web.server.ResponseStatusException;
 
 import cl.tenpo.calculation.dto.ErrorResponseDto;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import cl.tenpo.calculation.limiter.ConcurrencyLimitExceededException;
+import cl.tenpo.calculation.limiter.LoadSheddingException;
+import cl.tenpo.calculation.web.CachedClock;
 import jakarta.validation.ConstraintViolationException;
 
 /**
@@ -20,15 +24,44 @@ import jakarta.validation.ConstraintViolationException;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    private static final String CONCURRENCY_LIMIT_EXCEEDED = "Límite de concurrencia excedido";
+
+    private static final String OVERLOADED = "Servicio sobrecargado, reintente más tarde";
+
+    private static final String PAYLOAD_TOO_LARGE = "El archivo supera el tamaño máximo permitido";
+
+    private static final String INTERNAL_ERROR = "Error interno del servidor";
+
     /**
-     * Maneja excepciones de límite de requests excedido.
+     * Respuestas de error de mensaje fijo, que el conversor de errores codifica
+     * al iniciar (sin fecha).
+     */
+    public static final List<ErrorResponseDto> FIXED_ERRORS = List.of(
+            new ErrorResponseDto(HttpStatus.TOO_MANY_REQUESTS.value(), CONCURRENCY_LIMIT_EXCEEDED, null),
+            new ErrorResponseDto(HttpStatus.SERVICE_UNAVAILABLE.value(), OVERLOADED, null),
+            new ErrorResponseDto(HttpStatus.PAYLOAD_TOO_LARGE.value(), PAYLOAD_TOO_LARGE, null),
+            new ErrorResponseDto(HttpStatus.INTERNAL_SERVER_ERROR.value(), INTERNAL_ERROR, null));
+
+    /**
+     * Maneja excepciones de límite de concurrencia excedido.
      * 
-     * @param ex La excepción que indica que se ha excedido el límite de requests
+     * @param ex La excepción que indica que se ha excedido el límite adaptativo de concurrencia
      * @return ResponseEntity con un mensaje de error y el estado HTTP 429 (Too Many Requests)
      */
-    @ExceptionHandler(RequestNotPermitted.class)
-    public ResponseEntity<ErrorResponseDto> handleRateLimitExceeded(RequestNotPermitted ex) {
-        return buildResponse("Límite de requests excedido", HttpStatus.TOO_MANY_REQUESTS);
+    @ExceptionHandler(ConcurrencyLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDto> handleConcurrencyLimitExceeded(ConcurrencyLimitExceededException ex) {
+        return buildResponse(CONCURRENCY_LIMIT_EXCEEDED, HttpStatus.TOO_MANY_REQUESTS);
+    }
+
+    /**
+     * Maneja excepciones de requests descartados por sobrecarga del servicio.
+     * 
+     * @param ex La excepción que indica que el request fue descartado por la capa de admisión
+     * @return ResponseEntity con un mensaje de error y el estado HTTP 503 (Service Unavailable)
+     */
+    @ExceptionHandler(LoadSheddingException.class)
+    public ResponseEntity<ErrorResponseDto> handleLoadShedding(LoadSheddingException ex) {
+        return buildResponse(OVERLOADED, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
     /**
@@ -39,11 +72,23 @@ public class GlobalExceptionHandler {
      * @return ResponseEntity con un mensaje de error y el estado HTTP 400 (Bad Request)
      */
     @ExceptionHandler({IllegalArgumentException.class, ConstraintViolationException.class, 
-    	MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class})
+    	MethodArgumentTypeMismatchException.class, MissingServletRequestParameterException.class,
+    	MissingServletRequestPartException.class})
     public ResponseEntity<ErrorResponseDto> handleBadRequest(Exception ex) {
         return buildResponse(ex.getMessage(), HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Maneja excepciones de archivos que superan el tamaño máximo permitido.
+     * 
+     * @param ex La excepción que indica que el archivo subido es demasiado grande
+     * @return ResponseEntity con un mensaje de error y el estado HTTP 413 (Payload Too Large)
+     */
+    @ExceptionHandler(MaxUploadSizeExceededException.class)
+    public ResponseEntity<ErrorResponseDto> handleMaxUploadSize(MaxUploadSizeExceededException ex) {
+        return buildResponse(PAYLOAD_TOO_LARGE, HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
     /**
      * Maneja excepciones internas del servidor.
      * 
@@ -52,7 +97,7 @@ public class GlobalExceptionHandler {
      */
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDto> handleInternalError(Exception ex) {
-        return buildResponse("Error interno del servidor", HttpStatus.INTERNAL_SERVER_ERROR);
+        return buildResponse(INTERNAL_ERROR, HttpStatus.INTERNAL_SERVER_ERROR);
     }
     
     /**
@@ -68,13 +113,15 @@ public class GlobalExceptionHandler {
 
     /**
      * Construye una respuesta de error con un mensaje y un estado HTTP específico.
+     * La fecha tiene resolución de segundos y se reutiliza entre respuestas del
+     * mismo segundo (ver {@link CachedClock}).
      * 
      * @param message El mensaje de error a incluir en la respuesta
      * @param status El estado HTTP a utilizar en la respuesta
      * @return ResponseEntity con el ErrorResponse y el estado HTTP especificado
      */
     private ResponseEntity<ErrorResponseDto> buildResponse(String message, HttpStatus status) {
-        ErrorResponseDto error = new ErrorResponseDto(status.value(), message, ZonedDateTime.now());
+        ErrorResponseDto error = new ErrorResponseDto(status.value(), message, CachedClock.now());
         return new ResponseEntity<>(error, status);
     }
 }
@@ -0,0 +1,21 @@
+package cl.tenpo.calculation.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO con el estado de un job de cálculo masivo.
+ */
+public record CalculationJobDto(
+		String id,
+		String status,
+		String fileName,
+		BigDecimal percentage,
+		String formulaVersion,
+		long processedRows,
+		long failedRows,
+		LocalDateTime createdAt,
+		LocalDateTime startedAt,
+		LocalDateTime finishedAt,
+		String error
+	) {}
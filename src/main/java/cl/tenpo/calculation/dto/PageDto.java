@@ -4,6 +4,10 @@ import java.util.List;
 
 /**
  * DTO para paginación de resultados.
+ * <p>
+ * Según la estrategia de conteo configurada, {@code totalElements} y
+ * {@code totalPages} pueden ser una estimación ({@code totalApproximate} en
+ * {@code true}) o no calcularse ({@code -1}); {@code last} es siempre exacto.
  * 
  * @param <T> el tipo de contenido de la página
  */
@@ -13,5 +17,14 @@ public record PageDto<T>(
         int size,
         long totalElements,
         int totalPages,
-        boolean last
-) {}
+        boolean last,
+        boolean totalApproximate
+) {
+
+	/**
+	 * Crea una página con el total exacto de elementos.
+	 */
+	public PageDto(List<T> content, int page, int size, long totalElements, int totalPages, boolean last) {
+		this(content, page, size, totalElements, totalPages, last, false);
+	}
+}
@@ -10,5 +10,26 @@ public record RequestAuditDto(
 		String endpoint,
 	    String incoming,
 	    String result,	    	
-	    boolean success
-	) {}
+	    boolean success,
+	    long count,
+	    LocalDateTime firstSeen,
+	    LocalDateTime lastSeen,
+	    String formulaVersion
+	) {
+
+	/**
+	 * Crea el DTO de una auditoría sin versión de fórmula.
+	 */
+	public RequestAuditDto(LocalDateTime requestTime, String endpoint, String incoming, String result,
+			boolean success, long count, LocalDateTime firstSeen, LocalDateTime lastSeen) {
+		this(requestTime, endpoint, incoming, result, success, count, firstSeen, lastSeen, null);
+	}
+
+	/**
+	 * Crea el DTO de la auditoría de un único request.
+	 */
+	public RequestAuditDto(LocalDateTime requestTime, String endpoint, String incoming, String result,
+			boolean success) {
+		this(requestTime, endpoint, incoming, result, success, 1, requestTime, requestTime, null);
+	}
+}
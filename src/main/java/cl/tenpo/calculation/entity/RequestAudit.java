@@ -15,6 +15,8 @@ import lombok.NoArgsConstructor;
 
 /**
  * Entidad que representa un registro de auditoría de un request realizado al servicio.
+ * Con la agregación de auditorías habilitada, un registro puede representar
+ * {@code count} requests idénticos recibidos entre {@code firstSeen} y {@code lastSeen}.
  */
 @Entity
 @Table(name = "request_audit")
@@ -39,4 +41,22 @@ public class RequestAudit {
 	private String result;
 	
 	private boolean success;
+
+	/**
+	 * Versión de la fórmula con la que se calculó el resultado. Es {@code null}
+	 * en los requests que no calculan y en los registros anteriores a su registro.
+	 */
+	@Column(length = 16)
+	private String formulaVersion;
+
+	/**
+	 * Cantidad de requests representados por el registro. Es {@code null} en los
+	 * registros anteriores a la agregación, que representan un único request.
+	 */
+	@Column(name = "request_count")
+	private Long count;
+
+	private LocalDateTime firstSeen;
+
+	private LocalDateTime lastSeen;
 }
@@ -0,0 +1,38 @@
+package cl.tenpo.calculation.formula;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * Fórmula de cálculo activa.
+ *
+ * @param version Versión de la fórmula: los primeros 12 dígitos hexadecimales
+ * 	del SHA-256 de su expresión, por lo que coincide entre réplicas y reinicios
+ * 	que activan la misma fórmula
+ * @param plan Fórmula compilada
+ * @param activatedAt Momento de la activación
+ */
+public record ActiveFormula(String version, FormulaPlan plan, Instant activatedAt) {
+
+	/**
+	 * @param plan Fórmula compilada
+	 * @param activatedAt Momento de la activación
+	 * @return La fórmula activa, con la versión derivada de su expresión
+	 */
+	static ActiveFormula of(FormulaPlan plan, Instant activatedAt) {
+		return new ActiveFormula(version(plan.expression()), plan, activatedAt);
+	}
+
+	private static String version(String expression) {
+		try {
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(expression.getBytes(StandardCharsets.UTF_8));
+			return HexFormat.of().formatHex(Arrays.copyOf(digest, 6));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
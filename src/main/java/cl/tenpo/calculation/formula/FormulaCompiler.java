@@ -0,0 +1,173 @@
+package cl.tenpo.calculation.formula;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+import cl.tenpo.calculation.formula.FormulaNode.Binary;
+import cl.tenpo.calculation.formula.FormulaNode.Call;
+import cl.tenpo.calculation.formula.FormulaNode.Constant;
+import cl.tenpo.calculation.formula.FormulaNode.Function;
+import cl.tenpo.calculation.formula.FormulaNode.Negate;
+import cl.tenpo.calculation.formula.FormulaNode.Operator;
+import cl.tenpo.calculation.formula.FormulaNode.Variable;
+
+/**
+ * Compila el árbol sintáctico de una fórmula a un árbol de closures
+ * ({@link Evaluator}) que se evalúa sin volver a recorrer ni interpretar la fórmula:
+ * <ul>
+ * <li>Las subexpresiones constantes se calculan al compilar, y los {@code if}
+ * con condición constante se reemplazan por la rama elegida.</li>
+ * <li>Cada operador se resuelve al compilar a una closure propia, sin
+ * despachar por el tipo de nodo al evaluar; las operaciones con un operando
+ * constante lo capturan directamente.</li>
+ * <li>Las variables se reciben como argumentos, sin buscarlas por nombre.</li>
+ * </ul>
+ * La fórmula se compila una única vez al activarla ({@link FormulaEngine}); cada
+ * evaluación solo ejecuta las operaciones aritméticas de la fórmula.
+ */
+final class FormulaCompiler {
+
+	private FormulaCompiler() {
+	}
+
+	/**
+	 * Fórmula compilada.
+	 */
+	@FunctionalInterface
+	interface Evaluator {
+
+		BigDecimal evaluate(BigDecimal num1, BigDecimal num2, BigDecimal percentage);
+	}
+
+	/**
+	 * @param source Texto de la fórmula
+	 * @return La fórmula compilada
+	 * @throws IllegalArgumentException si la fórmula no es válida o si alguna de
+	 * 	sus subexpresiones constantes no puede calcularse (por ejemplo, una división por cero)
+	 */
+	static Evaluator compile(String source) {
+		FormulaNode node = FormulaParser.parse(source);
+		try {
+			return compile(fold(node));
+		} catch (ArithmeticException e) {
+			throw new IllegalArgumentException("Fórmula inválida: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Calcula las subexpresiones constantes.
+	 */
+	static FormulaNode fold(FormulaNode node) {
+		if (node instanceof Negate negate) {
+			FormulaNode operand = fold(negate.operand());
+			return operand instanceof Constant constant ? new Constant(constant.value().negate()) : new Negate(operand);
+		}
+		if (node instanceof Binary binary) {
+			FormulaNode left = fold(binary.left());
+			FormulaNode right = fold(binary.right());
+			return left instanceof Constant l && right instanceof Constant r
+					? new Constant(binary.operator().apply(l.value(), r.value()))
+					: new Binary(binary.operator(), left, right);
+		}
+		if (node instanceof Call call) {
+			List<FormulaNode> arguments = call.arguments().stream().map(FormulaCompiler::fold).toList();
+			if (call.function() == Function.IF && arguments.get(0) instanceof Constant condition) {
+				return condition.value().signum() != 0 ? arguments.get(1) : arguments.get(2);
+			}
+			return arguments.stream().allMatch(Constant.class::isInstance)
+					? new Constant(call.function().apply(arguments.stream().map(c -> ((Constant) c).value()).toList()))
+					: new Call(call.function(), arguments);
+		}
+		return node;
+	}
+
+	private static Evaluator compile(FormulaNode node) {
+		if (node instanceof Constant constant) {
+			BigDecimal value = constant.value();
+			return (num1, num2, percentage) -> value;
+		}
+		if (node instanceof Variable variable) {
+			return switch (variable.variable()) {
+			case NUM1 -> (num1, num2, percentage) -> num1;
+			case NUM2 -> (num1, num2, percentage) -> num2;
+			case PERCENTAGE -> (num1, num2, percentage) -> percentage;
+			};
+		}
+		if (node instanceof Negate negate) {
+			Evaluator operand = compile(negate.operand());
+			return (num1, num2, percentage) -> operand.evaluate(num1, num2, percentage).negate();
+		}
+		if (node instanceof Binary binary) {
+			return compileBinary(binary);
+		}
+		return compileCall((Call) node);
+	}
+
+	private static Evaluator compileBinary(Binary binary) {
+		Operator operator = binary.operator();
+		if (binary.right() instanceof Constant constant) {
+			BigDecimal right = constant.value();
+			Evaluator left = compile(binary.left());
+			return switch (operator) {
+			case ADD -> (num1, num2, percentage) -> left.evaluate(num1, num2, percentage).add(right);
+			case SUBTRACT -> (num1, num2, percentage) -> left.evaluate(num1, num2, percentage).subtract(right);
+			case MULTIPLY -> (num1, num2, percentage) -> left.evaluate(num1, num2, percentage).multiply(right);
+			case DIVIDE -> (num1, num2, percentage) -> left.evaluate(num1, num2, percentage)
+					.divide(right, FormulaNode.DIVISION_CONTEXT);
+			default -> (num1, num2, percentage) -> operator.apply(left.evaluate(num1, num2, percentage), right);
+			};
+		}
+		if (binary.left() instanceof Constant constant) {
+			BigDecimal left = constant.value();
+			Evaluator right = compile(binary.right());
+			return (num1, num2, percentage) -> operator.apply(left, right.evaluate(num1, num2, percentage));
+		}
+		Evaluator left = compile(binary.left());
+		Evaluator right = compile(binary.right());
+		return switch (operator) {
+		case ADD -> (num1, num2, percentage) -> left.evaluate(num1, num2, percentage)
+				.add(right.evaluate(num1, num2, percentage));
+		case SUBTRACT -> (num1, num2, percentage) -> left.evaluate(num1, num2, percentage)
+				.subtract(right.evaluate(num1, num2, percentage));
+		case MULTIPLY -> (num1, num2, percentage) -> left.evaluate(num1, num2, percentage)
+				.multiply(right.evaluate(num1, num2, percentage));
+		case DIVIDE -> (num1, num2, percentage) -> left.evaluate(num1, num2, percentage)
+				.divide(right.evaluate(num1, num2, percentage), FormulaNode.DIVISION_CONTEXT);
+		default -> (num1, num2, percentage) -> operator.apply(left.evaluate(num1, num2, percentage),
+				right.evaluate(num1, num2, percentage));
+		};
+	}
+
+	private static Evaluator compileCall(Call call) {
+		List<Evaluator> arguments = call.arguments().stream().map(FormulaCompiler::compile).toList();
+		return switch (call.function()) {
+		case IF -> {
+			Evaluator condition = arguments.get(0);
+			Evaluator then = arguments.get(1);
+			Evaluator otherwise = arguments.get(2);
+			yield (num1, num2, percentage) -> condition.evaluate(num1, num2, percentage).signum() != 0
+					? then.evaluate(num1, num2, percentage)
+					: otherwise.evaluate(num1, num2, percentage);
+		}
+		case ROUND -> {
+			Evaluator value = arguments.get(0);
+			int scale = ((Constant) call.arguments().get(1)).value().intValueExact();
+			yield (num1, num2, percentage) -> value.evaluate(num1, num2, percentage)
+					.setScale(scale, RoundingMode.HALF_UP);
+		}
+		case MIN, MAX -> {
+			boolean min = call.function() == Function.MIN;
+			Evaluator[] values = arguments.toArray(Evaluator[]::new);
+			yield (num1, num2, percentage) -> {
+				BigDecimal result = values[0].evaluate(num1, num2, percentage);
+				for (int i = 1; i < values.length; i++) {
+					BigDecimal value = values[i].evaluate(num1, num2, percentage);
+					result = min ? result.min(value) : result.max(value);
+				}
+				return result;
+			};
+		}
+		};
+	}
+}
@@ -0,0 +1,69 @@
+package cl.tenpo.calculation.formula;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+/**
+ * Endpoint de actuator para consultar y cambiar la fórmula de cálculo de esta réplica:
+ * <ul>
+ * <li>{@code GET /actuator/formula}: fórmula activa, su versión y el estado de la cache de planes.</li>
+ * <li>{@code POST /actuator/formula} con {@code {"expression": "..."}}: valida,
+ * compila y activa una nueva fórmula.</li>
+ * </ul>
+ * La fórmula de todas las réplicas se define con la configuración compartida
+ * {@code calculation.formula.expression}. La operación de escritura está
+ * deshabilitada por defecto ({@code management.endpoint.formula.access: read-only})
+ * y, si se habilita, solo es accesible en el puerto de administración; sirve para
+ * probar una fórmula en una réplica, sin persistirla ni propagarla a las demás.
+ */
+@Component
+@Endpoint(id = "formula")
+public class FormulaEndpoint {
+
+	private final FormulaEngine formulaEngine;
+
+	public FormulaEndpoint(FormulaEngine formulaEngine) {
+		this.formulaEngine = formulaEngine;
+	}
+
+	/**
+	 * Obtiene la fórmula activa.
+	 *
+	 * @return La fórmula activa y el estado de la cache de planes
+	 */
+	@ReadOperation
+	public Map<String, Object> formula() {
+		return this.describe(this.formulaEngine.active());
+	}
+
+	/**
+	 * Activa una nueva fórmula.
+	 *
+	 * @param expression Texto de la fórmula
+	 * @return La fórmula activada y el estado de la cache de planes
+	 */
+	@WriteOperation
+	public Map<String, Object> activate(String expression) {
+		return this.describe(this.formulaEngine.activate(expression));
+	}
+
+	private Map<String, Object> describe(ActiveFormula formula) {
+		CacheStats stats = this.formulaEngine.planCacheStats();
+		Map<String, Object> description = new LinkedHashMap<>();
+		description.put("version", formula.version());
+		description.put("expression", formula.plan().expression());
+		description.put("activatedAt", formula.activatedAt());
+		description.put("planCache", Map.of(
+				"size", this.formulaEngine.planCacheSize(),
+				"hits", stats.hitCount(),
+				"misses", stats.missCount()));
+		return description;
+	}
+}
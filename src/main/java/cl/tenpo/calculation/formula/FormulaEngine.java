@@ -0,0 +1,101 @@
+package cl.tenpo.calculation.formula;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import cl.tenpo.calculation.config.FormulaProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Motor de las fórmulas del endpoint de cálculo.
+ * <p>
+ * Las fórmulas se compilan una única vez ({@link FormulaCompiler}) y se
+ * conservan en una cache de planes acotada ({@code calculation.formula.plan-cache-size}),
+ * por lo que volver a activar una fórmula ya usada no la recompila. La fórmula
+ * activa se reemplaza de forma atómica: cada cálculo usa una única versión,
+ * aunque la fórmula se cambie durante el cálculo. La versión se deriva de la
+ * expresión ({@link ActiveFormula#version()}), por lo que las réplicas
+ * configuradas con la misma {@code calculation.formula.expression} informan la
+ * misma versión.
+ */
+@Component
+@Slf4j
+public class FormulaEngine {
+
+	private final Cache<String, FormulaPlan> plans;
+
+	private volatile ActiveFormula active;
+
+	public FormulaEngine(FormulaProperties properties) {
+		this.plans = Caffeine.newBuilder()
+				.maximumSize(properties.planCacheSize())
+				.recordStats()
+				.build();
+		this.activate(properties.expression());
+	}
+
+	/**
+	 * Evalúa la fórmula activa.
+	 *
+	 * @param num1 Primer número de entrada de la operación
+	 * @param num2 Segundo número de entrada de la operación
+	 * @param percentage Porcentaje a aplicar
+	 * @return El resultado de la fórmula
+	 */
+	public BigDecimal evaluate(int num1, int num2, BigDecimal percentage) {
+		return this.active.plan().evaluate(BigDecimal.valueOf(num1), BigDecimal.valueOf(num2), percentage);
+	}
+
+	/**
+	 * Obtiene la fórmula compilada desde la cache de planes, compilándola si no está.
+	 *
+	 * @param expression Texto de la fórmula
+	 * @return La fórmula compilada
+	 * @throws IllegalArgumentException si la fórmula no es válida
+	 */
+	public FormulaPlan plan(String expression) {
+		return this.plans.get(expression.strip(), FormulaPlan::compile);
+	}
+
+	/**
+	 * Reemplaza la fórmula activa.
+	 *
+	 * @param expression Texto de la nueva fórmula
+	 * @return La fórmula activada
+	 * @throws IllegalArgumentException si la fórmula no es válida; en ese caso se
+	 * 	mantiene la fórmula activa
+	 */
+	public synchronized ActiveFormula activate(String expression) {
+		FormulaPlan plan = this.plan(expression);
+		this.active = ActiveFormula.of(plan, Instant.now());
+		log.info("Fórmula de cálculo versión {} activada: {}", this.active.version(), plan.expression());
+		return this.active;
+	}
+
+	/**
+	 * @return La fórmula activa
+	 */
+	public ActiveFormula active() {
+		return this.active;
+	}
+
+	/**
+	 * @return Las estadísticas de la cache de planes
+	 */
+	public CacheStats planCacheStats() {
+		return this.plans.stats();
+	}
+
+	/**
+	 * @return La cantidad de fórmulas compiladas en la cache de planes
+	 */
+	public long planCacheSize() {
+		return this.plans.estimatedSize();
+	}
+}
@@ -0,0 +1,129 @@
+package cl.tenpo.calculation.formula;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.List;
+
+/**
+ * Árbol sintáctico de una fórmula de cálculo, tal como lo genera
+ * {@link FormulaParser}. Los valores booleanos (comparaciones y condición de
+ * {@code if}) se representan como 1 y 0.
+ */
+sealed interface FormulaNode {
+
+	/**
+	 * Precisión de las divisiones: si el cociente es exacto se conserva la misma
+	 * escala que con {@link BigDecimal#divide(BigDecimal)}.
+	 */
+	MathContext DIVISION_CONTEXT = MathContext.DECIMAL128;
+
+	/**
+	 * Número literal.
+	 */
+	record Constant(BigDecimal value) implements FormulaNode {
+	}
+
+	/**
+	 * Variable de entrada del cálculo.
+	 */
+	record Variable(FormulaVariable variable) implements FormulaNode {
+	}
+
+	/**
+	 * Cambio de signo.
+	 */
+	record Negate(FormulaNode operand) implements FormulaNode {
+	}
+
+	/**
+	 * Operación binaria.
+	 */
+	record Binary(Operator operator, FormulaNode left, FormulaNode right) implements FormulaNode {
+	}
+
+	/**
+	 * Llamada a una función.
+	 */
+	record Call(Function function, List<FormulaNode> arguments) implements FormulaNode {
+	}
+
+	/**
+	 * Operadores binarios, de menor a mayor precedencia dentro de cada grupo.
+	 */
+	enum Operator {
+
+		LESS("<"), LESS_OR_EQUAL("<="), GREATER(">"), GREATER_OR_EQUAL(">="), EQUAL("=="), NOT_EQUAL("!="),
+		ADD("+"), SUBTRACT("-"), MULTIPLY("*"), DIVIDE("/");
+
+		private final String symbol;
+
+		Operator(String symbol) {
+			this.symbol = symbol;
+		}
+
+		String symbol() {
+			return this.symbol;
+		}
+
+		BigDecimal apply(BigDecimal left, BigDecimal right) {
+			return switch (this) {
+			case LESS -> bool(left.compareTo(right) < 0);
+			case LESS_OR_EQUAL -> bool(left.compareTo(right) <= 0);
+			case GREATER -> bool(left.compareTo(right) > 0);
+			case GREATER_OR_EQUAL -> bool(left.compareTo(right) >= 0);
+			case EQUAL -> bool(left.compareTo(right) == 0);
+			case NOT_EQUAL -> bool(left.compareTo(right) != 0);
+			case ADD -> left.add(right);
+			case SUBTRACT -> left.subtract(right);
+			case MULTIPLY -> left.multiply(right);
+			case DIVIDE -> left.divide(right, DIVISION_CONTEXT);
+			};
+		}
+
+		private static BigDecimal bool(boolean value) {
+			return value ? BigDecimal.ONE : BigDecimal.ZERO;
+		}
+	}
+
+	/**
+	 * Funciones disponibles en las fórmulas.
+	 */
+	enum Function {
+
+		/** {@code min(a, b, ...)}: el menor de los argumentos. */
+		MIN(2, Integer.MAX_VALUE),
+		/** {@code max(a, b, ...)}: el mayor de los argumentos. */
+		MAX(2, Integer.MAX_VALUE),
+		/** {@code round(x, n)}: redondea {@code x} a {@code n} decimales (HALF_UP); {@code n} debe ser un número literal. */
+		ROUND(2, 2),
+		/** {@code if(c, a, b)}: {@code a} si {@code c} es distinto de 0, {@code b} si no. */
+		IF(3, 3);
+
+		private final int minArguments;
+
+		private final int maxArguments;
+
+		Function(int minArguments, int maxArguments) {
+			this.minArguments = minArguments;
+			this.maxArguments = maxArguments;
+		}
+
+		boolean accepts(int arguments) {
+			return arguments >= this.minArguments && arguments <= this.maxArguments;
+		}
+
+		/**
+		 * Aplica la función sobre argumentos ya evaluados; {@code if} se evalúa
+		 * sin calcular la rama no elegida en {@link FormulaCompiler}.
+		 */
+		BigDecimal apply(List<BigDecimal> arguments) {
+			return switch (this) {
+			case MIN -> arguments.stream().reduce(BigDecimal::min).orElseThrow();
+			case MAX -> arguments.stream().reduce(BigDecimal::max).orElseThrow();
+			case ROUND -> arguments.get(0).setScale(arguments.get(1).intValueExact(), RoundingMode.HALF_UP);
+			case IF -> arguments.get(0).signum() != 0 ? arguments.get(1) : arguments.get(2);
+			};
+		}
+	}
+}
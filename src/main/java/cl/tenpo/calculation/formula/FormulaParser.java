@@ -0,0 +1,202 @@
+package cl.tenpo.calculation.formula;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import cl.tenpo.calculation.formula.FormulaNode.Binary;
+import cl.tenpo.calculation.formula.FormulaNode.Call;
+import cl.tenpo.calculation.formula.FormulaNode.Constant;
+import cl.tenpo.calculation.formula.FormulaNode.Function;
+import cl.tenpo.calculation.formula.FormulaNode.Negate;
+import cl.tenpo.calculation.formula.FormulaNode.Operator;
+import cl.tenpo.calculation.formula.FormulaNode.Variable;
+
+/**
+ * Parser descendente recursivo de las fórmulas de cálculo, con la gramática:
+ *
+ * <pre>
+ * expression := additive (('&lt;' | '&lt;=' | '&gt;' | '&gt;=' | '==' | '!=') additive)?
+ * additive   := term (('+' | '-') term)*
+ * term       := unary (('*' | '/') unary)*
+ * unary      := '-' unary | primary
+ * primary    := number | variable | function '(' expression (',' expression)* ')' | '(' expression ')'
+ * </pre>
+ *
+ * Los errores de sintaxis se informan con {@link IllegalArgumentException},
+ * indicando la posición del error.
+ */
+final class FormulaParser {
+
+	private final String source;
+
+	private int position;
+
+	private FormulaParser(String source) {
+		this.source = source;
+	}
+
+	/**
+	 * @param source Texto de la fórmula
+	 * @return El árbol sintáctico de la fórmula
+	 * @throws IllegalArgumentException si la fórmula no es válida
+	 */
+	static FormulaNode parse(String source) {
+		FormulaParser parser = new FormulaParser(source);
+		FormulaNode node = parser.expression();
+		parser.skipWhitespace();
+		if (parser.position < source.length()) {
+			throw parser.error("se esperaba un operador");
+		}
+		return node;
+	}
+
+	private FormulaNode expression() {
+		FormulaNode left = this.additive();
+		Operator comparison = this.comparisonOperator();
+		return comparison != null ? new Binary(comparison, left, this.additive()) : left;
+	}
+
+	private FormulaNode additive() {
+		FormulaNode node = this.term();
+		while (true) {
+			if (this.accept('+')) {
+				node = new Binary(Operator.ADD, node, this.term());
+			} else if (this.accept('-')) {
+				node = new Binary(Operator.SUBTRACT, node, this.term());
+			} else {
+				return node;
+			}
+		}
+	}
+
+	private FormulaNode term() {
+		FormulaNode node = this.unary();
+		while (true) {
+			if (this.accept('*')) {
+				node = new Binary(Operator.MULTIPLY, node, this.unary());
+			} else if (this.accept('/')) {
+				node = new Binary(Operator.DIVIDE, node, this.unary());
+			} else {
+				return node;
+			}
+		}
+	}
+
+	private FormulaNode unary() {
+		return this.accept('-') ? new Negate(this.unary()) : this.primary();
+	}
+
+	private FormulaNode primary() {
+		this.skipWhitespace();
+		if (this.accept('(')) {
+			FormulaNode node = this.expression();
+			this.expect(')');
+			return node;
+		}
+		int start = this.position;
+		if (start < this.source.length()
+				&& (Character.isDigit(this.source.charAt(start)) || this.source.charAt(start) == '.')) {
+			return new Constant(this.number());
+		}
+		String identifier = this.identifier();
+		if (identifier.isEmpty()) {
+			throw this.error(this.position < this.source.length() ? "se esperaba un número, una variable o '('"
+					: "fin inesperado de la fórmula");
+		}
+		this.skipWhitespace();
+		if (this.position < this.source.length() && this.source.charAt(this.position) == '(') {
+			return this.call(identifier, start);
+		}
+		return FormulaVariable.of(identifier)
+				.<FormulaNode>map(Variable::new)
+				.orElseThrow(() -> this.error(start, "variable desconocida '" + identifier + "'"));
+	}
+
+	private FormulaNode call(String name, int start) {
+		Function function;
+		try {
+			function = Function.valueOf(name.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw this.error(start, "función desconocida '" + name + "'");
+		}
+		this.expect('(');
+		List<FormulaNode> arguments = new ArrayList<>();
+		do {
+			arguments.add(this.expression());
+		} while (this.accept(','));
+		this.expect(')');
+		if (!function.accepts(arguments.size())) {
+			throw this.error(start, "cantidad de argumentos inválida para '" + name + "'");
+		}
+		if (function == Function.ROUND && !(arguments.get(1) instanceof Constant scale
+				&& scale.value().stripTrailingZeros().scale() <= 0)) {
+			throw this.error(start, "la cantidad de decimales de 'round' debe ser un número entero literal");
+		}
+		return new Call(function, List.copyOf(arguments));
+	}
+
+	private Operator comparisonOperator() {
+		this.skipWhitespace();
+		for (Operator operator : List.of(Operator.LESS_OR_EQUAL, Operator.GREATER_OR_EQUAL, Operator.EQUAL,
+				Operator.NOT_EQUAL, Operator.LESS, Operator.GREATER)) {
+			if (this.source.startsWith(operator.symbol(), this.position)) {
+				this.position += operator.symbol().length();
+				return operator;
+			}
+		}
+		return null;
+	}
+
+	private BigDecimal number() {
+		int start = this.position;
+		while (this.position < this.source.length()
+				&& (Character.isDigit(this.source.charAt(this.position)) || this.source.charAt(this.position) == '.')) {
+			this.position++;
+		}
+		try {
+			return new BigDecimal(this.source.substring(start, this.position));
+		} catch (NumberFormatException e) {
+			throw this.error(start, "número inválido '" + this.source.substring(start, this.position) + "'");
+		}
+	}
+
+	private String identifier() {
+		int start = this.position;
+		while (this.position < this.source.length() && (Character.isLetterOrDigit(this.source.charAt(this.position))
+				|| this.source.charAt(this.position) == '_')) {
+			this.position++;
+		}
+		return this.source.substring(start, this.position);
+	}
+
+	private boolean accept(char expected) {
+		this.skipWhitespace();
+		if (this.position < this.source.length() && this.source.charAt(this.position) == expected) {
+			this.position++;
+			return true;
+		}
+		return false;
+	}
+
+	private void expect(char expected) {
+		if (!this.accept(expected)) {
+			throw this.error("se esperaba '" + expected + "'");
+		}
+	}
+
+	private void skipWhitespace() {
+		while (this.position < this.source.length() && Character.isWhitespace(this.source.charAt(this.position))) {
+			this.position++;
+		}
+	}
+
+	private IllegalArgumentException error(String message) {
+		return this.error(this.position, message);
+	}
+
+	private IllegalArgumentException error(int at, String message) {
+		return new IllegalArgumentException("Fórmula inválida en la posición " + (at + 1) + ": " + message);
+	}
+}
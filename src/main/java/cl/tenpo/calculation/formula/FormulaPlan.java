@@ -0,0 +1,48 @@
+package cl.tenpo.calculation.formula;
+
+import java.math.BigDecimal;
+
+import cl.tenpo.calculation.formula.FormulaCompiler.Evaluator;
+
+/**
+ * Fórmula de cálculo compilada, lista para evaluarse.
+ */
+public final class FormulaPlan {
+
+	private final String expression;
+
+	private final Evaluator evaluator;
+
+	private FormulaPlan(String expression, Evaluator evaluator) {
+		this.expression = expression;
+		this.evaluator = evaluator;
+	}
+
+	/**
+	 * @param expression Texto de la fórmula
+	 * @return La fórmula compilada
+	 * @throws IllegalArgumentException si la fórmula no es válida
+	 */
+	static FormulaPlan compile(String expression) {
+		return new FormulaPlan(expression, FormulaCompiler.compile(expression));
+	}
+
+	/**
+	 * @return El texto de la fórmula
+	 */
+	public String expression() {
+		return this.expression;
+	}
+
+	/**
+	 * Evalúa la fórmula con las entradas indicadas.
+	 *
+	 * @param num1 Primer número de entrada de la operación
+	 * @param num2 Segundo número de entrada de la operación
+	 * @param percentage Porcentaje a aplicar
+	 * @return El resultado de la fórmula
+	 */
+	public BigDecimal evaluate(BigDecimal num1, BigDecimal num2, BigDecimal percentage) {
+		return this.evaluator.evaluate(num1, num2, percentage);
+	}
+}
@@ -0,0 +1,38 @@
+package cl.tenpo.calculation.formula;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Variables de entrada disponibles en las fórmulas de cálculo.
+ */
+enum FormulaVariable {
+
+	/** Primer número de entrada de la operación. */
+	NUM1("num1"),
+	/** Segundo número de entrada de la operación. */
+	NUM2("num2"),
+	/** Porcentaje obtenido del servicio externo. */
+	PERCENTAGE("percentage");
+
+	private final String identifier;
+
+	FormulaVariable(String identifier) {
+		this.identifier = identifier;
+	}
+
+	/**
+	 * @return El nombre de la variable en las fórmulas
+	 */
+	String identifier() {
+		return this.identifier;
+	}
+
+	/**
+	 * @param identifier Nombre de la variable en la fórmula
+	 * @return La variable con ese nombre, si existe
+	 */
+	static Optional<FormulaVariable> of(String identifier) {
+		return Arrays.stream(values()).filter(variable -> variable.identifier.equals(identifier)).findFirst();
+	}
+}
@@ -0,0 +1,286 @@
+package cl.tenpo.calculation.grpc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import cl.tenpo.calculation.grpc.v1.CalculationError;
+import cl.tenpo.calculation.grpc.v1.CalculationRequest;
+import cl.tenpo.calculation.grpc.v1.CalculationResponse;
+import cl.tenpo.calculation.grpc.v1.CalculatorGrpc;
+import cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimiter;
+import cl.tenpo.calculation.limiter.LoadSheddingException;
+import cl.tenpo.calculation.limiter.PriorityAdmissionController;
+import cl.tenpo.calculation.limiter.RequestPriority;
+import cl.tenpo.calculation.service.AuditService;
+import cl.tenpo.calculation.service.CalculationService;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio gRPC de cálculo, equivalente a {@code GET /calculation}: valida los
+ * parámetros con las mismas reglas, pasa por la capa de admisión y el límite
+ * adaptativo de concurrencia, calcula con {@link CalculationService} y audita
+ * cada cálculo con el endpoint {@code GRPC /<método>}. Igual que en REST, los
+ * requests rechazados por admisión o por el límite de concurrencia no se auditan.
+ * <p>
+ * En {@code CalculateStream} cada request del stream se calcula en paralelo en
+ * el executor de streams, con a lo sumo {@code grpc.max-inflight-per-stream}
+ * cálculos en curso: los siguientes requests se piden al cliente a medida que
+ * se completan los anteriores y solo mientras el cliente lee las respuestas
+ * ({@code isReady()}); si deja de leer, los pedidos se postergan hasta que el
+ * stream vuelve a estar listo. Así, ni un cliente lento en leer ni un stream
+ * muy grande acumulan requests o respuestas en memoria. Si la cola del
+ * executor está llena, el request se responde con 503.
+ */
+@Slf4j
+public class CalculationGrpcService extends CalculatorGrpc.CalculatorImplBase {
+
+	static final String UNARY_ENDPOINT = "GRPC /" + CalculatorGrpc.getCalculateMethod().getFullMethodName();
+
+	static final String STREAM_ENDPOINT = "GRPC /" + CalculatorGrpc.getCalculateStreamMethod().getFullMethodName();
+
+	private static final Pattern TENANT_PATTERN = Pattern.compile("[A-Za-z0-9._:-]{1,64}");
+
+	private final CalculationService calculationService;
+
+	private final AuditService auditService;
+
+	private final AdaptiveConcurrencyLimiter limiter;
+
+	private final PriorityAdmissionController admissionController;
+
+	private final Executor executor;
+
+	private final int maxInflightPerStream;
+
+	/**
+	 * @param admissionController Capa de admisión, o {@code null} si está deshabilitada
+	 */
+	public CalculationGrpcService(CalculationService calculationService, AuditService auditService,
+			AdaptiveConcurrencyLimiter limiter, PriorityAdmissionController admissionController, Executor executor,
+			int maxInflightPerStream) {
+		this.calculationService = calculationService;
+		this.auditService = auditService;
+		this.limiter = limiter;
+		this.admissionController = admissionController;
+		this.executor = executor;
+		this.maxInflightPerStream = maxInflightPerStream;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void calculate(CalculationRequest request, StreamObserver<CalculationResponse> responseObserver) {
+		CalculationResponse response = this.process(request, UNARY_ENDPOINT);
+		if (response.hasError()) {
+			responseObserver.onError(status(response.getError()).asRuntimeException());
+			return;
+		}
+		responseObserver.onNext(response);
+		responseObserver.onCompleted();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public StreamObserver<CalculationRequest> calculateStream(StreamObserver<CalculationResponse> responseObserver) {
+		ServerCallStreamObserver<CalculationResponse> responses = (ServerCallStreamObserver<CalculationResponse>) responseObserver;
+		responses.disableAutoRequest();
+		CalculationStream stream = new CalculationStream(responses);
+		responses.setOnReadyHandler(stream::onReady);
+		responses.request(this.maxInflightPerStream);
+		return stream;
+	}
+
+	/**
+	 * Calcula un request y arma la respuesta, con el resultado o el error.
+	 */
+	CalculationResponse process(CalculationRequest request, String endpoint) {
+		LocalDateTime requestTime = LocalDateTime.now();
+		List<Object> params = request.getTenant().isEmpty()
+				? List.of(request.getNum1(), request.getNum2())
+				: List.of(request.getNum1(), request.getNum2(), request.getTenant());
+		String invalid = validate(request);
+		if (invalid != null) {
+			this.auditService.auditRequest(requestTime, endpoint, params, invalid, false);
+			return error(request, HttpStatus.BAD_REQUEST, invalid);
+		}
+		if (this.admissionController != null) {
+			try {
+				this.admissionController.admit(RequestPriority.CRITICAL);
+			} catch (LoadSheddingException e) {
+				return error(request, HttpStatus.SERVICE_UNAVAILABLE, "Servicio sobrecargado, reintente más tarde");
+			}
+		}
+		try {
+			return this.limitAndCalculate(request, requestTime, endpoint, params);
+		} finally {
+			if (this.admissionController != null) {
+				this.admissionController.release(RequestPriority.CRITICAL);
+			}
+		}
+	}
+
+	private CalculationResponse limitAndCalculate(CalculationRequest request, LocalDateTime requestTime,
+			String endpoint, List<Object> params) {
+		if (!this.limiter.tryAcquire()) {
+			return error(request, HttpStatus.TOO_MANY_REQUESTS, "Límite de concurrencia excedido");
+		}
+		long start = System.nanoTime();
+		try {
+			BigDecimal result = request.getTenant().isEmpty()
+					? this.calculationService.calculate(request.getNum1(), request.getNum2())
+					: this.calculationService.calculateForTenant(request.getNum1(), request.getNum2(), request.getTenant());
+			this.limiter.onSuccess(System.nanoTime() - start);
+			this.auditService.auditRequest(requestTime, endpoint, params, result, true,
+					this.calculationService.activeFormula().version());
+			return CalculationResponse.newBuilder().setId(request.getId()).setResult(result.toString()).build();
+		} catch (ResponseStatusException e) {
+			if (e.getStatusCode().is4xxClientError()) {
+				this.limiter.onIgnore();
+			} else {
+				this.limiter.onDropped();
+			}
+			this.auditService.auditRequest(requestTime, endpoint, params, e.getMessage(), false);
+			return error(request, HttpStatus.valueOf(e.getStatusCode().value()), e.getReason());
+		} catch (RuntimeException e) {
+			this.limiter.onDropped();
+			this.auditService.auditRequest(requestTime, endpoint, params, e.getMessage(), false);
+			log.error("Error calculando por gRPC", e);
+			return error(request, HttpStatus.INTERNAL_SERVER_ERROR, "Error interno del servidor");
+		}
+	}
+
+	private static String validate(CalculationRequest request) {
+		if (request.getNum1() < 0) {
+			return "num1 debe ser >= 0";
+		}
+		if (request.getNum2() < 0) {
+			return "num2 debe ser >= 0";
+		}
+		if (!request.getTenant().isEmpty() && !TENANT_PATTERN.matcher(request.getTenant()).matches()) {
+			return "tenant debe tener entre 1 y 64 caracteres alfanuméricos, '.', '_', ':' o '-'";
+		}
+		return null;
+	}
+
+	private static CalculationResponse error(CalculationRequest request, HttpStatus status, String message) {
+		return CalculationResponse.newBuilder()
+				.setId(request.getId())
+				.setError(CalculationError.newBuilder().setStatus(status.value()).setMessage(message))
+				.build();
+	}
+
+	private static Status status(CalculationError error) {
+		Status status = switch (error.getStatus()) {
+		case 400 -> Status.INVALID_ARGUMENT;
+		case 429 -> Status.RESOURCE_EXHAUSTED;
+		case 503 -> Status.UNAVAILABLE;
+		default -> Status.INTERNAL;
+		};
+		return status.withDescription(error.getMessage());
+	}
+
+	/**
+	 * Requests de un {@code CalculateStream}: cada uno se calcula en el executor
+	 * del servicio y, al completarse, se pide el siguiente request al cliente si
+	 * el stream está listo para enviar; si no, el pedido queda postergado hasta
+	 * el siguiente {@code onReady}. El stream se cierra cuando el cliente
+	 * terminó de enviar y se respondieron todos los requests.
+	 */
+	private final class CalculationStream implements StreamObserver<CalculationRequest> {
+
+		private final ServerCallStreamObserver<CalculationResponse> responses;
+
+		private final AtomicInteger pending = new AtomicInteger();
+
+		private final AtomicBoolean completed = new AtomicBoolean();
+
+		private volatile boolean halfClosed;
+
+		/**
+		 * Requests por pedir al cliente cuando el stream vuelva a estar listo;
+		 * protegido por el lock de {@code responses}.
+		 */
+		private int deferredRequests;
+
+		private CalculationStream(ServerCallStreamObserver<CalculationResponse> responses) {
+			this.responses = responses;
+		}
+
+		@Override
+		public void onNext(CalculationRequest request) {
+			this.pending.incrementAndGet();
+			try {
+				CalculationGrpcService.this.executor.execute(() -> this.respond(
+						CalculationGrpcService.this.process(request, STREAM_ENDPOINT)));
+			} catch (RejectedExecutionException e) {
+				this.respond(error(request, HttpStatus.SERVICE_UNAVAILABLE, "Servicio sobrecargado, reintente más tarde"));
+			}
+		}
+
+		@Override
+		public void onError(Throwable t) {
+			log.debug("Stream de cálculo cancelado por el cliente", t);
+		}
+
+		@Override
+		public void onCompleted() {
+			this.halfClosed = true;
+			if (this.pending.get() == 0) {
+				this.complete();
+			}
+		}
+
+		private void respond(CalculationResponse response) {
+			synchronized (this.responses) {
+				if (!this.responses.isCancelled()) {
+					this.responses.onNext(response);
+					if (this.responses.isReady()) {
+						this.responses.request(1);
+					} else {
+						this.deferredRequests++;
+					}
+				}
+			}
+			if (this.pending.decrementAndGet() == 0 && this.halfClosed) {
+				this.complete();
+			}
+		}
+
+		/**
+		 * Pide al cliente los requests postergados mientras el stream no estaba listo.
+		 */
+		private void onReady() {
+			synchronized (this.responses) {
+				if (this.deferredRequests > 0 && this.responses.isReady() && !this.responses.isCancelled()) {
+					this.responses.request(this.deferredRequests);
+					this.deferredRequests = 0;
+				}
+			}
+		}
+
+		private void complete() {
+			if (this.completed.compareAndSet(false, true)) {
+				synchronized (this.responses) {
+					if (!this.responses.isCancelled()) {
+						this.responses.onCompleted();
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,113 @@
+package cl.tenpo.calculation.grpc;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.SmartLifecycle;
+
+import cl.tenpo.calculation.config.GrpcProperties;
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Ciclo de vida del servidor gRPC: el puerto se abre recién cuando la aplicación
+ * publica el estado de readiness {@code ACCEPTING_TRAFFIC}, es decir, después
+ * del calentamiento, igual que el tráfico REST que deriva el probe de readiness.
+ * Al detenerse el contexto, deja de aceptar llamadas y espera las llamadas en
+ * curso hasta {@code grpc.shutdown-grace-period}.
+ */
+@Slf4j
+public class GrpcServerLifecycle implements SmartLifecycle, ApplicationListener<AvailabilityChangeEvent<ReadinessState>> {
+
+	private final GrpcProperties properties;
+
+	private final List<BindableService> services;
+
+	private final Executor executor;
+
+	private volatile boolean running;
+
+	private volatile Server server;
+
+	public GrpcServerLifecycle(GrpcProperties properties, List<BindableService> services, Executor executor) {
+		this.properties = properties;
+		this.services = services;
+		this.executor = executor;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void start() {
+		this.running = true;
+	}
+
+	/**
+	 * Inicia el servidor gRPC cuando la aplicación comienza a aceptar tráfico.
+	 *
+	 * @param event Cambio del estado de readiness
+	 */
+	@Override
+	public synchronized void onApplicationEvent(AvailabilityChangeEvent<ReadinessState> event) {
+		if (event.getState() != ReadinessState.ACCEPTING_TRAFFIC || !this.running || this.server != null) {
+			return;
+		}
+		NettyServerBuilder builder = NettyServerBuilder.forPort(this.properties.port())
+				.executor(this.executor)
+				.maxConcurrentCallsPerConnection(this.properties.maxConcurrentCallsPerConnection());
+		this.services.forEach(builder::addService);
+		try {
+			this.server = builder.build().start();
+		} catch (IOException e) {
+			throw new UncheckedIOException("No se pudo iniciar el servidor gRPC en el puerto " + this.properties.port(), e);
+		}
+		log.info("Servidor gRPC escuchando en el puerto {}", this.server.getPort());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized void stop() {
+		this.running = false;
+		Server current = this.server;
+		if (current == null) {
+			return;
+		}
+		current.shutdown();
+		try {
+			if (!current.awaitTermination(this.properties.shutdownGracePeriod().toMillis(), TimeUnit.MILLISECONDS)) {
+				current.shutdownNow();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			current.shutdownNow();
+		}
+		this.server = null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isRunning() {
+		return this.running;
+	}
+
+	/**
+	 * @return El puerto en el que escucha el servidor, o -1 si no está iniciado
+	 */
+	public int getPort() {
+		Server current = this.server;
+		return current != null ? current.getPort() : -1;
+	}
+}
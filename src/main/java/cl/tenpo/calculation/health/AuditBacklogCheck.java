@@ -0,0 +1,51 @@
+package cl.tenpo.calculation.health;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import cl.tenpo.calculation.runtime.AsyncTaskActivity;
+
+/**
+ * Verificación de las auditorías pendientes: falla mientras la cola del
+ * executor de {@code @Async} supera el máximo indicado. Solo lee contadores en
+ * memoria, por lo que puede ejecutarse tanto en segundo plano como en el thread
+ * del probe.
+ */
+public class AuditBacklogCheck implements HealthCheck {
+
+	private final ObjectProvider<ThreadPoolTaskExecutor> asyncExecutor;
+
+	private final AsyncTaskActivity asyncTaskActivity;
+
+	private final int maxBacklog;
+
+	/**
+	 * @param asyncExecutor Executor de {@code @Async}, si está disponible
+	 * @param asyncTaskActivity Contadores de las tareas del executor
+	 * @param maxBacklog Cantidad máxima de auditorías en cola
+	 */
+	public AuditBacklogCheck(ObjectProvider<ThreadPoolTaskExecutor> asyncExecutor,
+			AsyncTaskActivity asyncTaskActivity, int maxBacklog) {
+		this.asyncExecutor = asyncExecutor;
+		this.asyncTaskActivity = asyncTaskActivity;
+		this.maxBacklog = maxBacklog;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Map<String, Object> check() {
+		ThreadPoolTaskExecutor taskExecutor = this.asyncExecutor.getIfAvailable();
+		int queued = taskExecutor != null ? taskExecutor.getQueueSize() : 0;
+		if (queued > this.maxBacklog) {
+			throw new IllegalStateException("Auditorías pendientes: " + queued + " (máximo " + this.maxBacklog + ")");
+		}
+		return Map.of(
+				"queued", queued,
+				"active", this.asyncTaskActivity.active(),
+				"failed", this.asyncTaskActivity.failed());
+	}
+}
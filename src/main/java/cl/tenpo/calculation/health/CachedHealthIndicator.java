@@ -0,0 +1,146 @@
+package cl.tenpo.calculation.health;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Indicador de salud que responde con el resultado de la última verificación
+ * de una dependencia, sin consultarla en el thread del probe. Las
+ * verificaciones las ejecuta {@link HealthCheckScheduler} en segundo plano.
+ * <p>
+ * Una verificación fallida no cambia el estado de inmediato: el indicador
+ * sigue en UP, informando el error y la cantidad de fallas consecutivas, hasta
+ * alcanzar {@code health.checks.failure-threshold} fallas; una verificación
+ * exitosa lo devuelve a UP. Las verificaciones que superan
+ * {@code health.checks.timeout}, terminadas o aún en curso, se cuentan como
+ * fallidas. Mientras no se completa la primera verificación el estado es UNKNOWN.
+ */
+@Slf4j
+public class CachedHealthIndicator implements HealthIndicator {
+
+	private final String name;
+
+	private final HealthCheck check;
+
+	private final int failureThreshold;
+
+	private final long timeoutNanos;
+
+	private final AtomicBoolean running = new AtomicBoolean();
+
+	private volatile long runningSince;
+
+	private volatile Health health = Health.unknown().build();
+
+	private int consecutiveFailures;
+
+	private Instant lastSuccess;
+
+	/**
+	 * @param name Nombre de la dependencia, utilizado en los logs
+	 * @param check Verificación de la dependencia
+	 * @param failureThreshold Fallas consecutivas a partir de las cuales el indicador pasa a DOWN
+	 * @param timeout Tiempo máximo de cada verificación
+	 */
+	public CachedHealthIndicator(String name, HealthCheck check, int failureThreshold, Duration timeout) {
+		this.name = name;
+		this.check = check;
+		this.failureThreshold = failureThreshold;
+		this.timeoutNanos = timeout.toNanos();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Health health() {
+		return this.health;
+	}
+
+	/**
+	 * @return Nombre de la dependencia
+	 */
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * Ejecuta la verificación en el thread actual y registra su resultado. Si la
+	 * verificación anterior sigue en curso no se inicia otra.
+	 */
+	void run() {
+		if (!this.running.compareAndSet(false, true)) {
+			return;
+		}
+		long start = System.nanoTime();
+		this.runningSince = start;
+		try {
+			Map<String, Object> details = this.check.check();
+			long elapsed = System.nanoTime() - start;
+			if (elapsed > this.timeoutNanos) {
+				this.recordFailure("La verificación demoró " + elapsed / 1_000_000 + " ms");
+			} else {
+				this.recordSuccess(details, elapsed / 1_000_000);
+			}
+		} catch (Exception e) {
+			this.recordFailure(e.getMessage() != null ? e.getMessage() : e.getClass().getName());
+		} finally {
+			this.running.set(false);
+		}
+	}
+
+	/**
+	 * Indica si hay una verificación en curso y, si supera el tiempo máximo, la
+	 * registra como fallida.
+	 *
+	 * @return {@code true} si hay una verificación en curso
+	 */
+	boolean checkRunning() {
+		if (!this.running.get()) {
+			return false;
+		}
+		long elapsed = System.nanoTime() - this.runningSince;
+		if (elapsed > this.timeoutNanos) {
+			this.recordFailure("La verificación sigue en curso después de " + elapsed / 1_000_000 + " ms");
+		}
+		return true;
+	}
+
+	synchronized void recordSuccess(Map<String, Object> details, long durationMillis) {
+		if (this.consecutiveFailures >= this.failureThreshold) {
+			log.info("{} disponible nuevamente después de {} verificaciones fallidas", this.name, this.consecutiveFailures);
+		}
+		this.consecutiveFailures = 0;
+		this.lastSuccess = Instant.now();
+		this.health = Health.up()
+				.withDetails(details)
+				.withDetail("checkedAt", this.lastSuccess.toString())
+				.withDetail("durationMillis", durationMillis)
+				.build();
+	}
+
+	synchronized void recordFailure(String error) {
+		this.consecutiveFailures++;
+		Map<String, Object> details = new LinkedHashMap<>();
+		details.put("error", error);
+		details.put("consecutiveFailures", this.consecutiveFailures);
+		details.put("checkedAt", Instant.now().toString());
+		if (this.lastSuccess != null) {
+			details.put("lastSuccess", this.lastSuccess.toString());
+		}
+		Status status = this.consecutiveFailures >= this.failureThreshold ? Status.DOWN : Status.UP;
+		if (this.consecutiveFailures == this.failureThreshold) {
+			log.warn("{} no disponible después de {} verificaciones fallidas: {}", this.name, this.consecutiveFailures, error);
+		}
+		this.health = Health.status(status).withDetails(details).build();
+	}
+}
@@ -0,0 +1,19 @@
+package cl.tenpo.calculation.health;
+
+import java.util.Map;
+
+/**
+ * Verificación de salud de una dependencia, ejecutada en segundo plano por
+ * {@link HealthCheckScheduler}.
+ */
+@FunctionalInterface
+public interface HealthCheck {
+
+	/**
+	 * Verifica la dependencia.
+	 *
+	 * @return Detalles del estado de la dependencia
+	 * @throws Exception Si la dependencia no está disponible
+	 */
+	Map<String, Object> check() throws Exception;
+}
@@ -0,0 +1,86 @@
+package cl.tenpo.calculation.health;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import cl.tenpo.calculation.config.HealthCheckProperties;
+
+/**
+ * Ejecuta periódicamente las verificaciones de los {@link CachedHealthIndicator},
+ * cada {@code health.checks.interval}, desde que se inicia el contexto de Spring.
+ * <p>
+ * Cada verificación se ejecuta en un thread propio, para que una dependencia
+ * lenta no demore las demás ni el scheduler de {@code @Scheduled}. Una
+ * dependencia colgada ocupa a lo sumo un thread: mientras su verificación
+ * sigue en curso no se inicia otra, y cada intervalo que pasa se cuenta como
+ * una verificación fallida.
+ */
+public class HealthCheckScheduler implements SmartLifecycle {
+
+	private final List<CachedHealthIndicator> indicators;
+
+	private final HealthCheckProperties properties;
+
+	private volatile ScheduledExecutorService scheduler;
+
+	private volatile ExecutorService checkExecutor;
+
+	public HealthCheckScheduler(List<CachedHealthIndicator> indicators, HealthCheckProperties properties) {
+		this.indicators = indicators;
+		this.properties = properties;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void start() {
+		CustomizableThreadFactory checkThreadFactory = new CustomizableThreadFactory("health-check-");
+		checkThreadFactory.setDaemon(true);
+		this.checkExecutor = Executors.newCachedThreadPool(checkThreadFactory);
+		CustomizableThreadFactory schedulerThreadFactory = new CustomizableThreadFactory("health-scheduler-");
+		schedulerThreadFactory.setDaemon(true);
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(schedulerThreadFactory);
+		this.scheduler.scheduleWithFixedDelay(this::checkAll, 0, this.properties.interval().toMillis(),
+				TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Inicia la verificación de cada indicador que no tenga una en curso.
+	 */
+	void checkAll() {
+		for (CachedHealthIndicator indicator : this.indicators) {
+			if (!indicator.checkRunning()) {
+				this.checkExecutor.execute(indicator::run);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void stop() {
+		ScheduledExecutorService currentScheduler = this.scheduler;
+		if (currentScheduler == null) {
+			return;
+		}
+		currentScheduler.shutdownNow();
+		this.checkExecutor.shutdownNow();
+		this.scheduler = null;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean isRunning() {
+		return this.scheduler != null;
+	}
+}
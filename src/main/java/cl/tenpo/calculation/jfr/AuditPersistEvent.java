@@ -0,0 +1,24 @@
+package cl.tenpo.calculation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido por cada registro de auditoría persistido por
+ * {@link cl.tenpo.calculation.service.AuditService}.
+ */
+@Name("cl.tenpo.calculation.AuditPersist")
+@Label("Audit Persist")
+@Category({ "Calculation Service", "Audit" })
+@Description("Persistencia asíncrona de un registro de auditoría")
+public class AuditPersistEvent extends Event {
+
+	@Label("Endpoint")
+	public String endpoint;
+
+	@Label("Persisted")
+	public boolean persisted;
+}
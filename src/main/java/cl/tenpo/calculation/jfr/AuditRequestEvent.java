@@ -0,0 +1,24 @@
+package cl.tenpo.calculation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido por cada request interceptado por
+ * {@link cl.tenpo.calculation.aspect.AuditAspect}, cubriendo la ejecución completa del controller.
+ */
+@Name("cl.tenpo.calculation.AuditRequest")
+@Label("Audited Request")
+@Category({ "Calculation Service", "Audit" })
+@Description("Ejecución de un request a un controller interceptado por el aspecto de auditoría")
+public class AuditRequestEvent extends Event {
+
+	@Label("Endpoint")
+	public String endpoint;
+
+	@Label("Success")
+	public boolean success;
+}
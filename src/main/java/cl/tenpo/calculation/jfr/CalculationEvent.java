@@ -0,0 +1,27 @@
+package cl.tenpo.calculation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido por cada cálculo realizado por
+ * {@link cl.tenpo.calculation.service.CalculationService}.
+ */
+@Name("cl.tenpo.calculation.Calculation")
+@Label("Calculation")
+@Category({ "Calculation Service", "Calculation" })
+@Description("Cálculo de la suma de dos números más el porcentaje")
+public class CalculationEvent extends Event {
+
+	@Label("Num1")
+	public int num1;
+
+	@Label("Num2")
+	public int num2;
+
+	@Label("Result")
+	public String result;
+}
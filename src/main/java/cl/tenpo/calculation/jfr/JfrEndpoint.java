@@ -0,0 +1,179 @@
+package cl.tenpo.calculation.jfr;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+/**
+ * Endpoint de actuator para controlar una grabación de Java Flight Recorder:
+ * <ul>
+ * <li>{@code GET /actuator/jfr}: estado de la grabación.</li>
+ * <li>{@code POST /actuator/jfr/start}: inicia una grabación con la configuración
+ * indicada ({@code default} o {@code profile}).</li>
+ * <li>{@code POST /actuator/jfr/dump}: vuelca lo grabado hasta el momento a un archivo.</li>
+ * <li>{@code POST /actuator/jfr/stop}: detiene la grabación y la vuelca a un archivo.</li>
+ * </ul>
+ * Las operaciones inválidas para el estado de la grabación responden 400. Se
+ * conservan solo los últimos {@code jfr.max-dumps} archivos volcados. El
+ * endpoint se expone en el puerto de management ({@code management.server.port}),
+ * no en el puerto de la aplicación.
+ */
+@Component
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+
+	private static final String START = "start";
+
+	private static final String STOP = "stop";
+
+	private static final String DUMP = "dump";
+
+	private static final String DUMP_PREFIX = "calculation-service-";
+
+	private final Path dumpDirectory;
+
+	private final int maxDumps;
+
+	private Recording recording;
+
+	public JfrEndpoint(@Value("${jfr.dump-directory:${java.io.tmpdir}}") String dumpDirectory,
+			@Value("${jfr.max-dumps:5}") int maxDumps) {
+		this.dumpDirectory = Path.of(dumpDirectory);
+		this.maxDumps = maxDumps;
+	}
+
+	/**
+	 * Obtiene el estado de la grabación gestionada por este endpoint.
+	 *
+	 * @return El estado de la grabación
+	 */
+	@ReadOperation
+	public synchronized Map<String, Object> status() {
+		if (this.recording == null) {
+			return Map.of("state", RecordingState.CLOSED.name());
+		}
+		return this.describe(null);
+	}
+
+	/**
+	 * Ejecuta una operación sobre la grabación.
+	 *
+	 * @param operation Operación a ejecutar: {@code start}, {@code stop} o {@code dump}
+	 * @param settings Configuración JFR a usar al iniciar ({@code default} si no se indica)
+	 * @param maxAge Antigüedad máxima de los datos retenidos al iniciar (ISO-8601, por ejemplo PT10M)
+	 * @return El estado de la grabación y, para {@code stop} y {@code dump}, el archivo generado
+	 */
+	@WriteOperation
+	public synchronized Map<String, Object> execute(@Selector String operation, @Nullable String settings,
+			@Nullable String maxAge) {
+		switch (operation) {
+		case START:
+			return this.start(settings != null ? settings : "default", maxAge);
+		case DUMP:
+			return this.describe(this.dump());
+		case STOP:
+			Path file = this.dump();
+			this.recording.stop();
+			Map<String, Object> stopped = this.describe(file);
+			this.recording.close();
+			this.recording = null;
+			return stopped;
+		default:
+			throw new InvalidEndpointRequestException("Operación JFR desconocida: " + operation,
+					"Operación desconocida");
+		}
+	}
+
+	private Map<String, Object> start(String settings, @Nullable String maxAge) {
+		if (this.recording != null && this.recording.getState() == RecordingState.RUNNING) {
+			throw new InvalidEndpointRequestException("Ya existe una grabación JFR en curso", "Grabación en curso");
+		}
+		Duration maxAgeDuration = null;
+		if (maxAge != null) {
+			try {
+				maxAgeDuration = Duration.parse(maxAge);
+			} catch (DateTimeParseException e) {
+				throw new InvalidEndpointRequestException("maxAge inválido: " + maxAge, "maxAge inválido");
+			}
+		}
+		try {
+			Recording newRecording = new Recording(Configuration.getConfiguration(settings));
+			newRecording.setName("calculation-service");
+			newRecording.setToDisk(true);
+			if (maxAgeDuration != null) {
+				newRecording.setMaxAge(maxAgeDuration);
+			}
+			newRecording.start();
+			this.recording = newRecording;
+			return this.describe(null);
+		} catch (IOException | ParseException e) {
+			throw new InvalidEndpointRequestException("Configuración JFR inválida: " + settings, "Configuración inválida");
+		}
+	}
+
+	private Path dump() {
+		if (this.recording == null) {
+			throw new InvalidEndpointRequestException("No hay una grabación JFR en curso", "Sin grabación");
+		}
+		try {
+			Files.createDirectories(this.dumpDirectory);
+			Path file = this.dumpDirectory.resolve(DUMP_PREFIX + Instant.now().toEpochMilli() + ".jfr");
+			this.recording.dump(file);
+			this.purgeDumps();
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Elimina los archivos volcados más antiguos, conservando los últimos {@code jfr.max-dumps}.
+	 */
+	private void purgeDumps() throws IOException {
+		List<Path> dumps;
+		try (Stream<Path> files = Files.list(this.dumpDirectory)) {
+			dumps = files.filter(file -> file.getFileName().toString().startsWith(DUMP_PREFIX))
+					.sorted(Comparator.comparing(Path::getFileName).reversed())
+					.toList();
+		}
+		for (Path dump : dumps.subList(Math.min(this.maxDumps, dumps.size()), dumps.size())) {
+			Files.deleteIfExists(dump);
+		}
+	}
+
+	private Map<String, Object> describe(@Nullable Path file) {
+		Map<String, Object> description = new LinkedHashMap<>();
+		description.put("id", this.recording.getId());
+		description.put("name", this.recording.getName());
+		description.put("state", this.recording.getState().name());
+		description.put("startTime", this.recording.getStartTime());
+		description.put("size", this.recording.getSize());
+		if (file != null) {
+			description.put("file", file.toAbsolutePath().toString());
+		}
+		return description;
+	}
+}
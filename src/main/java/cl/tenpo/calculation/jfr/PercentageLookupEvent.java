@@ -0,0 +1,43 @@
+package cl.tenpo.calculation.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Evento JFR emitido por cada obtención del porcentaje, indicando su origen.
+ */
+@Name("cl.tenpo.calculation.PercentageLookup")
+@Label("Percentage Lookup")
+@Category({ "Calculation Service", "Percentage" })
+@Description("Obtención del porcentaje desde el servicio externo o desde la cache")
+public class PercentageLookupEvent extends Event {
+
+	/**
+	 * Porcentaje obtenido desde el servicio externo.
+	 */
+	public static final String SOURCE_PROVIDER = "PROVIDER";
+
+	/**
+	 * Porcentaje obtenido desde la cache por falla del servicio externo.
+	 */
+	public static final String SOURCE_CACHE = "CACHE";
+
+	/**
+	 * Porcentaje obtenido desde la copia local por falla del servicio externo y de la cache.
+	 */
+	public static final String SOURCE_SNAPSHOT = "SNAPSHOT";
+
+	/**
+	 * Porcentaje no disponible ni en el servicio externo ni en la cache.
+	 */
+	public static final String SOURCE_UNAVAILABLE = "UNAVAILABLE";
+
+	@Label("Source")
+	public String source;
+
+	@Label("Value")
+	public String value;
+}
@@ -0,0 +1,140 @@
+package cl.tenpo.calculation.job;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.LongAdder;
+
+import cl.tenpo.calculation.dto.CalculationJobDto;
+import cl.tenpo.calculation.formula.ActiveFormula;
+
+/**
+ * Estado de un job de cálculo masivo. Los contadores de filas se actualizan
+ * desde los threads que procesan los bloques, y el resto del estado solo desde
+ * el thread que coordina el job.
+ */
+class CalculationJob {
+
+	private final String id;
+
+	private final String fileName;
+
+	private final JobFileFormat format;
+
+	private final Path input;
+
+	private final Path result;
+
+	private final LocalDateTime createdAt = LocalDateTime.now();
+
+	private final LongAdder processedRows = new LongAdder();
+
+	private final LongAdder failedRows = new LongAdder();
+
+	private volatile CalculationJobStatus status = CalculationJobStatus.PENDING;
+
+	private volatile BigDecimal percentage;
+
+	private volatile ActiveFormula formula;
+
+	private volatile LocalDateTime startedAt;
+
+	private volatile LocalDateTime finishedAt;
+
+	private volatile String error;
+
+	CalculationJob(String id, String fileName, JobFileFormat format, Path input, Path result) {
+		this.id = id;
+		this.fileName = fileName;
+		this.format = format;
+		this.input = input;
+		this.result = result;
+	}
+
+	void start() {
+		this.startedAt = LocalDateTime.now();
+		this.status = CalculationJobStatus.RUNNING;
+	}
+
+	void complete() {
+		this.finishedAt = LocalDateTime.now();
+		this.status = CalculationJobStatus.COMPLETED;
+	}
+
+	void fail(String error) {
+		this.error = error;
+		this.finishedAt = LocalDateTime.now();
+		this.status = CalculationJobStatus.FAILED;
+	}
+
+	void addProcessed(long rows) {
+		this.processedRows.add(rows);
+	}
+
+	void addFailed() {
+		this.failedRows.increment();
+	}
+
+	void setPercentage(BigDecimal percentage) {
+		this.percentage = percentage;
+	}
+
+	void setFormula(ActiveFormula formula) {
+		this.formula = formula;
+	}
+
+	String id() {
+		return this.id;
+	}
+
+	String fileName() {
+		return this.fileName;
+	}
+
+	JobFileFormat format() {
+		return this.format;
+	}
+
+	Path input() {
+		return this.input;
+	}
+
+	Path result() {
+		return this.result;
+	}
+
+	CalculationJobStatus status() {
+		return this.status;
+	}
+
+	BigDecimal percentage() {
+		return this.percentage;
+	}
+
+	ActiveFormula formula() {
+		return this.formula;
+	}
+
+	LocalDateTime startedAt() {
+		return this.startedAt;
+	}
+
+	LocalDateTime finishedAt() {
+		return this.finishedAt;
+	}
+
+	long processedRows() {
+		return this.processedRows.sum();
+	}
+
+	long failedRows() {
+		return this.failedRows.sum();
+	}
+
+	CalculationJobDto toDto() {
+		ActiveFormula jobFormula = this.formula;
+		return new CalculationJobDto(this.id, this.status.name(), this.fileName, this.percentage,
+				jobFormula != null ? jobFormula.version() : null, this.processedRows.sum(), this.failedRows.sum(), this.createdAt, this.startedAt, this.finishedAt,
+				this.error);
+	}
+}
@@ -0,0 +1,315 @@
+package cl.tenpo.calculation.job;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import cl.tenpo.calculation.config.CalculationJobProperties;
+import cl.tenpo.calculation.dto.CalculationJobDto;
+import cl.tenpo.calculation.service.AuditService;
+import cl.tenpo.calculation.service.CalculationService;
+import cl.tenpo.calculation.service.PercentageService;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio que ejecuta los jobs de cálculo masivo sobre archivos CSV o NDJSON.
+ * <p>
+ * Cada job obtiene el porcentaje y la fórmula una única vez al iniciar, de modo
+ * que todas sus filas se calculan con los mismos valores y el servicio externo
+ * recibe una sola consulta por archivo. Un thread coordinador lee el archivo en bloques de
+ * {@code chunk-size} filas y los envía a un {@link ForkJoinPool} compartido,
+ * manteniendo como máximo el doble de bloques en curso que threads del pool; los
+ * resultados se escriben a medida que terminan los bloques, en el orden del
+ * archivo de entrada, por lo que la memoria usada no depende del tamaño del archivo.
+ * <p>
+ * La capacidad ({@code max-concurrent-jobs} más {@code max-queued-jobs}) se
+ * reserva antes de copiar el archivo recibido al directorio de jobs, por lo que
+ * un job rechazado por falta de capacidad no llega a escribirse en disco.
+ * <p>
+ * Cada job se audita como un único registro con el resumen de filas procesadas.
+ * El estado de los jobs se mantiene en la memoria de la réplica que recibió el
+ * archivo y se descarta, junto con sus archivos, pasado el tiempo de retención;
+ * con varias réplicas, las consultas de un job deben enrutarse a esa réplica.
+ */
+@Service
+@Slf4j
+public class CalculationJobService implements DisposableBean {
+
+	private static final String BUSY_MESSAGE = "Demasiados jobs en curso, reintente más tarde";
+
+	private static final String NOT_FOUND_MESSAGE = "Job no encontrado";
+
+	private static final String NOT_COMPLETED_MESSAGE = "El job no finalizó correctamente";
+
+	private final CalculationService calculationService;
+
+	private final PercentageService percentageService;
+
+	private final AuditService auditService;
+
+	private final CalculationJobProperties properties;
+
+	private final Map<String, CalculationJob> jobs = new ConcurrentHashMap<>();
+
+	private final Semaphore slots;
+
+	private final ThreadPoolExecutor jobExecutor;
+
+	private final ForkJoinPool forkJoinPool;
+
+	public CalculationJobService(CalculationService calculationService,
+			@Qualifier("percentageService") PercentageService percentageService, AuditService auditService,
+			CalculationJobProperties properties) {
+		this.calculationService = calculationService;
+		this.percentageService = percentageService;
+		this.auditService = auditService;
+		this.properties = properties;
+		this.slots = new Semaphore(properties.maxConcurrentJobs() + properties.maxQueuedJobs());
+		AtomicInteger threads = new AtomicInteger();
+		this.jobExecutor = new ThreadPoolExecutor(properties.maxConcurrentJobs(), properties.maxConcurrentJobs(),
+				0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, properties.maxQueuedJobs())),
+				runnable -> new Thread(runnable, "calculation-job-" + threads.incrementAndGet()));
+		this.forkJoinPool = new ForkJoinPool(properties.parallelism() > 0
+				? properties.parallelism()
+				: Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Registra un nuevo job para el archivo indicado y lo encola para su ejecución.
+	 *
+	 * @param file Archivo CSV o NDJSON con las filas a calcular
+	 * @return El estado inicial del job
+	 * @throws IllegalArgumentException si el archivo está vacío
+	 * @throws ResponseStatusException 503 si se alcanzó la cantidad máxima de jobs en espera
+	 */
+	public CalculationJobDto submit(MultipartFile file) {
+		if (file.isEmpty()) {
+			throw new IllegalArgumentException("El archivo está vacío");
+		}
+		String id = UUID.randomUUID().toString();
+		JobFileFormat format = JobFileFormat.of(file.getOriginalFilename(), file.getContentType());
+		CalculationJob job = new CalculationJob(id, file.getOriginalFilename(), format,
+				this.properties.directory().resolve(id + ".input"),
+				this.properties.directory().resolve(id + "." + format.extension()));
+		if (!this.slots.tryAcquire()) {
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE);
+		}
+		try {
+			Files.createDirectories(this.properties.directory());
+			file.transferTo(job.input());
+		} catch (IOException e) {
+			this.slots.release();
+			deleteQuietly(job.input());
+			throw new UncheckedIOException(e);
+		}
+		this.jobs.put(id, job);
+		try {
+			this.jobExecutor.execute(() -> this.run(job));
+		} catch (RejectedExecutionException e) {
+			this.slots.release();
+			this.jobs.remove(id);
+			deleteQuietly(job.input());
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, BUSY_MESSAGE);
+		}
+		return job.toDto();
+	}
+
+	/**
+	 * @param id Identificador del job
+	 * @return El estado del job
+	 * @throws ResponseStatusException 404 si el job no existe o ya expiró
+	 */
+	public CalculationJobDto get(String id) {
+		return this.find(id).toDto();
+	}
+
+	/**
+	 * @param id Identificador del job
+	 * @return El archivo de resultados del job
+	 * @throws ResponseStatusException 404 si el job no existe, o 409 si no finalizó correctamente
+	 */
+	public FileSystemResource result(String id) {
+		CalculationJob job = this.find(id);
+		if (job.status() != CalculationJobStatus.COMPLETED) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, NOT_COMPLETED_MESSAGE);
+		}
+		return new FileSystemResource(job.result());
+	}
+
+	/**
+	 * @param id Identificador del job
+	 * @return El tipo de contenido del archivo de resultados del job
+	 */
+	public MediaType resultMediaType(String id) {
+		return this.find(id).format().mediaType();
+	}
+
+	/**
+	 * Descarta los jobs finalizados hace más tiempo que la retención configurada,
+	 * junto con su archivo de resultados.
+	 */
+	@Scheduled(fixedDelayString = "${calculation.jobs.purge-interval:PT10M}")
+	public void purgeExpired() {
+		LocalDateTime limit = LocalDateTime.now().minus(this.properties.retention());
+		this.jobs.values().removeIf(job -> {
+			if (job.finishedAt() == null || job.finishedAt().isAfter(limit)) {
+				return false;
+			}
+			deleteQuietly(job.result());
+			return true;
+		});
+	}
+
+	/**
+	 * Detiene los pools al cerrar la aplicación; los jobs en curso se interrumpen.
+	 */
+	@Override
+	public void destroy() {
+		this.jobExecutor.shutdownNow();
+		this.forkJoinPool.shutdownNow();
+	}
+
+	private CalculationJob find(String id) {
+		CalculationJob job = this.jobs.get(id);
+		if (job == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, NOT_FOUND_MESSAGE);
+		}
+		return job;
+	}
+
+	private void run(CalculationJob job) {
+		LocalDateTime start = LocalDateTime.now();
+		job.start();
+		Deque<Chunk> inFlight = new ArrayDeque<>();
+		try {
+			BigDecimal percentage = this.percentageService.getPercentage();
+			job.setPercentage(percentage);
+			job.setFormula(this.calculationService.activeFormula());
+			this.process(job, percentage, inFlight);
+			job.complete();
+			log.info("Job {} finalizado: {} filas procesadas, {} con error", job.id(), job.processedRows(),
+					job.failedRows());
+		} catch (Exception e) {
+			inFlight.forEach(chunk -> chunk.task().cancel(true));
+			deleteQuietly(job.result());
+			job.fail(e.getMessage());
+			log.warn("Job {} fallido", job.id(), e);
+		} finally {
+			this.slots.release();
+			deleteQuietly(job.input());
+			boolean success = job.status() == CalculationJobStatus.COMPLETED;
+			this.auditService.auditRequest(start, "JOB /calculation/jobs/" + job.id(), List.of(job.fileName()),
+					success ? summary(job) : job.toDto().error(), success,
+					job.formula() != null ? job.formula().version() : null);
+		}
+	}
+
+	private void process(CalculationJob job, BigDecimal percentage, Deque<Chunk> inFlight) throws IOException {
+		JobFileFormat format = job.format();
+		int maxInFlight = this.forkJoinPool.getParallelism() * 2;
+		try (BufferedReader reader = Files.newBufferedReader(job.input(), StandardCharsets.UTF_8);
+				BufferedWriter writer = Files.newBufferedWriter(job.result(), StandardCharsets.UTF_8)) {
+			if (format.header() != null) {
+				writer.write(format.header());
+				writer.newLine();
+			}
+			long row = 1;
+			long firstRow = row;
+			List<String> lines = new ArrayList<>(this.properties.chunkSize());
+			String line = reader.readLine();
+			if (line != null && format.isHeader(line)) {
+				line = reader.readLine();
+				row++;
+				firstRow = row;
+			}
+			while (line != null) {
+				lines.add(line);
+				row++;
+				if (lines.size() == this.properties.chunkSize()) {
+					inFlight.add(this.fork(job, percentage, lines, firstRow));
+					if (inFlight.size() >= maxInFlight) {
+						write(job, inFlight.poll(), writer);
+					}
+					lines = new ArrayList<>(this.properties.chunkSize());
+					firstRow = row;
+				}
+				line = reader.readLine();
+			}
+			if (!lines.isEmpty()) {
+				inFlight.add(this.fork(job, percentage, lines, firstRow));
+			}
+			while (!inFlight.isEmpty()) {
+				write(job, inFlight.poll(), writer);
+			}
+		}
+	}
+
+	private Chunk fork(CalculationJob job, BigDecimal percentage, List<String> lines, long firstRow) {
+		String[] results = new String[lines.size()];
+		ForkJoinTask<Void> task = this.forkJoinPool.submit(new ChunkCalculationTask(this.calculationService, job,
+				percentage, lines, firstRow, results, 0, lines.size()));
+		return new Chunk(task, results);
+	}
+
+	private static void write(CalculationJob job, Chunk chunk, BufferedWriter writer) throws IOException {
+		chunk.task().join();
+		long rows = 0;
+		for (String result : chunk.results()) {
+			if (result != null) {
+				writer.write(result);
+				writer.newLine();
+				rows++;
+			}
+		}
+		job.addProcessed(rows);
+	}
+
+	private static String summary(CalculationJob job) {
+		return "processedRows=" + job.processedRows() + ", failedRows=" + job.failedRows();
+	}
+
+	private static void deleteQuietly(Path file) {
+		try {
+			Files.deleteIfExists(file);
+		} catch (IOException e) {
+			log.warn("No se pudo eliminar el archivo {}", file, e);
+		}
+	}
+
+	/**
+	 * Bloque de filas en curso y el arreglo donde su tarea deja los resultados.
+	 */
+	private record Chunk(ForkJoinTask<Void> task, String[] results) {
+	}
+}
@@ -0,0 +1,27 @@
+package cl.tenpo.calculation.job;
+
+/**
+ * Estados de un job de cálculo masivo.
+ */
+public enum CalculationJobStatus {
+
+	/**
+	 * Job en espera de ejecución.
+	 */
+	PENDING,
+
+	/**
+	 * Job en ejecución.
+	 */
+	RUNNING,
+
+	/**
+	 * Job finalizado; el archivo de resultados está disponible.
+	 */
+	COMPLETED,
+
+	/**
+	 * Job que no pudo completarse, por ejemplo por no poder obtener el porcentaje.
+	 */
+	FAILED
+}
@@ -0,0 +1,81 @@
+package cl.tenpo.calculation.job;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import cl.tenpo.calculation.service.CalculationService;
+
+/**
+ * Tarea fork-join que calcula un bloque de filas, dividiéndolo recursivamente
+ * en mitades hasta {@link #THRESHOLD} filas. Cada fila se calcula con el mismo
+ * porcentaje (la "foto" obtenida al iniciar el job) y su resultado formateado
+ * se guarda en la posición correspondiente de {@code results}, de modo que el
+ * bloque se escribe luego respetando el orden de entrada.
+ */
+class ChunkCalculationTask extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	static final int THRESHOLD = 1024;
+
+	private final transient CalculationService calculationService;
+
+	private final transient CalculationJob job;
+
+	private final BigDecimal percentage;
+
+	private final List<String> lines;
+
+	private final long firstRow;
+
+	private final String[] results;
+
+	private final int from;
+
+	private final int to;
+
+	ChunkCalculationTask(CalculationService calculationService, CalculationJob job, BigDecimal percentage,
+			List<String> lines, long firstRow, String[] results, int from, int to) {
+		this.calculationService = calculationService;
+		this.job = job;
+		this.percentage = percentage;
+		this.lines = lines;
+		this.firstRow = firstRow;
+		this.results = results;
+		this.from = from;
+		this.to = to;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void compute() {
+		if (this.to - this.from > THRESHOLD) {
+			int middle = (this.from + this.to) >>> 1;
+			invokeAll(this.subtask(this.from, middle), this.subtask(middle, this.to));
+			return;
+		}
+		JobFileFormat format = this.job.format();
+		for (int i = this.from; i < this.to; i++) {
+			String line = this.lines.get(i);
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				int[] operands = format.parse(line);
+				this.results[i] = format.result(operands[0], operands[1],
+						this.calculationService.calculate(operands[0], operands[1], this.percentage, this.job.formula()));
+			} catch (IllegalArgumentException | ArithmeticException e) {
+				this.results[i] = format.error(this.firstRow + i, e.getMessage());
+				this.job.addFailed();
+			}
+		}
+	}
+
+	private ChunkCalculationTask subtask(int subFrom, int subTo) {
+		return new ChunkCalculationTask(this.calculationService, this.job, this.percentage, this.lines,
+				this.firstRow, this.results, subFrom, subTo);
+	}
+}
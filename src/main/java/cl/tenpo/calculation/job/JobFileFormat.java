@@ -0,0 +1,157 @@
+package cl.tenpo.calculation.job;
+
+import java.math.BigDecimal;
+
+import org.springframework.http.MediaType;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Formatos de archivo admitidos por los jobs de cálculo masivo. El archivo de
+ * resultados usa el mismo formato que el de entrada:
+ * <ul>
+ * <li>CSV: filas {@code num1,num2} (con encabezado opcional); resultado
+ * {@code num1,num2,result,error}.</li>
+ * <li>NDJSON: un objeto {@code {"num1":5,"num2":5}} por línea; resultado
+ * {@code {"num1":5,"num2":5,"result":11}} o {@code {"row":3,"error":"..."}}.</li>
+ * </ul>
+ */
+enum JobFileFormat {
+
+	CSV("csv", MediaType.parseMediaType("text/csv")) {
+
+		@Override
+		boolean isHeader(String line) {
+			return line.trim().toLowerCase().startsWith("num1");
+		}
+
+		@Override
+		String header() {
+			return "num1,num2,result,error";
+		}
+
+		@Override
+		int[] parse(String line) {
+			int comma = line.indexOf(',');
+			if (comma < 0 || line.indexOf(',', comma + 1) >= 0) {
+				throw new IllegalArgumentException("se esperaban dos columnas num1,num2");
+			}
+			return new int[] { parseOperand(line.substring(0, comma)), parseOperand(line.substring(comma + 1)) };
+		}
+
+		@Override
+		String result(int num1, int num2, BigDecimal result) {
+			return num1 + "," + num2 + "," + result + ",";
+		}
+
+		@Override
+		String error(long row, String message) {
+			return ",,,\"fila " + row + ": " + message.replace("\"", "\"\"") + "\"";
+		}
+	},
+
+	NDJSON("ndjson", MediaType.parseMediaType("application/x-ndjson")) {
+
+		private final ObjectMapper objectMapper = new ObjectMapper();
+
+		@Override
+		boolean isHeader(String line) {
+			return false;
+		}
+
+		@Override
+		String header() {
+			return null;
+		}
+
+		@Override
+		int[] parse(String line) {
+			try {
+				JsonNode node = this.objectMapper.readTree(line);
+				if (node == null || !node.path("num1").canConvertToInt() || !node.path("num2").canConvertToInt()
+						|| !node.path("num1").isIntegralNumber() || !node.path("num2").isIntegralNumber()) {
+					throw new IllegalArgumentException("se esperaban los enteros num1 y num2");
+				}
+				return new int[] { checkOperand(node.get("num1").intValue()), checkOperand(node.get("num2").intValue()) };
+			} catch (JsonProcessingException e) {
+				throw new IllegalArgumentException("JSON inválido");
+			}
+		}
+
+		@Override
+		String result(int num1, int num2, BigDecimal result) {
+			return "{\"num1\":" + num1 + ",\"num2\":" + num2 + ",\"result\":" + result + "}";
+		}
+
+		@Override
+		String error(long row, String message) {
+			return "{\"row\":" + row + ",\"error\":\"" + message.replace("\\", "\\\\").replace("\"", "\\\"") + "\"}";
+		}
+	};
+
+	private final String extension;
+
+	private final MediaType mediaType;
+
+	JobFileFormat(String extension, MediaType mediaType) {
+		this.extension = extension;
+		this.mediaType = mediaType;
+	}
+
+	/**
+	 * Determina el formato de un archivo subido a partir de su nombre o tipo de contenido.
+	 *
+	 * @param fileName Nombre original del archivo
+	 * @param contentType Tipo de contenido declarado
+	 * @return NDJSON si el archivo es {@code .ndjson}/{@code .jsonl} o
+	 *         {@code application/x-ndjson}; CSV en otro caso
+	 */
+	static JobFileFormat of(String fileName, String contentType) {
+		String name = fileName != null ? fileName.toLowerCase() : "";
+		if (name.endsWith(".ndjson") || name.endsWith(".jsonl")
+				|| NDJSON.mediaType.toString().equalsIgnoreCase(contentType)) {
+			return NDJSON;
+		}
+		return CSV;
+	}
+
+	String extension() {
+		return this.extension;
+	}
+
+	MediaType mediaType() {
+		return this.mediaType;
+	}
+
+	abstract boolean isHeader(String line);
+
+	abstract String header();
+
+	/**
+	 * @param line Fila del archivo de entrada
+	 * @return Los operandos {@code num1} y {@code num2}
+	 * @throws IllegalArgumentException si la fila no tiene el formato esperado
+	 */
+	abstract int[] parse(String line);
+
+	abstract String result(int num1, int num2, BigDecimal result);
+
+	abstract String error(long row, String message);
+
+	private static int parseOperand(String value) {
+		try {
+			return checkOperand(Integer.parseInt(value.trim()));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException("número inválido '" + value.trim() + "'");
+		}
+	}
+
+	private static int checkOperand(int value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("los números deben ser >= 0");
+		}
+		return value;
+	}
+}
@@ -0,0 +1,201 @@
+package cl.tenpo.calculation.limiter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cl.tenpo.calculation.config.ConcurrencyLimitProperties;
+
+/**
+ * Limitador adaptativo de concurrencia basado en el gradiente de latencia.
+ * <p>
+ * En lugar de un número fijo de requests por ventana de tiempo, limita la
+ * cantidad de requests en vuelo y ajusta ese límite según la latencia medida:
+ * <ul>
+ * <li>Al iniciar usa el límite mínimo configurado para medir la latencia "sin
+ * carga" (minRtt) de la operación y sus dependencias. Periódicamente vuelve a
+ * medirla con la mitad del límite estimado, suficiente para reducir la cola sin
+ * rechazar requests en ráfagas mientras mide.</li>
+ * <li>Por cada ventana de muestras calcula el percentil 90 de la latencia y el
+ * gradiente {@code minRtt * (1 + buffer) / p90}. Si la latencia crece (por ejemplo
+ * porque Redis o el proveedor externo se vuelven lentos) el límite se reduce, y si
+ * la latencia es saludable el límite crece.</li>
+ * <li>Cada error de dependencia reduce el límite de forma multiplicativa.</li>
+ * </ul>
+ */
+public class AdaptiveConcurrencyLimiter {
+
+	private final int minLimit;
+
+	private final int maxLimit;
+
+	private final double rttBuffer;
+
+	private final double backoffRatio;
+
+	private final long[] window;
+
+	private final long[] minRttWindow;
+
+	private final int minRttRecalcWindow;
+
+	private final AtomicInteger inflight = new AtomicInteger();
+
+	private volatile int limit;
+
+	private double estimatedLimit;
+
+	private long minRttNanos;
+
+	private int windowSize;
+
+	private int maxInflightInWindow;
+
+	private int minRttSamples;
+
+	private int samplesSinceMinRtt;
+
+	private boolean measuringMinRtt = true;
+
+	private boolean minRttMeasured;
+
+	public AdaptiveConcurrencyLimiter(ConcurrencyLimitProperties props) {
+		if (props.minLimit() < 1 || props.maxLimit() < props.minLimit()) {
+			throw new IllegalArgumentException("Límites de concurrencia inválidos");
+		}
+		this.minLimit = props.minLimit();
+		this.maxLimit = props.maxLimit();
+		this.rttBuffer = props.rttBuffer();
+		this.backoffRatio = props.backoffRatio();
+		this.window = new long[props.sampleWindow()];
+		this.minRttWindow = new long[props.minRttSamples()];
+		this.minRttRecalcWindow = props.minRttRecalcWindow();
+		this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, props.initialLimit()));
+		this.limit = this.minLimit;
+	}
+
+	/**
+	 * Intenta reservar un lugar para un request en vuelo.
+	 *
+	 * @return true si el request puede ejecutarse, false si se excedió el límite actual
+	 */
+	public boolean tryAcquire() {
+		while (true) {
+			int current = this.inflight.get();
+			if (current >= this.limit) {
+				return false;
+			}
+			if (this.inflight.compareAndSet(current, current + 1)) {
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Libera el lugar reservado registrando la latencia de un request exitoso.
+	 *
+	 * @param rttNanos Latencia del request en nanosegundos
+	 */
+	public void onSuccess(long rttNanos) {
+		int inflightAtSample = this.inflight.getAndDecrement();
+		this.addSample(rttNanos, inflightAtSample);
+	}
+
+	/**
+	 * Libera el lugar reservado para un request que falló por una dependencia
+	 * (timeout, servicio no disponible), reduciendo el límite.
+	 */
+	public void onDropped() {
+		this.inflight.decrementAndGet();
+		this.backoff();
+	}
+
+	/**
+	 * Libera el lugar reservado sin registrar muestra, por ejemplo para requests
+	 * rechazados por parámetros inválidos.
+	 */
+	public void onIgnore() {
+		this.inflight.decrementAndGet();
+	}
+
+	/**
+	 * @return El límite de concurrencia vigente
+	 */
+	public int getLimit() {
+		return this.limit;
+	}
+
+	/**
+	 * @return La cantidad de requests en vuelo
+	 */
+	public int getInflight() {
+		return this.inflight.get();
+	}
+
+	/**
+	 * @return La última latencia "sin carga" medida, en nanosegundos (0 si aún no se midió)
+	 */
+	public synchronized long getMinRttNanos() {
+		return this.minRttNanos;
+	}
+
+	private synchronized void addSample(long rttNanos, int inflightAtSample) {
+		if (this.measuringMinRtt) {
+			boolean initial = !this.minRttMeasured;
+			this.minRttWindow[this.minRttSamples++] = rttNanos;
+			if (this.minRttSamples == this.minRttWindow.length) {
+				this.minRttNanos = percentile(this.minRttWindow, this.minRttSamples, 0.5);
+				this.minRttSamples = 0;
+				this.samplesSinceMinRtt = 0;
+				this.measuringMinRtt = false;
+				this.minRttMeasured = true;
+				this.limit = (int) this.estimatedLimit;
+			}
+			if (initial) {
+				return;
+			}
+		}
+
+		this.window[this.windowSize++] = rttNanos;
+		this.maxInflightInWindow = Math.max(this.maxInflightInWindow, inflightAtSample);
+		if (this.windowSize < this.window.length) {
+			return;
+		}
+
+		long sampleRtt = percentile(this.window, this.windowSize, 0.9);
+		double gradient = Math.max(0.5, Math.min(2.0, this.minRttNanos * (1 + this.rttBuffer) / Math.max(1, sampleRtt)));
+		double newLimit = this.estimatedLimit * gradient + Math.sqrt(this.estimatedLimit);
+		if (this.maxInflightInWindow < this.estimatedLimit / 2) {
+			// La carga no alcanza el límite actual: no hay evidencia para crecer
+			newLimit = Math.min(newLimit, this.estimatedLimit);
+		}
+		this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, newLimit));
+		this.windowSize = 0;
+		this.maxInflightInWindow = 0;
+		this.samplesSinceMinRtt += this.window.length;
+		if (this.measuringMinRtt || this.samplesSinceMinRtt >= this.minRttRecalcWindow) {
+			// Se vuelve a medir minRtt con la mitad del límite, no con el mínimo
+			this.measuringMinRtt = true;
+			this.limit = remeasureLimit();
+		} else {
+			this.limit = (int) this.estimatedLimit;
+		}
+	}
+
+	private synchronized void backoff() {
+		this.estimatedLimit = Math.max(this.minLimit, this.estimatedLimit * this.backoffRatio);
+		if (!this.minRttMeasured) {
+			return;
+		}
+		this.limit = this.measuringMinRtt ? remeasureLimit() : (int) this.estimatedLimit;
+	}
+
+	private int remeasureLimit() {
+		return Math.max(this.minLimit, (int) (this.estimatedLimit / 2));
+	}
+
+	private static long percentile(long[] samples, int size, double percentile) {
+		long[] sorted = Arrays.copyOf(samples, size);
+		Arrays.sort(sorted);
+		return sorted[Math.min(size - 1, (int) Math.ceil(percentile * size) - 1)];
+	}
+}
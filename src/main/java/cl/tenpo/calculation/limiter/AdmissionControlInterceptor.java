@@ -0,0 +1,47 @@
+package cl.tenpo.calculation.limiter;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor que aplica la {@link PriorityAdmissionController} a los endpoints
+ * de una prioridad determinada. Los requests descartados se informan mediante
+ * {@link LoadSheddingException}, que resuelve el manejador global de excepciones.
+ */
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+	private static final String ADMITTED_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".ADMITTED";
+
+	private final PriorityAdmissionController admissionController;
+
+	private final RequestPriority priority;
+
+	public AdmissionControlInterceptor(PriorityAdmissionController admissionController, RequestPriority priority) {
+		this.admissionController = admissionController;
+		this.priority = priority;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+		this.admissionController.admit(this.priority);
+		request.setAttribute(ADMITTED_ATTRIBUTE, this.priority);
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+			Exception ex) {
+		if (request.getAttribute(ADMITTED_ATTRIBUTE) != null) {
+			request.removeAttribute(ADMITTED_ATTRIBUTE);
+			this.admissionController.release(this.priority);
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package cl.tenpo.calculation.limiter;
+
+/**
+ * Excepción lanzada cuando un request es rechazado por exceder el límite
+ * de concurrencia vigente.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public ConcurrencyLimitExceededException(int limit) {
+		super("Límite de concurrencia excedido (" + limit + ")");
+	}
+}
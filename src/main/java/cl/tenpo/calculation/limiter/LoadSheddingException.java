@@ -0,0 +1,14 @@
+package cl.tenpo.calculation.limiter;
+
+/**
+ * Excepción lanzada cuando un request es descartado por la capa de admisión
+ * debido a sobrecarga del servicio.
+ */
+public class LoadSheddingException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	public LoadSheddingException(RequestPriority priority) {
+		super("Request " + priority + " descartado por sobrecarga");
+	}
+}
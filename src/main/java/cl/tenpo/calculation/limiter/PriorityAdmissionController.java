@@ -0,0 +1,115 @@
+package cl.tenpo.calculation.limiter;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cl.tenpo.calculation.config.AdmissionProperties;
+
+/**
+ * Capa de admisión de requests por prioridad.
+ * <p>
+ * Cada {@link RequestPriority} tiene su propio presupuesto de concurrencia, por lo
+ * que las consultas costosas de auditoría no pueden ocupar todos los threads ni
+ * todas las conexiones a la base de datos. Además, cuando algún request tuvo que
+ * esperar en cola más de {@code shedQueueDelay}, el servicio se considera
+ * sobrecargado durante {@code overloadHold} y los requests best-effort se
+ * descartan de inmediato, dejando la capacidad para los requests críticos.
+ */
+public class PriorityAdmissionController {
+
+	private final Map<RequestPriority, Budget> budgets = new EnumMap<>(RequestPriority.class);
+
+	private final long shedQueueDelayNanos;
+
+	private final long overloadHoldNanos;
+
+	private final AtomicLong lastOverloadNanos;
+
+	public PriorityAdmissionController(AdmissionProperties props) {
+		this.budgets.put(RequestPriority.CRITICAL, new Budget(props.critical()));
+		this.budgets.put(RequestPriority.BEST_EFFORT, new Budget(props.bestEffort()));
+		this.shedQueueDelayNanos = props.shedQueueDelay().toNanos();
+		this.overloadHoldNanos = props.overloadHold().toNanos();
+		this.lastOverloadNanos = new AtomicLong(System.nanoTime() - this.overloadHoldNanos);
+	}
+
+	/**
+	 * Admite un request de la prioridad indicada, esperando en cola como máximo
+	 * el tiempo configurado para su presupuesto.
+	 *
+	 * @param priority Prioridad del request
+	 * @throws LoadSheddingException Si el request es descartado
+	 */
+	public void admit(RequestPriority priority) {
+		if (priority == RequestPriority.BEST_EFFORT && this.isOverloaded()) {
+			throw new LoadSheddingException(priority);
+		}
+		Budget budget = this.budgets.get(priority);
+		if (budget.semaphore.tryAcquire()) {
+			return;
+		}
+
+		long start = System.nanoTime();
+		boolean acquired;
+		try {
+			acquired = budget.semaphore.tryAcquire(budget.maxQueueWaitNanos, TimeUnit.NANOSECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new LoadSheddingException(priority);
+		}
+		long queueDelay = System.nanoTime() - start;
+		if (queueDelay > this.shedQueueDelayNanos) {
+			this.lastOverloadNanos.set(System.nanoTime());
+		}
+		if (!acquired) {
+			throw new LoadSheddingException(priority);
+		}
+	}
+
+	/**
+	 * Libera el lugar ocupado por un request previamente admitido.
+	 *
+	 * @param priority Prioridad del request
+	 */
+	public void release(RequestPriority priority) {
+		this.budgets.get(priority).semaphore.release();
+	}
+
+	/**
+	 * @return true si recientemente algún request esperó en cola más que el umbral configurado
+	 */
+	public boolean isOverloaded() {
+		return System.nanoTime() - this.lastOverloadNanos.get() < this.overloadHoldNanos;
+	}
+
+	/**
+	 * @param priority Prioridad a consultar
+	 * @return La cantidad de lugares disponibles en el presupuesto de esa prioridad
+	 */
+	public int availablePermits(RequestPriority priority) {
+		return this.budgets.get(priority).semaphore.availablePermits();
+	}
+
+	/**
+	 * @param priority Prioridad a consultar
+	 * @return La cantidad estimada de requests esperando en cola para esa prioridad
+	 */
+	public int queueLength(RequestPriority priority) {
+		return this.budgets.get(priority).semaphore.getQueueLength();
+	}
+
+	private static final class Budget {
+
+		private final Semaphore semaphore;
+
+		private final long maxQueueWaitNanos;
+
+		private Budget(AdmissionProperties.Budget props) {
+			this.semaphore = new Semaphore(props.maxConcurrent(), true);
+			this.maxQueueWaitNanos = props.maxQueueWait().toNanos();
+		}
+	}
+}
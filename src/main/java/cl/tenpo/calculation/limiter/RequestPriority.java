@@ -0,0 +1,19 @@
+package cl.tenpo.calculation.limiter;
+
+/**
+ * Prioridad de admisión de un request.
+ */
+public enum RequestPriority {
+
+	/**
+	 * Requests sensibles a la latencia (por ejemplo el cálculo), que se
+	 * descartan solo cuando su propio presupuesto está agotado.
+	 */
+	CRITICAL,
+
+	/**
+	 * Requests que pueden posponerse (por ejemplo consultas de auditoría),
+	 * que se descartan primero ante síntomas de sobrecarga.
+	 */
+	BEST_EFFORT
+}
@@ -0,0 +1,94 @@
+package cl.tenpo.calculation.logging;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Marker;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Filtro de Logback que limita la cantidad de eventos por segundo de los
+ * loggers cuyo nombre comienza con {@code loggerName}. Se configura en
+ * {@code logback-spring.xml}, con un filtro por cada logger de alto volumen.
+ * <p>
+ * Solo limita eventos de nivel menor a {@code WARN} y que efectivamente se
+ * registrarían según el nivel del logger; las advertencias y errores nunca se
+ * descartan. Las consultas del tipo {@code isDebugEnabled()} no se cuentan, de
+ * modo que un log protegido por esa consulta se cuenta una sola vez. El filtro
+ * no crea objetos por evento.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+	private static final long WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+	private String loggerName;
+
+	private int maxPerSecond = 100;
+
+	private final AtomicLong window = new AtomicLong();
+
+	private final AtomicInteger count = new AtomicInteger();
+
+	private final LongAdder dropped = new LongAdder();
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params,
+			Throwable t) {
+		if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+				|| !level.isGreaterOrEqual(logger.getEffectiveLevel()) || !logger.getName().startsWith(this.loggerName)) {
+			return FilterReply.NEUTRAL;
+		}
+		long current = System.nanoTime() / WINDOW_NANOS;
+		long previous = this.window.get();
+		if (current != previous && this.window.compareAndSet(previous, current)) {
+			this.count.set(0);
+		}
+		if (this.count.incrementAndGet() <= this.maxPerSecond) {
+			return FilterReply.NEUTRAL;
+		}
+		this.dropped.increment();
+		return FilterReply.DENY;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void start() {
+		if (this.loggerName == null || this.loggerName.isEmpty()) {
+			addError("Se debe indicar loggerName en " + RateLimitingTurboFilter.class.getSimpleName());
+			return;
+		}
+		super.start();
+	}
+
+	/**
+	 * @param loggerName Prefijo del nombre de los loggers a limitar
+	 */
+	public void setLoggerName(String loggerName) {
+		this.loggerName = loggerName;
+	}
+
+	/**
+	 * @param maxPerSecond Cantidad máxima de eventos por segundo
+	 */
+	public void setMaxPerSecond(int maxPerSecond) {
+		this.maxPerSecond = maxPerSecond;
+	}
+
+	/**
+	 * @return La cantidad de eventos descartados desde el inicio
+	 */
+	public long getDropped() {
+		return this.dropped.sum();
+	}
+}
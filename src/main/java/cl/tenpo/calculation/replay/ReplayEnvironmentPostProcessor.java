@@ -0,0 +1,45 @@
+package cl.tenpo.calculation.replay;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+
+/**
+ * En modo de reproducción de tráfico ({@code replay.enabled}) desactiva todo lo
+ * que la aplicación hace como servicio y que no es necesario para reproducir:
+ * el servidor web y el de administración, el servidor gRPC, el calentamiento,
+ * los health checks periódicos, el archivado de auditorías y la creación de
+ * índices de búsqueda. Así el proceso de reproducción no abre puertos, no
+ * compite con las réplicas por el archivado ni modifica el esquema.
+ * <p>
+ * Las propiedades se agregan con la mayor precedencia, por lo que no pueden
+ * reactivarse desde la línea de comandos. Como las imágenes AOT y nativa fijan
+ * las condiciones de los beans al construirse, la reproducción se ejecuta con
+ * el jar estándar.
+ */
+public class ReplayEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+	static final String PROPERTY_SOURCE_NAME = "replayMode";
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+		if (!environment.getProperty("replay.enabled", Boolean.class, false)) {
+			return;
+		}
+		Map<String, Object> properties = new LinkedHashMap<>();
+		properties.put("spring.main.web-application-type", "none");
+		properties.put("grpc.enabled", "false");
+		properties.put("warmup.enabled", "false");
+		properties.put("health.checks.enabled", "false");
+		properties.put("audit.archive.enabled", "false");
+		properties.put("audit.search.create-indexes", "false");
+		environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE_NAME, properties));
+	}
+}
@@ -0,0 +1,174 @@
+package cl.tenpo.calculation.replay;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Resultado de una reproducción de tráfico: cantidad de requests, latencias y
+ * diferencias entre las respuestas obtenidas y los resultados registrados.
+ * Se actualiza en forma concurrente desde los threads que reciben las respuestas.
+ */
+class ReplayReport {
+
+	private static final Duration[] LATENCY_BUCKETS = { Duration.ofMillis(1), Duration.ofMillis(5),
+			Duration.ofMillis(10), Duration.ofMillis(25), Duration.ofMillis(50), Duration.ofMillis(100),
+			Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5) };
+
+	private final Timer latency = Timer.builder("replay.latency")
+			.publishPercentiles(0.5, 0.9, 0.99, 0.999)
+			.serviceLevelObjectives(LATENCY_BUCKETS)
+			// Los percentiles abarcan toda la reproducción, no solo los últimos minutos
+			.distributionStatisticExpiry(Duration.ofDays(7))
+			.distributionStatisticBufferLength(1)
+			.register(new SimpleMeterRegistry());
+
+	private final LongAdder skipped = new LongAdder();
+
+	private final LongAdder matched = new LongAdder();
+
+	private final LongAdder mismatched = new LongAdder();
+
+	private final LongAdder errors = new LongAdder();
+
+	private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+	private final AtomicLong maxLagNanos = new AtomicLong();
+
+	private final Queue<Map<String, Object>> mismatchSamples = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger mismatchSampleSlots;
+
+	ReplayReport(int maxMismatchSamples) {
+		this.mismatchSampleSlots = new AtomicInteger(maxMismatchSamples);
+	}
+
+	/**
+	 * Registra una auditoría que no se puede reproducir.
+	 */
+	void skipped() {
+		this.skipped.increment();
+	}
+
+	/**
+	 * Registra la demora de un request respecto del momento en que debía enviarse.
+	 *
+	 * @param lagNanos Demora en nanosegundos
+	 */
+	void lag(long lagNanos) {
+		this.maxLagNanos.accumulateAndGet(lagNanos, Math::max);
+	}
+
+	/**
+	 * Registra la respuesta a un request reproducido y la compara con el resultado registrado.
+	 *
+	 * @param request Request reproducido
+	 * @param status Código HTTP de la respuesta
+	 * @param body Cuerpo de la respuesta
+	 * @param latencyNanos Latencia del request en nanosegundos
+	 */
+	void response(ReplayRequest request, int status, String body, long latencyNanos) {
+		this.latency.record(latencyNanos, TimeUnit.NANOSECONDS);
+		this.statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+		boolean success = status >= 200 && status < 300;
+		if (success == request.expectedSuccess() && (!success || sameResult(request.expectedResult(), body))) {
+			this.matched.increment();
+			return;
+		}
+		this.mismatched.increment();
+		if (this.mismatchSampleSlots.getAndDecrement() > 0) {
+			Map<String, Object> sample = new LinkedHashMap<>();
+			sample.put("requestTime", request.requestTime().toString());
+			sample.put("query", request.query());
+			if (request.tenant() != null) {
+				sample.put("tenant", request.tenant());
+			}
+			sample.put("expectedSuccess", request.expectedSuccess());
+			sample.put("expected", request.expectedResult());
+			sample.put("status", status);
+			sample.put("actual", body);
+			this.mismatchSamples.add(sample);
+		}
+	}
+
+	/**
+	 * Registra un request reproducido que no obtuvo respuesta.
+	 */
+	void error() {
+		this.errors.increment();
+	}
+
+	/**
+	 * @return Cantidad de requests cuya respuesta difiere del resultado registrado
+	 */
+	long mismatches() {
+		return this.mismatched.sum();
+	}
+
+	/**
+	 * @param elapsed Duración total de la reproducción
+	 * @return El reporte, listo para serializar como JSON
+	 */
+	Map<String, Object> toMap(Duration elapsed) {
+		long replayed = this.latency.count() + this.errors.sum();
+		Map<String, Object> report = new LinkedHashMap<>();
+		report.put("elapsedMillis", elapsed.toMillis());
+		report.put("replayed", replayed);
+		report.put("throughputPerSecond", elapsed.isZero() ? 0 : replayed * 1000.0 / elapsed.toMillis());
+		report.put("skipped", this.skipped.sum());
+		report.put("matched", this.matched.sum());
+		report.put("mismatched", this.mismatched.sum());
+		report.put("errors", this.errors.sum());
+		report.put("maxLagMillis", TimeUnit.NANOSECONDS.toMillis(this.maxLagNanos.get()));
+		Map<Integer, Long> statuses = new TreeMap<>();
+		this.statuses.forEach((status, count) -> statuses.put(status, count.sum()));
+		report.put("statuses", statuses);
+		report.put("latencyMillis", latency(this.latency.takeSnapshot()));
+		report.put("mismatchSamples", new ArrayList<>(this.mismatchSamples));
+		return report;
+	}
+
+	private static Map<String, Object> latency(HistogramSnapshot snapshot) {
+		Map<String, Object> latency = new LinkedHashMap<>();
+		latency.put("mean", snapshot.mean(TimeUnit.MILLISECONDS));
+		latency.put("max", snapshot.max(TimeUnit.MILLISECONDS));
+		for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+			latency.put("p" + BigDecimal.valueOf(percentile.percentile() * 100).stripTrailingZeros().toPlainString(),
+					percentile.value(TimeUnit.MILLISECONDS));
+		}
+		List<Map<String, Object>> histogram = new ArrayList<>();
+		for (CountAtBucket bucket : snapshot.histogramCounts()) {
+			histogram.add(Map.of("le", bucket.bucket(TimeUnit.MILLISECONDS), "count", (long) bucket.count()));
+		}
+		latency.put("histogram", histogram);
+		return latency;
+	}
+
+	private static boolean sameResult(String expected, String actual) {
+		if (expected == null || actual == null) {
+			return expected == actual;
+		}
+		try {
+			return new BigDecimal(expected.trim()).compareTo(new BigDecimal(actual.trim())) == 0;
+		} catch (NumberFormatException e) {
+			return expected.trim().equals(actual.trim());
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package cl.tenpo.calculation.replay;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import cl.tenpo.calculation.dto.RequestAuditDto;
+
+/**
+ * Request a reproducir, obtenido de una auditoría.
+ * <p>
+ * Solo se reproducen los requests al endpoint de cálculo, cuyos parámetros
+ * ({@code [num1, num2]}, o {@code [num1, num2, tenant]} si se indicó el tenant)
+ * se registran completos en la auditoría. Las auditorías
+ * agregadas se reproducen como {@code count} requests enviados juntos.
+ *
+ * @param requestTime Fecha del request original
+ * @param query Parámetros del request, en formato query string
+ * @param tenant Tenant del request original, o {@code null} si no se indicó
+ * @param count Cantidad de requests representados por la auditoría
+ * @param expectedResult Resultado registrado del request original
+ * @param expectedSuccess Indica si el request original fue exitoso
+ */
+record ReplayRequest(LocalDateTime requestTime, String query, String tenant, long count, String expectedResult,
+		boolean expectedSuccess) {
+
+	static final String REPLAYED_ENDPOINT = "GET /calculation";
+
+	private static final Pattern CALCULATION_PARAMS = Pattern.compile(
+			"\\[\\s*(-?\\d+)\\s*,\\s*(-?\\d+)\\s*(?:,\\s*([A-Za-z0-9._:-]{1,64})\\s*)?]");
+
+	/**
+	 * @param audit Auditoría de un request
+	 * @return El request a reproducir, o vacío si la auditoría no es reproducible
+	 */
+	static Optional<ReplayRequest> of(RequestAuditDto audit) {
+		if (!REPLAYED_ENDPOINT.equals(audit.endpoint()) || audit.incoming() == null) {
+			return Optional.empty();
+		}
+		Matcher matcher = CALCULATION_PARAMS.matcher(audit.incoming());
+		if (!matcher.matches()) {
+			return Optional.empty();
+		}
+		return Optional.of(new ReplayRequest(audit.requestTime(),
+				"num1=" + matcher.group(1) + "&num2=" + matcher.group(2), matcher.group(3), Math.max(1, audit.count()),
+				audit.result(), audit.success()));
+	}
+}
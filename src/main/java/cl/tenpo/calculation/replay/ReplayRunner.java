@@ -0,0 +1,101 @@
+package cl.tenpo.calculation.replay;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import cl.tenpo.calculation.config.ReplayProperties;
+import cl.tenpo.calculation.dto.RequestAuditDto;
+import cl.tenpo.calculation.repository.RequestAuditRepository;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Modo de reproducción de tráfico ({@code replay.enabled}): recorre las
+ * auditorías del rango {@code replay.from}/{@code replay.to}, reproduce los
+ * requests de cálculo contra {@code replay.target}, escribe el reporte en
+ * {@code replay.report}. El código de salida, que
+ * {@link cl.tenpo.calculation.CalculationApplication} informa al finalizar, es 0
+ * si todas las respuestas coinciden con los resultados registrados y 1 si no.
+ * {@link ReplayEnvironmentPostProcessor} desactiva en este modo los servidores y
+ * las tareas en segundo plano del servicio.
+ * <p>
+ * Las auditorías se leen en un stream dentro de una transacción de solo
+ * lectura, por lo que la memoria usada no depende del tamaño del rango. Las
+ * auditorías ya archivadas no se reproducen.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "replay", name = "enabled", havingValue = "true")
+public class ReplayRunner implements ApplicationRunner, ExitCodeGenerator {
+
+	private final ReplayProperties properties;
+
+	private final RequestAuditRepository requestAuditRepository;
+
+	private final TransactionTemplate readOnlyTransaction;
+
+	private final ObjectMapper objectMapper;
+
+	private volatile int exitCode;
+
+	public ReplayRunner(ReplayProperties properties, RequestAuditRepository requestAuditRepository,
+			PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+		this.properties = properties;
+		this.requestAuditRepository = requestAuditRepository;
+		this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+		this.readOnlyTransaction.setReadOnly(true);
+		this.objectMapper = objectMapper;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run(ApplicationArguments args) throws IOException {
+		log.info("Reproduciendo el tráfico entre {} y {} contra {} (velocidad {})", this.properties.from(),
+				this.properties.to(), this.properties.target(), this.properties.speed());
+		long start = System.nanoTime();
+		ReplayReport report;
+		try (HttpClient client = HttpClient.newBuilder().connectTimeout(this.properties.timeout()).build()) {
+			TrafficReplayer replayer = new TrafficReplayer(this.properties, client);
+			report = this.readOnlyTransaction.execute(status -> {
+				try (Stream<RequestAuditDto> audits = this.requestAuditRepository
+						.streamInRange(this.properties.from(), this.properties.to(), this.properties.fetchSize())) {
+					return replayer.replay(audits.iterator());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Reproducción interrumpida", e);
+				}
+			});
+		}
+		Map<String, Object> summary = report.toMap(Duration.ofNanos(System.nanoTime() - start));
+		Path file = this.properties.report().toAbsolutePath();
+		Files.createDirectories(file.getParent());
+		this.objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), summary);
+		log.info("Reproducción finalizada: {} requests, {} diferencias, {} errores; reporte en {}",
+				summary.get("replayed"), summary.get("mismatched"), summary.get("errors"), file);
+		this.exitCode = report.mismatches() == 0 ? 0 : 1;
+	}
+
+	/**
+	 * @return 0 si todas las respuestas coincidieron con los resultados registrados, 1 si no
+	 */
+	@Override
+	public int getExitCode() {
+		return this.exitCode;
+	}
+}
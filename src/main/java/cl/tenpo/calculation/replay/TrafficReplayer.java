@@ -0,0 +1,114 @@
+package cl.tenpo.calculation.replay;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+
+import cl.tenpo.calculation.config.ReplayProperties;
+import cl.tenpo.calculation.controller.CalculationController;
+import cl.tenpo.calculation.dto.RequestAuditDto;
+
+/**
+ * Reproduce contra una instancia destino los requests registrados en la auditoría.
+ * <p>
+ * Los requests se envían respetando los intervalos originales entre ellos,
+ * divididos por {@code speed}, o lo más rápido posible si {@code speed} es 0;
+ * como máximo {@code concurrency} requests quedan en curso a la vez. Si la
+ * instancia destino no acompaña el ritmo, los envíos se demoran y la demora
+ * máxima queda registrada en el reporte.
+ */
+class TrafficReplayer {
+
+	private final ReplayProperties properties;
+
+	private final HttpClient client;
+
+	TrafficReplayer(ReplayProperties properties, HttpClient client) {
+		this.properties = properties;
+		this.client = client;
+	}
+
+	/**
+	 * Reproduce las auditorías indicadas, en orden, y espera todas las respuestas.
+	 *
+	 * @param audits Auditorías ordenadas por fecha
+	 * @return El reporte de la reproducción
+	 * @throws InterruptedException si se interrumpe la reproducción
+	 */
+	ReplayReport replay(Iterator<RequestAuditDto> audits) throws InterruptedException {
+		ReplayReport report = new ReplayReport(this.properties.maxMismatchSamples());
+		Semaphore inFlight = new Semaphore(this.properties.concurrency());
+		String baseUrl = this.properties.target().toString().replaceAll("/+$", "") + "/calculation?";
+		LocalDateTime firstRequestTime = null;
+		long start = System.nanoTime();
+		while (audits.hasNext()) {
+			Optional<ReplayRequest> next = ReplayRequest.of(audits.next());
+			if (next.isEmpty()) {
+				report.skipped();
+				continue;
+			}
+			ReplayRequest request = next.get();
+			if (firstRequestTime == null) {
+				firstRequestTime = request.requestTime();
+			}
+			long due = start + this.offsetNanos(firstRequestTime, request.requestTime());
+			HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + request.query()))
+					.timeout(this.properties.timeout())
+					.GET();
+			if (request.tenant() != null) {
+				builder.header(CalculationController.TENANT_HEADER, request.tenant());
+			}
+			HttpRequest httpRequest = builder.build();
+			for (long i = 0; i < request.count(); i++) {
+				waitUntil(due);
+				inFlight.acquire();
+				if (this.properties.speed() > 0) {
+					report.lag(System.nanoTime() - due);
+				}
+				this.send(httpRequest, request, report, inFlight);
+			}
+		}
+		inFlight.acquire(this.properties.concurrency());
+		return report;
+	}
+
+	private void send(HttpRequest httpRequest, ReplayRequest request, ReplayReport report, Semaphore inFlight) {
+		long sentAt = System.nanoTime();
+		this.client.sendAsync(httpRequest, HttpResponse.BodyHandlers.ofString())
+				.whenComplete((response, error) -> {
+					try {
+						if (error != null) {
+							report.error();
+						} else {
+							report.response(request, response.statusCode(), response.body(), System.nanoTime() - sentAt);
+						}
+					} finally {
+						inFlight.release();
+					}
+				});
+	}
+
+	private long offsetNanos(LocalDateTime firstRequestTime, LocalDateTime requestTime) {
+		if (this.properties.speed() <= 0) {
+			return 0;
+		}
+		return (long) (Duration.between(firstRequestTime, requestTime).toNanos() / this.properties.speed());
+	}
+
+	private static void waitUntil(long due) throws InterruptedException {
+		long remaining;
+		while ((remaining = due - System.nanoTime()) > 0) {
+			LockSupport.parkNanos(remaining);
+			if (Thread.interrupted()) {
+				throw new InterruptedException();
+			}
+		}
+	}
+}
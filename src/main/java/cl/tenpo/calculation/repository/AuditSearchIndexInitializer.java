@@ -0,0 +1,101 @@
+package cl.tenpo.calculation.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Crea en PostgreSQL los índices GIN de trigramas (extensión {@code pg_trgm})
+ * sobre los parámetros y resultados de las auditorías, que permiten resolver
+ * las búsquedas {@code like '%texto%'} de {@code /audit/search} sin recorrer
+ * la tabla completa.
+ * <p>
+ * El esquema lo genera Hibernate ({@code ddl-auto}), que no crea este tipo de
+ * índices. Se crean con {@code CREATE INDEX CONCURRENTLY}, sin bloquear la
+ * escritura de auditorías, en un thread propio una vez que la aplicación está
+ * lista, ya que sobre una tabla grande pueden demorar minutos. Un índice que
+ * quedó inválido por una creación interrumpida se vuelve a crear. En otras
+ * bases de datos (H2 en los tests) no se crean índices y la búsqueda recorre
+ * la tabla.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "audit.search", name = "create-indexes", havingValue = "true", matchIfMissing = true)
+public class AuditSearchIndexInitializer {
+
+	private static final List<String> INDEXED_COLUMNS = List.of("incoming", "result");
+
+	private final DataSource dataSource;
+
+	public AuditSearchIndexInitializer(DataSource dataSource) {
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * Inicia la creación de los índices en segundo plano.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void onApplicationReady() {
+		Thread thread = new Thread(this::createIndexes, "audit-search-index");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Crea los índices que no existen o que quedaron inválidos.
+	 */
+	void createIndexes() {
+		try (Connection connection = this.dataSource.getConnection()) {
+			if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+				log.debug("Índices de búsqueda de auditorías omitidos: la base de datos no es PostgreSQL");
+				return;
+			}
+			connection.setAutoCommit(true);
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+				for (String column : INDEXED_COLUMNS) {
+					String index = "request_audit_" + column + "_trgm";
+					Boolean valid = isValid(connection, index);
+					if (Boolean.TRUE.equals(valid)) {
+						continue;
+					}
+					if (valid != null) {
+						log.warn("El índice {} quedó inválido, se vuelve a crear", index);
+						statement.execute("DROP INDEX CONCURRENTLY IF EXISTS " + index);
+					}
+					long start = System.nanoTime();
+					statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + index
+							+ " ON request_audit USING gin (" + column + " gin_trgm_ops)");
+					log.info("Índice {} creado en {} ms", index, (System.nanoTime() - start) / 1_000_000);
+				}
+			}
+		} catch (SQLException e) {
+			log.warn("No se pudieron crear los índices de búsqueda de auditorías; la búsqueda recorrerá la tabla", e);
+		}
+	}
+
+	/**
+	 * @return Si el índice es válido, o {@code null} si no existe
+	 */
+	private static Boolean isValid(Connection connection, String index) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(
+				"select i.indisvalid from pg_class c join pg_index i on i.indexrelid = c.oid where c.relname = ?")) {
+			statement.setString(1, index);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return resultSet.next() ? resultSet.getBoolean(1) : null;
+			}
+		}
+	}
+}
@@ -0,0 +1,94 @@
+package cl.tenpo.calculation.repository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.stream.Stream;
+
+import cl.tenpo.calculation.dto.RequestAuditDto;
+
+/**
+ * Consultas por rango de fechas sobre las auditorías de la base de datos, con
+ * límites opcionales y paginación por desplazamiento arbitrario (necesaria para
+ * continuar una página que comenzó en las auditorías archivadas), y búsqueda
+ * de texto en los parámetros y resultados.
+ */
+public interface RequestAuditRangeRepository {
+
+	/**
+	 * Consulta que lee las auditorías directamente como {@link RequestAuditDto},
+	 * sin cargar entidades en el contexto de persistencia. Los registros
+	 * anteriores a la agregación (sin cantidad ni fechas de primer y último
+	 * request) representan un único request.
+	 */
+	String DTO_SELECT = "select new cl.tenpo.calculation.dto.RequestAuditDto(a.requestTime, a.endpoint, a.incoming,"
+			+ " a.result, a.success, coalesce(a.count, 1L), coalesce(a.firstSeen, a.requestTime),"
+			+ " coalesce(a.lastSeen, a.requestTime), a.formulaVersion) from RequestAudit a";
+
+	/**
+	 * Cuenta las auditorías en un rango de fechas.
+	 *
+	 * @param from Fecha desde (inclusive), o {@code null} para no acotar
+	 * @param to Fecha hasta (inclusive), o {@code null} para no acotar
+	 * @return La cantidad de auditorías en el rango
+	 */
+	long countInRange(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Estima la cantidad de auditorías en un rango de fechas con el planificador
+	 * de PostgreSQL ({@code EXPLAIN}), que escala las estadísticas de la tabla
+	 * ({@code reltuples}) a su tamaño actual sin leer sus filas.
+	 *
+	 * @param from Fecha desde (inclusive), o {@code null} para no acotar
+	 * @param to Fecha hasta (inclusive), o {@code null} para no acotar
+	 * @return La cantidad estimada, o vacío si la base de datos no es PostgreSQL
+	 */
+	OptionalLong estimateCountInRange(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Obtiene las auditorías en un rango de fechas, ordenadas por fecha.
+	 *
+	 * @param from Fecha desde (inclusive), o {@code null} para no acotar
+	 * @param to Fecha hasta (inclusive), o {@code null} para no acotar
+	 * @param offset Cantidad de auditorías del rango a omitir
+	 * @param limit Cantidad máxima de auditorías a devolver
+	 * @return Las auditorías en el rango
+	 */
+	List<RequestAuditDto> findInRange(LocalDateTime from, LocalDateTime to, long offset, int limit);
+
+	/**
+	 * Recorre las auditorías de la base de datos en un rango de fechas, ordenadas
+	 * por fecha, leyéndolas de a {@code fetchSize} filas. Debe invocarse dentro de
+	 * una transacción, que debe seguir abierta mientras se consume el stream, y el
+	 * stream debe cerrarse al terminar.
+	 *
+	 * @param from Fecha desde (inclusive), o {@code null} para no acotar
+	 * @param to Fecha hasta (inclusive), o {@code null} para no acotar
+	 * @param fetchSize Cantidad de filas leídas por cada viaje a la base de datos
+	 * @return Las auditorías en el rango
+	 */
+	Stream<RequestAuditDto> streamInRange(LocalDateTime from, LocalDateTime to, int fetchSize);
+
+	/**
+	 * Busca las auditorías cuyos parámetros o resultado contienen un texto, de la
+	 * más reciente a la más antigua. En PostgreSQL la búsqueda utiliza los índices
+	 * de trigramas creados por {@link AuditSearchIndexInitializer}.
+	 *
+	 * @param text Texto a buscar, literal (sin comodines)
+	 * @param limit Cantidad máxima de auditorías a devolver
+	 * @param timeout Tiempo máximo de la consulta
+	 * @return Las auditorías que contienen el texto
+	 */
+	List<RequestAuditDto> search(String text, int limit, Duration timeout);
+
+	/**
+	 * Toma el lock de archivado de auditorías, que impide que dos réplicas
+	 * archiven a la vez. En PostgreSQL es un advisory lock de la transacción en
+	 * curso, que se libera al finalizarla; en otras bases de datos (H2 en los
+	 * tests) siempre se obtiene.
+	 *
+	 * @return Si se obtuvo el lock; {@code false} si otra réplica está archivando
+	 */
+	boolean tryLockArchive();
+}
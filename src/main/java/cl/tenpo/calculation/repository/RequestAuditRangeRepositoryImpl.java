@@ -0,0 +1,167 @@
+package cl.tenpo.calculation.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.hibernate.jpa.HibernateHints;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import cl.tenpo.calculation.dto.RequestAuditDto;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+/**
+ * Implementación de {@link RequestAuditRangeRepository} con JPQL, en
+ * transacciones de solo lectura.
+ */
+@Transactional(readOnly = true)
+class RequestAuditRangeRepositoryImpl implements RequestAuditRangeRepository {
+
+	/**
+	 * Clave del advisory lock de archivado ("AUDC").
+	 */
+	private static final long ARCHIVE_LOCK_KEY = 0x41554443L;
+
+	private static final Pattern PLAN_ROWS = Pattern.compile("\"Plan Rows\":\\s*(\\d+)");
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long countInRange(LocalDateTime from, LocalDateTime to) {
+		TypedQuery<Long> query = this.entityManager
+				.createQuery("select count(a) from RequestAudit a" + where(from, to), Long.class);
+		bind(query, from, to);
+		return query.getSingleResult();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Las fechas se incluyen como literales en la consulta, ya que {@code EXPLAIN}
+	 * no admite parámetros; al ser {@link LocalDateTime} no pueden alterar la consulta.
+	 */
+	@Override
+	public OptionalLong estimateCountInRange(LocalDateTime from, LocalDateTime to) {
+		return this.entityManager.unwrap(Session.class).doReturningWork(connection -> {
+			if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+				return OptionalLong.empty();
+			}
+			String sql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM request_audit" + nativeWhere(from, to);
+			try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+				// La primera ocurrencia corresponde al nodo raíz del plan
+				Matcher matcher = resultSet.next() ? PLAN_ROWS.matcher(resultSet.getString(1)) : null;
+				return matcher != null && matcher.find()
+						? OptionalLong.of(Long.parseLong(matcher.group(1)))
+						: OptionalLong.empty();
+			}
+		});
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<RequestAuditDto> findInRange(LocalDateTime from, LocalDateTime to, long offset, int limit) {
+		TypedQuery<RequestAuditDto> query = this.entityManager.createQuery(
+				DTO_SELECT + where(from, to) + " order by a.requestTime, a.id", RequestAuditDto.class);
+		bind(query, from, to);
+		return query.setFirstResult(Math.toIntExact(offset)).setMaxResults(limit).getResultList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(readOnly = true, propagation = Propagation.MANDATORY)
+	public Stream<RequestAuditDto> streamInRange(LocalDateTime from, LocalDateTime to, int fetchSize) {
+		TypedQuery<RequestAuditDto> query = this.entityManager.createQuery(
+				DTO_SELECT + where(from, to) + " order by a.requestTime, a.id", RequestAuditDto.class);
+		bind(query, from, to);
+		return query.setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize).getResultStream();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public List<RequestAuditDto> search(String text, int limit, Duration timeout) {
+		TypedQuery<RequestAuditDto> query = this.entityManager.createQuery(DTO_SELECT
+				+ " where a.incoming like :pattern escape '\\' or a.result like :pattern escape '\\'"
+				+ " order by a.requestTime desc, a.id desc", RequestAuditDto.class);
+		return query.setParameter("pattern", "%" + escapeLike(text) + "%")
+				.setHint(SpecHints.HINT_SPEC_QUERY_TIMEOUT, Math.toIntExact(timeout.toMillis()))
+				.setMaxResults(limit)
+				.getResultList();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public boolean tryLockArchive() {
+		return this.entityManager.unwrap(Session.class).doReturningWork(connection -> {
+			if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+				return true;
+			}
+			try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_xact_lock(?)")) {
+				statement.setLong(1, ARCHIVE_LOCK_KEY);
+				try (ResultSet resultSet = statement.executeQuery()) {
+					return resultSet.next() && resultSet.getBoolean(1);
+				}
+			}
+		});
+	}
+
+	/**
+	 * Escapa los comodines de {@code like} para buscar el texto literal.
+	 */
+	private static String escapeLike(String text) {
+		return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+
+	private static String where(LocalDateTime from, LocalDateTime to) {
+		if (from != null && to != null) {
+			return " where a.requestTime between :from and :to";
+		}
+		if (from != null) {
+			return " where a.requestTime >= :from";
+		}
+		return to != null ? " where a.requestTime <= :to" : "";
+	}
+
+	private static String nativeWhere(LocalDateTime from, LocalDateTime to) {
+		if (from != null && to != null) {
+			return " WHERE request_time BETWEEN timestamp '" + from + "' AND timestamp '" + to + "'";
+		}
+		if (from != null) {
+			return " WHERE request_time >= timestamp '" + from + "'";
+		}
+		return to != null ? " WHERE request_time <= timestamp '" + to + "'" : "";
+	}
+
+	private static void bind(TypedQuery<?> query, LocalDateTime from, LocalDateTime to) {
+		if (from != null) {
+			query.setParameter("from", from);
+		}
+		if (to != null) {
+			query.setParameter("to", to);
+		}
+	}
+}
@@ -1,10 +1,65 @@
 package cl.tenpo.calculation.repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import cl.tenpo.calculation.dto.RequestAuditDto;
 import cl.tenpo.calculation.entity.RequestAudit;
 
 /**
  * Repositorio para manejar las auditorías de requests.
  */
-public interface RequestAuditRepository extends JpaRepository<RequestAudit, Long> {}
+public interface RequestAuditRepository extends JpaRepository<RequestAudit, Long>, RequestAuditRangeRepository {
+
+	/**
+	 * Obtiene las auditorías más antiguas que una fecha, ordenadas por fecha.
+	 *
+	 * @param cutoff Fecha límite (exclusive)
+	 * @param pageable Página a obtener
+	 * @return Las auditorías anteriores a la fecha indicada
+	 */
+	List<RequestAudit> findByRequestTimeBeforeOrderByRequestTimeAsc(LocalDateTime cutoff, Pageable pageable);
+
+	/**
+	 * Elimina las auditorías indicadas. Las que ya no existen se ignoran.
+	 *
+	 * @param ids Ids de las auditorías a eliminar
+	 * @return La cantidad de auditorías eliminadas
+	 */
+	@Transactional
+	@Modifying
+	@Query("delete from RequestAudit a where a.id in :ids")
+	int deleteByIds(@Param("ids") List<Long> ids);
+
+	/**
+	 * Obtiene una página de auditorías leídas directamente como DTO, en una
+	 * transacción de solo lectura (sin flush ni copias para dirty checking).
+	 *
+	 * @param pageable Página a obtener
+	 * @return La página de auditorías
+	 */
+	@Transactional(readOnly = true)
+	@Query(value = DTO_SELECT, countQuery = "select count(a) from RequestAudit a")
+	Page<RequestAuditDto> findAllAsDto(Pageable pageable);
+
+	/**
+	 * Obtiene una página de auditorías leídas directamente como DTO, sin contar
+	 * el total: se lee una fila más que el tamaño de la página para saber si hay
+	 * una página siguiente.
+	 *
+	 * @param pageable Página a obtener
+	 * @return La página de auditorías
+	 */
+	@Transactional(readOnly = true)
+	@Query(DTO_SELECT)
+	Slice<RequestAuditDto> findSliceAsDto(Pageable pageable);
+}
@@ -0,0 +1,67 @@
+package cl.tenpo.calculation.runtime;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Contadores de las tareas del executor de {@code @Async} (auditoría), leídos
+ * sin tomar el lock interno del pool.
+ * <p>
+ * {@link java.util.concurrent.ThreadPoolExecutor#getActiveCount()} toma el lock
+ * del pool en cada lectura; estos contadores se actualizan desde el
+ * {@link #taskDecorator() decorador} de cada tarea y pueden leerse con cualquier
+ * frecuencia sin competir con los threads que encolan auditorías.
+ */
+@Component
+public class AsyncTaskActivity {
+
+	private final AtomicInteger active = new AtomicInteger();
+
+	private final LongAdder completed = new LongAdder();
+
+	private final LongAdder failed = new LongAdder();
+
+	/**
+	 * @return Decorador que registra el inicio y fin de cada tarea. No se expone
+	 * 	como bean propio porque el executor de {@code @Async} solo utiliza un único
+	 * 	{@link TaskDecorator}.
+	 */
+	public TaskDecorator taskDecorator() {
+		return task -> () -> {
+			this.active.incrementAndGet();
+			try {
+				task.run();
+				this.completed.increment();
+			} catch (RuntimeException | Error e) {
+				this.failed.increment();
+				throw e;
+			} finally {
+				this.active.decrementAndGet();
+			}
+		};
+	}
+
+	/**
+	 * @return Cantidad de tareas en ejecución
+	 */
+	public int active() {
+		return this.active.get();
+	}
+
+	/**
+	 * @return Cantidad de tareas finalizadas correctamente desde el inicio
+	 */
+	public long completed() {
+		return this.completed.sum();
+	}
+
+	/**
+	 * @return Cantidad de tareas finalizadas con error desde el inicio
+	 */
+	public long failed() {
+		return this.failed.sum();
+	}
+}
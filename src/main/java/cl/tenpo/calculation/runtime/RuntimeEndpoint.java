@@ -0,0 +1,184 @@
+package cl.tenpo.calculation.runtime;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimiter;
+import cl.tenpo.calculation.limiter.PriorityAdmissionController;
+import cl.tenpo.calculation.limiter.RequestPriority;
+import cl.tenpo.calculation.service.external.PercentageLookup;
+import cl.tenpo.calculation.service.external.PercentageServiceProxyImpl;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+
+/**
+ * Endpoint de actuator ({@code GET /actuator/runtime}) con una foto del estado
+ * interno del servicio en ejecución:
+ * <ul>
+ * <li>El último porcentaje obtenido, su origen y antigüedad.</li>
+ * <li>Los contadores de los retries y el estado de los circuit breakers de Resilience4j.</li>
+ * <li>El límite adaptativo de concurrencia y los presupuestos de admisión por prioridad.</li>
+ * <li>La cola y los threads activos del executor de {@code @Async} (auditoría).</li>
+ * <li>El uso del pool de conexiones de Hikari.</li>
+ * </ul>
+ * Todos los valores se leen de campos volátiles, atómicos o colecciones
+ * concurrentes, sin tomar locks, por lo que el endpoint puede consultarse cada
+ * segundo con el servicio a plena carga. Por el mismo motivo se omiten las tasas
+ * de falla de los circuit breakers, que requieren sincronizar su ventana; están
+ * disponibles en las métricas de Resilience4j.
+ */
+@Component
+@Endpoint(id = "runtime")
+public class RuntimeEndpoint {
+
+	private final PercentageServiceProxyImpl percentageService;
+
+	private final RetryRegistry retryRegistry;
+
+	private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+	private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+
+	private final ObjectProvider<PriorityAdmissionController> admissionController;
+
+	private final AsyncTaskActivity asyncTaskActivity;
+
+	private final ObjectProvider<ThreadPoolTaskExecutor> asyncExecutor;
+
+	private final ObjectProvider<DataSource> dataSource;
+
+	public RuntimeEndpoint(PercentageServiceProxyImpl percentageService, RetryRegistry retryRegistry,
+			CircuitBreakerRegistry circuitBreakerRegistry, AdaptiveConcurrencyLimiter concurrencyLimiter,
+			ObjectProvider<PriorityAdmissionController> admissionController, AsyncTaskActivity asyncTaskActivity,
+			@Qualifier("applicationTaskExecutor") ObjectProvider<ThreadPoolTaskExecutor> asyncExecutor,
+			ObjectProvider<DataSource> dataSource) {
+		this.percentageService = percentageService;
+		this.retryRegistry = retryRegistry;
+		this.circuitBreakerRegistry = circuitBreakerRegistry;
+		this.concurrencyLimiter = concurrencyLimiter;
+		this.admissionController = admissionController;
+		this.asyncTaskActivity = asyncTaskActivity;
+		this.asyncExecutor = asyncExecutor;
+		this.dataSource = dataSource;
+	}
+
+	/**
+	 * Obtiene el estado interno actual del servicio.
+	 *
+	 * @return El estado de cada componente, agrupado por sección
+	 */
+	@ReadOperation
+	public Map<String, Object> snapshot() {
+		Instant now = Instant.now();
+		Map<String, Object> snapshot = new LinkedHashMap<>();
+		snapshot.put("timestamp", now.toString());
+		snapshot.put("percentage", this.percentage(now));
+		snapshot.put("retries", this.retries());
+		snapshot.put("circuitBreakers", this.circuitBreakers());
+		snapshot.put("concurrencyLimit", Map.of(
+				"limit", this.concurrencyLimiter.getLimit(),
+				"inflight", this.concurrencyLimiter.getInflight()));
+		PriorityAdmissionController admission = this.admissionController.getIfAvailable();
+		if (admission != null) {
+			snapshot.put("admission", admission(admission));
+		}
+		snapshot.put("auditExecutor", this.auditExecutor());
+		Map<String, Object> database = this.database();
+		if (database != null) {
+			snapshot.put("database", database);
+		}
+		return snapshot;
+	}
+
+	private Map<String, Object> percentage(Instant now) {
+		PercentageLookup lookup = this.percentageService.lastLookup();
+		if (lookup == null) {
+			return Map.of();
+		}
+		return Map.of(
+				"value", lookup.value(),
+				"source", lookup.source(),
+				"obtainedAt", lookup.obtainedAt().toString(),
+				"ageMillis", Duration.between(lookup.obtainedAt(), now).toMillis());
+	}
+
+	private Map<String, Object> retries() {
+		Map<String, Object> retries = new LinkedHashMap<>();
+		this.retryRegistry.getAllRetries().forEach(retry -> retries.put(retry.getName(), Map.of(
+				"successfulWithoutRetry", retry.getMetrics().getNumberOfSuccessfulCallsWithoutRetryAttempt(),
+				"successfulWithRetry", retry.getMetrics().getNumberOfSuccessfulCallsWithRetryAttempt(),
+				"failedWithoutRetry", retry.getMetrics().getNumberOfFailedCallsWithoutRetryAttempt(),
+				"failedWithRetry", retry.getMetrics().getNumberOfFailedCallsWithRetryAttempt())));
+		return retries;
+	}
+
+	private Map<String, Object> circuitBreakers() {
+		Map<String, Object> circuitBreakers = new LinkedHashMap<>();
+		this.circuitBreakerRegistry.getAllCircuitBreakers().forEach(circuitBreaker -> circuitBreakers.put(
+				circuitBreaker.getName(), Map.of(
+						"state", circuitBreaker.getState().name(),
+						"notPermittedCalls", circuitBreaker.getMetrics().getNumberOfNotPermittedCalls())));
+		return circuitBreakers;
+	}
+
+	private static Map<String, Object> admission(PriorityAdmissionController admission) {
+		Map<String, Object> budgets = new LinkedHashMap<>();
+		budgets.put("overloaded", admission.isOverloaded());
+		for (RequestPriority priority : RequestPriority.values()) {
+			budgets.put(priority.name(), Map.of(
+					"availablePermits", admission.availablePermits(priority),
+					"queueLength", admission.queueLength(priority)));
+		}
+		return budgets;
+	}
+
+	private Map<String, Object> auditExecutor() {
+		Map<String, Object> executor = new LinkedHashMap<>();
+		ThreadPoolTaskExecutor taskExecutor = this.asyncExecutor.getIfAvailable();
+		if (taskExecutor != null) {
+			executor.put("queued", taskExecutor.getQueueSize());
+			executor.put("maxPoolSize", taskExecutor.getMaxPoolSize());
+		}
+		executor.put("active", this.asyncTaskActivity.active());
+		executor.put("completed", this.asyncTaskActivity.completed());
+		executor.put("failed", this.asyncTaskActivity.failed());
+		return executor;
+	}
+
+	private Map<String, Object> database() {
+		DataSource source = this.dataSource.getIfAvailable();
+		try {
+			if (source == null || !source.isWrapperFor(HikariDataSource.class)) {
+				return null;
+			}
+			HikariDataSource hikari = source.unwrap(HikariDataSource.class);
+			HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+			if (pool == null) {
+				return Map.of("maxPoolSize", hikari.getMaximumPoolSize());
+			}
+			return Map.of(
+					"active", pool.getActiveConnections(),
+					"idle", pool.getIdleConnections(),
+					"total", pool.getTotalConnections(),
+					"awaiting", pool.getThreadsAwaitingConnection(),
+					"maxPoolSize", hikari.getMaximumPoolSize());
+		} catch (SQLException e) {
+			return null;
+		}
+	}
+}
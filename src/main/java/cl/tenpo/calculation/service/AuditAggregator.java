@@ -0,0 +1,249 @@
+package cl.tenpo.calculation.service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import cl.tenpo.calculation.config.AuditAggregationProperties;
+import cl.tenpo.calculation.entity.RequestAudit;
+import cl.tenpo.calculation.repository.RequestAuditRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Agrega en memoria las auditorías idénticas (mismo endpoint, parámetros,
+ * resultado, éxito y versión de la fórmula) recibidas dentro de una ventana de tiempo, y las persiste
+ * como un único registro con la cantidad de requests y las fechas del primero y
+ * del último.
+ * <p>
+ * Cada auditoría se suma a su agregado y cada agregado se retira para
+ * persistirse mediante operaciones atómicas del mapa, por lo que ningún request
+ * se pierde ni se cuenta dos veces aunque llegue durante el volcado.
+ * <p>
+ * Si falla la persistencia del lote, los agregados se persisten uno a uno, de
+ * modo que un registro inválido (por ejemplo, un resultado más largo que la
+ * columna) no impide persistir los demás. Los agregados que fallan se vuelven a
+ * sumar al mapa y se reintentan en el siguiente volcado; si fallan por sus datos
+ * en {@code audit.aggregation.max-attempts} volcados, se descartan con un log de
+ * error y la métrica {@code audit.aggregation.dropped}. Las fallas por
+ * indisponibilidad de la base de datos no cuentan como intentos.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "audit.aggregation", name = "enabled", havingValue = "true")
+public class AuditAggregator implements DisposableBean {
+
+	private final RequestAuditRepository requestAuditRepository;
+
+	private final int maxKeys;
+
+	private final int maxAttempts;
+
+	private final Counter dropped;
+
+	private final Map<AuditKey, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+	public AuditAggregator(RequestAuditRepository requestAuditRepository, AuditAggregationProperties properties,
+			MeterRegistry meterRegistry) {
+		this.requestAuditRepository = requestAuditRepository;
+		this.maxKeys = properties.maxKeys();
+		this.maxAttempts = properties.maxAttempts();
+		this.dropped = Counter.builder("audit.aggregation.dropped")
+				.description("Auditorías agregadas descartadas tras fallar su persistencia en todos los intentos")
+				.baseUnit("requests")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * Suma una auditoría a su agregado.
+	 *
+	 * @param requestTime Hora del request
+	 * @param endpoint Endpoint del request
+	 * @param incoming Parámetros de entrada del request
+	 * @param result Resultado del request
+	 * @param success Indica si el request fue exitoso o no
+	 * @return {@code false} si se alcanzó la cantidad máxima de agregados y la
+	 *         auditoría debe persistirse sin agregar
+	 */
+	public boolean add(LocalDateTime requestTime, String endpoint, String incoming, String result, boolean success) {
+		return this.add(requestTime, endpoint, incoming, result, success, null);
+	}
+
+	/**
+	 * Suma una auditoría de cálculo a su agregado.
+	 *
+	 * @param requestTime Hora del request
+	 * @param endpoint Endpoint del request
+	 * @param incoming Parámetros de entrada del request
+	 * @param result Resultado del request
+	 * @param success Indica si el request fue exitoso o no
+	 * @param formulaVersion Versión de la fórmula aplicada, o {@code null}
+	 * @return {@code false} si se alcanzó la cantidad máxima de agregados y la
+	 *         auditoría debe persistirse sin agregar
+	 */
+	public boolean add(LocalDateTime requestTime, String endpoint, String incoming, String result, boolean success,
+			String formulaVersion) {
+		AuditKey key = new AuditKey(endpoint, incoming, result, success, formulaVersion);
+		if (this.aggregates.size() >= this.maxKeys && !this.aggregates.containsKey(key)) {
+			return false;
+		}
+		this.aggregates.compute(key, (k, aggregate) -> aggregate == null
+				? new Aggregate(requestTime)
+				: aggregate.add(requestTime));
+		return true;
+	}
+
+	/**
+	 * Persiste y retira de memoria los agregados acumulados en la ventana.
+	 *
+	 * @return La cantidad de registros persistidos
+	 */
+	@Scheduled(fixedDelayString = "${audit.aggregation.window:1s}")
+	public int flush() {
+		Map<AuditKey, Aggregate> drained = new HashMap<>();
+		for (AuditKey key : this.aggregates.keySet()) {
+			Aggregate aggregate = this.aggregates.remove(key);
+			if (aggregate != null) {
+				drained.put(key, aggregate);
+			}
+		}
+		if (drained.isEmpty()) {
+			return 0;
+		}
+		List<RequestAudit> rows = new ArrayList<>(drained.size());
+		drained.forEach((key, aggregate) -> rows.add(row(key, aggregate)));
+		try {
+			this.requestAuditRepository.saveAll(rows);
+		} catch (RuntimeException e) {
+			log.warn("No se pudo persistir el lote de {} auditorías agregadas; se persistirán una a una", rows.size(), e);
+			return this.saveOneByOne(drained);
+		}
+		log.debug("Se persistieron {} auditorías agregadas", rows.size());
+		return rows.size();
+	}
+
+	/**
+	 * Persiste cada agregado en su propia transacción. Si la base de datos no
+	 * está disponible, el resto de los agregados vuelve al mapa sin intentarse.
+	 */
+	private int saveOneByOne(Map<AuditKey, Aggregate> drained) {
+		int persisted = 0;
+		boolean unavailable = false;
+		for (Map.Entry<AuditKey, Aggregate> entry : drained.entrySet()) {
+			AuditKey key = entry.getKey();
+			Aggregate aggregate = entry.getValue();
+			if (unavailable) {
+				this.aggregates.merge(key, aggregate, Aggregate::merge);
+				continue;
+			}
+			try {
+				this.requestAuditRepository.save(row(key, aggregate));
+				persisted++;
+			} catch (RuntimeException e) {
+				unavailable = isUnavailable(e);
+				if (unavailable) {
+					log.error("Base de datos no disponible; las auditorías agregadas se reintentarán en el próximo volcado", e);
+					this.aggregates.merge(key, aggregate, Aggregate::merge);
+				} else if (++aggregate.attempts >= this.maxAttempts) {
+					this.dropped.increment(aggregate.count);
+					log.error("Se descarta la auditoría agregada de {} ({} requests) tras {} intentos fallidos",
+							key.endpoint(), aggregate.count, aggregate.attempts, e);
+				} else {
+					log.warn("No se pudo persistir la auditoría agregada de {}; se reintentará en el próximo volcado",
+							key.endpoint(), e);
+					this.aggregates.merge(key, aggregate, Aggregate::merge);
+				}
+			}
+		}
+		return persisted;
+	}
+
+	private static boolean isUnavailable(RuntimeException e) {
+		return e instanceof DataAccessResourceFailureException || e instanceof TransientDataAccessException
+				|| e instanceof RecoverableDataAccessException;
+	}
+
+	private static RequestAudit row(AuditKey key, Aggregate aggregate) {
+		return RequestAudit.builder()
+				.requestTime(aggregate.firstSeen)
+				.endpoint(key.endpoint())
+				.incoming(key.incoming())
+				.result(key.result())
+				.success(key.success())
+				.formulaVersion(key.formulaVersion())
+				.count(aggregate.count)
+				.firstSeen(aggregate.firstSeen)
+				.lastSeen(aggregate.lastSeen)
+				.build();
+	}
+
+	/**
+	 * Persiste los agregados pendientes al detener la aplicación.
+	 */
+	@Override
+	public void destroy() {
+		this.flush();
+	}
+
+	private record AuditKey(String endpoint, String incoming, String result, boolean success,
+			String formulaVersion) {
+	}
+
+	/**
+	 * Agregado de auditorías idénticas. Solo se modifica dentro de
+	 * {@link Map#compute} y {@link Map#merge}, que serializan los accesos por clave.
+	 */
+	private static final class Aggregate {
+
+		private long count = 1;
+
+		private LocalDateTime firstSeen;
+
+		private LocalDateTime lastSeen;
+
+		/**
+		 * Volcados en los que falló la persistencia del agregado por sus datos.
+		 */
+		private int attempts;
+
+		private Aggregate(LocalDateTime requestTime) {
+			this.firstSeen = requestTime;
+			this.lastSeen = requestTime;
+		}
+
+		private Aggregate add(LocalDateTime requestTime) {
+			this.count++;
+			if (requestTime.isBefore(this.firstSeen)) {
+				this.firstSeen = requestTime;
+			}
+			if (requestTime.isAfter(this.lastSeen)) {
+				this.lastSeen = requestTime;
+			}
+			return this;
+		}
+
+		private Aggregate merge(Aggregate other) {
+			this.count += other.count;
+			if (other.firstSeen.isBefore(this.firstSeen)) {
+				this.firstSeen = other.firstSeen;
+			}
+			if (other.lastSeen.isAfter(this.lastSeen)) {
+				this.lastSeen = other.lastSeen;
+			}
+			this.attempts = Math.max(this.attempts, other.attempts);
+			return this;
+		}
+	}
+}
@@ -1,18 +1,30 @@
 package cl.tenpo.calculation.service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.OptionalLong;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
+import cl.tenpo.calculation.archive.AuditArchiveStore;
+import cl.tenpo.calculation.config.AuditPaginationProperties;
+import cl.tenpo.calculation.config.AuditPaginationProperties.CountStrategy;
+import cl.tenpo.calculation.config.AuditSearchProperties;
 import cl.tenpo.calculation.dto.PageDto;
 import cl.tenpo.calculation.dto.RequestAuditDto;
 import cl.tenpo.calculation.entity.RequestAudit;
+import cl.tenpo.calculation.jfr.AuditPersistEvent;
 import cl.tenpo.calculation.repository.RequestAuditRepository;
+import io.micrometer.observation.annotation.Observed;
 import lombok.extern.slf4j.Slf4j;
 
 /**
@@ -25,9 +37,23 @@ public class AuditService {
 	@Autowired
 	RequestAuditRepository requestAuditRepository;
 
+	@Autowired
+	AuditArchiveStore auditArchiveStore;
+
+	@Autowired(required = false)
+	AuditAggregator auditAggregator;
+
+	@Autowired
+	AuditSearchProperties auditSearchProperties;
+
+	@Autowired
+	AuditPaginationProperties auditPaginationProperties;
+
 	/**
 	 * Registra un request realizado al servicio.
-	 * Este método se ejecuta de forma asíncrona para no bloquear el hilo principal
+	 * Este método se ejecuta de forma asíncrona para no bloquear el hilo principal.
+	 * Con la agregación habilitada ({@code audit.aggregation.enabled}) los requests
+	 * idénticos se acumulan en memoria y se persisten periódicamente como un único registro.
 	 * 
 	 * @param requestTime Hora del request 
 	 * @param endpoint Endpoint del request
@@ -36,34 +62,187 @@ public class AuditService {
 	 * @param success Indica si el request fue exitoso o no
 	 */
 	@Async
+	@Observed(name = "audit.persist")
 	public void auditRequest(LocalDateTime requestTime, String endpoint, List<?> incoming, Object result,
 			boolean success) {
+		this.persist(requestTime, endpoint, incoming, result, success, null);
+	}
+
+	/**
+	 * Registra un request de cálculo junto con la versión de la fórmula con la
+	 * que se calculó su resultado. Se ejecuta de forma asíncrona, como
+	 * {@link #auditRequest(LocalDateTime, String, List, Object, boolean)}.
+	 * 
+	 * @param requestTime Hora del request 
+	 * @param endpoint Endpoint del request
+	 * @param incoming Lista de parámetros de entrada del request
+	 * @param result Resultado del request
+	 * @param success Indica si el request fue exitoso o no
+	 * @param formulaVersion Versión de la fórmula aplicada, o {@code null} si no se llegó a calcular
+	 */
+	@Async
+	@Observed(name = "audit.persist")
+	public void auditRequest(LocalDateTime requestTime, String endpoint, List<?> incoming, Object result,
+			boolean success, String formulaVersion) {
+		this.persist(requestTime, endpoint, incoming, result, success, formulaVersion);
+	}
+
+	private void persist(LocalDateTime requestTime, String endpoint, List<?> incoming, Object result,
+			boolean success, String formulaVersion) {
+		String incomingValue = incoming != null ? incoming.toString() : null;
+		String resultValue = result != null ? result.toString() : null;
+		if (this.auditAggregator != null
+				&& this.auditAggregator.add(requestTime, endpoint, incomingValue, resultValue, success,
+						formulaVersion)) {
+			return;
+		}
 		RequestAudit requestLog = 
 				RequestAudit.builder()
 					.requestTime(requestTime)
 					.endpoint(endpoint)
-					.incoming(incoming != null ? incoming.toString() : null)
-					.result(result != null ? result.toString() : null)
+					.incoming(incomingValue)
+					.result(resultValue)
 					.success(success)
+					.formulaVersion(formulaVersion)
+					.count(1L)
+					.firstSeen(requestTime)
+					.lastSeen(requestTime)
 					.build();
-		this.requestAuditRepository.save(requestLog);// Simulate an exception for testing
-		log.info("Audit request processed." + requestLog);
+		AuditPersistEvent event = new AuditPersistEvent();
+		event.begin();
+		try {
+			this.requestAuditRepository.save(requestLog);// Simulate an exception for testing
+			event.persisted = true;
+		} finally {
+			event.end();
+			if (event.shouldCommit()) {
+				event.endpoint = endpoint;
+				event.commit();
+			}
+		}
+		if (log.isDebugEnabled()) {
+			log.debug("Auditoría registrada: id={}, endpoint={}", requestLog.getId(), endpoint);
+		}
 	}
 
 	/**
-	 * Obtiene una lista paginada de los requests realizados al servicio.
+	 * Obtiene una lista paginada de los requests realizados al servicio. Las
+	 * auditorías se leen directamente como DTO, sin cargar entidades. El total se
+	 * obtiene según {@code audit.pagination.count-strategy}: con las estrategias
+	 * {@code estimated} y {@code none} no se cuentan las filas de la tabla.
 	 * 
 	 * @param pageNumber Número de página a obtener
 	 * @param size Tamaño de la página a obtener
 	 * @return PageDto<RequestAuditDto> Lista paginada de los requests realizados al servicio
 	 */
+	@Observed(name = "audit.query")
 	public PageDto<RequestAuditDto> getAll(int pageNumber, int size) {
-		Page<RequestAudit> page = this.requestAuditRepository.findAll(PageRequest.of(pageNumber, size));
-		return new PageDto<>(
-				page.getContent().stream()
-						.map(log -> new RequestAuditDto(log.getRequestTime(), log.getEndpoint(), log.getIncoming(),
-								log.getResult(), log.isSuccess()))
-						.toList(),
-				page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages(), page.isLast());
+		CountStrategy strategy = this.auditPaginationProperties.countStrategy();
+		if (strategy == CountStrategy.EXACT) {
+			Page<RequestAuditDto> page = this.requestAuditRepository.findAllAsDto(PageRequest.of(pageNumber, size));
+			return new PageDto<>(
+					page.getContent(),
+					page.getNumber(), page.getSize(), page.getTotalElements(), page.getTotalPages(), page.isLast());
+		}
+		Slice<RequestAuditDto> slice = this.requestAuditRepository.findSliceAsDto(PageRequest.of(pageNumber, size));
+		return this.page(slice.getContent(), pageNumber, size, slice.hasNext(), strategy, null, null, 0);
+	}
+
+	/**
+	 * Obtiene una lista paginada de los requests realizados al servicio en un rango
+	 * de fechas, ordenada por fecha. La consulta abarca tanto las auditorías
+	 * archivadas como las de la base de datos: las archivadas son siempre más
+	 * antiguas, por lo que la página se completa primero con ellas y luego con las
+	 * de la base de datos. El total de las auditorías de la base de datos se
+	 * obtiene según {@code audit.pagination.count-strategy}.
+	 * 
+	 * @param from Fecha desde (inclusive), o {@code null} para no acotar
+	 * @param to Fecha hasta (inclusive), o {@code null} para no acotar
+	 * @param pageNumber Número de página a obtener
+	 * @param size Tamaño de la página a obtener
+	 * @return PageDto<RequestAuditDto> Lista paginada de los requests realizados al servicio en el rango
+	 */
+	@Observed(name = "audit.query")
+	public PageDto<RequestAuditDto> getRange(LocalDateTime from, LocalDateTime to, int pageNumber, int size) {
+		long offset = (long) pageNumber * size;
+		long archived = this.auditArchiveStore.count(from, to);
+		List<RequestAuditDto> content = new ArrayList<>(this.auditArchiveStore.find(from, to, offset, size));
+
+		CountStrategy strategy = this.auditPaginationProperties.countStrategy();
+		if (strategy == CountStrategy.EXACT) {
+			long total = archived + this.requestAuditRepository.countInRange(from, to);
+			if (content.size() < size && offset + content.size() < total) {
+				long hotOffset = Math.max(0, offset - archived);
+				content.addAll(this.requestAuditRepository.findInRange(from, to, hotOffset, size - content.size()));
+			}
+			return new PageDto<>(content, pageNumber, size, total, totalPages(total, size), offset + size >= total);
+		}
+
+		// Sin el total exacto, se lee una auditoría más para saber si hay una página siguiente
+		boolean hasNext;
+		if (content.size() < size) {
+			long hotOffset = Math.max(0, offset - archived);
+			int remaining = size - content.size();
+			List<RequestAuditDto> hot = this.requestAuditRepository.findInRange(from, to, hotOffset, remaining + 1);
+			hasNext = hot.size() > remaining;
+			content.addAll(hasNext ? hot.subList(0, remaining) : hot);
+		} else {
+			hasNext = offset + size < archived || !this.requestAuditRepository.findInRange(from, to, 0, 1).isEmpty();
+		}
+		return this.page(content, pageNumber, size, hasNext, strategy, from, to, archived);
+	}
+
+	/**
+	 * Arma una página sin contar las auditorías de la base de datos: sin total con
+	 * la estrategia {@code none}, o con la estimación del planificador de la base
+	 * de datos, que nunca es menor que las auditorías ya leídas. Si la base de
+	 * datos no permite estimar, se cuenta en forma exacta.
+	 */
+	private PageDto<RequestAuditDto> page(List<RequestAuditDto> content, int pageNumber, int size, boolean hasNext,
+			CountStrategy strategy, LocalDateTime from, LocalDateTime to, long archived) {
+		if (strategy == CountStrategy.NONE) {
+			return new PageDto<>(content, pageNumber, size, -1, -1, !hasNext, true);
+		}
+		OptionalLong estimate = this.requestAuditRepository.estimateCountInRange(from, to);
+		if (estimate.isEmpty()) {
+			long total = archived + this.requestAuditRepository.countInRange(from, to);
+			return new PageDto<>(content, pageNumber, size, total, totalPages(total, size), !hasNext);
+		}
+		long known = (long) pageNumber * size + content.size() + (hasNext ? 1 : 0);
+		long total = Math.max(archived + estimate.getAsLong(), known);
+		return new PageDto<>(content, pageNumber, size, total, totalPages(total, size), !hasNext, true);
+	}
+
+	private static int totalPages(long total, int size) {
+		return size == 0 ? 1 : (int) ((total + size - 1) / size);
+	}
+
+	/**
+	 * Busca las auditorías de la base de datos cuyos parámetros o resultado
+	 * contienen un texto, de la más reciente a la más antigua. No incluye las
+	 * auditorías archivadas.
+	 * 
+	 * @param text Texto a buscar, literal (sin comodines)
+	 * @param limit Cantidad máxima de auditorías a devolver
+	 * @return Las auditorías que contienen el texto
+	 * @throws IllegalArgumentException Si el texto es demasiado corto o el límite está fuera de rango
+	 * @throws ResponseStatusException Si la consulta supera el tiempo máximo
+	 */
+	@Observed(name = "audit.search")
+	public List<RequestAuditDto> search(String text, int limit) {
+		AuditSearchProperties props = this.auditSearchProperties;
+		if (text == null || text.length() < props.minLength()) {
+			throw new IllegalArgumentException("q debe tener al menos " + props.minLength() + " caracteres");
+		}
+		if (limit < 1 || limit > props.maxResults()) {
+			throw new IllegalArgumentException("limit debe estar entre 1 y " + props.maxResults());
+		}
+		try {
+			return this.requestAuditRepository.search(text, limit, props.timeout());
+		} catch (QueryTimeoutException | jakarta.persistence.QueryTimeoutException e) {
+			log.warn("Búsqueda de auditorías cancelada por superar {}: {}", props.timeout(), text);
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+					"La búsqueda superó el tiempo máximo, utilice un texto más específico");
+		}
 	}
 }
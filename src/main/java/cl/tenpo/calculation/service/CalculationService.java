@@ -4,20 +4,39 @@ import java.math.BigDecimal;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import cl.tenpo.calculation.formula.ActiveFormula;
+import cl.tenpo.calculation.formula.FormulaEngine;
+import cl.tenpo.calculation.jfr.CalculationEvent;
+import io.micrometer.observation.annotation.Observed;
 
 /**
  * Servicio encargado de realizar el cálculo de la operación indicada: El
  * servicio debe sumar ambos números y aplicar un porcentaje adicional obtenido
  * de un servicio externo (por ejemplo, si recibe num1=5 y num2=5 y el servicio
  * externo retorna un 10%, el resultado será (5 + 5) + 10% = 11).
+ * La operación se define con una fórmula configurable ({@link FormulaEngine}),
+ * que por defecto es la descrita. La versión de la fórmula usada en un request
+ * HTTP se deja en el atributo {@link #FORMULA_VERSION_ATTRIBUTE} para auditarla.
  */
 @Service
 public class CalculationService {
 
+	/**
+	 * Atributo del request con la versión de la fórmula con la que se calculó el resultado.
+	 */
+	public static final String FORMULA_VERSION_ATTRIBUTE = CalculationService.class.getName() + ".FORMULA_VERSION";
+
 	private final PercentageService percentageService;
 
-	public CalculationService(@Qualifier("percentageService") PercentageService percentageService) {
+	private final FormulaEngine formulaEngine;
+
+	public CalculationService(@Qualifier("percentageService") PercentageService percentageService,
+			FormulaEngine formulaEngine) {
 		this.percentageService = percentageService;
+		this.formulaEngine = formulaEngine;
 	}
 
 	/**
@@ -28,9 +47,97 @@ public class CalculationService {
 	 * @param num2 Segundo número de entrada de la operación.
 	 * @return El resultado del cálculo de la operación
 	 */
+	@Observed(name = "calculation.calculate")
 	public BigDecimal calculate(int num1, int num2) {
-		BigDecimal sum = BigDecimal.valueOf(num1 + num2);
-		BigDecimal percentage = percentageService.getPercentage();
-		return sum.add(sum.multiply(percentage).divide(BigDecimal.valueOf(100)));
+		CalculationEvent event = new CalculationEvent();
+		event.begin();
+		BigDecimal result = null;
+		try {
+			result = this.calculate(num1, num2, percentageService.getPercentage());
+			return result;
+		} finally {
+			commit(event, num1, num2, result);
+		}
+	}
+
+	/**
+	 * Realiza el cálculo de la operación indicada aplicando el porcentaje del
+	 * tenant (comercio o producto) indicado.
+	 * 
+	 * @param num1 Primer número de entrada de la operación.
+	 * @param num2 Segundo número de entrada de la operación.
+	 * @param tenant Identificador del tenant.
+	 * @return El resultado del cálculo de la operación
+	 */
+	@Observed(name = "calculation.calculate")
+	public BigDecimal calculateForTenant(int num1, int num2, String tenant) {
+		CalculationEvent event = new CalculationEvent();
+		event.begin();
+		BigDecimal result = null;
+		try {
+			result = this.calculate(num1, num2, percentageService.getPercentage(tenant));
+			return result;
+		} finally {
+			commit(event, num1, num2, result);
+		}
+	}
+
+	/**
+	 * Realiza el cálculo de la operación con un porcentaje ya obtenido, por ejemplo
+	 * para aplicar un mismo porcentaje a todas las filas de un job de cálculo masivo.
+	 * 
+	 * @param num1 Primer número de entrada de la operación.
+	 * @param num2 Segundo número de entrada de la operación.
+	 * @param percentage Porcentaje a aplicar sobre la suma.
+	 * @return El resultado del cálculo de la operación
+	 */
+	public BigDecimal calculate(int num1, int num2, BigDecimal percentage) {
+		ActiveFormula formula = this.formulaEngine.active();
+		BigDecimal result = this.calculate(num1, num2, percentage, formula);
+		markFormulaVersion(formula.version());
+		return result;
+	}
+
+	/**
+	 * Realiza el cálculo de la operación con un porcentaje y una fórmula ya
+	 * obtenidos, por ejemplo para que todas las filas de un job de cálculo masivo
+	 * usen la misma versión de la fórmula aunque se cambie durante el job.
+	 * 
+	 * @param num1 Primer número de entrada de la operación.
+	 * @param num2 Segundo número de entrada de la operación.
+	 * @param percentage Porcentaje a aplicar sobre la suma.
+	 * @param formula Fórmula a aplicar.
+	 * @return El resultado del cálculo de la operación
+	 */
+	public BigDecimal calculate(int num1, int num2, BigDecimal percentage, ActiveFormula formula) {
+		return formula.plan().evaluate(BigDecimal.valueOf(num1), BigDecimal.valueOf(num2), percentage);
+	}
+
+	/**
+	 * @return La fórmula activa
+	 */
+	public ActiveFormula activeFormula() {
+		return this.formulaEngine.active();
+	}
+
+	private static void markFormulaVersion(String version) {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			attributes.setAttribute(FORMULA_VERSION_ATTRIBUTE, version, RequestAttributes.SCOPE_REQUEST);
+		}
+	}
+
+	/**
+	 * Finaliza y registra el evento JFR del cálculo; si el cálculo falló el
+	 * evento se registra sin resultado.
+	 */
+	private static void commit(CalculationEvent event, int num1, int num2, BigDecimal result) {
+		event.end();
+		if (event.shouldCommit()) {
+			event.num1 = num1;
+			event.num2 = num2;
+			event.result = result != null ? result.toString() : null;
+			event.commit();
+		}
 	}
 }
@@ -0,0 +1,279 @@
+package cl.tenpo.calculation.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import cl.tenpo.calculation.config.IdempotencyProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio que garantiza que los requests con la misma {@code Idempotency-Key}
+ * se ejecuten una única vez. El resultado se guarda en Redis con un tiempo de
+ * vida, y los reintentos lo obtienen de allí sin volver a ejecutar la operación.
+ * <p>
+ * Los duplicados concurrentes esperan a la ejecución en curso: dentro de la misma
+ * réplica sobre un {@link CompletableFuture} compartido, y entre réplicas
+ * consultando el resultado mientras exista el lock de ejecución en Redis. Las
+ * ejecuciones fallidas no se guardan, por lo que el cliente puede reintentarlas.
+ * El lock guarda un token propio de cada ejecución y se libera solo si aún lo
+ * contiene, por lo que una ejecución que superó {@code lock-ttl} no libera el
+ * lock que ya tomó otra réplica.
+ * <p>
+ * Solo las respuestas obtenidas de una ejecución previa exitosa se marcan como
+ * repetidas ({@link #REPLAYED_ATTRIBUTE}); si la ejecución esperada falla, el
+ * error se audita como propio. Los requests que esperaron a otra ejecución se
+ * marcan con {@link #WAITED_ATTRIBUTE}, para que su espera no se informe al
+ * limitador de concurrencia como latencia del servicio.
+ * <p>
+ * Las operaciones sobre Redis pasan por el circuit breaker {@code redis}; si
+ * Redis no está disponible o el circuito está abierto, la operación se ejecuta
+ * sin garantía de idempotencia.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+	/**
+	 * Atributo del request que indica que la respuesta se obtuvo de una ejecución previa.
+	 */
+	public static final String REPLAYED_ATTRIBUTE = IdempotencyService.class.getName() + ".REPLAYED";
+
+	/**
+	 * Header de respuesta que indica que la respuesta se obtuvo de una ejecución previa.
+	 */
+	public static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+	/**
+	 * Atributo del request que indica que el request esperó a otra ejecución con la misma clave.
+	 */
+	public static final String WAITED_ATTRIBUTE = IdempotencyService.class.getName() + ".WAITED";
+
+	private static final String KEY_PREFIX = "idempotency:";
+
+	private static final String LOCK_SUFFIX = ":lock";
+
+	/**
+	 * Elimina el lock solo si contiene el token de quien lo libera.
+	 */
+	private static final RedisScript<Long> RELEASE_LOCK = RedisScript.of(
+			"if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+			Long.class);
+
+	private static final String IN_PROGRESS_MESSAGE = "Request con la misma Idempotency-Key en curso";
+
+	private static final String MISMATCH_MESSAGE = "Idempotency-Key ya utilizada con otros parámetros";
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final IdempotencyProperties properties;
+
+	private final CircuitBreaker circuitBreaker;
+
+	private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+	public IdempotencyService(StringRedisTemplate redisTemplate, IdempotencyProperties properties,
+			CircuitBreakerRegistry circuitBreakerRegistry) {
+		this.redisTemplate = redisTemplate;
+		this.properties = properties;
+		this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("redis");
+	}
+
+	/**
+	 * Ejecuta la operación una única vez por clave.
+	 *
+	 * @param key Valor del header {@code Idempotency-Key}
+	 * @param fingerprint Representación de los parámetros del request; reutilizar
+	 *        la clave con otros parámetros es un error
+	 * @param action Operación a ejecutar
+	 * @return El resultado de la operación, propio o de la ejecución previa
+	 * @throws ResponseStatusException 409 si la ejecución en curso no terminó a
+	 *         tiempo, o 422 si la clave se usó con otros parámetros
+	 */
+	public String execute(String key, String fingerprint, Supplier<String> action) {
+		String redisKey = KEY_PREFIX + key;
+		CompletableFuture<Entry> own = new CompletableFuture<>();
+		CompletableFuture<Entry> existing = this.inFlight.putIfAbsent(redisKey, own);
+		if (existing != null) {
+			markWaited();
+			String result = checkFingerprint(this.awaitLocal(existing), fingerprint);
+			markReplayed();
+			return result;
+		}
+		try {
+			Outcome outcome = this.executeOnce(redisKey, fingerprint, action);
+			own.complete(outcome.entry());
+			String result = checkFingerprint(outcome.entry(), fingerprint);
+			if (outcome.replayed()) {
+				markReplayed();
+			}
+			return result;
+		} catch (RuntimeException e) {
+			own.completeExceptionally(e);
+			throw e;
+		} finally {
+			this.inFlight.remove(redisKey, own);
+		}
+	}
+
+	private Outcome executeOnce(String redisKey, String fingerprint, Supplier<String> action) {
+		String lockKey = redisKey + LOCK_SUFFIX;
+		String token = UUID.randomUUID().toString();
+		long deadline = System.nanoTime() + this.properties.waitTimeout().toNanos();
+		try {
+			while (true) {
+				Entry stored = Entry.decode(this.redis(() -> this.redisTemplate.opsForValue().get(redisKey)));
+				if (stored != null) {
+					return new Outcome(stored, true);
+				}
+				if (Boolean.TRUE.equals(this.redis(() -> this.redisTemplate.opsForValue()
+						.setIfAbsent(lockKey, token, this.properties.lockTtl())))) {
+					break;
+				}
+				if (System.nanoTime() > deadline) {
+					throw new ResponseStatusException(HttpStatus.CONFLICT, IN_PROGRESS_MESSAGE);
+				}
+				markWaited();
+				sleep(this.properties.pollInterval().toMillis());
+			}
+		} catch (CallNotPermittedException e) {
+			log.debug("Circuito de Redis abierto, se ejecuta el request sin garantía de idempotencia");
+			return new Outcome(new Entry(fingerprint, action.get()), false);
+		} catch (DataAccessException e) {
+			log.warn("Redis no disponible, se ejecuta el request sin garantía de idempotencia", e);
+			return new Outcome(new Entry(fingerprint, action.get()), false);
+		}
+
+		try {
+			Entry entry = new Entry(fingerprint, action.get());
+			try {
+				this.redis(() -> {
+					this.redisTemplate.opsForValue().set(redisKey, entry.encode(), this.properties.ttl());
+					return null;
+				});
+			} catch (CallNotPermittedException | DataAccessException e) {
+				log.warn("No se pudo guardar el resultado idempotente en Redis", e);
+			}
+			return new Outcome(entry, false);
+		} finally {
+			this.releaseLock(lockKey, token);
+		}
+	}
+
+	private void releaseLock(String lockKey, String token) {
+		try {
+			Long released = this.redis(() -> this.redisTemplate.execute(RELEASE_LOCK, List.of(lockKey), token));
+			if (released == null || released == 0) {
+				log.warn("El lock idempotente {} expiró antes de finalizar la ejecución (lock-ttl {})", lockKey,
+						this.properties.lockTtl());
+			}
+		} catch (CallNotPermittedException | DataAccessException e) {
+			log.warn("No se pudo liberar el lock idempotente {}; expira en {}", lockKey, this.properties.lockTtl(), e);
+		}
+	}
+
+	/**
+	 * Ejecuta una operación sobre Redis a través del circuit breaker {@code redis}.
+	 *
+	 * @throws CallNotPermittedException si el circuito está abierto
+	 */
+	private <T> T redis(Supplier<T> operation) {
+		return this.circuitBreaker.executeSupplier(operation);
+	}
+
+	private Entry awaitLocal(CompletableFuture<Entry> execution) {
+		try {
+			return execution.get(this.properties.waitTimeout().toMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			throw new ResponseStatusException(HttpStatus.CONFLICT, IN_PROGRESS_MESSAGE);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ResponseStatusException(HttpStatus.CONFLICT, IN_PROGRESS_MESSAGE);
+		}
+	}
+
+	private static String checkFingerprint(Entry entry, String fingerprint) {
+		if (!entry.fingerprint().equals(fingerprint)) {
+			throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, MISMATCH_MESSAGE);
+		}
+		return entry.result();
+	}
+
+	private static void markWaited() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			attributes.setAttribute(WAITED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+		}
+	}
+
+	private static void markReplayed() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes != null) {
+			attributes.setAttribute(REPLAYED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+			if (attributes instanceof ServletRequestAttributes servletAttributes
+					&& servletAttributes.getResponse() != null) {
+				servletAttributes.getResponse().setHeader(REPLAYED_HEADER, "true");
+			}
+		}
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ResponseStatusException(HttpStatus.CONFLICT, IN_PROGRESS_MESSAGE);
+		}
+	}
+
+	/**
+	 * Resultado de {@link #executeOnce}: la entrada y si se obtuvo de una
+	 * ejecución previa guardada en Redis.
+	 */
+	private record Outcome(Entry entry, boolean replayed) {
+	}
+
+	/**
+	 * Resultado guardado para una clave, junto con los parámetros que lo produjeron.
+	 */
+	private record Entry(String fingerprint, String result) {
+
+		private static final char SEPARATOR = '\n';
+
+		private String encode() {
+			return this.fingerprint + SEPARATOR + this.result;
+		}
+
+		private static Entry decode(String value) {
+			if (value == null) {
+				return null;
+			}
+			int separator = value.indexOf(SEPARATOR);
+			return new Entry(value.substring(0, separator), value.substring(separator + 1));
+		}
+	}
+}
@@ -14,4 +14,15 @@ public interface PercentageService {
 	 */
 	BigDecimal getPercentage();
 
+	/**
+	 * Obtiene el porcentaje a aplicar en la operación para un tenant (comercio o
+	 * producto). Por defecto el porcentaje no depende del tenant.
+	 * 
+	 * @param tenant Identificador del tenant
+	 * @return
+	 */
+	default BigDecimal getPercentage(String tenant) {
+		return getPercentage();
+	}
+
 }
@@ -0,0 +1,227 @@
+package cl.tenpo.calculation.service.external;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import cl.tenpo.calculation.config.HedgingProperties;
+import cl.tenpo.calculation.service.PercentageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decorador del servicio externo de porcentaje que aplica una política de
+ * requests "hedged": si la llamada principal no respondió luego del percentil
+ * configurado de la latencia observada, se envía una segunda llamada y se toma
+ * la primera respuesta exitosa.
+ * <p>
+ * La cantidad de llamadas de respaldo está acotada por un presupuesto
+ * ({@code budgetRatio}) para no multiplicar la carga sobre el proveedor cuando
+ * éste está degradado. Si la política está deshabilitada las llamadas se
+ * delegan directamente en el thread del llamador.
+ */
+@Service(value = "hedgedPercentageService")
+public class HedgedPercentageService implements PercentageService, DisposableBean {
+
+	private final PercentageService percentageService;
+
+	private final HedgingProperties props;
+
+	private final LatencyPercentileTracker latencies;
+
+	private final ExecutorService executor;
+
+	private final Counter hedgesSent;
+
+	private final Counter hedgesWon;
+
+	private double budget;
+
+	public HedgedPercentageService(@Qualifier("externalPercentageService") PercentageService percentageService,
+			HedgingProperties props, MeterRegistry meterRegistry) {
+		this.percentageService = percentageService;
+		this.props = props;
+		this.latencies = new LatencyPercentileTracker(props.sampleWindow(), props.percentile());
+		this.budget = props.maxBurst();
+		this.executor = props.enabled()
+				? new ThreadPoolExecutor(props.threads(), props.threads(), 60, TimeUnit.SECONDS,
+						new LinkedBlockingQueue<>(props.threads() * 16),
+						new CustomizableThreadFactory("percentage-hedge-"))
+				: null;
+		this.hedgesSent = Counter.builder("percentage.hedge.sent")
+				.description("Requests de respaldo enviados al servicio externo de porcentaje")
+				.register(meterRegistry);
+		this.hedgesWon = Counter.builder("percentage.hedge.won")
+				.description("Requests de respaldo que respondieron antes que el request principal")
+				.register(meterRegistry);
+		Gauge.builder("percentage.hedge.delay", this, HedgedPercentageService::hedgeDelayMillis)
+				.description("Demora actual antes de enviar un request de respaldo (ms)")
+				.baseUnit("milliseconds")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigDecimal getPercentage() {
+		return this.getPercentage(this.percentageService::getPercentage);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigDecimal getPercentage(String tenant) {
+		return this.getPercentage(() -> this.percentageService.getPercentage(tenant));
+	}
+
+	private BigDecimal getPercentage(Supplier<BigDecimal> call) {
+		if (this.executor == null) {
+			return call.get();
+		}
+		this.depositBudget();
+
+		CompletableFuture<BigDecimal> primary = this.submit(call);
+		if (primary == null) {
+			return this.timed(call);
+		}
+		long hedgeDelay = this.hedgeDelayNanos();
+		if (hedgeDelay < 0) {
+			return await(primary);
+		}
+		try {
+			return primary.get(hedgeDelay, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			return this.hedge(primary, call);
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrumpido esperando el porcentaje", e);
+		}
+	}
+
+	/**
+	 * Envía el request de respaldo si el presupuesto lo permite y retorna la
+	 * primera respuesta exitosa entre ambas llamadas.
+	 */
+	private BigDecimal hedge(CompletableFuture<BigDecimal> primary, Supplier<BigDecimal> call) {
+		if (!this.withdrawBudget()) {
+			return await(primary);
+		}
+		CompletableFuture<BigDecimal> secondary = this.submit(call);
+		if (secondary == null) {
+			return await(primary);
+		}
+		this.hedgesSent.increment();
+
+		CompletableFuture<BigDecimal> winner = new CompletableFuture<>();
+		AtomicInteger failures = new AtomicInteger();
+		primary.whenComplete((value, ex) -> complete(winner, value, ex, failures));
+		secondary.whenComplete((value, ex) -> {
+			if (complete(winner, value, ex, failures)) {
+				this.hedgesWon.increment();
+			}
+		});
+		return await(winner);
+	}
+
+	/**
+	 * Completa el resultado con la primera respuesta exitosa, o con el error si
+	 * fallaron ambas llamadas.
+	 *
+	 * @return true si esta respuesta fue la que completó el resultado con éxito
+	 */
+	private static boolean complete(CompletableFuture<BigDecimal> winner, BigDecimal value, Throwable ex,
+			AtomicInteger failures) {
+		if (ex == null) {
+			return winner.complete(value);
+		}
+		if (failures.incrementAndGet() == 2) {
+			winner.completeExceptionally(ex);
+		}
+		return false;
+	}
+
+	private CompletableFuture<BigDecimal> submit(Supplier<BigDecimal> call) {
+		try {
+			return CompletableFuture.supplyAsync(() -> this.timed(call), this.executor);
+		} catch (RejectedExecutionException e) {
+			return null;
+		}
+	}
+
+	private BigDecimal timed(Supplier<BigDecimal> call) {
+		long start = System.nanoTime();
+		BigDecimal value = call.get();
+		this.latencies.record(System.nanoTime() - start);
+		return value;
+	}
+
+	/**
+	 * @return La demora antes de enviar un request de respaldo, o -1 si aún no hay
+	 * suficientes muestras de latencia
+	 */
+	private long hedgeDelayNanos() {
+		if (this.latencies.count() < this.props.minSamples()) {
+			return -1;
+		}
+		return Math.max(this.props.minDelay().toNanos(), this.latencies.percentileNanos());
+	}
+
+	private double hedgeDelayMillis() {
+		return this.hedgeDelayNanos() / 1_000_000d;
+	}
+
+	private synchronized void depositBudget() {
+		this.budget = Math.min(this.props.maxBurst(), this.budget + this.props.budgetRatio());
+	}
+
+	private synchronized boolean withdrawBudget() {
+		if (this.budget < 1) {
+			return false;
+		}
+		this.budget--;
+		return true;
+	}
+
+	private static BigDecimal await(CompletableFuture<BigDecimal> future) {
+		try {
+			return future.get();
+		} catch (ExecutionException e) {
+			throw unwrap(e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrumpido esperando el porcentaje", e);
+		}
+	}
+
+	private static RuntimeException unwrap(Throwable cause) {
+		return cause instanceof RuntimeException runtime ? runtime : new IllegalStateException(cause);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void destroy() {
+		if (this.executor != null) {
+			this.executor.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,62 @@
+package cl.tenpo.calculation.service.external;
+
+import java.util.Arrays;
+
+/**
+ * Registra las latencias más recientes de un servicio en un buffer circular y
+ * mantiene precalculado un percentil de las mismas. El percentil se recalcula
+ * cada {@code window / 10} muestras para no ordenar el buffer en cada llamada.
+ */
+class LatencyPercentileTracker {
+
+	private final long[] samples;
+
+	private final double percentile;
+
+	private final int recalcEvery;
+
+	private int next;
+
+	private volatile int count;
+
+	private int sinceRecalc;
+
+	private volatile long percentileNanos = -1;
+
+	LatencyPercentileTracker(int window, double percentile) {
+		this.samples = new long[window];
+		this.percentile = percentile;
+		this.recalcEvery = Math.max(1, window / 10);
+	}
+
+	/**
+	 * Registra la latencia de una llamada.
+	 *
+	 * @param latencyNanos Latencia en nanosegundos
+	 */
+	synchronized void record(long latencyNanos) {
+		this.samples[this.next] = latencyNanos;
+		this.next = (this.next + 1) % this.samples.length;
+		this.count = Math.min(this.count + 1, this.samples.length);
+		if (++this.sinceRecalc >= this.recalcEvery || this.percentileNanos < 0) {
+			long[] sorted = Arrays.copyOf(this.samples, this.count);
+			Arrays.sort(sorted);
+			this.percentileNanos = sorted[Math.min(this.count - 1, (int) Math.ceil(this.percentile * this.count) - 1)];
+			this.sinceRecalc = 0;
+		}
+	}
+
+	/**
+	 * @return La cantidad de latencias registradas (como máximo el tamaño de la ventana)
+	 */
+	int count() {
+		return this.count;
+	}
+
+	/**
+	 * @return El percentil vigente en nanosegundos, o -1 si aún no hay muestras
+	 */
+	long percentileNanos() {
+		return this.percentileNanos;
+	}
+}
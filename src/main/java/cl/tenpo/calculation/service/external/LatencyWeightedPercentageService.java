@@ -0,0 +1,288 @@
+package cl.tenpo.calculation.service.external;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import cl.tenpo.calculation.config.PercentageProvidersProperties;
+import cl.tenpo.calculation.service.PercentageService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Servicio de porcentaje compuesto por varios proveedores equivalentes. Cada
+ * llamada se envía al proveedor con menor latencia esperada, según el promedio
+ * móvil exponencial (EWMA) de su latencia multiplicado por sus llamadas en
+ * curso, de modo que un proveedor rápido pero saturado cede llamadas al resto.
+ * <p>
+ * Si el proveedor elegido falla, la misma llamada se reintenta de inmediato en
+ * el siguiente proveedor, sin esperar los reintentos de
+ * {@link PercentageServiceProxyImpl}; el error se propaga solo si fallaron
+ * todos. Un proveedor cuya tasa de error (también EWMA) supera
+ * {@code percentage.providers.max-error-rate} deja de recibir llamadas, salvo
+ * que fallen todos los demás, y cada {@code percentage.providers.retry-unhealthy-after}
+ * recibe una única llamada de prueba que, si es exitosa, lo reincorpora de
+ * inmediato: su tasa de error vuelve a 0, sin importar cuántas pruebas fallaron antes.
+ * <p>
+ * La latencia esperada de un proveedor decae con el tiempo transcurrido desde
+ * su última llamada, reduciéndose a la mitad cada
+ * {@code percentage.providers.latency-half-life}: un proveedor que fue lento y
+ * dejó de recibir llamadas termina recibiendo una, que vuelve a medirlo. Las
+ * verificaciones de salud ({@link #check()}) no pasan por la selección ni
+ * actualizan los promedios.
+ */
+@Slf4j
+public class LatencyWeightedPercentageService implements PercentageService {
+
+	private final List<Provider> providers;
+
+	private final double smoothing;
+
+	private final double maxErrorRate;
+
+	private final long retryUnhealthyAfterNanos;
+
+	private final long latencyHalfLifeNanos;
+
+	private final Counter failovers;
+
+	/**
+	 * @param providers Proveedores del porcentaje por nombre
+	 * @param props Propiedades de la selección de proveedores
+	 * @param meterRegistry Registro de métricas
+	 */
+	public LatencyWeightedPercentageService(Map<String, PercentageService> providers,
+			PercentageProvidersProperties props, MeterRegistry meterRegistry) {
+		if (providers.isEmpty()) {
+			throw new IllegalArgumentException("Debe configurarse al menos un proveedor de porcentaje");
+		}
+		this.providers = new ArrayList<>(providers.size());
+		providers.forEach((name, service) -> this.providers.add(new Provider(name, service)));
+		this.smoothing = props.smoothing();
+		this.maxErrorRate = props.maxErrorRate();
+		this.retryUnhealthyAfterNanos = props.retryUnhealthyAfter().toNanos();
+		this.latencyHalfLifeNanos = props.latencyHalfLife().toNanos();
+		this.failovers = Counter.builder("percentage.provider.failover")
+				.description("Llamadas al servicio de porcentaje reenviadas a otro proveedor por una falla")
+				.register(meterRegistry);
+		for (Provider provider : this.providers) {
+			Gauge.builder("percentage.provider.latency", provider, p -> p.latencyNanos / 1_000_000d)
+					.description("Latencia promedio (EWMA) del proveedor de porcentaje (ms)")
+					.baseUnit("milliseconds")
+					.tag("provider", provider.name)
+					.register(meterRegistry);
+			Gauge.builder("percentage.provider.error.rate", provider, p -> p.errorRate)
+					.description("Tasa de error promedio (EWMA) del proveedor de porcentaje")
+					.tag("provider", provider.name)
+					.register(meterRegistry);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigDecimal getPercentage() {
+		return this.call(PercentageService::getPercentage);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public BigDecimal getPercentage(String tenant) {
+		return this.call(service -> service.getPercentage(tenant));
+	}
+
+	/**
+	 * Consulta el porcentaje para una verificación de salud: prueba los
+	 * proveedores en el orden configurado hasta que uno responde, sin registrar
+	 * la latencia ni el resultado en sus promedios y sin usar la llamada de
+	 * prueba de los proveedores que dejaron de recibir llamadas.
+	 *
+	 * @return El porcentaje del primer proveedor que responde
+	 * @throws RuntimeException el error del último proveedor, si fallaron todos
+	 */
+	public BigDecimal check() {
+		RuntimeException failure = null;
+		for (Provider provider : this.providers) {
+			try {
+				return provider.service.getPercentage();
+			} catch (RuntimeException e) {
+				if (failure != null) {
+					e.addSuppressed(failure);
+				}
+				failure = e;
+			}
+		}
+		throw failure;
+	}
+
+	/**
+	 * @return El estado de cada proveedor: latencia y tasa de error promedio, y si recibe llamadas
+	 */
+	public Map<String, Object> providers() {
+		Map<String, Object> providers = new LinkedHashMap<>();
+		for (Provider provider : this.providers) {
+			providers.put(provider.name, Map.of(
+					"latencyMillis", provider.latencyNanos / 1_000_000d,
+					"errorRate", provider.errorRate,
+					"healthy", provider.isHealthy()));
+		}
+		return providers;
+	}
+
+	private BigDecimal call(Function<PercentageService, BigDecimal> call) {
+		RuntimeException failure = null;
+		for (Provider provider : this.order()) {
+			if (failure != null) {
+				this.failovers.increment();
+			}
+			provider.inflight.incrementAndGet();
+			long start = System.nanoTime();
+			try {
+				BigDecimal value = call.apply(provider.service);
+				provider.recordSuccess(System.nanoTime() - start);
+				return value;
+			} catch (RuntimeException e) {
+				provider.recordFailure(System.nanoTime() - start);
+				if (failure != null) {
+					e.addSuppressed(failure);
+				}
+				failure = e;
+			} finally {
+				provider.inflight.decrementAndGet();
+			}
+		}
+		throw failure;
+	}
+
+	/**
+	 * Ordena los proveedores para una llamada: primero el que tenga pendiente una
+	 * llamada de prueba, luego los que reciben llamadas por menor latencia
+	 * esperada y, como último recurso, los demás.
+	 */
+	private List<Provider> order() {
+		if (this.providers.size() == 1) {
+			return this.providers;
+		}
+		long now = System.nanoTime();
+		List<Provider> healthy = new ArrayList<>(this.providers.size());
+		List<Provider> unhealthy = new ArrayList<>(this.providers.size());
+		Provider probe = null;
+		for (Provider provider : this.providers) {
+			if (provider.isHealthy()) {
+				healthy.add(provider);
+			} else if (probe == null && provider.tryClaimProbe(now)) {
+				probe = provider;
+			} else {
+				unhealthy.add(provider);
+			}
+		}
+		Comparator<Provider> byExpectedLatency = Comparator.comparingDouble(provider -> provider.expectedLatency(now));
+		healthy.sort(byExpectedLatency);
+		unhealthy.sort(byExpectedLatency);
+		List<Provider> order = new ArrayList<>(this.providers.size());
+		if (probe != null) {
+			order.add(probe);
+		}
+		order.addAll(healthy);
+		order.addAll(unhealthy);
+		return order;
+	}
+
+	/**
+	 * Proveedor del porcentaje y sus promedios de latencia y tasa de error. Los
+	 * promedios se actualizan bajo el lock del proveedor y se leen sin lock al
+	 * ordenar los proveedores.
+	 */
+	private final class Provider {
+
+		private final String name;
+
+		private final PercentageService service;
+
+		private final AtomicInteger inflight = new AtomicInteger();
+
+		private final AtomicLong nextProbe = new AtomicLong();
+
+		private volatile double latencyNanos;
+
+		private volatile double errorRate;
+
+		private volatile long sampledAt;
+
+		private boolean sampled;
+
+		private Provider(String name, PercentageService service) {
+			this.name = name;
+			this.service = service;
+		}
+
+		private boolean isHealthy() {
+			return this.errorRate <= LatencyWeightedPercentageService.this.maxErrorRate;
+		}
+
+		/**
+		 * Un proveedor sin llamadas registradas tiene latencia 0, por lo que recibe
+		 * la primera llamada y se mide. La latencia promedio decae con el tiempo
+		 * transcurrido desde la última medición.
+		 */
+		private double expectedLatency(long now) {
+			long halfLife = LatencyWeightedPercentageService.this.latencyHalfLifeNanos;
+			double decay = halfLife > 0 ? Math.pow(0.5, (double) (now - this.sampledAt) / halfLife) : 1;
+			return this.latencyNanos * decay * (this.inflight.get() + 1);
+		}
+
+		private boolean tryClaimProbe(long now) {
+			long next = this.nextProbe.get();
+			return now - next >= 0
+					&& this.nextProbe.compareAndSet(next, now + LatencyWeightedPercentageService.this.retryUnhealthyAfterNanos);
+		}
+
+		/**
+		 * Una llamada exitosa de un proveedor sin salud (la de prueba, o la que
+		 * recibe porque fallaron todos los demás) lo reincorpora reiniciando su
+		 * tasa de error; si no, la tasa decae con el promedio móvil.
+		 */
+		private synchronized void recordSuccess(long latency) {
+			this.recordLatency(latency);
+			if (this.isHealthy()) {
+				this.errorRate = this.errorRate * (1 - LatencyWeightedPercentageService.this.smoothing);
+			} else {
+				this.errorRate = 0;
+				log.info("El proveedor de porcentaje {} vuelve a recibir llamadas", this.name);
+			}
+		}
+
+		private synchronized void recordFailure(long latency) {
+			boolean wasHealthy = this.isHealthy();
+			this.recordLatency(latency);
+			double smoothing = LatencyWeightedPercentageService.this.smoothing;
+			this.errorRate = this.errorRate * (1 - smoothing) + smoothing;
+			if (wasHealthy && !this.isHealthy()) {
+				this.nextProbe.set(System.nanoTime() + LatencyWeightedPercentageService.this.retryUnhealthyAfterNanos);
+				log.warn("El proveedor de porcentaje {} deja de recibir llamadas, tasa de error {}", this.name,
+						this.errorRate);
+			}
+		}
+
+		private void recordLatency(long latency) {
+			this.sampledAt = System.nanoTime();
+			if (!this.sampled) {
+				this.latencyNanos = latency;
+				this.sampled = true;
+			} else {
+				this.latencyNanos += LatencyWeightedPercentageService.this.smoothing * (latency - this.latencyNanos);
+			}
+		}
+	}
+}
@@ -0,0 +1,157 @@
+package cl.tenpo.calculation.service.external;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import cl.tenpo.calculation.config.PercentageCacheProperties;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache en Redis del porcentaje obtenido del servicio externo.
+ * <p>
+ * Todas las operaciones sobre Redis pasan por el circuit breaker {@code redis}:
+ * si Redis está caído o lento, el circuito se abre y las operaciones se omiten
+ * de inmediato en lugar de esperar el timeout de cada comando.
+ * <p>
+ * La escritura no bloquea al llamador: se ejecuta en un thread dedicado, y solo
+ * cuando el porcentaje cambió o cuando pasó {@code rewrite-after} desde la última
+ * escritura, para renovar su tiempo de vida. Si se registran varios porcentajes
+ * mientras una escritura está en curso, solo se escribe el último.
+ */
+@Component
+@Slf4j
+public class PercentageCache implements DisposableBean {
+
+	private static final String CACHE_KEY = "percentage";
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final PercentageCacheProperties properties;
+
+	private final CircuitBreaker circuitBreaker;
+
+	private final ObservationRegistry observationRegistry;
+
+	private final Executor executor;
+
+	private final Clock clock;
+
+	private final AtomicReference<BigDecimal> pending = new AtomicReference<>();
+
+	private volatile Written written;
+
+	@Autowired
+	public PercentageCache(StringRedisTemplate redisTemplate, PercentageCacheProperties properties,
+			CircuitBreakerRegistry circuitBreakerRegistry, ObservationRegistry observationRegistry) {
+		this(redisTemplate, properties, circuitBreakerRegistry, observationRegistry,
+				new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+						new CustomizableThreadFactory("percentage-cache-"), new ThreadPoolExecutor.DiscardPolicy()),
+				Clock.systemUTC());
+	}
+
+	PercentageCache(StringRedisTemplate redisTemplate, PercentageCacheProperties properties,
+			CircuitBreakerRegistry circuitBreakerRegistry, ObservationRegistry observationRegistry, Executor executor,
+			Clock clock) {
+		this.redisTemplate = redisTemplate;
+		this.properties = properties;
+		this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("redis");
+		this.observationRegistry = observationRegistry;
+		this.executor = executor;
+		this.clock = clock;
+	}
+
+	/**
+	 * @return El porcentaje guardado en Redis, o {@code null} si no existe, si
+	 * 	Redis no está disponible o si el circuito está abierto
+	 */
+	public BigDecimal read() {
+		try {
+			String value = this.circuitBreaker.executeSupplier(() -> this.observation("percentage.cache.read")
+					.observe(() -> this.redisTemplate.opsForValue().get(CACHE_KEY)));
+			return value != null ? new BigDecimal(value) : null;
+		} catch (CallNotPermittedException e) {
+			log.debug("Circuito de Redis abierto, se omite la lectura del porcentaje");
+			return null;
+		} catch (DataAccessException e) {
+			log.warn("No se pudo leer el porcentaje desde Redis", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Registra un porcentaje recién obtenido del servicio externo y, si cambió o
+	 * debe renovarse su tiempo de vida, lo escribe en Redis de forma asíncrona.
+	 *
+	 * @param value Porcentaje obtenido
+	 */
+	public void save(BigDecimal value) {
+		Written last = this.written;
+		if (last != null && last.value().compareTo(value) == 0
+				&& last.at().plus(this.properties.rewriteAfter()).isAfter(this.clock.instant())) {
+			return;
+		}
+		this.pending.set(value);
+		this.executor.execute(this::flush);
+	}
+
+	/**
+	 * Detiene el thread de escritura al cerrar la aplicación.
+	 */
+	@Override
+	public void destroy() {
+		if (this.executor instanceof ExecutorService executorService) {
+			executorService.shutdownNow();
+		}
+	}
+
+	/**
+	 * Escribe el último porcentaje registrado, si no fue escrito por una
+	 * ejecución anterior.
+	 */
+	private void flush() {
+		BigDecimal value = this.pending.getAndSet(null);
+		if (value == null) {
+			return;
+		}
+		try {
+			this.circuitBreaker.executeRunnable(() -> this.observation("percentage.cache.write")
+					.observe(() -> this.redisTemplate.opsForValue().set(CACHE_KEY, value.toString(),
+							this.properties.ttl())));
+			this.written = new Written(value, this.clock.instant());
+		} catch (CallNotPermittedException e) {
+			log.debug("Circuito de Redis abierto, se omite la escritura del porcentaje");
+		} catch (DataAccessException e) {
+			log.warn("No se pudo guardar el porcentaje en Redis", e);
+		}
+	}
+
+	private Observation observation(String name) {
+		return Observation.createNotStarted(name, this.observationRegistry)
+				.lowCardinalityKeyValue("db.system", "redis");
+	}
+
+	/**
+	 * Último porcentaje escrito en Redis y el momento de la escritura.
+	 */
+	private record Written(BigDecimal value, Instant at) {
+	}
+}
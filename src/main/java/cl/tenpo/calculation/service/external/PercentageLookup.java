@@ -0,0 +1,14 @@
+package cl.tenpo.calculation.service.external;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * Último porcentaje obtenido por el servicio, su origen y el momento en que se obtuvo.
+ *
+ * @param value Porcentaje obtenido
+ * @param source Origen del porcentaje ({@code PROVIDER}, {@code CACHE} o {@code SNAPSHOT})
+ * @param obtainedAt Momento en que se obtuvo
+ */
+public record PercentageLookup(BigDecimal value, String source, Instant obtainedAt) {
+}
@@ -1,22 +1,47 @@
 package cl.tenpo.calculation.service.external;
 
 import java.math.BigDecimal;
-
-import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 import cl.tenpo.calculation.service.PercentageService;
 
 /**
- * Mock del servicio externo que retorna un porcentaje fijo.
+ * Mock del servicio externo que retorna un porcentaje fijo, con la latencia y
+ * la tasa de error configuradas para el proveedor que simula.
  */
-@Service(value = "externalPercentageService")
 public class PercentageServiceExternalMockedImpl implements PercentageService {
 
+	private final Duration latency;
+
+	private final double failureRate;
+
+	/**
+	 * @param latency Latencia simulada de cada llamada
+	 * @param failureRate Fracción de las llamadas que fallan
+	 */
+	public PercentageServiceExternalMockedImpl(Duration latency, double failureRate) {
+		this.latency = latency;
+		this.failureRate = failureRate;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
 	@Override
 	public BigDecimal getPercentage() {
+		if (!this.latency.isZero()) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(this.latency.toNanos());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrumpido esperando el porcentaje", e);
+			}
+		}
+		if (this.failureRate > 0 && ThreadLocalRandom.current().nextDouble() < this.failureRate) {
+			throw new IllegalStateException("Servicio de porcentaje no disponible");
+		}
 		return BigDecimal.TEN;
 	}
 }
@@ -1,77 +1,159 @@
 package cl.tenpo.calculation.service.external;
 
 import java.math.BigDecimal;
-import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import cl.tenpo.calculation.jfr.PercentageLookupEvent;
 import cl.tenpo.calculation.service.PercentageService;
+import cl.tenpo.calculation.warmup.WarmupFilter;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 
 /**
  * Proxy del servicio externo desde donde se obtiene el porcentaje a aplicar 
  * en la operación. Utiliza una cache en Redis para almacenar el valor del porcentaje
  * calculado para el caso de que el servicio externo falle o no esté disponible temporalmente 
  * se pueda obtener el valor desde la cache por un tiempo determinado.
+ * El acceso a Redis está protegido por un circuit breaker ({@link PercentageCache})
+ * y la escritura no agrega latencia al request.
+ * Como último respaldo, si Redis tampoco tiene el valor o no está disponible,
+ * utiliza la copia local del último porcentaje obtenido ({@link PercentageSnapshotStore}).
+ * Los porcentajes por tenant se obtienen de {@link TenantPercentageCache}.
  */
 @Service(value = "percentageService")
 public class PercentageServiceProxyImpl implements PercentageService {
 	
 	private static final String PERCENTAGE_UNAVAILABLE_MESSAGE = "Porcentaje no disponible temporalmente";
 
-	private static final String CACHE_KEY = "percentage";
+	private static final BigDecimal WARMUP_PERCENTAGE = BigDecimal.TEN;
 	
-	private final StringRedisTemplate redisTemplate;
+	private final PercentageCache percentageCache;
 	 
 	private final PercentageService percentageService;	 
 
-	private final String percentageTtl;	
+	private final ObservationRegistry observationRegistry;
+
+	private final PercentageSnapshotStore snapshotStore;
+
+	private final TenantPercentageCache tenantPercentageCache;
+
+	private volatile PercentageLookup lastLookup;
 	
-	public PercentageServiceProxyImpl(StringRedisTemplate redisTemplate, 
-			@Qualifier("externalPercentageService") PercentageService percentageService,
-			@Value("${percentage.cache.ttl:PT30M}") String percentageTtl) {
-		this.redisTemplate = redisTemplate;
+	public PercentageServiceProxyImpl(PercentageCache percentageCache, 
+			@Qualifier("hedgedPercentageService") PercentageService percentageService,
+			ObservationRegistry observationRegistry,
+			PercentageSnapshotStore snapshotStore,
+			TenantPercentageCache tenantPercentageCache) {
+		this.percentageCache = percentageCache;
 		this.percentageService = percentageService;
-		this.percentageTtl = percentageTtl;
+		this.observationRegistry = observationRegistry;
+		this.snapshotStore = snapshotStore;
+		this.tenantPercentageCache = tenantPercentageCache;
 	}
 	
     /**
      * Obtiene el porcentaje a aplicar en la operación desde el servicio externo.
-     * Además, almacena el valor en la cache de Redis por un tiempo de vida definido.
+     * Además, almacena el valor en la cache de Redis por un tiempo de vida definido
+     * (de forma asíncrona y solo si cambió o debe renovarse) y en la copia local;
+     * si Redis no está disponible, el valor se devuelve igualmente.
      * Tiene configurado un mecanismo de reintentos para manejar fallos temporales
      * del servicio externo y en ese caso poder obtener el valor desde la cache.
+     * Cada intento queda registrado como un span propio dentro de la traza.
+     * Los requests de calentamiento ({@link WarmupFilter}) solo leen la cache,
+     * sin consultar al servicio externo ni modificar la cache o la copia local.
      */
     @Retry(name = "percentageRetry", fallbackMethod = "getFromCacheOrFail")
+    @Observed(name = "percentage.provider.attempt")
     @Override
     public BigDecimal getPercentage() {
+    	if (WarmupFilter.isWarmupRequest()) {
+    		BigDecimal cachedValue = this.percentageCache.read();
+    		return cachedValue != null ? cachedValue : WARMUP_PERCENTAGE;
+    	}
+    	PercentageLookupEvent event = new PercentageLookupEvent();
+    	event.begin();
     	BigDecimal value = percentageService.getPercentage();
-    	redisTemplate.opsForValue().set(CACHE_KEY, value.toString(), Duration.parse(percentageTtl));
+    	this.percentageCache.save(value);
+    	this.snapshotStore.save(value);
+    	commit(event, PercentageLookupEvent.SOURCE_PROVIDER, value);
     	return value;
     }
 
+    /**
+     * Obtiene el porcentaje del tenant indicado, primero desde la cache local,
+     * luego desde Redis y por último desde el servicio externo. A diferencia del
+     * porcentaje general, un porcentaje en cache se usa sin consultar al servicio
+     * externo mientras no expire.
+     */
+    @Override
+    public BigDecimal getPercentage(String tenant) {
+    	return this.tenantPercentageCache.get(tenant);
+    }
+
     /**
      * Método de fallback que se ejecuta en caso de que el servicio externo falle
      * o no esté disponible temporalmente.Si ese es el caso, intenta obtener	
-     * el valor del porcentaje desde la cache de Redis.
-     * Si no se encuentra el valor en la cache, lanza una excepción
+     * el valor del porcentaje desde la cache de Redis y, si Redis no lo tiene o
+     * no está disponible, desde la copia local mientras no supere su antigüedad máxima.
+     * Si no se encuentra el valor en ninguno de ellos, lanza una excepción
      * 
      * @param ex La excepción que causó la ejecucion del metodo	de fallback
-     * @return El valor del porcentaje obtenido de la cache
-     * @throws ResponseStatusException Si no se encuentra el valor en la cache
+     * @return El valor del porcentaje obtenido de la cache o de la copia local
+     * @throws ResponseStatusException Si no se encuentra el valor en la cache ni en la copia local
      */
     public BigDecimal getFromCacheOrFail(Exception ex) {
-        String cachedValue = redisTemplate.opsForValue().get(CACHE_KEY);
-        if (cachedValue != null) {
-            return new BigDecimal(cachedValue);
-        } else {
-        	throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, PERCENTAGE_UNAVAILABLE_MESSAGE);
+    	return Observation.createNotStarted("percentage.fallback", this.observationRegistry)
+    			.observe(this::readFromCacheOrFail);
+    }
 
+    private BigDecimal readFromCacheOrFail() {
+    	PercentageLookupEvent event = new PercentageLookupEvent();
+    	event.begin();
+        BigDecimal cachedValue = this.percentageCache.read();
+        if (cachedValue != null) {
+        	commit(event, PercentageLookupEvent.SOURCE_CACHE, cachedValue);
+            return cachedValue;
+        }
+        Optional<PercentageSnapshot> snapshot = this.snapshotStore.get();
+        if (snapshot.isPresent()) {
+        	BigDecimal value = snapshot.get().value();
+        	commit(event, PercentageLookupEvent.SOURCE_SNAPSHOT, value);
+        	return value;
         }
+        commit(event, PercentageLookupEvent.SOURCE_UNAVAILABLE, null);
+        throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, PERCENTAGE_UNAVAILABLE_MESSAGE);
+    }
+
+    /**
+     * @return El último porcentaje obtenido y su origen, o {@code null} si aún no se obtuvo
+     */
+    public PercentageLookup lastLookup() {
+    	return this.lastLookup;
+    }
+
+    /**
+     * Registra el último porcentaje obtenido y el evento JFR de obtención del
+     * porcentaje, éste solo si hay una grabación activa que lo requiera, evitando
+     * el costo de completar sus campos en otro caso.
+     */
+    private void commit(PercentageLookupEvent event, String source, BigDecimal value) {
+    	if (value != null) {
+    		this.lastLookup = new PercentageLookup(value, source, Instant.now());
+    	}
+    	event.end();
+    	if (event.shouldCommit()) {
+    		event.source = source;
+    		event.value = value != null ? value.toString() : null;
+    		event.commit();
+    	}
     }
 
 }
@@ -0,0 +1,23 @@
+package cl.tenpo.calculation.service.external;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Último porcentaje obtenido del servicio externo y el momento en que se obtuvo.
+ *
+ * @param value Porcentaje obtenido
+ * @param fetchedAt Momento en que se obtuvo del servicio externo
+ */
+public record PercentageSnapshot(BigDecimal value, Instant fetchedAt) {
+
+	/**
+	 * @param maxStaleness Antigüedad máxima admitida
+	 * @param now Momento actual
+	 * @return {@code true} si el porcentaje se obtuvo hace más de {@code maxStaleness}
+	 */
+	public boolean isStale(Duration maxStaleness, Instant now) {
+		return this.fetchedAt.plus(maxStaleness).isBefore(now);
+	}
+}
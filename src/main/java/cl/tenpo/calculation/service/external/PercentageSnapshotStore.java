@@ -0,0 +1,184 @@
+package cl.tenpo.calculation.service.external;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import cl.tenpo.calculation.config.PercentageSnapshotProperties;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Copia local del último porcentaje obtenido del servicio externo, utilizada
+ * como último respaldo cuando ni el servicio externo ni Redis están disponibles.
+ * <p>
+ * La copia se lee al iniciar la aplicación, de modo que una réplica recién
+ * levantada puede responder aunque Redis no tenga el valor o no esté disponible.
+ * Se reescribe cuando el porcentaje cambia o, si no cambia, cada
+ * {@code rewrite-after} para renovar su fecha. La escritura se hace en un único
+ * thread en segundo plano, como en {@link PercentageCache}, y la reclama un solo
+ * request, por lo que los requests concurrentes no esperan al disco. Se escribe
+ * un archivo temporal que se sincroniza con el disco antes de renombrarlo, por
+ * lo que nunca queda un archivo incompleto, ni siquiera ante un corte de
+ * energía. La copia solo se utiliza si su antigüedad no supera
+ * {@code max-staleness}.
+ */
+@Component
+@Slf4j
+public class PercentageSnapshotStore implements DisposableBean {
+
+	private static final String VALUE = "value";
+
+	private static final String FETCHED_AT = "fetchedAt";
+
+	private final PercentageSnapshotProperties properties;
+
+	private final Executor executor;
+
+	private final Clock clock;
+
+	private final AtomicReference<PercentageSnapshot> current = new AtomicReference<>();
+
+	private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+	private volatile Instant persistedAt = Instant.MIN;
+
+	@Autowired
+	public PercentageSnapshotStore(PercentageSnapshotProperties properties) {
+		this(properties,
+				new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(1),
+						new CustomizableThreadFactory("percentage-snapshot-"), new ThreadPoolExecutor.DiscardPolicy()),
+				Clock.systemUTC());
+	}
+
+	PercentageSnapshotStore(PercentageSnapshotProperties properties, Executor executor, Clock clock) {
+		this.properties = properties;
+		this.executor = executor;
+		this.clock = clock;
+		if (properties.enabled()) {
+			PercentageSnapshot snapshot = load(properties.file());
+			this.current.set(snapshot);
+			if (snapshot != null) {
+				this.persistedAt = snapshot.fetchedAt();
+				log.info("Copia local del porcentaje cargada: {} obtenido el {}", snapshot.value(),
+						snapshot.fetchedAt());
+			}
+		}
+	}
+
+	/**
+	 * @return El último porcentaje conocido, si existe y no supera la antigüedad máxima
+	 */
+	public Optional<PercentageSnapshot> get() {
+		PercentageSnapshot snapshot = this.current.get();
+		if (snapshot == null || snapshot.isStale(this.properties.maxStaleness(), this.clock.instant())) {
+			return Optional.empty();
+		}
+		return Optional.of(snapshot);
+	}
+
+	/**
+	 * Registra un porcentaje recién obtenido del servicio externo y, si cambió o
+	 * si la copia guardada debe renovarse, programa su escritura en el archivo.
+	 * Solo el primer request que detecta la necesidad de escribir la programa;
+	 * los demás continúan sin esperar. Los errores de escritura se registran sin
+	 * propagarse.
+	 *
+	 * @param value Porcentaje obtenido
+	 */
+	public void save(BigDecimal value) {
+		if (!this.properties.enabled()) {
+			return;
+		}
+		Instant now = this.clock.instant();
+		PercentageSnapshot snapshot = new PercentageSnapshot(value, now);
+		PercentageSnapshot previous = this.current.getAndSet(snapshot);
+		boolean changed = previous == null || previous.value().compareTo(value) != 0;
+		if ((changed || this.persistedAt.plus(this.properties.rewriteAfter()).isBefore(now))
+				&& this.writeScheduled.compareAndSet(false, true)) {
+			this.executor.execute(this::write);
+		}
+	}
+
+	/**
+	 * Detiene el thread de escritura al cerrar la aplicación, dejando terminar
+	 * la escritura en curso.
+	 */
+	@Override
+	public void destroy() {
+		if (this.executor instanceof ExecutorService executorService) {
+			executorService.shutdown();
+		}
+	}
+
+	/**
+	 * Escribe el último porcentaje registrado, que puede ser más reciente que el
+	 * que originó la escritura si otro thread lo actualizó mientras tanto. La
+	 * marca de escritura programada se libera antes de leerlo, de modo que un
+	 * cambio posterior programa una nueva escritura.
+	 */
+	private void write() {
+		this.writeScheduled.set(false);
+		PercentageSnapshot snapshot = this.current.get();
+		Path file = this.properties.file().toAbsolutePath();
+		try {
+			Files.createDirectories(file.getParent());
+			Path tmp = Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+			try {
+				Properties values = new Properties();
+				values.setProperty(VALUE, snapshot.value().toPlainString());
+				values.setProperty(FETCHED_AT, snapshot.fetchedAt().toString());
+				try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+					Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+					values.store(writer, null);
+					writer.flush();
+					channel.force(true);
+				}
+				Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+				this.persistedAt = snapshot.fetchedAt();
+			} finally {
+				Files.deleteIfExists(tmp);
+			}
+		} catch (IOException e) {
+			log.warn("No se pudo guardar la copia local del porcentaje en {}", file, e);
+		}
+	}
+
+	private static PercentageSnapshot load(Path file) {
+		if (!Files.exists(file)) {
+			return null;
+		}
+		try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			Properties values = new Properties();
+			values.load(reader);
+			return new PercentageSnapshot(new BigDecimal(values.getProperty(VALUE)),
+					Instant.parse(values.getProperty(FETCHED_AT)));
+		} catch (IOException | RuntimeException e) {
+			log.warn("Copia local del porcentaje inválida en {}, se ignora", file, e);
+			return null;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package cl.tenpo.calculation.service.external;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Agrupa las lecturas individuales de claves de Redis en un único {@code MGET}.
+ * <p>
+ * Las claves pedidas se encolan y se consultan juntas cuando se juntan
+ * {@code batchSize} claves o cuando pasa {@code maxDelay} desde la primera
+ * clave pendiente, lo que ocurra primero. Así, los requests concurrentes de
+ * tenants distintos que no están en la cache local comparten un único viaje a Redis.
+ */
+class RedisMultiGetBatcher implements AutoCloseable {
+
+	private final Function<List<String>, List<String>> multiGet;
+
+	private final int batchSize;
+
+	private final long maxDelayNanos;
+
+	private final ScheduledExecutorService scheduler = Executors
+			.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("percentage-mget-"));
+
+	private final Queue<Pending> pending = new ConcurrentLinkedQueue<>();
+
+	private final AtomicInteger pendingCount = new AtomicInteger();
+
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+	/**
+	 * @param multiGet Consulta de varias claves, que devuelve los valores en el mismo orden ({@code null} si no existen)
+	 * @param batchSize Cantidad máxima de claves por consulta
+	 * @param maxDelay Espera máxima de una clave antes de consultarla
+	 */
+	RedisMultiGetBatcher(Function<List<String>, List<String>> multiGet, int batchSize, Duration maxDelay) {
+		this.multiGet = multiGet;
+		this.batchSize = batchSize;
+		this.maxDelayNanos = maxDelay.toNanos();
+	}
+
+	/**
+	 * @param key Clave a leer
+	 * @return El valor de la clave, o {@code null} si no existe
+	 */
+	CompletableFuture<String> get(String key) {
+		Pending request = new Pending(key, new CompletableFuture<>());
+		this.pending.add(request);
+		if (this.pendingCount.incrementAndGet() >= this.batchSize) {
+			this.scheduler.execute(this::flush);
+		} else if (this.flushScheduled.compareAndSet(false, true)) {
+			this.scheduler.schedule(() -> {
+				this.flushScheduled.set(false);
+				this.flush();
+			}, this.maxDelayNanos, TimeUnit.NANOSECONDS);
+		}
+		return request.value();
+	}
+
+	/**
+	 * Detiene el thread de consultas.
+	 */
+	@Override
+	public void close() {
+		this.scheduler.shutdownNow();
+	}
+
+	private void flush() {
+		List<Pending> batch = new ArrayList<>(this.batchSize);
+		Pending next;
+		while (batch.size() < this.batchSize && (next = this.pending.poll()) != null) {
+			batch.add(next);
+		}
+		if (batch.isEmpty()) {
+			return;
+		}
+		this.pendingCount.addAndGet(-batch.size());
+		try {
+			List<String> values = this.multiGet.apply(batch.stream().map(Pending::key).toList());
+			for (int i = 0; i < batch.size(); i++) {
+				batch.get(i).value().complete(values.get(i));
+			}
+		} catch (RuntimeException e) {
+			batch.forEach(request -> request.value().completeExceptionally(e));
+		}
+	}
+
+	/**
+	 * Clave pendiente de consultar y el resultado a completar.
+	 */
+	private record Pending(String key, CompletableFuture<String> value) {
+	}
+}
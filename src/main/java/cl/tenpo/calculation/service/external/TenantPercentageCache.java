@@ -0,0 +1,191 @@
+package cl.tenpo.calculation.service.external;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import cl.tenpo.calculation.config.PercentageCacheProperties;
+import cl.tenpo.calculation.config.TenantPercentageProperties;
+import cl.tenpo.calculation.service.PercentageService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache de los porcentajes por tenant (comercio o producto), en tres niveles:
+ * <ol>
+ * <li>Una cache local acotada por memoria ({@code percentage.tenants.max-memory})
+ * con la política W-TinyLFU de Caffeine: ante un tenant nuevo se conserva el que
+ * se consulta con más frecuencia, por lo que un recorrido de tenants poco
+ * frecuentes no desplaza a los más consultados.</li>
+ * <li>Redis ({@code percentage:<tenant>}), compartido entre réplicas. Los tenants
+ * que no están en la cache local se leen de a varios con {@code MGET}: las
+ * consultas concurrentes se agrupan ({@link RedisMultiGetBatcher}).</li>
+ * <li>El servicio externo, consultado en threads dedicados. Las consultas
+ * concurrentes de un mismo tenant comparten una única llamada, y el valor
+ * obtenido se escribe en Redis sin demorar la respuesta.</li>
+ * </ol>
+ * El acceso a Redis pasa por el circuit breaker {@code redis}; si está abierto,
+ * los tenants que no están en la cache local se consultan al servicio externo.
+ */
+@Component
+@Slf4j
+public class TenantPercentageCache implements DisposableBean {
+
+	private static final String KEY_PREFIX = "percentage:";
+
+	private static final String PERCENTAGE_UNAVAILABLE_MESSAGE = "Porcentaje no disponible temporalmente";
+
+	/**
+	 * Memoria estimada de cada entrada sin contar el tenant: nodo de la cache,
+	 * {@link String} y {@link BigDecimal}.
+	 */
+	private static final int ENTRY_OVERHEAD_BYTES = 160;
+
+	private final StringRedisTemplate redisTemplate;
+
+	private final PercentageService percentageService;
+
+	private final PercentageCacheProperties cacheProperties;
+
+	private final TenantPercentageProperties properties;
+
+	private final CircuitBreaker circuitBreaker;
+
+	private final ExecutorService providerExecutor;
+
+	private final RedisMultiGetBatcher batcher;
+
+	private final AsyncLoadingCache<String, BigDecimal> cache;
+
+	public TenantPercentageCache(StringRedisTemplate redisTemplate,
+			@Qualifier("hedgedPercentageService") PercentageService percentageService,
+			PercentageCacheProperties cacheProperties, TenantPercentageProperties properties,
+			CircuitBreakerRegistry circuitBreakerRegistry, MeterRegistry meterRegistry) {
+		this.redisTemplate = redisTemplate;
+		this.percentageService = percentageService;
+		this.cacheProperties = cacheProperties;
+		this.properties = properties;
+		this.circuitBreaker = circuitBreakerRegistry.circuitBreaker("redis");
+		this.providerExecutor = new ThreadPoolExecutor(properties.providerThreads(), properties.providerThreads(),
+				60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(properties.providerThreads() * 64),
+				new CustomizableThreadFactory("percentage-tenant-"));
+		this.batcher = new RedisMultiGetBatcher(this::multiGet, properties.redisBatchSize(),
+				properties.redisBatchDelay());
+		this.cache = Caffeine.newBuilder()
+				.maximumWeight(properties.maxMemory().toBytes())
+				.weigher((String tenant, BigDecimal value) -> ENTRY_OVERHEAD_BYTES + tenant.length())
+				.expireAfterWrite(properties.localTtl())
+				.recordStats()
+				.buildAsync(new Loader());
+		CaffeineCacheMetrics.monitor(meterRegistry, this.cache.synchronous(), "percentage.tenants");
+	}
+
+	/**
+	 * @param tenant Identificador del tenant
+	 * @return El porcentaje del tenant
+	 * @throws ResponseStatusException 503 si el porcentaje no está en cache y no
+	 * 	se pudo obtener del servicio externo
+	 */
+	public BigDecimal get(String tenant) {
+		return join(this.cache.get(tenant));
+	}
+
+	/**
+	 * Detiene los threads de consulta al cerrar la aplicación.
+	 */
+	@Override
+	public void destroy() {
+		this.batcher.close();
+		this.providerExecutor.shutdownNow();
+	}
+
+	/**
+	 * Lee en un único {@code MGET} las claves agrupadas por el batcher, que no
+	 * superan {@code redis-batch-size}. Si Redis no está disponible todas las
+	 * claves se informan como inexistentes.
+	 */
+	private List<String> multiGet(List<String> keys) {
+		try {
+			return this.circuitBreaker.executeSupplier(() -> this.redisTemplate.opsForValue().multiGet(keys));
+		} catch (CallNotPermittedException | DataAccessException e) {
+			log.debug("No se pudieron leer {} porcentajes desde Redis", keys.size(), e);
+			return Arrays.asList(new String[keys.size()]);
+		}
+	}
+
+	/**
+	 * Consulta el porcentaje del tenant al servicio externo y lo escribe en Redis
+	 * una vez respondido.
+	 */
+	private CompletableFuture<BigDecimal> fetch(String tenant) {
+		CompletableFuture<BigDecimal> value;
+		try {
+			value = CompletableFuture.supplyAsync(() -> this.percentageService.getPercentage(tenant),
+					this.providerExecutor);
+		} catch (RejectedExecutionException e) {
+			return CompletableFuture.failedFuture(e);
+		}
+		value.thenAcceptAsync(percentage -> this.write(tenant, percentage), this.providerExecutor);
+		return value;
+	}
+
+	private void write(String tenant, BigDecimal value) {
+		try {
+			this.circuitBreaker.executeRunnable(() -> this.redisTemplate.opsForValue()
+					.set(KEY_PREFIX + tenant, value.toString(), this.cacheProperties.ttl()));
+		} catch (CallNotPermittedException | DataAccessException e) {
+			log.debug("No se pudo guardar en Redis el porcentaje del tenant {}", tenant, e);
+		}
+	}
+
+	private static <T> T join(CompletableFuture<T> future) {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof ResponseStatusException statusException) {
+				throw statusException;
+			}
+			log.warn("No se pudo obtener el porcentaje del tenant", e.getCause());
+			throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, PERCENTAGE_UNAVAILABLE_MESSAGE);
+		}
+	}
+
+	/**
+	 * Carga los porcentajes que no están en la cache local: primero desde Redis
+	 * y, los que no están en Redis, desde el servicio externo.
+	 */
+	private final class Loader implements AsyncCacheLoader<String, BigDecimal> {
+
+		@Override
+		public CompletableFuture<BigDecimal> asyncLoad(String tenant, Executor executor) {
+			return TenantPercentageCache.this.batcher.get(KEY_PREFIX + tenant).thenCompose(cached -> cached != null
+					? CompletableFuture.completedFuture(new BigDecimal(cached))
+					: TenantPercentageCache.this.fetch(tenant));
+		}
+	}
+}
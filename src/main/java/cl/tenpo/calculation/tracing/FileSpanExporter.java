@@ -0,0 +1,99 @@
+package cl.tenpo.calculation.tracing;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exportador de spans a un archivo local, con un span por línea en formato JSON.
+ * Pensado para analizar localmente las trazas sin necesidad de un colector.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	private final BufferedWriter writer;
+
+	public FileSpanExporter(Path file) throws IOException {
+		Path parent = file.toAbsolutePath().getParent();
+		if (parent != null) {
+			Files.createDirectories(parent);
+		}
+		this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+		try {
+			for (SpanData span : spans) {
+				this.writer.write(this.objectMapper.writeValueAsString(toMap(span)));
+				this.writer.newLine();
+			}
+			this.writer.flush();
+			return CompletableResultCode.ofSuccess();
+		} catch (IOException e) {
+			log.warn("No se pudieron exportar {} spans al archivo de trazas", spans.size(), e);
+			return CompletableResultCode.ofFailure();
+		}
+	}
+
+	private static Map<String, Object> toMap(SpanData span) {
+		Map<String, Object> json = new LinkedHashMap<>();
+		json.put("traceId", span.getTraceId());
+		json.put("spanId", span.getSpanId());
+		json.put("parentSpanId", span.getParentSpanId());
+		json.put("name", span.getName());
+		json.put("kind", span.getKind().name());
+		json.put("startEpochNanos", span.getStartEpochNanos());
+		json.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+		json.put("status", span.getStatus().getStatusCode().name());
+		Map<String, Object> attributes = new LinkedHashMap<>();
+		span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+		json.put("attributes", attributes);
+		return json;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized CompletableResultCode flush() {
+		try {
+			this.writer.flush();
+			return CompletableResultCode.ofSuccess();
+		} catch (IOException e) {
+			return CompletableResultCode.ofFailure();
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public synchronized CompletableResultCode shutdown() {
+		try {
+			this.writer.close();
+			return CompletableResultCode.ofSuccess();
+		} catch (IOException e) {
+			return CompletableResultCode.ofFailure();
+		}
+	}
+}
@@ -0,0 +1,156 @@
+package cl.tenpo.calculation.tracing;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Exportador de spans con muestreo "tail-based": agrupa en memoria los spans de
+ * cada traza hasta que finaliza su span raíz local y recién entonces decide si
+ * exportar la traza completa. Se conservan siempre las trazas lentas (raíz más
+ * lenta que {@code slowThreshold}) o con errores, y una fracción
+ * ({@code baselineRatio}) de las restantes.
+ * <p>
+ * Los spans que finalizan después de la raíz (por ejemplo la auditoría
+ * asíncrona) siguen la decisión ya tomada para su traza.
+ */
+public class TailSamplingSpanExporter implements SpanExporter {
+
+	private final SpanExporter delegate;
+
+	private final long slowThresholdNanos;
+
+	private final double baselineRatio;
+
+	private final long decisionWaitNanos;
+
+	private final int maxPendingTraces;
+
+	private final Map<String, PendingTrace> pending = new LinkedHashMap<>();
+
+	private final Map<String, Boolean> decisions;
+
+	public TailSamplingSpanExporter(SpanExporter delegate, long slowThresholdNanos, double baselineRatio,
+			long decisionWaitNanos, int maxPendingTraces) {
+		this.delegate = delegate;
+		this.slowThresholdNanos = slowThresholdNanos;
+		this.baselineRatio = baselineRatio;
+		this.decisionWaitNanos = decisionWaitNanos;
+		this.maxPendingTraces = maxPendingTraces;
+		this.decisions = new LinkedHashMap<>(16, 0.75f, false) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > maxPendingTraces;
+			}
+		};
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableResultCode export(Collection<SpanData> spans) {
+		List<SpanData> sampled = this.sample(spans);
+		return sampled.isEmpty() ? CompletableResultCode.ofSuccess() : this.delegate.export(sampled);
+	}
+
+	private synchronized List<SpanData> sample(Collection<SpanData> spans) {
+		List<SpanData> sampled = new ArrayList<>();
+		long now = System.nanoTime();
+		for (SpanData span : spans) {
+			String traceId = span.getTraceId();
+			Boolean decision = this.decisions.get(traceId);
+			if (decision != null) {
+				if (decision) {
+					sampled.add(span);
+				}
+				continue;
+			}
+
+			PendingTrace trace = this.pending.computeIfAbsent(traceId, id -> new PendingTrace(now));
+			trace.spans.add(span);
+			trace.error |= span.getStatus().getStatusCode() == StatusCode.ERROR;
+			if (isLocalRoot(span)) {
+				this.pending.remove(traceId);
+				boolean keep = trace.error
+						|| span.getEndEpochNanos() - span.getStartEpochNanos() >= this.slowThresholdNanos
+						|| ThreadLocalRandom.current().nextDouble() < this.baselineRatio;
+				this.decisions.put(traceId, keep);
+				if (keep) {
+					sampled.addAll(trace.spans);
+				}
+			}
+		}
+		this.evictStale(now);
+		return sampled;
+	}
+
+	/**
+	 * Descarta las trazas cuyo span raíz no llegó dentro del tiempo de espera, o
+	 * las más antiguas si se superó la cantidad máxima de trazas pendientes.
+	 */
+	private void evictStale(long now) {
+		Iterator<PendingTrace> it = this.pending.values().iterator();
+		while (it.hasNext()) {
+			PendingTrace trace = it.next();
+			if (this.pending.size() <= this.maxPendingTraces && now - trace.firstSeenNanos < this.decisionWaitNanos) {
+				break;
+			}
+			it.remove();
+		}
+	}
+
+	private static boolean isLocalRoot(SpanData span) {
+		SpanContext parent = span.getParentSpanContext();
+		return !parent.isValid() || parent.isRemote();
+	}
+
+	/**
+	 * @return La cantidad de trazas pendientes de decisión
+	 */
+	public synchronized int pendingTraces() {
+		return this.pending.size();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableResultCode flush() {
+		return this.delegate.flush();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public CompletableResultCode shutdown() {
+		return this.delegate.shutdown();
+	}
+
+	private static final class PendingTrace {
+
+		private final long firstSeenNanos;
+
+		private final List<SpanData> spans = new ArrayList<>();
+
+		private boolean error;
+
+		private PendingTrace(long firstSeenNanos) {
+			this.firstSeenNanos = firstSeenNanos;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package cl.tenpo.calculation.warmup;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import cl.tenpo.calculation.config.WarmupProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Filtro que identifica los requests de calentamiento enviados por
+ * {@link WarmupRunner} y registra la latencia de los primeros requests reales
+ * al endpoint de cálculo.
+ * <p>
+ * Los requests de calentamiento se reconocen por un token aleatorio generado al
+ * iniciar la aplicación, que nunca sale del proceso, por lo que un cliente
+ * externo no puede hacerse pasar por ellos. Sobre esos requests no se audita ni
+ * se consulta al servicio externo de porcentaje, y no pasan por el limitador
+ * adaptativo de concurrencia.
+ */
+@Component
+public class WarmupFilter extends OncePerRequestFilter {
+
+	/**
+	 * Header con el token de los requests de calentamiento.
+	 */
+	public static final String TOKEN_HEADER = "X-Warmup-Token";
+
+	/**
+	 * Atributo del request que indica que es un request de calentamiento.
+	 */
+	public static final String WARMUP_ATTRIBUTE = WarmupFilter.class.getName() + ".WARMUP";
+
+	/**
+	 * Ruta cuyos primeros requests se registran en {@code warmup.first.requests}.
+	 */
+	static final String CALCULATION_PATH = "/calculation";
+
+	private final byte[] token = UUID.randomUUID().toString().getBytes(StandardCharsets.US_ASCII);
+
+	private final AtomicInteger firstRequestsRemaining;
+
+	private final Timer firstRequests;
+
+	public WarmupFilter(WarmupProperties properties, MeterRegistry meterRegistry) {
+		this.firstRequestsRemaining = new AtomicInteger(properties.firstRequests());
+		this.firstRequests = Timer.builder("warmup.first.requests")
+				.description("Latencia de los primeros requests reales luego del calentamiento")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * @return {@code true} si el request en curso es un request de calentamiento
+	 */
+	public static boolean isWarmupRequest() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		return attributes != null
+				&& attributes.getAttribute(WARMUP_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+	}
+
+	/**
+	 * @return El token a enviar en el header {@link #TOKEN_HEADER}
+	 */
+	String token() {
+		return new String(this.token, StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+			throws ServletException, IOException {
+		String header = request.getHeader(TOKEN_HEADER);
+		if (header != null && MessageDigest.isEqual(this.token, header.getBytes(StandardCharsets.US_ASCII))) {
+			request.setAttribute(WARMUP_ATTRIBUTE, Boolean.TRUE);
+			chain.doFilter(request, response);
+			return;
+		}
+		if (!CALCULATION_PATH.equals(request.getRequestURI()) || this.firstRequestsRemaining.get() <= 0
+				|| this.firstRequestsRemaining.getAndDecrement() <= 0) {
+			chain.doFilter(request, response);
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			chain.doFilter(request, response);
+		} finally {
+			this.firstRequests.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+	}
+}
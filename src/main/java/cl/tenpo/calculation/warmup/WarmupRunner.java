@@ -0,0 +1,151 @@
+package cl.tenpo.calculation.warmup;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.stereotype.Component;
+
+import cl.tenpo.calculation.config.WarmupProperties;
+import cl.tenpo.calculation.repository.RequestAuditRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calienta la aplicación antes de que comience a recibir tráfico.
+ * <p>
+ * Spring Boot ejecuta los {@link ApplicationRunner} antes de publicar el estado
+ * de readiness {@code ACCEPTING_TRAFFIC}, por lo que mientras dura el
+ * calentamiento el probe {@code /actuator/health/readiness} no deriva tráfico a
+ * la réplica. El calentamiento:
+ * <ol>
+ * <li>Abre las conexiones a PostgreSQL (Hikari) y Redis (Lettuce), e inicializa
+ * Hibernate con una consulta sin resultados.</li>
+ * <li>Envía requests al endpoint de cálculo por loopback, recorriendo el mismo
+ * camino que un request real (filtros, interceptores, aspectos, conversores y
+ * manejo de errores) para que el JIT compile ese código. Estos requests se
+ * identifican con el token de {@link WarmupFilter}: no se auditan y el
+ * porcentaje se obtiene de la cache sin consultar al servicio externo.</li>
+ * </ol>
+ * Los errores del calentamiento se registran sin impedir el inicio de la aplicación.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "warmup", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+	private final WarmupProperties properties;
+
+	private final WarmupFilter warmupFilter;
+
+	private final ApplicationContext applicationContext;
+
+	private final DataSource dataSource;
+
+	private final RedisConnectionFactory redisConnectionFactory;
+
+	private final RequestAuditRepository requestAuditRepository;
+
+	private final Timer duration;
+
+	public WarmupRunner(WarmupProperties properties, WarmupFilter warmupFilter, ApplicationContext applicationContext,
+			DataSource dataSource, RedisConnectionFactory redisConnectionFactory,
+			RequestAuditRepository requestAuditRepository, MeterRegistry meterRegistry) {
+		this.properties = properties;
+		this.warmupFilter = warmupFilter;
+		this.applicationContext = applicationContext;
+		this.dataSource = dataSource;
+		this.redisConnectionFactory = redisConnectionFactory;
+		this.requestAuditRepository = requestAuditRepository;
+		this.duration = Timer.builder("warmup.duration")
+				.description("Duración del calentamiento previo a recibir tráfico")
+				.register(meterRegistry);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public void run(ApplicationArguments args) {
+		long start = System.nanoTime();
+		this.openConnections();
+		int requests = this.sendRequests();
+		long elapsed = System.nanoTime() - start;
+		this.duration.record(elapsed, TimeUnit.NANOSECONDS);
+		log.info("Calentamiento finalizado en {} ms ({} requests)", TimeUnit.NANOSECONDS.toMillis(elapsed), requests);
+	}
+
+	private void openConnections() {
+		try (Connection connection = this.dataSource.getConnection()) {
+			connection.isValid(1);
+			this.requestAuditRepository.findById(-1L);
+		} catch (Exception e) {
+			log.warn("Calentamiento: no se pudo abrir la conexión a la base de datos", e);
+		}
+		try (RedisConnection connection = this.redisConnectionFactory.getConnection()) {
+			connection.ping();
+		} catch (Exception e) {
+			log.warn("Calentamiento: no se pudo abrir la conexión a Redis", e);
+		}
+	}
+
+	private int sendRequests() {
+		if (!(this.applicationContext instanceof WebServerApplicationContext context)
+				|| context.getWebServer() == null || context.getWebServer().getPort() <= 0) {
+			log.info("Calentamiento: sin servidor web, se omiten los requests");
+			return 0;
+		}
+		String baseUrl = "http://localhost:" + context.getWebServer().getPort() + "/calculation";
+		long deadline = System.nanoTime() + this.properties.timeout().toNanos();
+		AtomicInteger sent = new AtomicInteger();
+		ExecutorService executor = Executors.newFixedThreadPool(this.properties.concurrency());
+		try (HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build()) {
+			List<Future<?>> workers = new ArrayList<>();
+			for (int i = 0; i < this.properties.concurrency(); i++) {
+				workers.add(executor.submit(() -> this.sendUntilDone(client, baseUrl, sent, deadline)));
+			}
+			for (Future<?> worker : workers) {
+				worker.get();
+			}
+		} catch (Exception e) {
+			log.warn("Calentamiento: error enviando requests", e);
+		} finally {
+			executor.shutdownNow();
+		}
+		return Math.min(sent.get(), this.properties.iterations());
+	}
+
+	private void sendUntilDone(HttpClient client, String baseUrl, AtomicInteger sent, long deadline) throws Exception {
+		int i;
+		while ((i = sent.getAndIncrement()) < this.properties.iterations() && System.nanoTime() < deadline) {
+			// Uno de cada diez requests es inválido, para calentar también el manejo de errores
+			String query = i % 10 == 9 ? "?num1=-1&num2=1" : "?num1=" + (i % 100) + "&num2=" + (i % 7);
+			HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + query))
+					.header(WarmupFilter.TOKEN_HEADER, this.warmupFilter.token())
+					.timeout(Duration.ofSeconds(5))
+					.GET()
+					.build();
+			client.send(request, HttpResponse.BodyHandlers.discarding());
+		}
+	}
+}
@@ -0,0 +1,55 @@
+package cl.tenpo.calculation.web;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+/**
+ * Conversor que escribe un {@link BigDecimal} directamente como su
+ * representación numérica, válida tanto como JSON como texto plano, sin pasar
+ * por Jackson. Produce la misma salida que Jackson ({@link BigDecimal#toString()}).
+ */
+public class BigDecimalHttpMessageConverter extends AbstractHttpMessageConverter<BigDecimal> {
+
+	public BigDecimalHttpMessageConverter() {
+		super(MediaType.APPLICATION_JSON, MediaType.TEXT_PLAIN);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return BigDecimal.class == clazz;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected BigDecimal readInternal(Class<? extends BigDecimal> clazz, HttpInputMessage inputMessage)
+			throws IOException {
+		String body = new String(inputMessage.getBody().readAllBytes(), StandardCharsets.US_ASCII).trim();
+		try {
+			return new BigDecimal(body);
+		} catch (NumberFormatException e) {
+			throw new HttpMessageNotReadableException("Número inválido: " + body, e, inputMessage);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void writeInternal(BigDecimal value, HttpOutputMessage outputMessage) throws IOException {
+		byte[] bytes = value.toString().getBytes(StandardCharsets.US_ASCII);
+		outputMessage.getHeaders().setContentLength(bytes.length);
+		outputMessage.getBody().write(bytes);
+	}
+}
@@ -0,0 +1,61 @@
+package cl.tenpo.calculation.web;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Reloj con resolución de segundos que reutiliza la fecha actual (y su
+ * representación ISO-8601 ya codificada) mientras no cambie el segundo, para
+ * evitar construir y formatear un {@link ZonedDateTime} en cada respuesta de error.
+ */
+public final class CachedClock {
+
+	private static volatile Tick tick = Tick.of(System.currentTimeMillis() / 1000);
+
+	private CachedClock() {
+	}
+
+	/**
+	 * @return La fecha actual en UTC, truncada al segundo
+	 */
+	public static ZonedDateTime now() {
+		return current().time();
+	}
+
+	/**
+	 * Obtiene la representación ISO-8601 de una fecha, reutilizando la ya
+	 * codificada si corresponde al segundo actual.
+	 *
+	 * @param time Fecha a codificar
+	 * @return Los bytes UTF-8 de la fecha en formato ISO-8601
+	 */
+	static byte[] isoBytes(ZonedDateTime time) {
+		Tick current = current();
+		if (current.time().equals(time)) {
+			return current.iso();
+		}
+		return DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time).getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static Tick current() {
+		long second = System.currentTimeMillis() / 1000;
+		Tick current = tick;
+		if (current.second() != second) {
+			current = Tick.of(second);
+			tick = current;
+		}
+		return current;
+	}
+
+	private record Tick(long second, ZonedDateTime time, byte[] iso) {
+
+		private static Tick of(long second) {
+			ZonedDateTime time = ZonedDateTime.ofInstant(Instant.ofEpochSecond(second), ZoneOffset.UTC);
+			return new Tick(second, time,
+					DateTimeFormatter.ISO_OFFSET_DATE_TIME.format(time).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+}
@@ -0,0 +1,131 @@
+package cl.tenpo.calculation.web;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import cl.tenpo.calculation.dto.ErrorResponseDto;
+
+/**
+ * Conversor que escribe un {@link ErrorResponseDto} como JSON sin pasar por
+ * Jackson. La parte fija del cuerpo ({@code status} y {@code message}) de los
+ * errores de mensaje fijo (límites, sobrecarga, error interno) se codifica una
+ * única vez al crear el conversor, por lo que en esas respuestas solo se
+ * codifica la fecha, que a su vez se reutiliza mientras no cambie el segundo
+ * (ver {@link CachedClock}). Los mensajes que varían por request, como los de
+ * validación, se codifican en cada respuesta sin conservarse.
+ */
+public class ErrorResponseHttpMessageConverter extends AbstractHttpMessageConverter<ErrorResponseDto> {
+
+	private static final byte[] QUOTED_SUFFIX = "\"}".getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] NULL_SUFFIX = "null}".getBytes(StandardCharsets.UTF_8);
+
+	private final Map<PrefixKey, byte[]> prefixes;
+
+	/**
+	 * @param fixedErrors Errores de mensaje fijo cuyo {@code status} y
+	 * 	{@code message} se codifican de antemano; la fecha se ignora
+	 */
+	public ErrorResponseHttpMessageConverter(Collection<ErrorResponseDto> fixedErrors) {
+		super(MediaType.APPLICATION_JSON);
+		Map<PrefixKey, byte[]> prefixes = new HashMap<>();
+		for (ErrorResponseDto error : fixedErrors) {
+			prefixes.put(new PrefixKey(error.status(), error.message()), encodePrefix(error.status(), error.message()));
+		}
+		this.prefixes = Map.copyOf(prefixes);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean supports(Class<?> clazz) {
+		return ErrorResponseDto.class == clazz;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected boolean canRead(MediaType mediaType) {
+		return false;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected ErrorResponseDto readInternal(Class<? extends ErrorResponseDto> clazz, HttpInputMessage inputMessage) {
+		throw new HttpMessageNotReadableException("Solo se admite la escritura de ErrorResponseDto", inputMessage);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	protected void writeInternal(ErrorResponseDto error, HttpOutputMessage outputMessage) throws IOException {
+		byte[] prefix = this.prefix(error.status(), error.message());
+		byte[] timestamp = error.timestamp() != null ? CachedClock.isoBytes(error.timestamp()) : null;
+		int length = prefix.length
+				+ (timestamp != null ? 1 + timestamp.length + QUOTED_SUFFIX.length : NULL_SUFFIX.length);
+		outputMessage.getHeaders().setContentLength(length);
+		OutputStream body = outputMessage.getBody();
+		body.write(prefix);
+		if (timestamp != null) {
+			body.write('"');
+			body.write(timestamp);
+			body.write(QUOTED_SUFFIX);
+		} else {
+			body.write(NULL_SUFFIX);
+		}
+	}
+
+	private byte[] prefix(int status, String message) {
+		byte[] prefix = this.prefixes.get(new PrefixKey(status, message));
+		return prefix != null ? prefix : encodePrefix(status, message);
+	}
+
+	private static byte[] encodePrefix(int status, String message) {
+		StringBuilder json = new StringBuilder(64).append("{\"status\":").append(status).append(",\"message\":");
+		if (message == null) {
+			json.append("null");
+		} else {
+			appendEscaped(json.append('"'), message).append('"');
+		}
+		return json.append(",\"timestamp\":").toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static StringBuilder appendEscaped(StringBuilder json, String value) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '"' -> json.append("\\\"");
+			case '\\' -> json.append("\\\\");
+			case '\n' -> json.append("\\n");
+			case '\r' -> json.append("\\r");
+			case '\t' -> json.append("\\t");
+			default -> {
+				if (c < 0x20) {
+					json.append(String.format("\\u%04x", (int) c));
+				} else {
+					json.append(c);
+				}
+			}
+			}
+		}
+		return json;
+	}
+
+	private record PrefixKey(int status, String message) {
+	}
+}
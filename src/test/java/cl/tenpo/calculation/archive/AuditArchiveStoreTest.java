@@ -0,0 +1,120 @@
+package cl.tenpo.calculation.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cl.tenpo.calculation.config.AuditArchiveProperties;
+import cl.tenpo.calculation.dto.RequestAuditDto;
+import cl.tenpo.calculation.entity.RequestAudit;
+
+/**
+ * Test unitarios para {@link AuditArchiveStore}.
+ */
+public class AuditArchiveStoreTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0, 0, 123_456_000);
+
+    private static final AtomicLong IDS = new AtomicLong();
+
+    @TempDir
+    Path directory;
+
+    private AuditArchiveStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new AuditArchiveStore(
+                new AuditArchiveProperties(true, directory, Duration.ofDays(30), 100, Duration.ofHours(1)));
+    }
+
+    /**
+     * Verifica que las auditorías archivadas se leen con los mismos valores con
+     * los que fueron escritas, incluidos los valores nulos y los agregados.
+     *
+     * @throws Exception si ocurre algún error de escritura.
+     */
+    @Test
+    @DisplayName("Debería leer las auditorías archivadas con los mismos valores escritos")
+    void shouldRoundTripAudits() throws Exception {
+        RequestAudit aggregated = audit(START, "GET /calculation", "[5, 5]", "11", true);
+        aggregated.setCount(5L);
+        aggregated.setFirstSeen(START);
+        aggregated.setLastSeen(START.plusNanos(750_000_000));
+        aggregated.setFormulaVersion("a1b2c3d4e5f6");
+        List<RequestAudit> rows = List.of(
+                aggregated,
+                audit(START.plusSeconds(1), null, null, null, false),
+                audit(START.plusSeconds(2), "GET /calculation", "[1, 2]", "Error X", false));
+
+        Path file = store.write(rows);
+
+        assertTrue(Files.exists(file));
+        List<RequestAuditDto> audits = store.find(null, null, 0, 10);
+        assertEquals(3, audits.size());
+        assertEquals(new RequestAuditDto(START, "GET /calculation", "[5, 5]", "11", true, 5, START,
+                START.plusNanos(750_000_000), "a1b2c3d4e5f6"), audits.get(0));
+        assertEquals(1, audits.get(1).count());
+        assertNull(audits.get(1).endpoint());
+        assertNull(audits.get(1).incoming());
+        assertNull(audits.get(1).result());
+        assertNull(audits.get(1).formulaVersion());
+        assertFalse(audits.get(1).success());
+        assertEquals("Error X", audits.get(2).result());
+    }
+
+    /**
+     * Verifica el conteo y la paginación por rango de fechas sobre varios archivos.
+     *
+     * @throws Exception si ocurre algún error de escritura.
+     */
+    @Test
+    @DisplayName("Debería contar y paginar por rango de fechas entre varios archivos")
+    void shouldCountAndPageAcrossFiles() throws Exception {
+        store.write(minutes(0, 10));
+        store.write(minutes(10, 10));
+
+        assertEquals(20, store.count(null, null));
+        assertEquals(6, store.count(START.plusMinutes(7), START.plusMinutes(12)));
+        assertEquals(0, store.count(START.plusDays(1), null));
+
+        List<RequestAuditDto> page = store.find(START.plusMinutes(5), null, 3, 4);
+        assertEquals(4, page.size());
+        assertEquals(START.plusMinutes(8), page.get(0).requestTime());
+        assertEquals(START.plusMinutes(11), page.get(3).requestTime());
+    }
+
+    private static List<RequestAudit> minutes(int from, int count) {
+        List<RequestAudit> rows = new ArrayList<>();
+        for (int i = from; i < from + count; i++) {
+            rows.add(audit(START.plusMinutes(i), "GET /calculation", "[" + i + ", 1]", String.valueOf(i + 1), true));
+        }
+        return rows;
+    }
+
+    private static RequestAudit audit(LocalDateTime time, String endpoint, String incoming, String result,
+            boolean success) {
+        return RequestAudit.builder()
+                .id(IDS.incrementAndGet())
+                .requestTime(time)
+                .endpoint(endpoint)
+                .incoming(incoming)
+                .result(result)
+                .success(success)
+                .build();
+    }
+}
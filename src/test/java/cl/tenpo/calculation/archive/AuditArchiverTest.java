@@ -0,0 +1,190 @@
+package cl.tenpo.calculation.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import cl.tenpo.calculation.config.AuditArchiveProperties;
+import cl.tenpo.calculation.entity.RequestAudit;
+import cl.tenpo.calculation.repository.RequestAuditRepository;
+
+/**
+ * Test unitarios para {@link AuditArchiver}, con un almacenamiento de archivos
+ * real y un administrador de transacciones sin recursos.
+ */
+@ExtendWith(MockitoExtension.class)
+public class AuditArchiverTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private RequestAuditRepository requestAuditRepository;
+
+    private AuditArchiveStore store;
+
+    private AuditArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        AuditArchiveProperties properties =
+                new AuditArchiveProperties(true, directory, Duration.ofDays(30), 10, Duration.ofHours(1));
+        store = new AuditArchiveStore(properties);
+        archiver = new AuditArchiver();
+        archiver.requestAuditRepository = requestAuditRepository;
+        archiver.auditArchiveStore = store;
+        archiver.properties = properties;
+        archiver.transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+    }
+
+    /**
+     * Verifica que las auditorías se archivan en lotes, que cada archivo se
+     * publica con un nombre único y que no quedan archivos pendientes.
+     *
+     * @throws Exception si ocurre algún error listando los archivos.
+     */
+    @Test
+    @DisplayName("Debería archivar en lotes y publicar un archivo por lote")
+    void shouldArchiveInBatches() throws Exception {
+        when(requestAuditRepository.tryLockArchive()).thenReturn(true);
+        when(requestAuditRepository.findByRequestTimeBeforeOrderByRequestTimeAsc(any(), any()))
+                .thenReturn(rows(1, 10), rows(11, 5));
+        when(requestAuditRepository.deleteByIds(anyList())).thenReturn(10, 5);
+
+        assertEquals(15, archiver.archive());
+
+        assertEquals(15, store.count(null, null));
+        assertEquals(2, files().size());
+        assertTrue(files().stream().noneMatch(name -> name.endsWith(".pending")));
+    }
+
+    /**
+     * Verifica que si no se eliminan todas las filas del lote, porque otro
+     * proceso las eliminó, el lote se descarta y no queda ningún archivo.
+     *
+     * @throws Exception si ocurre algún error listando los archivos.
+     */
+    @Test
+    @DisplayName("Debería descartar el lote si no se eliminan todas sus filas")
+    void shouldDiscardBatchWhenRowsWereAlreadyDeleted() throws Exception {
+        when(requestAuditRepository.tryLockArchive()).thenReturn(true);
+        when(requestAuditRepository.findByRequestTimeBeforeOrderByRequestTimeAsc(any(), any()))
+                .thenReturn(rows(1, 10));
+        when(requestAuditRepository.deleteByIds(anyList())).thenReturn(7);
+
+        assertThrows(IllegalStateException.class, archiver::archive);
+
+        assertTrue(files().isEmpty());
+    }
+
+    /**
+     * Verifica que si otra réplica tiene el lock de archivado no se archiva nada.
+     */
+    @Test
+    @DisplayName("Debería omitir el archivado si otra réplica está archivando")
+    void shouldSkipWhenAnotherReplicaIsArchiving() {
+        when(requestAuditRepository.tryLockArchive()).thenReturn(false);
+
+        assertEquals(0, archiver.archive());
+
+        verify(requestAuditRepository, never()).findByRequestTimeBeforeOrderByRequestTimeAsc(any(), any());
+    }
+
+    /**
+     * Verifica que los archivos pendientes de un archivado interrumpido se
+     * publican si sus filas ya se eliminaron y se eliminan si siguen en la base
+     * de datos.
+     *
+     * @throws Exception si ocurre algún error de escritura.
+     */
+    @Test
+    @DisplayName("Debería resolver los archivos pendientes de un archivado interrumpido")
+    void shouldRecoverPendingFiles() throws Exception {
+        Path committed = store.writePending(rows(1, 10));
+        Path uncommitted = store.writePending(rows(11, 10));
+        when(requestAuditRepository.tryLockArchive()).thenReturn(true);
+        when(requestAuditRepository.existsById(1L)).thenReturn(false);
+        when(requestAuditRepository.existsById(11L)).thenReturn(true);
+        when(requestAuditRepository.findByRequestTimeBeforeOrderByRequestTimeAsc(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, archiver.archive());
+
+        assertFalse(Files.exists(committed));
+        assertFalse(Files.exists(uncommitted));
+        assertEquals(10, store.count(null, null));
+        assertEquals(1, files().size());
+    }
+
+    private List<String> files() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).toList();
+        }
+    }
+
+    private static List<RequestAudit> rows(long firstId, int count) {
+        List<RequestAudit> rows = new ArrayList<>();
+        for (long id = firstId; id < firstId + count; id++) {
+            rows.add(RequestAudit.builder()
+                    .id(id)
+                    .requestTime(START.plusMinutes(id))
+                    .endpoint("GET /calculation")
+                    .incoming("[" + id + ", 1]")
+                    .result(String.valueOf(id + 1))
+                    .success(true)
+                    .build());
+        }
+        return rows;
+    }
+
+    /**
+     * Administrador de transacciones sin recursos, que solo ejecuta las
+     * sincronizaciones registradas.
+     */
+    private static class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -3,14 +3,18 @@ package cl.tenpo.calculation.aspect;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.lang.reflect.Method;
 import java.time.LocalDateTime;
 import java.util.List;
 
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -21,7 +25,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
+import cl.tenpo.calculation.controller.CalculationController;
 import cl.tenpo.calculation.service.AuditService;
+import cl.tenpo.calculation.service.CalculationService;
 import jakarta.servlet.http.HttpServletRequest;
 
 /**
@@ -42,6 +48,9 @@ public class AuditAspectTest {
     @Mock
     private HttpServletRequest httpServletRequest;
 
+    @Mock
+    private MethodSignature methodSignature;
+
     @BeforeEach
     void setup() {
         // Mock del contexto web de Spring
@@ -50,7 +59,8 @@ public class AuditAspectTest {
     }
 
     /**
-     * Test para verificar que el aspecto de auditoría registra correctamente un request exitoso.
+     * Test para verificar que el aspecto de auditoría registra correctamente un request exitoso,
+     * junto con la versión de la fórmula usada en el cálculo.
      * 
      * @throws Throwable si ocurre algún error durante la ejecución del join point.
      */
@@ -62,6 +72,8 @@ public class AuditAspectTest {
         when(httpServletRequest.getRequestURI()).thenReturn("/calculate");
         when(joinPoint.getArgs()).thenReturn(new Object[]{"5", "10"});
         when(joinPoint.proceed()).thenReturn("resultado-ok");
+        when(httpServletRequest.getAttribute(anyString())).thenAnswer(invocation ->
+                CalculationService.FORMULA_VERSION_ATTRIBUTE.equals(invocation.getArgument(0)) ? "a1b2c3d4e5f6" : null);
 
         // When
         Object result = auditAspect.logRequest(joinPoint);
@@ -74,7 +86,8 @@ public class AuditAspectTest {
             eq("GET /calculate"),
             eq(List.of("5", "10")),
             eq("resultado-ok"),
-            eq(true)
+            eq(true),
+            eq("a1b2c3d4e5f6")
         );
     }
 
@@ -106,7 +119,38 @@ public class AuditAspectTest {
             eq("POST /calcular"),
             eq(List.of(1, 2)),
             eq("error esperado"),
-            eq(false)
+            eq(false),
+            isNull()
         );
     }
+
+    /**
+     * Verifica que el tenant se audita al final de los parámetros y que los
+     * demás headers, como la clave de idempotencia, no se auditan.
+     *
+     * @throws Throwable si ocurre algún error durante la ejecución del join point.
+     */
+    @Test
+    @DisplayName("Debería auditar el tenant y omitir los demás headers")
+    void testLogRequestAuditsTenant() throws Throwable {
+        // Given
+        Method calculate = CalculationController.class.getMethod("calculate", int.class, int.class, String.class,
+                String.class);
+        when(httpServletRequest.getMethod()).thenReturn("GET");
+        when(httpServletRequest.getRequestURI()).thenReturn("/calculation");
+        when(joinPoint.getSignature()).thenReturn(methodSignature);
+        when(methodSignature.getMethod()).thenReturn(calculate);
+        when(joinPoint.getArgs()).thenReturn(new Object[]{5, 5, "clave-1", "acme"}, new Object[]{5, 5, "clave-2", null});
+        when(joinPoint.proceed()).thenReturn("11");
+
+        // When
+        auditAspect.logRequest(joinPoint);
+        auditAspect.logRequest(joinPoint);
+
+        // Then
+        verify(auditService).auditRequest(any(LocalDateTime.class), eq("GET /calculation"), eq(List.of(5, 5, "acme")),
+                eq("11"), eq(true), isNull());
+        verify(auditService).auditRequest(any(LocalDateTime.class), eq("GET /calculation"), eq(List.of(5, 5)),
+                eq("11"), eq(true), isNull());
+    }
 }
@@ -0,0 +1,49 @@
+package cl.tenpo.calculation.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import cl.tenpo.calculation.runtime.AsyncTaskActivity;
+
+/**
+ * Test unitarios para {@link AuditBacklogHealthConfig}.
+ */
+public class AuditBacklogHealthConfigTest {
+
+    /**
+     * Verifica que, sin las verificaciones en segundo plano, el indicador de
+     * auditorías pendientes evalúa la cola en cada consulta y pasa a DOWN al
+     * superar el máximo configurado.
+     */
+    @Test
+    @DisplayName("Debería verificar la cola de auditorías en cada consulta del probe")
+    @SuppressWarnings("unchecked")
+    void shouldCheckBacklogOnEachProbe() {
+        ThreadPoolTaskExecutor executor = mock(ThreadPoolTaskExecutor.class);
+        ObjectProvider<ThreadPoolTaskExecutor> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(executor);
+        when(executor.getQueueSize()).thenReturn(5, 11);
+        HealthIndicator indicator = new AuditBacklogHealthConfig().auditBacklogHealthIndicator(provider,
+                new AsyncTaskActivity(), new HealthCheckProperties(false, Duration.ofSeconds(10),
+                        Duration.ofSeconds(2), 3, 10));
+
+        Health belowMax = indicator.health();
+        Health aboveMax = indicator.health();
+
+        assertEquals(Status.UP, belowMax.getStatus());
+        assertEquals(5, belowMax.getDetails().get("queued"));
+        assertEquals(Status.DOWN, aboveMax.getStatus());
+        assertEquals("Auditorías pendientes: 11 (máximo 10)", aboveMax.getDetails().get("error"));
+    }
+}
@@ -0,0 +1,33 @@
+package cl.tenpo.calculation.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import cl.tenpo.calculation.entity.RequestAudit;
+import cl.tenpo.calculation.service.external.PercentageServiceProxyImpl;
+
+/**
+ * Test unitarios para {@link NativeHintsConfig}.
+ */
+public class NativeHintsConfigTest {
+
+    /**
+     * Verifica que se registran los hints de la entidad de auditoría y del método
+     * de fallback de Resilience4j.
+     */
+    @Test
+    @DisplayName("Debería registrar los hints de la entidad y del fallback de Resilience4j")
+    void shouldRegisterHints() {
+        RuntimeHints hints = new RuntimeHints();
+
+        new NativeHintsConfig.CalculationRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RequestAudit.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onMethod(PercentageServiceProxyImpl.class, "getFromCacheOrFail").test(hints));
+    }
+}
@@ -94,5 +94,43 @@ public class AuditControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(jsonPath("$.status").value(HttpStatus.INTERNAL_SERVER_ERROR.value()));
     }
-}
 
+	/**
+	 * Test para verificar que el controlador delega las consultas con rango de fechas
+	 * en la búsqueda que incluye las auditorías archivadas.
+	 * 
+	 * @throws Exception si ocurre algún error durante la ejecución del test.
+	 */
+    @Test
+    @DisplayName("Debería consultar por rango de fechas cuando se indican from y to")
+    void shouldReturnAuditsInRange() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 2, 1, 0, 0);
+        PageDto<RequestAuditDto> pageDto = new PageDto<>(
+                List.of(new RequestAuditDto(from, "GET /calculate", "[5,5]", "11", true)), 0, 10, 1l, 1, true);
+
+        when(auditService.getRange(from, to, 0, 10)).thenReturn(pageDto);
+
+        mockMvc.perform(get("/audit")
+                        .param("from", "2024-01-01T00:00:00")
+                        .param("to", "2024-02-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalElements").value(1));
+    }
+
+    /**
+     * Test para verificar que el controlador retorna un error 400 cuando el rango de fechas es inválido.
+     * 
+     * @throws Exception si ocurre algún error durante la ejecución del test.
+     */
+    @Test
+    @DisplayName("Debería retornar 400 Bad Request cuando from es posterior a to")
+    void shouldReturnBadRequestWhenRangeIsInvalid() throws Exception {
+        mockMvc.perform(get("/audit")
+                        .param("from", "2024-02-01T00:00:00")
+                        .param("to", "2024-01-01T00:00:00"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value(HttpStatus.BAD_REQUEST.value()));
+    }
+}
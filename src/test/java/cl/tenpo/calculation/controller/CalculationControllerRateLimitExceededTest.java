@@ -1,11 +1,15 @@
 package cl.tenpo.calculation.controller;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -16,13 +20,14 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
 
 import cl.tenpo.calculation.service.AuditService;
 import cl.tenpo.calculation.service.CalculationService;
 
 /**
  * Clase de test para verificar el límite de peticiones concurrentes
- * definido por el rate limiter de Resilience4j en {@link CalculationController}.
+ * definido por el limitador adaptativo de concurrencia en {@link CalculationController}.
  */
 @SpringBootTest
 @AutoConfigureMockMvc
@@ -40,29 +45,44 @@ public class CalculationControllerRateLimitExceededTest {
     
     /**
      * Test para verificar que se retorna un error 429 (Too Many Requests)
-     * cuando se excede el límite de 3 peticiones permitidas
+     * cuando se excede el límite de concurrencia (configurado en 1 para este perfil):
+     * mientras un request está en vuelo, el siguiente es rechazado.
      * 
      * @throws Exception si ocurre algún error durante la ejecución del test.
      */
     @Test
-    @DisplayName("Debería retornar HTTP 429 al exceder el límite de 3 requests permitidos")
+    @DisplayName("Debería retornar HTTP 429 al exceder el límite de concurrencia permitido")
     void testRateLimitExceeded() throws Exception {
-        when(calculationService.calculate(5, 5)).thenReturn(new BigDecimal(11));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(calculationService.calculate(5, 5)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return new BigDecimal(11);
+        });
 
-        // Hacemos 3 llamadas válidas (permitidas)
-        for (int i = 0; i < 3; i++) {
-            mockMvc.perform(get("/calculation")
-                            .param("num1", "5")
-                            .param("num2", "5"))
-                    .andExpect(status().isOk())
-                    .andExpect(content().string("11"));
-        }
+        // El primer request queda en vuelo ocupando el único lugar disponible
+        CompletableFuture<ResultActions> inFlight = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(get("/calculation")
+                        .param("num1", "5")
+                        .param("num2", "5"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
 
-        // La 4ta llamada debería ser bloqueada con 429 Too Many Requests
+        // El segundo request concurrente debería ser bloqueado con 429 Too Many Requests
         mockMvc.perform(get("/calculation")
                         .param("num1", "5")
                         .param("num2", "5"))
                 .andExpect(status().isTooManyRequests());
+
+        release.countDown();
+        inFlight.get(5, TimeUnit.SECONDS)
+                .andExpect(status().isOk())
+                .andExpect(content().string("11"));
     }
 
 }
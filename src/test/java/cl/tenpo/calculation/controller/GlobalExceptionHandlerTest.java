@@ -3,8 +3,6 @@ package cl.tenpo.calculation.controller;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
 
 import java.time.ZonedDateTime;
 
@@ -16,7 +14,9 @@ import org.springframework.web.method.annotation.MethodArgumentTypeMismatchExcep
 import org.springframework.web.server.ResponseStatusException;
 
 import cl.tenpo.calculation.dto.ErrorResponseDto;
-import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import cl.tenpo.calculation.limiter.ConcurrencyLimitExceededException;
+import cl.tenpo.calculation.limiter.LoadSheddingException;
+import cl.tenpo.calculation.limiter.RequestPriority;
 import jakarta.validation.ConstraintViolationException;
 
 /**
@@ -28,18 +28,30 @@ public class GlobalExceptionHandlerTest {
 
     /**
      * Verifica que el manejador de excepciones retorne un error 429 (Too Many Requests)	
-     * cuando se excede el límite de peticiones del rate limiter.
+     * cuando se excede el límite adaptativo de concurrencia.
      */
     @Test
-    @DisplayName("Debería retornar 429 Too Many Requests al exceder el rate limit")
-    void shouldReturn429WhenRateLimitExceeded() {
-        RequestNotPermitted ex = mock(RequestNotPermitted.class);
-        when(ex.getMessage()).thenReturn("Límite de requests excedido");
-
-        ResponseEntity<ErrorResponseDto> response = handler.handleRateLimitExceeded(ex);
+    @DisplayName("Debería retornar 429 Too Many Requests al exceder el límite de concurrencia")
+    void shouldReturn429WhenConcurrencyLimitExceeded() {
+        ResponseEntity<ErrorResponseDto> response =
+                handler.handleConcurrencyLimitExceeded(new ConcurrencyLimitExceededException(10));
 
         assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
-        assertEquals("Límite de requests excedido", response.getBody().message());
+        assertEquals("Límite de concurrencia excedido", response.getBody().message());
+    }
+
+    /**
+     * Verifica que el manejador de excepciones retorne un error 503 (Service Unavailable)	
+     * cuando la capa de admisión descarta un request por sobrecarga.
+     */
+    @Test
+    @DisplayName("Debería retornar 503 Service Unavailable al descartar un request por sobrecarga")
+    void shouldReturn503WhenRequestIsShed() {
+        ResponseEntity<ErrorResponseDto> response =
+                handler.handleLoadShedding(new LoadSheddingException(RequestPriority.BEST_EFFORT));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("Servicio sobrecargado, reintente más tarde", response.getBody().message());
     }
 
     /**
@@ -0,0 +1,105 @@
+package cl.tenpo.calculation.formula;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import cl.tenpo.calculation.config.FormulaProperties;
+
+/**
+ * Test unitarios para {@link FormulaEngine}.
+ */
+public class FormulaEngineTest {
+
+    private static final String DEFAULT_EXPRESSION = "(num1 + num2) + (num1 + num2) * percentage / 100";
+
+    private final FormulaEngine formulaEngine = new FormulaEngine(new FormulaProperties(DEFAULT_EXPRESSION, 64));
+
+    /**
+     * Verifica que la fórmula por defecto da los mismos resultados, con la misma
+     * escala, que el cálculo anterior a las fórmulas configurables.
+     */
+    @Test
+    @DisplayName("Debería calcular con la fórmula por defecto igual que el cálculo original")
+    void shouldMatchOriginalCalculationWithDefaultFormula() {
+        for (int num1 = 0; num1 < 50; num1 += 7) {
+            for (String percentage : new String[] { "0", "10", "12.5", "3.333" }) {
+                BigDecimal sum = BigDecimal.valueOf(num1 + 3);
+                BigDecimal expected = sum.add(sum.multiply(new BigDecimal(percentage)).divide(BigDecimal.valueOf(100)));
+
+                assertEquals(expected, formulaEngine.evaluate(num1, 3, new BigDecimal(percentage)));
+            }
+        }
+    }
+
+    /**
+     * Verifica la precedencia de operadores y las funciones disponibles.
+     */
+    @Test
+    @DisplayName("Debería respetar la precedencia de operadores y evaluar las funciones")
+    void shouldEvaluateOperatorsAndFunctions() {
+        assertEquals(new BigDecimal("7"), evaluate("1 + 2 * 3", 0, 0, "0"));
+        assertEquals(new BigDecimal("-9"), evaluate("-(1 + 2) * 3", 0, 0, "0"));
+        assertEquals(new BigDecimal("5"), evaluate("min(num1, num2, 9)", 5, 8, "0"));
+        assertEquals(new BigDecimal("2.35"), evaluate("round(percentage, 2)", 0, 0, "2.345"));
+        // Porcentaje escalonado: 5% hasta 1000, 3% sobre ese monto
+        String tiered = "if(num1 + num2 <= 1000, (num1 + num2) * 5 / 100, (num1 + num2) * 3 / 100)";
+        assertEquals(new BigDecimal("50"), evaluate(tiered, 1000, 0, "0"));
+        assertEquals(new BigDecimal("31.2"), evaluate(tiered, 1000, 40, "0"));
+        // Comisión con tope
+        assertEquals(new BigDecimal("1005"), evaluate("num1 + min(num1 * percentage / 100, 5)", 1000, 0, "1"));
+    }
+
+    /**
+     * Verifica que las fórmulas inválidas se rechazan indicando la posición del
+     * error, sin cambiar la fórmula activa.
+     */
+    @Test
+    @DisplayName("Debería rechazar las fórmulas inválidas y mantener la fórmula activa")
+    void shouldRejectInvalidFormulas() {
+        String version = formulaEngine.active().version();
+        IllegalArgumentException unknownVariable = assertThrows(IllegalArgumentException.class,
+                () -> formulaEngine.activate("num1 + num3"));
+        assertTrue(unknownVariable.getMessage().contains("posición 8"));
+        assertThrows(IllegalArgumentException.class, () -> formulaEngine.activate("(num1 + num2"));
+        assertThrows(IllegalArgumentException.class, () -> formulaEngine.activate("round(num1, num2)"));
+        assertThrows(IllegalArgumentException.class, () -> formulaEngine.activate("num1 + 1 / (2 - 2)"));
+
+        assertEquals(version, formulaEngine.active().version());
+        assertEquals(DEFAULT_EXPRESSION, formulaEngine.active().plan().expression());
+    }
+
+    /**
+     * Verifica que la versión se deriva de la expresión, por lo que volver a
+     * activar una fórmula recupera su versión, y que una fórmula ya compilada se
+     * obtiene de la cache de planes.
+     */
+    @Test
+    @DisplayName("Debería versionar las activaciones y reutilizar los planes compilados")
+    void shouldVersionActivationsAndReusePlans() {
+        FormulaPlan original = formulaEngine.active().plan();
+        String originalVersion = formulaEngine.active().version();
+        assertTrue(originalVersion.matches("[0-9a-f]{12}"));
+
+        ActiveFormula flatFee = formulaEngine.activate("num1 + num2 + 1");
+        assertNotEquals(originalVersion, flatFee.version());
+        assertEquals(new BigDecimal("11"), formulaEngine.evaluate(5, 5, BigDecimal.TEN));
+
+        ActiveFormula restored = formulaEngine.activate(DEFAULT_EXPRESSION);
+        assertEquals(originalVersion, restored.version());
+        assertSame(original, restored.plan());
+        assertEquals(1, formulaEngine.planCacheStats().hitCount());
+    }
+
+    private BigDecimal evaluate(String expression, int num1, int num2, String percentage) {
+        return formulaEngine.plan(expression)
+                .evaluate(BigDecimal.valueOf(num1), BigDecimal.valueOf(num2), new BigDecimal(percentage));
+    }
+}
@@ -0,0 +1,279 @@
+package cl.tenpo.calculation.grpc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import cl.tenpo.calculation.config.FormulaProperties;
+import cl.tenpo.calculation.formula.FormulaEngine;
+import cl.tenpo.calculation.grpc.v1.CalculationRequest;
+import cl.tenpo.calculation.grpc.v1.CalculationResponse;
+import cl.tenpo.calculation.grpc.v1.CalculatorGrpc;
+import cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimiter;
+import cl.tenpo.calculation.service.AuditService;
+import cl.tenpo.calculation.service.CalculationService;
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
+import io.grpc.stub.StreamObserver;
+
+/**
+ * Test unitarios para {@link CalculationGrpcService}, con un servidor y un
+ * canal gRPC en memoria.
+ */
+public class CalculationGrpcServiceTest {
+
+    private final CalculationService calculationService = mock(CalculationService.class);
+
+    private final AuditService auditService = mock(AuditService.class);
+
+    private final AdaptiveConcurrencyLimiter limiter = mock(AdaptiveConcurrencyLimiter.class);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(limiter.tryAcquire()).thenReturn(true);
+        when(calculationService.calculate(anyInt(), anyInt()))
+                .thenAnswer(invocation -> BigDecimal.valueOf((int) invocation.getArgument(0) + (int) invocation.getArgument(1))
+                        .multiply(new BigDecimal("1.1")));
+        when(calculationService.activeFormula())
+                .thenReturn(new FormulaEngine(new FormulaProperties("num1 + num2", 4)).active());
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name)
+                .executor(executor)
+                .addService(new CalculationGrpcService(calculationService, auditService, limiter, null, executor, 8))
+                .build()
+                .start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Verifica que el cálculo unario responde el resultado y se audita con los
+     * mismos parámetros que el endpoint REST.
+     */
+    @Test
+    @DisplayName("Debería calcular por gRPC y auditar el request")
+    void shouldCalculateAndAudit() {
+        CalculationResponse response = CalculatorGrpc.newBlockingStub(channel)
+                .calculate(CalculationRequest.newBuilder().setId(7).setNum1(5).setNum2(5).build());
+
+        assertEquals(7, response.getId());
+        assertEquals("11.0", response.getResult());
+        verify(auditService).auditRequest(any(), eq(CalculationGrpcService.UNARY_ENDPOINT), eq(List.of(5, 5)),
+                eq(new BigDecimal("11.0")), eq(true), anyString());
+        verify(limiter).onSuccess(org.mockito.ArgumentMatchers.anyLong());
+    }
+
+    /**
+     * Verifica que los parámetros inválidos y el límite de concurrencia se
+     * informan con el status de gRPC equivalente al código HTTP.
+     */
+    @Test
+    @DisplayName("Debería informar los errores con el status de gRPC")
+    void shouldMapErrorsToGrpcStatus() {
+        CalculatorGrpc.CalculatorBlockingStub stub = CalculatorGrpc.newBlockingStub(channel);
+
+        StatusRuntimeException invalid = assertThrows(StatusRuntimeException.class,
+                () -> stub.calculate(CalculationRequest.newBuilder().setNum1(-1).setNum2(5).build()));
+        assertEquals(Status.Code.INVALID_ARGUMENT, invalid.getStatus().getCode());
+        assertEquals("num1 debe ser >= 0", invalid.getStatus().getDescription());
+
+        when(limiter.tryAcquire()).thenReturn(false);
+        StatusRuntimeException limited = assertThrows(StatusRuntimeException.class,
+                () -> stub.calculate(CalculationRequest.newBuilder().setNum1(1).setNum2(1).build()));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, limited.getStatus().getCode());
+        verify(calculationService, never()).calculate(anyInt(), anyInt());
+    }
+
+    /**
+     * Verifica que el stream responde cada request con su id, más requests que
+     * el máximo en curso por stream, informando los errores en la respuesta sin
+     * cerrar el stream.
+     *
+     * @throws Exception si ocurre algún error esperando las respuestas.
+     */
+    @Test
+    @DisplayName("Debería calcular los requests del stream y correlacionar las respuestas por id")
+    void shouldCalculateStreamAndCorrelateResponses() throws Exception {
+        Map<Long, CalculationResponse> responses = new ConcurrentHashMap<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        StreamObserver<CalculationRequest> requests = CalculatorGrpc.newStub(channel)
+                .calculateStream(new StreamObserver<>() {
+
+                    @Override
+                    public void onNext(CalculationResponse response) {
+                        responses.put(response.getId(), response);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.countDown();
+                    }
+                });
+
+        for (int i = 0; i < 100; i++) {
+            requests.onNext(CalculationRequest.newBuilder().setId(i).setNum1(i == 42 ? -1 : i).setNum2(10).build());
+        }
+        requests.onCompleted();
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(100, responses.size());
+        assertEquals("55.0", responses.get(40L).getResult());
+        assertEquals(400, responses.get(42L).getError().getStatus());
+    }
+
+    /**
+     * Verifica que, si el executor de streams rechaza un request por tener la
+     * cola llena, el request se responde con 503 sin cerrar el stream.
+     *
+     * @throws Exception si ocurre algún error esperando las respuestas.
+     */
+    @Test
+    @DisplayName("Debería responder 503 en el stream cuando el executor rechaza el request")
+    void shouldRespondUnavailableWhenStreamExecutorRejects() throws Exception {
+        String name = InProcessServerBuilder.generateName();
+        Server rejectingServer = InProcessServerBuilder.forName(name)
+                .executor(executor)
+                .addService(new CalculationGrpcService(calculationService, auditService, limiter, null,
+                        command -> {
+                            throw new RejectedExecutionException("cola llena");
+                        }, 8))
+                .build()
+                .start();
+        ManagedChannel rejectingChannel = InProcessChannelBuilder.forName(name).directExecutor().build();
+        try {
+            Map<Long, CalculationResponse> responses = new ConcurrentHashMap<>();
+            CountDownLatch completed = new CountDownLatch(1);
+            StreamObserver<CalculationRequest> requests = CalculatorGrpc.newStub(rejectingChannel)
+                    .calculateStream(new StreamObserver<>() {
+
+                        @Override
+                        public void onNext(CalculationResponse response) {
+                            responses.put(response.getId(), response);
+                        }
+
+                        @Override
+                        public void onError(Throwable t) {
+                        }
+
+                        @Override
+                        public void onCompleted() {
+                            completed.countDown();
+                        }
+                    });
+
+            for (int i = 0; i < 20; i++) {
+                requests.onNext(CalculationRequest.newBuilder().setId(i).setNum1(i).setNum2(1).build());
+            }
+            requests.onCompleted();
+
+            assertTrue(completed.await(5, TimeUnit.SECONDS));
+            assertEquals(20, responses.size());
+            assertEquals(503, responses.get(7L).getError().getStatus());
+            verify(calculationService, never()).calculate(anyInt(), anyInt());
+        } finally {
+            rejectingChannel.shutdownNow();
+            rejectingServer.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifica que, si el cliente deja de leer las respuestas, el servidor deja
+     * de pedir requests al completar el máximo en curso por stream, y que los
+     * pide nuevamente cuando el cliente vuelve a leer.
+     *
+     * @throws Exception si ocurre algún error esperando las respuestas.
+     */
+    @Test
+    @DisplayName("Debería dejar de pedir requests del stream mientras el cliente no lee las respuestas")
+    void shouldStopRequestingWhileClientDoesNotRead() throws Exception {
+        Map<Long, CalculationResponse> responses = new ConcurrentHashMap<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        AtomicReference<ClientCallStreamObserver<CalculationRequest>> call = new AtomicReference<>();
+        StreamObserver<CalculationRequest> requests = CalculatorGrpc.newStub(channel)
+                .calculateStream(new ClientResponseObserver<CalculationRequest, CalculationResponse>() {
+
+                    @Override
+                    public void beforeStart(ClientCallStreamObserver<CalculationRequest> requestStream) {
+                        requestStream.disableAutoRequestWithInitial(0);
+                        call.set(requestStream);
+                    }
+
+                    @Override
+                    public void onNext(CalculationResponse response) {
+                        responses.put(response.getId(), response);
+                    }
+
+                    @Override
+                    public void onError(Throwable t) {
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        completed.countDown();
+                    }
+                });
+
+        for (int i = 0; i < 50; i++) {
+            requests.onNext(CalculationRequest.newBuilder().setId(i).setNum1(i).setNum2(1).build());
+        }
+        requests.onCompleted();
+
+        verify(calculationService, timeout(1000).times(8)).calculate(anyInt(), anyInt());
+        verify(calculationService, after(300).times(8)).calculate(anyInt(), anyInt());
+        assertTrue(responses.isEmpty());
+
+        call.get().request(50);
+
+        assertTrue(completed.await(5, TimeUnit.SECONDS));
+        assertEquals(50, responses.size());
+    }
+}
@@ -0,0 +1,86 @@
+package cl.tenpo.calculation.health;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Test unitarios para {@link CachedHealthIndicator}.
+ */
+public class CachedHealthIndicatorTest {
+
+    /**
+     * Verifica que el indicador pasa a DOWN recién después de la cantidad
+     * configurada de fallas consecutivas y vuelve a UP con una verificación exitosa.
+     */
+    @Test
+    @DisplayName("Debería pasar a DOWN solo con fallas sostenidas")
+    void shouldGoDownOnlyOnSustainedFailures() {
+        AtomicBoolean available = new AtomicBoolean(true);
+        CachedHealthIndicator indicator = new CachedHealthIndicator("Dependencia", () -> {
+            if (!available.get()) {
+                throw new IllegalStateException("Sin conexión");
+            }
+            return Map.of("ping", "PONG");
+        }, 3, Duration.ofSeconds(1));
+        assertEquals(Status.UNKNOWN, indicator.health().getStatus());
+
+        indicator.run();
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals("PONG", indicator.health().getDetails().get("ping"));
+
+        available.set(false);
+        indicator.run();
+        indicator.run();
+        assertEquals(Status.UP, indicator.health().getStatus());
+        assertEquals(2, indicator.health().getDetails().get("consecutiveFailures"));
+        assertEquals("Sin conexión", indicator.health().getDetails().get("error"));
+
+        indicator.run();
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+
+        available.set(true);
+        indicator.run();
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    /**
+     * Verifica que una verificación colgada se cuenta como fallida en cada
+     * intervalo sin iniciar otra, hasta que el indicador pasa a DOWN.
+     *
+     * @throws Exception si ocurre algún error esperando la verificación.
+     */
+    @Test
+    @DisplayName("Debería contar como fallida una verificación que supera el tiempo máximo")
+    void shouldCountHungCheckAsFailure() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CachedHealthIndicator indicator = new CachedHealthIndicator("Dependencia", () -> {
+            started.countDown();
+            release.await();
+            return Map.of();
+        }, 2, Duration.ofMillis(10));
+        Thread check = new Thread(indicator::run);
+        check.start();
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        Thread.sleep(20);
+
+        assertTrue(indicator.checkRunning());
+        assertTrue(indicator.checkRunning());
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+
+        release.countDown();
+        check.join();
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+        assertEquals(3, indicator.health().getDetails().get("consecutiveFailures"));
+    }
+}
@@ -0,0 +1,107 @@
+package cl.tenpo.calculation.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test unitarios para {@link JfrEndpoint}.
+ */
+public class JfrEndpointTest {
+
+    @TempDir
+    Path dumpDirectory;
+
+    /**
+     * Verifica el ciclo completo de una grabación: inicio, emisión de un evento
+     * de dominio, volcado a archivo y detención.
+     *
+     * @throws Exception si ocurre algún error leyendo la grabación.
+     */
+    @Test
+    @DisplayName("Debería iniciar, volcar y detener una grabación que incluya los eventos de dominio")
+    void shouldRecordDomainEvents() throws Exception {
+        JfrEndpoint endpoint = new JfrEndpoint(dumpDirectory.toString(), 2);
+
+        assertEquals("CLOSED", endpoint.status().get("state"));
+        assertEquals("RUNNING", endpoint.execute("start", null, "PT1M").get("state"));
+
+        CalculationEvent event = new CalculationEvent();
+        event.begin();
+        event.num1 = 5;
+        event.num2 = 5;
+        event.result = "11";
+        event.commit();
+
+        Map<String, Object> stopped = endpoint.execute("stop", null, null);
+        Path file = Path.of((String) stopped.get("file"));
+        assertTrue(Files.exists(file));
+        assertEquals("CLOSED", endpoint.status().get("state"));
+
+        List<RecordedEvent> calculations = RecordingFile.readAllEvents(file).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("cl.tenpo.calculation.Calculation"))
+                .toList();
+        assertEquals(1, calculations.size());
+        assertEquals("11", calculations.get(0).getString("result"));
+    }
+
+    /**
+     * Verifica que las operaciones inválidas para el estado de la grabación, o
+     * con parámetros inválidos, se informan como requests inválidos (400).
+     */
+    @Test
+    @DisplayName("Debería rechazar como request inválido las operaciones que no aplican")
+    void shouldRejectInvalidOperations() {
+        JfrEndpoint endpoint = new JfrEndpoint(dumpDirectory.toString(), 2);
+
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.execute("dump", null, null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.execute("stop", null, null));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.execute("start", null, "10 minutos"));
+        assertThrows(InvalidEndpointRequestException.class, () -> endpoint.execute("start", "inexistente", null));
+
+        endpoint.execute("start", null, null);
+        try {
+            assertThrows(InvalidEndpointRequestException.class, () -> endpoint.execute("start", null, null));
+        } finally {
+            endpoint.execute("stop", null, null);
+        }
+    }
+
+    /**
+     * Verifica que se conservan solo los últimos archivos volcados.
+     *
+     * @throws Exception si ocurre algún error listando los archivos.
+     */
+    @Test
+    @DisplayName("Debería conservar solo los últimos archivos volcados")
+    void shouldKeepOnlyLatestDumps() throws Exception {
+        JfrEndpoint endpoint = new JfrEndpoint(dumpDirectory.toString(), 2);
+        endpoint.execute("start", null, null);
+
+        Path last = null;
+        for (int i = 0; i < 4; i++) {
+            last = Path.of((String) endpoint.execute("dump", null, null).get("file"));
+            Thread.sleep(2);
+        }
+        endpoint.execute("stop", null, null);
+
+        try (Stream<Path> files = Files.list(dumpDirectory)) {
+            assertEquals(2, files.count());
+        }
+        assertTrue(Files.exists(last));
+    }
+}
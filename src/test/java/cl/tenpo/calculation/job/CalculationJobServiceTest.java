@@ -0,0 +1,203 @@
+package cl.tenpo.calculation.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import cl.tenpo.calculation.config.CalculationJobProperties;
+import cl.tenpo.calculation.config.FormulaProperties;
+import cl.tenpo.calculation.dto.CalculationJobDto;
+import cl.tenpo.calculation.formula.FormulaEngine;
+import cl.tenpo.calculation.service.AuditService;
+import cl.tenpo.calculation.service.CalculationService;
+import cl.tenpo.calculation.service.PercentageService;
+
+/**
+ * Test unitarios para {@link CalculationJobService}.
+ */
+public class CalculationJobServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final PercentageService percentageService = mock(PercentageService.class);
+
+    private final AuditService auditService = mock(AuditService.class);
+
+    private CalculationJobService calculationJobService;
+
+    @BeforeEach
+    void setUp() {
+        when(percentageService.getPercentage()).thenReturn(BigDecimal.valueOf(10));
+        calculationJobService = new CalculationJobService(new CalculationService(percentageService,
+                new FormulaEngine(new FormulaProperties("(num1 + num2) + (num1 + num2) * percentage / 100", 64))),
+                percentageService, auditService, new CalculationJobProperties(directory, 2, 3, 1, 2,
+                        Duration.ofDays(1), Duration.ofMinutes(10)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        calculationJobService.destroy();
+    }
+
+    /**
+     * Verifica que un CSV se calcula en el orden de entrada, informando las filas
+     * inválidas sin detener el job, y que el porcentaje se obtiene una única vez.
+     *
+     * @throws Exception si ocurre algún error de lectura.
+     */
+    @Test
+    @DisplayName("Debería calcular un CSV en orden e informar las filas inválidas")
+    void shouldCalculateCsvInOrder() throws Exception {
+        String csv = "num1,num2\n5,5\n1,2\nx,3\n\n10,10\n-1,2\n0,0\n7,3\n";
+
+        CalculationJobDto job = awaitFinished(calculationJobService.submit(
+                new MockMultipartFile("file", "rows.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("COMPLETED", job.status());
+        assertEquals(BigDecimal.valueOf(10), job.percentage());
+        assertEquals(7, job.processedRows());
+        assertEquals(2, job.failedRows());
+        List<String> lines = Files.readAllLines(calculationJobService.result(job.id()).getFile().toPath());
+        assertEquals(List.of(
+                "num1,num2,result,error",
+                "5,5,11,",
+                "1,2,3.3,",
+                ",,,\"fila 4: número inválido 'x'\"",
+                "10,10,22,",
+                ",,,\"fila 7: los números deben ser >= 0\"",
+                "0,0,0,",
+                "7,3,11,"), lines);
+        verify(percentageService, times(1)).getPercentage();
+        verify(auditService, timeout(1000).times(1)).auditRequest(any(LocalDateTime.class),
+                eq("JOB /calculation/jobs/" + job.id()), eq(List.of("rows.csv")),
+                eq("processedRows=7, failedRows=2"), eq(true), anyString());
+    }
+
+    /**
+     * Verifica que un archivo NDJSON genera resultados en formato NDJSON.
+     *
+     * @throws Exception si ocurre algún error de lectura.
+     */
+    @Test
+    @DisplayName("Debería calcular un archivo NDJSON")
+    void shouldCalculateNdjson() throws Exception {
+        String ndjson = "{\"num1\":5,\"num2\":5}\n{\"num1\":\"a\"}\n";
+
+        CalculationJobDto job = awaitFinished(calculationJobService.submit(new MockMultipartFile("file",
+                "rows.ndjson", "application/x-ndjson", ndjson.getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("COMPLETED", job.status());
+        List<String> lines = Files.readAllLines(calculationJobService.result(job.id()).getFile().toPath());
+        assertEquals(List.of(
+                "{\"num1\":5,\"num2\":5,\"result\":11}",
+                "{\"row\":2,\"error\":\"se esperaban los enteros num1 y num2\"}"), lines);
+    }
+
+    /**
+     * Verifica que, si no se puede obtener el porcentaje, el job falla y sus
+     * resultados no están disponibles.
+     *
+     * @throws Exception si ocurre algún error durante la espera.
+     */
+    @Test
+    @DisplayName("Debería fallar el job si no se puede obtener el porcentaje")
+    void shouldFailWhenPercentageIsUnavailable() throws Exception {
+        when(percentageService.getPercentage()).thenThrow(new IllegalStateException("sin porcentaje"));
+
+        CalculationJobDto job = awaitFinished(calculationJobService.submit(
+                new MockMultipartFile("file", "rows.csv", "text/csv", "5,5\n".getBytes(StandardCharsets.UTF_8))));
+
+        assertEquals("FAILED", job.status());
+        assertEquals("sin porcentaje", job.error());
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> calculationJobService.result(job.id()));
+        assertEquals(HttpStatus.CONFLICT, ex.getStatusCode());
+        verify(auditService, timeout(1000)).auditRequest(any(LocalDateTime.class), eq("JOB /calculation/jobs/" + job.id()),
+                eq(List.of("rows.csv")), eq("sin porcentaje"), eq(false), isNull());
+    }
+
+    /**
+     * Verifica que un archivo vacío y un job inexistente se rechazan.
+     */
+    @Test
+    @DisplayName("Debería rechazar archivos vacíos y jobs inexistentes")
+    void shouldRejectEmptyFileAndUnknownJob() {
+        assertThrows(IllegalArgumentException.class, () -> calculationJobService.submit(
+                new MockMultipartFile("file", "rows.csv", "text/csv", new byte[0])));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> calculationJobService.get("desconocido"));
+        assertEquals(HttpStatus.NOT_FOUND, ex.getStatusCode());
+    }
+
+    /**
+     * Verifica que, sin capacidad para más jobs, el archivo se rechaza con 503
+     * sin copiarse al directorio de jobs.
+     *
+     * @throws Exception si ocurre algún error listando los archivos.
+     */
+    @Test
+    @DisplayName("Debería rechazar el job sin escribir el archivo cuando no hay capacidad")
+    void shouldRejectWithoutWritingFileWhenFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(percentageService.getPercentage()).thenAnswer(invocation -> {
+            release.await();
+            return BigDecimal.valueOf(10);
+        });
+        try {
+            for (int i = 0; i < 3; i++) {
+                calculationJobService.submit(new MockMultipartFile("file", "rows.csv", "text/csv",
+                        "5,5\n".getBytes(StandardCharsets.UTF_8)));
+            }
+
+            ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                    () -> calculationJobService.submit(new MockMultipartFile("file", "rows.csv", "text/csv",
+                            "5,5\n".getBytes(StandardCharsets.UTF_8))));
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals(3, files.filter(file -> file.toString().endsWith(".input")).count());
+            }
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private CalculationJobDto awaitFinished(CalculationJobDto job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        CalculationJobDto current = job;
+        while (current.finishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            current = calculationJobService.get(job.id());
+        }
+        return current;
+    }
+}
@@ -0,0 +1,172 @@
+package cl.tenpo.calculation.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import cl.tenpo.calculation.config.ConcurrencyLimitProperties;
+
+/**
+ * Test unitarios y de simulación para {@link AdaptiveConcurrencyLimiter}.
+ * <p>
+ * La simulación modela un servicio con una capacidad de {@code capacity} requests
+ * en paralelo: por encima de esa capacidad los requests comparten los recursos y
+ * la latencia crece proporcionalmente a la concurrencia.
+ */
+public class AdaptiveConcurrencyLimiterTest {
+
+    private static final long SERVICE_TIME_NANOS = 10_000_000L; // 10ms
+
+    private static final int OFFERED_CONCURRENCY = 200;
+
+    private final ConcurrencyLimitProperties props =
+            new ConcurrencyLimitProperties(20, 3, 500, 0.25, 100, 50, 10_000, 0.9);
+
+    /**
+     * Verifica que no se admiten más requests que el límite vigente.
+     */
+    @Test
+    @DisplayName("Debería rechazar requests por encima del límite vigente")
+    void shouldRejectAboveLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new ConcurrencyLimitProperties(2, 2, 2, 0.25, 10, 5, 100, 0.9));
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.onIgnore();
+        assertTrue(limiter.tryAcquire());
+        assertEquals(2, limiter.getInflight());
+    }
+
+    /**
+     * Verifica que los errores de dependencias reducen el límite.
+     */
+    @Test
+    @DisplayName("Debería reducir el límite ante errores de dependencias")
+    void shouldBackoffOnDroppedRequests() {
+        AdaptiveConcurrencyLimiter limiter = this.simulate(new AdaptiveConcurrencyLimiter(this.props), 10, 300, null);
+        int before = limiter.getLimit();
+
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.onDropped();
+        }
+
+        assertTrue(limiter.getLimit() < before);
+    }
+
+    /**
+     * Simula una sobrecarga sostenida y verifica que la latencia se mantiene acotada,
+     * mientras que sin limitador crecería proporcionalmente a la carga ofrecida.
+     */
+    @Test
+    @DisplayName("Simulación: debería mantener la latencia acotada bajo sobrecarga")
+    void shouldKeepLatencyBoundedUnderOverload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(this.props);
+        long[] latencies = new long[500];
+
+        this.simulate(limiter, 10, 300, null);
+        this.simulate(limiter, 10, latencies.length, latencies);
+
+        long p99 = percentile(latencies, 0.99);
+        long unlimitedLatency = latency(OFFERED_CONCURRENCY, 10);
+        assertTrue(p99 <= 2.5 * SERVICE_TIME_NANOS, "p99 esperado acotado, fue " + p99);
+        assertTrue(unlimitedLatency >= 20 * SERVICE_TIME_NANOS);
+        assertTrue(limiter.getLimit() >= 10 && limiter.getLimit() <= 30, "límite " + limiter.getLimit());
+    }
+
+    /**
+     * Simula una degradación de una dependencia (menor capacidad) y su recuperación,
+     * verificando que el límite se reduce y luego vuelve a crecer.
+     */
+    @Test
+    @DisplayName("Simulación: debería reducir el límite cuando la dependencia se degrada y recuperarlo luego")
+    void shouldShrinkWhenDependencyDegradesAndGrowWhenHealthy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(this.props);
+
+        this.simulate(limiter, 10, 300, null);
+        int healthyLimit = limiter.getLimit();
+
+        long[] latencies = new long[300];
+        this.simulate(limiter, 4, 300, null);
+        this.simulate(limiter, 4, latencies.length, latencies);
+        int degradedLimit = limiter.getLimit();
+
+        this.simulate(limiter, 10, 600, null);
+        int recoveredLimit = limiter.getLimit();
+
+        assertTrue(degradedLimit < healthyLimit, degradedLimit + " >= " + healthyLimit);
+        assertTrue(percentile(latencies, 0.99) <= 2.5 * SERVICE_TIME_NANOS);
+        assertTrue(recoveredLimit > degradedLimit, recoveredLimit + " <= " + degradedLimit);
+    }
+
+    /**
+     * Verifica que al volver a medir la latencia "sin carga" el límite baja a la
+     * mitad y no al mínimo, lo que rechazaría requests en ráfagas, y que la nueva
+     * medición no queda inflada por la carga.
+     */
+    @Test
+    @DisplayName("Simulación: debería mantener el límite mientras vuelve a medir minRtt")
+    void shouldKeepLimitWhileRemeasuringMinRtt() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(
+                new ConcurrencyLimitProperties(20, 3, 500, 0.25, 100, 50, 1_000, 0.9));
+        this.simulate(limiter, 10, 300, null);
+        int healthyLimit = limiter.getLimit();
+
+        int lowestLimit = Integer.MAX_VALUE;
+        for (int round = 0; round < 300; round++) {
+            this.simulate(limiter, 10, 1, null);
+            lowestLimit = Math.min(lowestLimit, limiter.getLimit());
+        }
+
+        assertTrue(lowestLimit >= healthyLimit / 2 - 1, "el límite bajó a " + lowestLimit);
+        assertTrue(lowestLimit > 3);
+        assertTrue(limiter.getMinRttNanos() <= 1.5 * SERVICE_TIME_NANOS, "minRtt " + limiter.getMinRttNanos());
+    }
+
+    /**
+     * Ejecuta rondas de simulación: en cada ronda se ofrecen {@link #OFFERED_CONCURRENCY}
+     * requests concurrentes, se admiten los que permite el limitador y todos completan
+     * con la latencia correspondiente a la concurrencia admitida.
+     *
+     * @param limiter Limitador a simular
+     * @param capacity Capacidad de la dependencia (requests en paralelo sin degradación)
+     * @param rounds Cantidad de rondas
+     * @param latencies Si no es null, registra la latencia observada en cada ronda
+     * @return El limitador simulado
+     */
+    private AdaptiveConcurrencyLimiter simulate(AdaptiveConcurrencyLimiter limiter, int capacity, int rounds,
+            long[] latencies) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (admitted < OFFERED_CONCURRENCY && limiter.tryAcquire()) {
+                admitted++;
+            }
+            long rtt = latency(admitted, capacity);
+            for (int i = 0; i < admitted; i++) {
+                limiter.onSuccess(rtt);
+            }
+            if (latencies != null) {
+                latencies[round] = rtt;
+            }
+        }
+        return limiter;
+    }
+
+    private static long latency(int concurrency, int capacity) {
+        return SERVICE_TIME_NANOS * Math.max(capacity, concurrency) / capacity;
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+    }
+}
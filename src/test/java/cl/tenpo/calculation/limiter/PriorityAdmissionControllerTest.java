@@ -0,0 +1,66 @@
+package cl.tenpo.calculation.limiter;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import cl.tenpo.calculation.config.AdmissionProperties;
+
+/**
+ * Test unitarios para {@link PriorityAdmissionController}.
+ */
+public class PriorityAdmissionControllerTest {
+
+    private final PriorityAdmissionController admission = new PriorityAdmissionController(
+            new AdmissionProperties(true, Duration.ofMillis(20), Duration.ofSeconds(5),
+                    new AdmissionProperties.Budget(1, Duration.ofMillis(500), List.of("/calculation")),
+                    new AdmissionProperties.Budget(2, Duration.ofMillis(10), List.of("/audit"))));
+
+    /**
+     * Verifica que cada prioridad tiene su propio presupuesto de concurrencia.
+     */
+    @Test
+    @DisplayName("Debería mantener presupuestos separados por prioridad")
+    void shouldKeepSeparateBudgets() {
+        admission.admit(RequestPriority.BEST_EFFORT);
+        admission.admit(RequestPriority.BEST_EFFORT);
+
+        assertThrows(LoadSheddingException.class, () -> admission.admit(RequestPriority.BEST_EFFORT));
+        assertDoesNotThrow(() -> admission.admit(RequestPriority.CRITICAL));
+
+        admission.release(RequestPriority.BEST_EFFORT);
+        assertEquals(1, admission.availablePermits(RequestPriority.BEST_EFFORT));
+        assertEquals(0, admission.availablePermits(RequestPriority.CRITICAL));
+    }
+
+    /**
+     * Verifica que cuando un request crítico espera en cola más que el umbral,
+     * los requests best-effort se descartan aunque tengan presupuesto disponible.
+     */
+    @Test
+    @DisplayName("Debería descartar primero los requests best-effort ante demoras en cola")
+    void shouldShedBestEffortWhenQueueDelayExceedsThreshold() throws Exception {
+        assertFalse(admission.isOverloaded());
+        admission.admit(RequestPriority.CRITICAL);
+
+        // Un segundo request crítico queda en cola hasta que se libera el primero
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> admission.admit(RequestPriority.CRITICAL));
+        TimeUnit.MILLISECONDS.sleep(100);
+        admission.release(RequestPriority.CRITICAL);
+        queued.get(1, TimeUnit.SECONDS);
+
+        assertTrue(admission.isOverloaded());
+        assertEquals(2, admission.availablePermits(RequestPriority.BEST_EFFORT));
+        assertThrows(LoadSheddingException.class, () -> admission.admit(RequestPriority.BEST_EFFORT));
+    }
+}
@@ -0,0 +1,73 @@
+package cl.tenpo.calculation.logging;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+
+/**
+ * Test unitarios para {@link RateLimitingTurboFilter}.
+ */
+public class RateLimitingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+
+    private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+
+    private Logger limited;
+
+    @BeforeEach
+    void setUp() {
+        filter.setContext(context);
+        filter.setLoggerName("cl.tenpo.calculation.service");
+        filter.setMaxPerSecond(3);
+        filter.start();
+        limited = context.getLogger("cl.tenpo.calculation.service.AuditService");
+        limited.setLevel(Level.DEBUG);
+    }
+
+    /**
+     * Verifica que se descartan los eventos que superan el límite por segundo.
+     */
+    @Test
+    @DisplayName("Debería descartar los eventos que superan el límite por segundo")
+    void shouldDenyEventsOverLimit() {
+        int denied = 0;
+        for (int i = 0; i < 10; i++) {
+            if (decide(limited, Level.DEBUG, "evento {}") == FilterReply.DENY) {
+                denied++;
+            }
+        }
+
+        // Con 10 eventos en menos de un segundo se descartan al menos 4 (a lo sumo 3 por ventana, y como máximo se cruzan dos ventanas)
+        assertTrue(denied >= 4);
+        assertEquals(denied, filter.getDropped());
+    }
+
+    /**
+     * Verifica que no se limitan las advertencias, las consultas de nivel ni otros loggers.
+     */
+    @Test
+    @DisplayName("No debería limitar advertencias, consultas de nivel ni otros loggers")
+    void shouldNotLimitWarningsOrOtherLoggers() {
+        Logger other = context.getLogger("org.other.Logger");
+        other.setLevel(Level.DEBUG);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(limited, Level.WARN, "advertencia"));
+            assertEquals(FilterReply.NEUTRAL, decide(limited, Level.DEBUG, null));
+            assertEquals(FilterReply.NEUTRAL, decide(other, Level.DEBUG, "evento"));
+        }
+        assertEquals(0, filter.getDropped());
+    }
+
+    private FilterReply decide(Logger logger, Level level, String format) {
+        return filter.decide(null, logger, level, format, null, null);
+    }
+}
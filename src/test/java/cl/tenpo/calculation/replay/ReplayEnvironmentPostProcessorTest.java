@@ -0,0 +1,53 @@
+package cl.tenpo.calculation.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.SpringApplication;
+import org.springframework.mock.env.MockEnvironment;
+
+/**
+ * Test unitarios para {@link ReplayEnvironmentPostProcessor}.
+ */
+public class ReplayEnvironmentPostProcessorTest {
+
+    private final ReplayEnvironmentPostProcessor postProcessor = new ReplayEnvironmentPostProcessor();
+
+    /**
+     * Verifica que en modo reproducción se desactivan los servidores y las
+     * tareas en segundo plano, aunque la configuración los active.
+     */
+    @Test
+    @DisplayName("Debería desactivar los servidores y las tareas en segundo plano en modo reproducción")
+    void shouldDisableServiceFeaturesInReplayMode() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("replay.enabled", "true")
+                .withProperty("grpc.enabled", "true")
+                .withProperty("audit.archive.enabled", "true");
+
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertEquals("none", environment.getProperty("spring.main.web-application-type"));
+        assertEquals("false", environment.getProperty("grpc.enabled"));
+        assertEquals("false", environment.getProperty("warmup.enabled"));
+        assertEquals("false", environment.getProperty("health.checks.enabled"));
+        assertEquals("false", environment.getProperty("audit.archive.enabled"));
+        assertEquals("false", environment.getProperty("audit.search.create-indexes"));
+    }
+
+    /**
+     * Verifica que fuera del modo reproducción no se modifica la configuración.
+     */
+    @Test
+    @DisplayName("Debería mantener la configuración fuera del modo reproducción")
+    void shouldKeepConfigurationOutsideReplayMode() {
+        MockEnvironment environment = new MockEnvironment().withProperty("grpc.enabled", "true");
+
+        postProcessor.postProcessEnvironment(environment, new SpringApplication());
+
+        assertEquals("true", environment.getProperty("grpc.enabled"));
+        assertNull(environment.getPropertySources().get(ReplayEnvironmentPostProcessor.PROPERTY_SOURCE_NAME));
+    }
+}
@@ -0,0 +1,157 @@
+package cl.tenpo.calculation.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import cl.tenpo.calculation.config.ReplayProperties;
+import cl.tenpo.calculation.dto.RequestAuditDto;
+
+/**
+ * Test unitarios para {@link TrafficReplayer}, contra un servidor HTTP local
+ * que responde como el endpoint de cálculo con un porcentaje del 10%.
+ */
+public class TrafficReplayerTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final AtomicInteger received = new AtomicInteger();
+
+    private final Queue<String> tenants = new ConcurrentLinkedQueue<>();
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/calculation", exchange -> {
+            received.incrementAndGet();
+            String tenant = exchange.getRequestHeaders().getFirst("X-Tenant-Id");
+            if (tenant != null) {
+                tenants.add(tenant);
+            }
+            String[] params = exchange.getRequestURI().getQuery().split("&");
+            int num1 = Integer.parseInt(params[0].substring("num1=".length()));
+            int num2 = Integer.parseInt(params[1].substring("num2=".length()));
+            int status = num1 < 0 || num2 < 0 ? 400 : 200;
+            byte[] body = (status == 200 ? String.valueOf((num1 + num2) * 11 / 10) : "{\"status\":400}")
+                    .getBytes(StandardCharsets.US_ASCII);
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    /**
+     * Verifica que se reproducen solo los requests de cálculo, repitiendo las
+     * auditorías agregadas, y que se informan las respuestas que difieren del
+     * resultado registrado.
+     *
+     * @throws Exception si ocurre algún error durante la reproducción.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("Debería reproducir los cálculos auditados e informar las diferencias")
+    void shouldReplayCalculationsAndReportMismatches() throws Exception {
+        List<RequestAuditDto> audits = List.of(
+                new RequestAuditDto(START, "GET /calculation", "[5, 5]", "11", true),
+                new RequestAuditDto(START.plusNanos(1_000), "GET /audit", "[0, 10]", "PageDto[]", true),
+                new RequestAuditDto(START.plusNanos(2_000), "GET /calculation", "[10, 10]", "22", true, 3,
+                        START.plusNanos(2_000), START.plusNanos(3_000)),
+                new RequestAuditDto(START.plusNanos(4_000), "GET /calculation", "[1, 1]", "3", true),
+                new RequestAuditDto(START.plusNanos(5_000), "GET /calculation", "[-1, 1]", "num1 debe ser >= 0", false));
+
+        ReplayReport report;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            report = new TrafficReplayer(properties(0), client).replay(audits.iterator());
+        }
+        Map<String, Object> summary = report.toMap(Duration.ofSeconds(1));
+
+        assertEquals(6, received.get());
+        assertEquals(6L, summary.get("replayed"));
+        assertEquals(1L, summary.get("skipped"));
+        assertEquals(5L, summary.get("matched"));
+        assertEquals(1L, summary.get("mismatched"));
+        assertEquals(0L, summary.get("errors"));
+        assertEquals(Map.of(200, 5L, 400, 1L), summary.get("statuses"));
+        List<Map<String, Object>> samples = (List<Map<String, Object>>) summary.get("mismatchSamples");
+        assertEquals("num1=1&num2=1", samples.get(0).get("query"));
+        assertEquals("2", samples.get(0).get("actual"));
+    }
+
+    /**
+     * Verifica que a velocidad original se respetan los intervalos entre requests.
+     *
+     * @throws Exception si ocurre algún error durante la reproducción.
+     */
+    @Test
+    @DisplayName("Debería respetar los intervalos originales entre requests")
+    void shouldKeepOriginalPacing() throws Exception {
+        List<RequestAuditDto> audits = List.of(
+                new RequestAuditDto(START, "GET /calculation", "[5, 5]", "11", true),
+                new RequestAuditDto(START.plusNanos(400_000_000), "GET /calculation", "[5, 5]", "11", true));
+
+        long start = System.nanoTime();
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            new TrafficReplayer(properties(2), client).replay(audits.iterator());
+        }
+
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(200).toNanos());
+        assertEquals(2, received.get());
+    }
+
+    /**
+     * Verifica que el tenant registrado en la auditoría se reproduce en el
+     * header {@code X-Tenant-Id}.
+     *
+     * @throws Exception si ocurre algún error durante la reproducción.
+     */
+    @Test
+    @DisplayName("Debería reproducir el tenant registrado en la auditoría")
+    void shouldReplayTenant() throws Exception {
+        List<RequestAuditDto> audits = List.of(
+                new RequestAuditDto(START, "GET /calculation", "[5, 5, acme]", "11", true),
+                new RequestAuditDto(START.plusNanos(1_000), "GET /calculation", "[5, 5]", "11", true));
+
+        ReplayReport report;
+        try (HttpClient client = HttpClient.newHttpClient()) {
+            report = new TrafficReplayer(properties(0), client).replay(audits.iterator());
+        }
+
+        assertEquals(2L, report.toMap(Duration.ofSeconds(1)).get("matched"));
+        assertEquals(List.of("acme"), List.copyOf(tenants));
+    }
+
+    private ReplayProperties properties(double speed) {
+        return new ReplayProperties(true, URI.create("http://localhost:" + server.getAddress().getPort()), null, null,
+                speed, 4, Duration.ofSeconds(5), 100, Path.of("replay-report.json"), 10);
+    }
+}
@@ -0,0 +1,76 @@
+package cl.tenpo.calculation.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import cl.tenpo.calculation.dto.RequestAuditDto;
+import cl.tenpo.calculation.entity.RequestAudit;
+
+/**
+ * Test de la búsqueda de texto de {@link RequestAuditRepository} sobre H2, sin
+ * índices de trigramas.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+public class RequestAuditRepositoryTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    @Autowired
+    private RequestAuditRepository requestAuditRepository;
+
+    /**
+     * Verifica que la búsqueda encuentra el texto en los parámetros o en el
+     * resultado, de la auditoría más reciente a la más antigua, y respeta el límite.
+     */
+    @Test
+    @DisplayName("Debería buscar el texto en los parámetros y el resultado")
+    void shouldSearchIncomingAndResult() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        save(now, "[5, 5]", "11");
+        save(now.plusMinutes(1), "[1, 2]", "[5, 5] no disponible");
+        save(now.plusMinutes(2), "[6, 5]", "12.1");
+
+        List<RequestAuditDto> found = requestAuditRepository.search("[5, 5]", 10, TIMEOUT);
+
+        assertEquals(2, found.size());
+        assertEquals("[1, 2]", found.get(0).incoming());
+        assertEquals("[5, 5]", found.get(1).incoming());
+        assertEquals(1, requestAuditRepository.search("[5, 5]", 1, TIMEOUT).size());
+    }
+
+    /**
+     * Verifica que los comodines de {@code like} del texto buscado se interpretan
+     * literalmente.
+     */
+    @Test
+    @DisplayName("Debería buscar los comodines como texto literal")
+    void shouldEscapeWildcards() {
+        LocalDateTime now = LocalDateTime.of(2024, 1, 1, 0, 0);
+        save(now, "[500, 5]", "550");
+        save(now, "[5_0, 5]", "100%");
+
+        assertEquals(1, requestAuditRepository.search("5_0", 10, TIMEOUT).size());
+        assertEquals(1, requestAuditRepository.search("00%", 10, TIMEOUT).size());
+        assertEquals(0, requestAuditRepository.search("[5%5]", 10, TIMEOUT).size());
+    }
+
+    private void save(LocalDateTime requestTime, String incoming, String result) {
+        requestAuditRepository.save(RequestAudit.builder()
+                .requestTime(requestTime)
+                .endpoint("GET /calculation")
+                .incoming(incoming)
+                .result(result)
+                .success(true)
+                .build());
+    }
+}
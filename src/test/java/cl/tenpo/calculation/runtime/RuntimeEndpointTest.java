@@ -0,0 +1,98 @@
+package cl.tenpo.calculation.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import cl.tenpo.calculation.config.ConcurrencyLimitProperties;
+import cl.tenpo.calculation.limiter.AdaptiveConcurrencyLimiter;
+import cl.tenpo.calculation.service.external.PercentageLookup;
+import cl.tenpo.calculation.service.external.PercentageServiceProxyImpl;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+
+/**
+ * Test unitarios para {@link RuntimeEndpoint}.
+ */
+public class RuntimeEndpointTest {
+
+    private final PercentageServiceProxyImpl percentageService = mock(PercentageServiceProxyImpl.class);
+
+    private final RetryRegistry retryRegistry = RetryRegistry.ofDefaults();
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter = new AdaptiveConcurrencyLimiter(
+            new ConcurrencyLimitProperties(20, 3, 500, 0.25, 100, 50, 10_000, 0.9));
+
+    private final AsyncTaskActivity asyncTaskActivity = new AsyncTaskActivity();
+
+    @SuppressWarnings("unchecked")
+    private final RuntimeEndpoint endpoint = new RuntimeEndpoint(percentageService, retryRegistry,
+            circuitBreakerRegistry, concurrencyLimiter, mock(ObjectProvider.class), asyncTaskActivity,
+            mock(ObjectProvider.class), mock(ObjectProvider.class));
+
+    /**
+     * Verifica que la foto incluye el último porcentaje, los retries, los
+     * circuit breakers y el límite de concurrencia, omitiendo los componentes
+     * que no están disponibles.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("Debería informar el estado actual de cada componente")
+    void shouldReportCurrentState() {
+        when(percentageService.lastLookup()).thenReturn(
+                new PercentageLookup(new BigDecimal("10"), "CACHE", Instant.now().minusSeconds(5)));
+        Retry retry = retryRegistry.retry("percentageRetry");
+        retry.executeSupplier(() -> "ok");
+        circuitBreakerRegistry.circuitBreaker("redis").transitionToOpenState();
+        concurrencyLimiter.tryAcquire();
+
+        Map<String, Object> snapshot = endpoint.snapshot();
+
+        Map<String, Object> percentage = (Map<String, Object>) snapshot.get("percentage");
+        assertEquals(new BigDecimal("10"), percentage.get("value"));
+        assertEquals("CACHE", percentage.get("source"));
+        assertTrue((Long) percentage.get("ageMillis") >= 5000);
+        Map<String, Object> retries = (Map<String, Object>) snapshot.get("retries");
+        assertEquals(1L, ((Map<String, Object>) retries.get("percentageRetry")).get("successfulWithoutRetry"));
+        Map<String, Object> circuitBreakers = (Map<String, Object>) snapshot.get("circuitBreakers");
+        assertEquals("OPEN", ((Map<String, Object>) circuitBreakers.get("redis")).get("state"));
+        assertEquals(Map.of("limit", 20, "inflight", 1), snapshot.get("concurrencyLimit"));
+        assertFalse(snapshot.containsKey("admission"));
+        assertFalse(snapshot.containsKey("database"));
+    }
+
+    /**
+     * Verifica que el decorador del executor registra las tareas activas,
+     * finalizadas y fallidas.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    @DisplayName("Debería contar las tareas del executor de auditoría")
+    void shouldCountAsyncTasks() {
+        int[] activeDuringTask = new int[1];
+        asyncTaskActivity.taskDecorator().decorate(() -> activeDuringTask[0] = asyncTaskActivity.active()).run();
+        assertThrows(IllegalStateException.class, () -> asyncTaskActivity.taskDecorator()
+                .decorate(() -> { throw new IllegalStateException("falla"); }).run());
+
+        Map<String, Object> executor = (Map<String, Object>) endpoint.snapshot().get("auditExecutor");
+
+        assertEquals(1, activeDuringTask[0]);
+        assertEquals(0, executor.get("active"));
+        assertEquals(1L, executor.get("completed"));
+        assertEquals(1L, executor.get("failed"));
+    }
+}
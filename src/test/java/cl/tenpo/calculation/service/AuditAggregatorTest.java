@@ -0,0 +1,211 @@
+package cl.tenpo.calculation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import cl.tenpo.calculation.config.AuditAggregationProperties;
+import cl.tenpo.calculation.entity.RequestAudit;
+import cl.tenpo.calculation.repository.RequestAuditRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test unitarios para {@link AuditAggregator}.
+ */
+public class AuditAggregatorTest {
+
+    private final Queue<RequestAudit> saved = new ConcurrentLinkedQueue<>();
+
+    private final RequestAuditRepository requestAuditRepository = mock(RequestAuditRepository.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(requestAuditRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0, List.class));
+            return invocation.getArgument(0);
+        });
+    }
+
+    /**
+     * Verifica que las auditorías idénticas se persisten como un único registro
+     * con la cantidad de requests y las fechas del primero y del último.
+     */
+    @Test
+    @DisplayName("Debería agregar las auditorías idénticas en un único registro")
+    void shouldAggregateIdenticalAudits() {
+        AuditAggregator aggregator = aggregator(100);
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        aggregator.add(time.plusSeconds(1), "GET /calculation", "[5, 5]", "11", true);
+        aggregator.add(time, "GET /calculation", "[5, 5]", "11", true);
+        aggregator.add(time.plusSeconds(2), "GET /calculation", "[5, 5]", "11", true);
+        aggregator.add(time, "GET /calculation", "[5, 6]", "12", true);
+
+        assertEquals(2, aggregator.flush());
+        RequestAudit aggregated = saved.stream().filter(audit -> audit.getCount() == 3).findFirst().orElseThrow();
+        assertEquals(time, aggregated.getFirstSeen());
+        assertEquals(time, aggregated.getRequestTime());
+        assertEquals(time.plusSeconds(2), aggregated.getLastSeen());
+        assertEquals(0, aggregator.flush());
+    }
+
+    /**
+     * Verifica que, alcanzada la cantidad máxima de agregados, las auditorías
+     * nuevas se rechazan para persistirse sin agregar.
+     */
+    @Test
+    @DisplayName("Debería rechazar auditorías nuevas al superar la cantidad máxima de agregados")
+    void shouldRejectNewKeysWhenFull() {
+        AuditAggregator aggregator = aggregator(1);
+        LocalDateTime time = LocalDateTime.now();
+
+        assertTrue(aggregator.add(time, "GET /calculation", "[5, 5]", "11", true));
+        assertTrue(aggregator.add(time, "GET /calculation", "[5, 5]", "11", true));
+        assertFalse(aggregator.add(time, "GET /calculation", "[1, 1]", "2", true));
+    }
+
+    /**
+     * Verifica que la cantidad total de requests persistidos es exacta aunque se
+     * vuelque concurrentemente con las auditorías entrantes.
+     *
+     * @throws Exception si ocurre algún error en los threads del test.
+     */
+    @Test
+    @DisplayName("Debería preservar la cantidad exacta de requests con volcados concurrentes")
+    void shouldPreserveExactCountsUnderConcurrentFlush() throws Exception {
+        AuditAggregator aggregator = aggregator(100);
+        int threads = 8;
+        int perThread = 20_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean running = new AtomicBoolean(true);
+        try {
+            Future<?> flusher = executor.submit(() -> {
+                while (running.get()) {
+                    aggregator.flush();
+                }
+            });
+            List<Future<?>> producers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                producers.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        aggregator.add(LocalDateTime.now(), "GET /calculation", "[" + (i % 10) + ", 1]", "ok", true);
+                    }
+                }));
+            }
+            for (Future<?> producer : producers) {
+                producer.get(30, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            flusher.get(30, TimeUnit.SECONDS);
+            aggregator.flush();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals((long) threads * perThread, saved.stream().mapToLong(RequestAudit::getCount).sum());
+    }
+
+    /**
+     * Verifica que si la base de datos no está disponible los agregados
+     * retirados vuelven al mapa, sumados a los recibidos mientras tanto, y se
+     * persisten en el siguiente volcado.
+     */
+    @Test
+    @DisplayName("Debería conservar los agregados si falla la persistencia")
+    @SuppressWarnings("unchecked")
+    void shouldKeepAggregatesWhenSaveFails() {
+        AuditAggregator aggregator = aggregator(100);
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+        aggregator.add(time, "GET /calculation", "[5, 5]", "11", true);
+        aggregator.add(time.plusSeconds(1), "GET /calculation", "[5, 5]", "11", true);
+        when(requestAuditRepository.saveAll(anyList()))
+                .thenThrow(new DataAccessResourceFailureException("Base de datos no disponible"))
+                .thenAnswer(invocation -> {
+                    saved.addAll(invocation.getArgument(0, List.class));
+                    return invocation.getArgument(0);
+                });
+        when(requestAuditRepository.save(any()))
+                .thenThrow(new DataAccessResourceFailureException("Base de datos no disponible"));
+
+        assertEquals(0, aggregator.flush());
+        aggregator.add(time.plusSeconds(2), "GET /calculation", "[5, 5]", "11", true);
+        assertEquals(1, aggregator.flush());
+
+        RequestAudit aggregated = saved.element();
+        assertEquals(3, aggregated.getCount());
+        assertEquals(time, aggregated.getFirstSeen());
+        assertEquals(time.plusSeconds(2), aggregated.getLastSeen());
+    }
+
+    /**
+     * Verifica que un agregado que siempre falla por sus datos no impide
+     * persistir los demás, y que se descarta tras la cantidad máxima de intentos
+     * informando los requests descartados.
+     */
+    @Test
+    @DisplayName("Debería persistir los demás agregados y descartar el que siempre falla")
+    @SuppressWarnings("unchecked")
+    void shouldPersistOthersAndDropAggregateThatAlwaysFails() {
+        AuditAggregator aggregator = aggregator(100);
+        String tooLong = "x".repeat(5000);
+        when(requestAuditRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<RequestAudit> rows = invocation.getArgument(0, List.class);
+            if (rows.stream().anyMatch(row -> tooLong.equals(row.getResult()))) {
+                throw new DataIntegrityViolationException("Valor demasiado largo");
+            }
+            saved.addAll(rows);
+            return rows;
+        });
+        when(requestAuditRepository.save(any())).thenAnswer(invocation -> {
+            RequestAudit row = invocation.getArgument(0);
+            if (tooLong.equals(row.getResult())) {
+                throw new DataIntegrityViolationException("Valor demasiado largo");
+            }
+            saved.add(row);
+            return row;
+        });
+        LocalDateTime time = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        for (int flush = 0; flush < 3; flush++) {
+            aggregator.add(time, "GET /calculation", "[5, 5]", tooLong, true);
+            aggregator.add(time, "GET /calculation", "[" + flush + ", 1]", "ok", true);
+            aggregator.add(time, "GET /calculation", "[" + flush + ", 1]", "ok", true);
+            assertEquals(1, aggregator.flush());
+        }
+
+        assertEquals(3, saved.size());
+        assertEquals(6, saved.stream().mapToLong(RequestAudit::getCount).sum());
+        assertEquals(3.0, meterRegistry.counter("audit.aggregation.dropped").count());
+        assertEquals(0, aggregator.flush());
+    }
+
+    private AuditAggregator aggregator(int maxKeys) {
+        return new AuditAggregator(requestAuditRepository,
+                new AuditAggregationProperties(true, Duration.ofSeconds(1), maxKeys, 3), meterRegistry);
+    }
+}
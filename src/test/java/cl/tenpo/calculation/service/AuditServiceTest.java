@@ -3,13 +3,20 @@ package cl.tenpo.calculation.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.OptionalLong;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,8 +27,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
 
+import cl.tenpo.calculation.archive.AuditArchiveStore;
+import cl.tenpo.calculation.config.AuditPaginationProperties;
+import cl.tenpo.calculation.config.AuditPaginationProperties.CountStrategy;
+import cl.tenpo.calculation.config.AuditSearchProperties;
 import cl.tenpo.calculation.dto.PageDto;
 import cl.tenpo.calculation.dto.RequestAuditDto;
 import cl.tenpo.calculation.entity.RequestAudit;
@@ -36,14 +51,26 @@ public class AuditServiceTest {
     @Mock
     private RequestAuditRepository requestAuditRepository;
 
+    @Mock
+    private AuditArchiveStore auditArchiveStore;
+
+    @Mock
+    private AuditAggregator auditAggregator;
+
     @InjectMocks
     private AuditService auditService;
 
     @Captor
     ArgumentCaptor<RequestAudit> auditCaptor;
 
+    @BeforeEach
+    void setUp() {
+        auditService.auditPaginationProperties = new AuditPaginationProperties(CountStrategy.EXACT);
+    }
+
     /**
-     * Verifica que el método auditRequest guarda correctamente un registro de auditoría
+     * Verifica que el método auditRequest guarda correctamente un registro de auditoría,
+     * incluida la versión de la fórmula usada
      */
     @Test
     @DisplayName("Debería guardar correctamente un registro de auditoría con parámetros válidos")
@@ -56,7 +83,7 @@ public class AuditServiceTest {
         boolean success = true;
 
         // When
-        auditService.auditRequest(time, endpoint, params, result, success);
+        auditService.auditRequest(time, endpoint, params, result, success, "a1b2c3d4e5f6");
 
         // Then
         verify(requestAuditRepository).save(auditCaptor.capture());
@@ -67,6 +94,7 @@ public class AuditServiceTest {
         assertEquals(params.toString(), saved.getIncoming());
         assertEquals(result, saved.getResult());
         assertTrue(saved.isSuccess());
+        assertEquals("a1b2c3d4e5f6", saved.getFormulaVersion());
     }
 
     /**
@@ -88,6 +116,24 @@ public class AuditServiceTest {
         assertFalse(saved.isSuccess());
     }
 
+    /**
+     * Verifica que el método auditRequest no persiste directamente las auditorías
+     * aceptadas por la agregación.
+     */
+    @Test
+    @DisplayName("Debería delegar en la agregación sin persistir directamente la auditoría")
+    void testAuditRequest_withAggregation_shouldNotSaveDirectly() {
+        // Given
+        LocalDateTime time = LocalDateTime.now();
+        when(auditAggregator.add(time, "GET /calculate", "[5, 5]", "11", true, null)).thenReturn(true);
+
+        // When
+        auditService.auditRequest(time, "GET /calculate", List.of(5, 5), "11", true);
+
+        // Then
+        verify(requestAuditRepository, never()).save(any());
+    }
+
     /**
      * Verifica que el método getAll retorna una página de auditorías correctamente mapeada a DTO
      */
@@ -95,21 +141,15 @@ public class AuditServiceTest {
     @DisplayName("Debería retornar una página de auditorías correctamente mapeada a DTO")
     void testGetAll_shouldReturnPagedDto() {
         // Given
-        RequestAudit audit = RequestAudit.builder()
-                .requestTime(LocalDateTime.now())
-                .endpoint("GET /test")
-                .incoming("[]")
-                .result("ok")
-                .success(true)
-                .build();
-
-        Page<RequestAudit> mockPage = new PageImpl<>(
+        RequestAuditDto audit = new RequestAuditDto(LocalDateTime.now(), "GET /test", "[]", "ok", true);
+
+        Page<RequestAuditDto> mockPage = new PageImpl<>(
                 List.of(audit),
                 PageRequest.of(0, 10),
                 1
         );
 
-        when(requestAuditRepository.findAll(PageRequest.of(0, 10))).thenReturn(mockPage);
+        when(requestAuditRepository.findAllAsDto(PageRequest.of(0, 10))).thenReturn(mockPage);
 
         // When
         PageDto<RequestAuditDto> result = auditService.getAll(0, 10);
@@ -123,5 +163,124 @@ public class AuditServiceTest {
         assertEquals(1L, result.totalElements());
         assertEquals(1, result.totalPages());
     }
-}
 
+    /**
+     * Verifica que una consulta por rango completa la página con las auditorías
+     * archivadas y continúa con las de la base de datos.
+     */
+    @Test
+    @DisplayName("Debería combinar auditorías archivadas y de la base de datos en una consulta por rango")
+    void testGetRange_shouldSpanArchivedAndDatabaseAudits() {
+        // Given
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = from.plusYears(1);
+        RequestAuditDto archived = new RequestAuditDto(from, "GET /calculation", "[5, 5]", "11", true);
+        RequestAuditDto hot = new RequestAuditDto(to, "GET /audit", null, null, true);
+
+        when(auditArchiveStore.count(from, to)).thenReturn(3L);
+        when(requestAuditRepository.countInRange(from, to)).thenReturn(5L);
+        when(auditArchiveStore.find(from, to, 2, 2)).thenReturn(List.of(archived));
+        when(requestAuditRepository.findInRange(from, to, 0, 1)).thenReturn(List.of(hot));
+
+        // When
+        PageDto<RequestAuditDto> result = auditService.getRange(from, to, 1, 2);
+
+        // Then
+        assertEquals(2, result.content().size());
+        assertEquals("GET /calculation", result.content().get(0).endpoint());
+        assertEquals("GET /audit", result.content().get(1).endpoint());
+        assertEquals(8L, result.totalElements());
+        assertEquals(4, result.totalPages());
+        assertFalse(result.last());
+    }
+
+    /**
+     * Verifica que la búsqueda rechaza textos demasiado cortos y límites fuera de
+     * rango sin consultar la base de datos.
+     */
+    @Test
+    @DisplayName("Debería rechazar búsquedas con texto corto o límite fuera de rango")
+    void testSearch_shouldRejectInvalidParameters() {
+        // Given
+        auditService.auditSearchProperties = new AuditSearchProperties(3, 500, Duration.ofSeconds(5), false);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> auditService.search("[5", 50));
+        assertThrows(IllegalArgumentException.class, () -> auditService.search("[5, 5]", 0));
+        assertThrows(IllegalArgumentException.class, () -> auditService.search("[5, 5]", 501));
+        verify(requestAuditRepository, never()).search(any(), anyInt(), any());
+    }
+
+    /**
+     * Verifica que una búsqueda que supera el tiempo máximo se informa como 503.
+     */
+    @Test
+    @DisplayName("Debería informar 503 cuando la búsqueda supera el tiempo máximo")
+    void testSearch_shouldMapTimeoutToServiceUnavailable() {
+        // Given
+        auditService.auditSearchProperties = new AuditSearchProperties(3, 500, Duration.ofSeconds(5), false);
+        when(requestAuditRepository.search("[5, 5]", 50, Duration.ofSeconds(5)))
+                .thenThrow(new QueryTimeoutException("timeout"));
+
+        // When
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> auditService.search("[5, 5]", 50));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    /**
+     * Verifica que con la estrategia de conteo estimada no se cuentan las filas y
+     * el total informado es la estimación, marcada como aproximada.
+     */
+    @Test
+    @DisplayName("Debería informar el total estimado sin contar las auditorías")
+    void testGetAll_shouldUseEstimatedTotal() {
+        // Given
+        auditService.auditPaginationProperties = new AuditPaginationProperties(CountStrategy.ESTIMATED);
+        RequestAuditDto audit = new RequestAuditDto(LocalDateTime.now(), "GET /test", "[]", "ok", true);
+        when(requestAuditRepository.findSliceAsDto(PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of(audit), PageRequest.of(0, 10), true));
+        when(requestAuditRepository.estimateCountInRange(null, null)).thenReturn(OptionalLong.of(1_000_000));
+
+        // When
+        PageDto<RequestAuditDto> result = auditService.getAll(0, 10);
+
+        // Then
+        assertEquals(1_000_000L, result.totalElements());
+        assertEquals(100_000, result.totalPages());
+        assertTrue(result.totalApproximate());
+        assertFalse(result.last());
+        verify(requestAuditRepository, never()).findAllAsDto(any());
+        verify(requestAuditRepository, never()).countInRange(any(), any());
+    }
+
+    /**
+     * Verifica que sin estrategia de conteo no se informa el total y la última
+     * página se detecta leyendo una auditoría más que el tamaño de la página.
+     */
+    @Test
+    @DisplayName("Debería detectar la última página sin contar las auditorías")
+    void testGetRange_shouldDetectLastPageWithoutCount() {
+        // Given
+        auditService.auditPaginationProperties = new AuditPaginationProperties(CountStrategy.NONE);
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = from.plusYears(1);
+        RequestAuditDto hot = new RequestAuditDto(to, "GET /calculation", "[5, 5]", "11", true);
+
+        when(auditArchiveStore.count(from, to)).thenReturn(0L);
+        when(auditArchiveStore.find(from, to, 0, 2)).thenReturn(List.of());
+        when(requestAuditRepository.findInRange(from, to, 0, 3)).thenReturn(List.of(hot, hot));
+
+        // When
+        PageDto<RequestAuditDto> result = auditService.getRange(from, to, 0, 2);
+
+        // Then
+        assertEquals(2, result.content().size());
+        assertEquals(-1L, result.totalElements());
+        assertTrue(result.totalApproximate());
+        assertTrue(result.last());
+        verify(requestAuditRepository, never()).countInRange(any(), any());
+    }
+}
@@ -11,6 +11,9 @@ import java.math.BigDecimal;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import cl.tenpo.calculation.config.FormulaProperties;
+import cl.tenpo.calculation.formula.FormulaEngine;
+
 /**
  * Test unitarios para la clase {@link CalculationService}.
  */
@@ -18,7 +21,8 @@ public class CalculationServiceTest {
 	
 	private PercentageService percentageService = mock(PercentageService.class);
 	
-	private CalculationService calculationService = new CalculationService(this.percentageService);
+	private CalculationService calculationService = new CalculationService(this.percentageService,
+			new FormulaEngine(new FormulaProperties("(num1 + num2) + (num1 + num2) * percentage / 100", 64)));
 
 	
     /**
@@ -0,0 +1,241 @@
+package cl.tenpo.calculation.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+
+import cl.tenpo.calculation.config.IdempotencyProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+/**
+ * Test unitarios para {@link IdempotencyService}.
+ */
+public class IdempotencyServiceTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private final IdempotencyService idempotencyService = new IdempotencyService(redisTemplate,
+            new IdempotencyProperties(Duration.ofHours(24), Duration.ofSeconds(15), Duration.ofSeconds(5),
+                    Duration.ofMillis(10)),
+            circuitBreakerRegistry);
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Verifica que la primera ejecución guarda el resultado y libera el lock
+     * solo si aún contiene su propio token.
+     */
+    @Test
+    @DisplayName("Debería ejecutar la operación y guardar su resultado la primera vez")
+    void shouldExecuteAndStoreResult() {
+        when(valueOperations.setIfAbsent(eq("idempotency:k1:lock"), anyString(), eq(Duration.ofSeconds(15))))
+                .thenReturn(true);
+
+        assertEquals("11", idempotencyService.execute("k1", "5,5", () -> "11"));
+
+        ArgumentCaptor<String> token = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).setIfAbsent(eq("idempotency:k1:lock"), token.capture(), eq(Duration.ofSeconds(15)));
+        verify(valueOperations).set("idempotency:k1", "5,5\n11", Duration.ofHours(24));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("idempotency:k1:lock")), eq(token.getValue()));
+        verify(redisTemplate, never()).delete(anyString());
+    }
+
+    /**
+     * Verifica que un reintento devuelve el resultado guardado sin ejecutar la operación.
+     */
+    @Test
+    @DisplayName("Debería devolver el resultado guardado sin volver a ejecutar la operación")
+    void shouldReplayStoredResult() {
+        when(valueOperations.get("idempotency:k1")).thenReturn("5,5\n11");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        assertEquals("11", idempotencyService.execute("k1", "5,5", () -> {
+            throw new AssertionError("No debería ejecutarse");
+        }));
+
+        verify(valueOperations, never()).setIfAbsent(anyString(), anyString(), any(Duration.class));
+        assertNotNull(request.getAttribute(IdempotencyService.REPLAYED_ATTRIBUTE));
+    }
+
+    /**
+     * Verifica que reutilizar una clave con otros parámetros es un error.
+     */
+    @Test
+    @DisplayName("Debería retornar 422 si la clave se reutiliza con otros parámetros")
+    void shouldRejectKeyReuseWithOtherParams() {
+        when(valueOperations.get("idempotency:k1")).thenReturn("5,5\n11");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> idempotencyService.execute("k1", "1,2", () -> "3"));
+
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, ex.getStatusCode());
+        assertNull(request.getAttribute(IdempotencyService.REPLAYED_ATTRIBUTE));
+    }
+
+    /**
+     * Verifica que los duplicados concurrentes esperan a la ejecución en curso en
+     * lugar de ejecutar la operación nuevamente.
+     *
+     * @throws Exception si ocurre algún error en los threads del test.
+     */
+    @Test
+    @DisplayName("Debería ejecutar una única vez con duplicados concurrentes")
+    void shouldExecuteOnceForConcurrentDuplicates() throws Exception {
+        when(valueOperations.get("idempotency:k1")).thenReturn(null, "5,5\n11");
+        when(valueOperations.setIfAbsent(eq("idempotency:k1:lock"), anyString(), eq(Duration.ofSeconds(15))))
+                .thenReturn(true);
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            Future<String> first = executor.submit(() -> idempotencyService.execute("k1", "5,5", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "11";
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<String> duplicate = executor.submit(() -> idempotencyService.execute("k1", "5,5", () -> {
+                executions.incrementAndGet();
+                return "otro";
+            }));
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals("11", first.get(5, TimeUnit.SECONDS));
+            assertEquals("11", duplicate.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executions.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifica que, si Redis no está disponible, la operación se ejecuta igualmente.
+     */
+    @Test
+    @DisplayName("Debería ejecutar la operación si Redis no está disponible")
+    void shouldExecuteWhenRedisIsDown() {
+        when(valueOperations.get("idempotency:k1")).thenThrow(new RedisConnectionFailureException("down"));
+
+        assertEquals("11", idempotencyService.execute("k1", "5,5", () -> "11"));
+    }
+
+    /**
+     * Verifica que, si la ejecución esperada falla, el duplicado recibe el error
+     * sin marcarse como repetido (para que se audite), aunque sí como en espera
+     * (para que no se informe al limitador de concurrencia).
+     *
+     * @throws Exception si ocurre algún error en los threads del test.
+     */
+    @Test
+    @DisplayName("No debería marcar como repetido un duplicado cuya ejecución esperada falla")
+    void shouldNotMarkReplayedWhenAwaitedExecutionFails() throws Exception {
+        when(valueOperations.setIfAbsent(eq("idempotency:k1:lock"), anyString(), eq(Duration.ofSeconds(15))))
+                .thenReturn(true);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> idempotencyService.execute("k1", "5,5", () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("falla");
+            }));
+            started.await(5, TimeUnit.SECONDS);
+            Future<Class<?>> duplicate = executor.submit(() -> {
+                RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+                try {
+                    idempotencyService.execute("k1", "5,5", () -> "otro");
+                    return null;
+                } catch (RuntimeException e) {
+                    return e.getClass();
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                }
+            });
+            Thread.sleep(50);
+            release.countDown();
+
+            assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+            assertEquals(IllegalStateException.class, duplicate.get(5, TimeUnit.SECONDS));
+            assertNull(request.getAttribute(IdempotencyService.REPLAYED_ATTRIBUTE));
+            assertNotNull(request.getAttribute(IdempotencyService.WAITED_ATTRIBUTE));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifica que, con el circuito de Redis abierto, la operación se ejecuta
+     * sin consultar Redis.
+     */
+    @Test
+    @DisplayName("Debería ejecutar la operación sin consultar Redis si el circuito está abierto")
+    void shouldExecuteWithoutRedisWhenCircuitIsOpen() {
+        circuitBreakerRegistry.circuitBreaker("redis").transitionToOpenState();
+
+        assertEquals("11", idempotencyService.execute("k1", "5,5", () -> "11"));
+
+        verifyNoInteractions(valueOperations);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,23 +2,31 @@ package cl.tenpo.calculation.service.external;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import cl.tenpo.calculation.config.PercentageCacheProperties;
 import cl.tenpo.calculation.service.PercentageService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.observation.ObservationRegistry;
 
 /**
  * Test unitarios para {@link PercentageServiceProxyImpl}.
@@ -29,7 +37,14 @@ public class CalculationServiceProxyImplTest {
 	
 	private StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
 	
-	private PercentageServiceProxyImpl proxyService= new PercentageServiceProxyImpl(redisTemplate, percentageService, "PT30M");
+	private PercentageSnapshotStore snapshotStore = mock(PercentageSnapshotStore.class);
+	
+	private PercentageCache percentageCache = new PercentageCache(redisTemplate,
+			new PercentageCacheProperties(Duration.ofMinutes(30), Duration.ofSeconds(15)), CircuitBreakerRegistry.ofDefaults(),
+			ObservationRegistry.NOOP, Runnable::run, Clock.systemUTC());
+	
+	private PercentageServiceProxyImpl proxyService= new PercentageServiceProxyImpl(percentageCache, percentageService,
+			ObservationRegistry.NOOP, snapshotStore, mock(TenantPercentageCache.class));
 	
     @SuppressWarnings("unchecked")
 	@BeforeEach
@@ -57,8 +72,26 @@ public class CalculationServiceProxyImplTest {
 		assertEquals(remoteValue, result);
 		verify(valueOps, times(1)).set("percentage", "10", Duration.ofMinutes(30));
 		verify(percentageService, times(1)).getPercentage();
+		verify(snapshotStore, times(1)).save(remoteValue);
 	}	
 
+	/**
+	 * Verifica que una falla al escribir en Redis no impide devolver el porcentaje obtenido.
+	 */
+	@SuppressWarnings("unchecked")
+	@Test
+	@DisplayName("Debe retornar el porcentaje del servicio remoto aunque Redis no esté disponible")
+	void testGetPercentage_RedisDown() {
+		ValueOperations<String, String> valueOps = mock(ValueOperations.class);
+		when(redisTemplate.opsForValue()).thenReturn(valueOps);
+		when(percentageService.getPercentage()).thenReturn(new BigDecimal("10"));
+		doThrow(new RedisConnectionFailureException("down")).when(valueOps)
+				.set("percentage", "10", Duration.ofMinutes(30));
+
+		assertEquals(new BigDecimal("10"), proxyService.getPercentage());
+		verify(snapshotStore, times(1)).save(new BigDecimal("10"));
+	}
+
     /**
      * Verifica que el método de fallback obtiene el valor desde cache cuando el servicio remoto falla.
      */
@@ -91,6 +124,20 @@ public class CalculationServiceProxyImplTest {
 
         assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
     }
+
+    /**
+     * Verifica que el método de fallback utiliza la copia local si Redis no está disponible.
+     */
+    @Test
+    @DisplayName("Debe retornar la copia local si el servicio remoto y Redis fallan")
+    void testGetPercentageFallback_UsesSnapshotWhenRedisIsDown() {
+        when(redisTemplate.opsForValue().get("percentage")).thenThrow(new RedisConnectionFailureException("down"));
+        when(snapshotStore.get()).thenReturn(Optional.of(new PercentageSnapshot(new BigDecimal("12.5"), Instant.now())));
+
+        BigDecimal result = proxyService.getFromCacheOrFail(new RuntimeException("Servicio caído"));
+
+        assertEquals(new BigDecimal("12.5"), result);
+    }
 }
 
 
@@ -0,0 +1,113 @@
+package cl.tenpo.calculation.service.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import cl.tenpo.calculation.config.HedgingProperties;
+import cl.tenpo.calculation.service.PercentageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test unitarios para {@link HedgedPercentageService}.
+ */
+public class HedgedPercentageServiceTest {
+
+    private static final int WARM_UP_CALLS = 5;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private HedgedPercentageService hedgedService;
+
+    @AfterEach
+    void tearDown() {
+        if (hedgedService != null) {
+            hedgedService.destroy();
+        }
+    }
+
+    /**
+     * Verifica que si la llamada principal demora más que el percentil observado se
+     * envía un request de respaldo y se retorna su respuesta.
+     */
+    @Test
+    @DisplayName("Debería enviar un request de respaldo y tomar la primera respuesta")
+    void shouldHedgeSlowCalls() {
+        hedgedService = new HedgedPercentageService(slowOnCall(WARM_UP_CALLS + 1), properties(0.05, 10), meterRegistry);
+        warmUp();
+
+        long start = System.nanoTime();
+        BigDecimal result = hedgedService.getPercentage();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(BigDecimal.TEN, result);
+        assertTrue(elapsedMillis < 800, "la respuesta de respaldo debería llegar antes, demoró " + elapsedMillis);
+        assertEquals(1.0, meterRegistry.counter("percentage.hedge.sent").count());
+        assertEquals(1.0, meterRegistry.counter("percentage.hedge.won").count());
+    }
+
+    /**
+     * Verifica que sin presupuesto disponible no se envían requests de respaldo.
+     */
+    @Test
+    @DisplayName("No debería enviar requests de respaldo si se agotó el presupuesto")
+    void shouldNotHedgeWithoutBudget() {
+        hedgedService = new HedgedPercentageService(slowOnCall(WARM_UP_CALLS + 1), properties(0, 0), meterRegistry);
+        warmUp();
+
+        assertEquals(BigDecimal.TEN, hedgedService.getPercentage());
+        assertEquals(0.0, meterRegistry.counter("percentage.hedge.sent").count());
+        assertEquals(WARM_UP_CALLS + 1, calls.get());
+    }
+
+    /**
+     * Verifica que los errores del servicio externo se propagan al llamador.
+     */
+    @Test
+    @DisplayName("Debería propagar el error del servicio externo")
+    void shouldPropagateFailures() {
+        hedgedService = new HedgedPercentageService(() -> {
+            throw new IllegalStateException("Servicio caído");
+        }, properties(0.05, 10), meterRegistry);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> hedgedService.getPercentage());
+        assertEquals("Servicio caído", ex.getMessage());
+    }
+
+    private void warmUp() {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            hedgedService.getPercentage();
+        }
+    }
+
+    /**
+     * Servicio externo simulado que responde de inmediato salvo en la llamada indicada.
+     */
+    private PercentageService slowOnCall(int slowCall) {
+        return () -> {
+            if (calls.incrementAndGet() == slowCall) {
+                try {
+                    TimeUnit.SECONDS.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return BigDecimal.TEN;
+        };
+    }
+
+    private static HedgingProperties properties(double budgetRatio, int maxBurst) {
+        return new HedgingProperties(true, 0.95, Duration.ofMillis(20), WARM_UP_CALLS, 100, budgetRatio, maxBurst, 4);
+    }
+}
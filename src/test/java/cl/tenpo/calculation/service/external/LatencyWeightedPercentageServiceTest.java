@@ -0,0 +1,198 @@
+package cl.tenpo.calculation.service.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import cl.tenpo.calculation.config.PercentageProvidersProperties;
+import cl.tenpo.calculation.service.PercentageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test unitarios para {@link LatencyWeightedPercentageService}.
+ */
+public class LatencyWeightedPercentageServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger primaryCalls = new AtomicInteger();
+
+    private final AtomicInteger secondaryCalls = new AtomicInteger();
+
+    /**
+     * Verifica que las llamadas se envían al proveedor con menor latencia.
+     */
+    @Test
+    @DisplayName("Debería enviar las llamadas al proveedor más rápido")
+    void shouldRouteToFastestProvider() {
+        LatencyWeightedPercentageService service = service(
+                new PercentageServiceExternalMockedImpl(Duration.ofMillis(20), 0),
+                new PercentageServiceExternalMockedImpl(Duration.ofMillis(1), 0),
+                Duration.ofHours(1));
+
+        for (int i = 0; i < 50; i++) {
+            assertEquals(BigDecimal.TEN, service.getPercentage());
+        }
+
+        assertTrue(primaryCalls.get() <= 2, "el proveedor lento recibió " + primaryCalls.get() + " llamadas");
+        assertTrue(secondaryCalls.get() >= 48);
+    }
+
+    /**
+     * Verifica que si un proveedor falla la llamada pasa de inmediato al
+     * siguiente y que, superada la tasa de error máxima, el proveedor deja de
+     * recibir llamadas.
+     */
+    @Test
+    @DisplayName("Debería pasar al siguiente proveedor ante una falla y dejar de usar el proveedor caído")
+    void shouldFailOverAndSkipUnhealthyProvider() {
+        LatencyWeightedPercentageService service = service(
+                new PercentageServiceExternalMockedImpl(Duration.ZERO, 1),
+                new PercentageServiceExternalMockedImpl(Duration.ofMillis(1), 0),
+                Duration.ofHours(1));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(BigDecimal.TEN, service.getPercentage());
+        }
+
+        // Con smoothing 0.2 la tasa de error supera 0.5 en la cuarta falla
+        assertEquals(4, primaryCalls.get());
+        assertEquals(20, secondaryCalls.get());
+        assertEquals(4.0, meterRegistry.counter("percentage.provider.failover").count());
+    }
+
+    /**
+     * Verifica que un proveedor caído recibe una llamada de prueba y, si
+     * responde, vuelve a recibir llamadas, aunque hayan fallado muchas pruebas
+     * antes y su tasa de error esté cerca de 1.
+     */
+    @Test
+    @DisplayName("Debería reincorporar un proveedor que responde la llamada de prueba")
+    void shouldRecoverProviderAfterProbe() {
+        AtomicBoolean primaryAvailable = new AtomicBoolean(false);
+        LatencyWeightedPercentageService service = service(() -> {
+            if (!primaryAvailable.get()) {
+                throw new IllegalStateException("Servicio de porcentaje no disponible");
+            }
+            return BigDecimal.ONE;
+        }, new PercentageServiceExternalMockedImpl(Duration.ofMillis(1), 0), Duration.ZERO);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(BigDecimal.TEN, service.getPercentage());
+        }
+        assertEquals(false, providerHealth(service, "primary"));
+
+        primaryAvailable.set(true);
+
+        assertEquals(BigDecimal.ONE, service.getPercentage());
+        assertEquals(true, providerHealth(service, "primary"));
+    }
+
+    /**
+     * Verifica que si fallan todos los proveedores se propaga el último error,
+     * con los anteriores como suprimidos.
+     */
+    @Test
+    @DisplayName("Debería propagar el error si fallan todos los proveedores")
+    void shouldFailWhenAllProvidersFail() {
+        LatencyWeightedPercentageService service = service(
+                new PercentageServiceExternalMockedImpl(Duration.ZERO, 1),
+                new PercentageServiceExternalMockedImpl(Duration.ZERO, 1),
+                Duration.ofHours(1));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, service::getPercentage);
+
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals(1, primaryCalls.get());
+        assertEquals(1, secondaryCalls.get());
+    }
+
+    private LatencyWeightedPercentageService service(PercentageService primary, PercentageService secondary,
+            Duration retryUnhealthyAfter) {
+        return service(primary, secondary, retryUnhealthyAfter, Duration.ofHours(1));
+    }
+
+    private LatencyWeightedPercentageService service(PercentageService primary, PercentageService secondary,
+            Duration retryUnhealthyAfter, Duration latencyHalfLife) {
+        Map<String, PercentageService> providers = new LinkedHashMap<>();
+        providers.put("primary", counting(primary, primaryCalls));
+        providers.put("secondary", counting(secondary, secondaryCalls));
+        return new LatencyWeightedPercentageService(providers,
+                new PercentageProvidersProperties(List.of(), 0.2, 0.5, retryUnhealthyAfter, latencyHalfLife),
+                meterRegistry);
+    }
+
+    /**
+     * Verifica que la latencia esperada de un proveedor que dejó de recibir
+     * llamadas por lento decae con el tiempo, por lo que vuelve a recibir una
+     * llamada que lo mide de nuevo.
+     *
+     * @throws Exception si se interrumpe la espera.
+     */
+    @Test
+    @DisplayName("Debería volver a medir un proveedor que fue lento")
+    void shouldRemeasureProviderThatWasSlow() throws Exception {
+        AtomicBoolean primarySlow = new AtomicBoolean(true);
+        PercentageService slow = new PercentageServiceExternalMockedImpl(Duration.ofMillis(50), 0);
+        LatencyWeightedPercentageService service = service(
+                () -> primarySlow.get() ? slow.getPercentage() : BigDecimal.ONE,
+                new PercentageServiceExternalMockedImpl(Duration.ofMillis(2), 0),
+                Duration.ofHours(1), Duration.ofMillis(20));
+        for (int i = 0; i < 5; i++) {
+            service.getPercentage();
+        }
+        assertEquals(1, primaryCalls.get());
+
+        primarySlow.set(false);
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (primaryCalls.get() == 1 && System.nanoTime() < deadline) {
+            service.getPercentage();
+        }
+
+        assertTrue(primaryCalls.get() > 1, "el proveedor lento no volvió a medirse");
+    }
+
+    /**
+     * Verifica que la verificación de salud consulta los proveedores sin
+     * alterar sus promedios, por lo que un proveedor caído no deja de recibir
+     * llamadas por las verificaciones.
+     */
+    @Test
+    @DisplayName("Debería verificar la salud sin alterar los promedios de los proveedores")
+    void shouldCheckWithoutRecordingStats() {
+        LatencyWeightedPercentageService service = service(
+                new PercentageServiceExternalMockedImpl(Duration.ZERO, 1),
+                new PercentageServiceExternalMockedImpl(Duration.ZERO, 0),
+                Duration.ofHours(1));
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(BigDecimal.TEN, service.check());
+        }
+
+        assertEquals(10, primaryCalls.get());
+        assertEquals(true, providerHealth(service, "primary"));
+        assertEquals(0.0, meterRegistry.counter("percentage.provider.failover").count());
+    }
+
+    private static PercentageService counting(PercentageService provider, AtomicInteger calls) {
+        return () -> {
+            calls.incrementAndGet();
+            return provider.getPercentage();
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object providerHealth(LatencyWeightedPercentageService service, String provider) {
+        return ((Map<String, Object>) service.providers().get(provider)).get("healthy");
+    }
+}
@@ -0,0 +1,149 @@
+package cl.tenpo.calculation.service.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import cl.tenpo.calculation.config.PercentageCacheProperties;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.observation.ObservationRegistry;
+
+/**
+ * Test unitarios para {@link PercentageCache}.
+ */
+public class PercentageCacheTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final MutableClock clock = new MutableClock();
+
+    private PercentageCache percentageCache;
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        percentageCache = new PercentageCache(redisTemplate,
+                new PercentageCacheProperties(Duration.ofMinutes(1), Duration.ofSeconds(15)), circuitBreakerRegistry,
+                ObservationRegistry.NOOP, tasks::add, clock);
+    }
+
+    /**
+     * Verifica que el porcentaje no se escribe en el thread del llamador, y que
+     * solo se vuelve a escribir si cambió o si pasó el tiempo de renovación.
+     */
+    @Test
+    @DisplayName("Debería escribir de forma asíncrona solo si el porcentaje cambió o debe renovarse")
+    void shouldWriteAsynchronouslyOnlyWhenNeeded() {
+        percentageCache.save(new BigDecimal("10"));
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+        runTasks();
+        verify(valueOperations, times(1)).set("percentage", "10", Duration.ofMinutes(1));
+
+        clock.advance(Duration.ofSeconds(5));
+        percentageCache.save(new BigDecimal("10.00"));
+        assertEquals(0, tasks.size());
+
+        percentageCache.save(new BigDecimal("12"));
+        runTasks();
+        verify(valueOperations, times(1)).set("percentage", "12", Duration.ofMinutes(1));
+
+        clock.advance(Duration.ofSeconds(16));
+        percentageCache.save(new BigDecimal("12"));
+        runTasks();
+        verify(valueOperations, times(2)).set("percentage", "12", Duration.ofMinutes(1));
+    }
+
+    /**
+     * Verifica que, si se registran varios porcentajes antes de que se ejecute
+     * la escritura, solo se escribe el último.
+     */
+    @Test
+    @DisplayName("Debería escribir solo el último porcentaje registrado")
+    void shouldCoalescePendingWrites() {
+        percentageCache.save(new BigDecimal("10"));
+        percentageCache.save(new BigDecimal("11"));
+        runTasks();
+
+        verify(valueOperations, never()).set("percentage", "10", Duration.ofMinutes(1));
+        verify(valueOperations, times(1)).set("percentage", "11", Duration.ofMinutes(1));
+    }
+
+    /**
+     * Verifica que con el circuito abierto no se accede a Redis.
+     */
+    @Test
+    @DisplayName("Debería omitir Redis mientras el circuito está abierto")
+    void shouldSkipRedisWhenCircuitIsOpen() {
+        circuitBreakerRegistry.circuitBreaker("redis").transitionToOpenState();
+
+        assertNull(percentageCache.read());
+        percentageCache.save(new BigDecimal("10"));
+        runTasks();
+
+        verifyNoInteractions(valueOperations);
+    }
+
+    private void runTasks() {
+        List<Runnable> pending = new ArrayList<>(tasks);
+        tasks.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    /**
+     * Reloj que solo avanza cuando el test lo indica.
+     */
+    private static final class MutableClock extends Clock {
+
+        private Instant now = NOW;
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package cl.tenpo.calculation.service.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import cl.tenpo.calculation.config.PercentageSnapshotProperties;
+
+/**
+ * Test unitarios para {@link PercentageSnapshotStore}.
+ */
+public class PercentageSnapshotStoreTest {
+
+    private static final Instant NOW = Instant.parse("2024-01-01T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Verifica que la copia guardada se carga al crear un nuevo store, como
+     * ocurre al reiniciar la aplicación.
+     */
+    @Test
+    @DisplayName("Debería cargar al iniciar el último porcentaje guardado")
+    void shouldLoadSnapshotOnStartup() {
+        store(NOW).save(new BigDecimal("10.5"));
+
+        PercentageSnapshot snapshot = store(NOW.plusSeconds(60)).get().orElseThrow();
+
+        assertEquals(new BigDecimal("10.5"), snapshot.value());
+        assertEquals(NOW, snapshot.fetchedAt());
+    }
+
+    /**
+     * Verifica que una copia más antigua que la antigüedad máxima no se utiliza.
+     */
+    @Test
+    @DisplayName("Debería descartar la copia que supera la antigüedad máxima")
+    void shouldIgnoreStaleSnapshot() {
+        store(NOW).save(new BigDecimal("10"));
+
+        assertTrue(store(NOW.plus(Duration.ofHours(23))).get().isPresent());
+        assertFalse(store(NOW.plus(Duration.ofHours(25))).get().isPresent());
+    }
+
+    /**
+     * Verifica que un archivo inválido se ignora sin impedir el inicio.
+     *
+     * @throws Exception si ocurre algún error de escritura.
+     */
+    @Test
+    @DisplayName("Debería ignorar un archivo de copia inválido")
+    void shouldIgnoreInvalidFile() throws Exception {
+        Files.writeString(directory.resolve("percentage.properties"), "value=abc\n");
+
+        assertFalse(store(NOW).get().isPresent());
+    }
+
+    /**
+     * Verifica que los requests concurrentes programan una única escritura en
+     * segundo plano, que guarda el último porcentaje registrado, y que un cambio
+     * posterior a esa escritura programa otra.
+     */
+    @Test
+    @DisplayName("Debería programar una única escritura en segundo plano para requests concurrentes")
+    void shouldScheduleSingleBackgroundWrite() {
+        List<Runnable> tasks = new ArrayList<>();
+        PercentageSnapshotStore store = store(NOW, tasks::add);
+
+        store.save(new BigDecimal("10"));
+        store.save(new BigDecimal("10"));
+        store.save(new BigDecimal("11"));
+
+        assertEquals(1, tasks.size());
+        assertEquals(new BigDecimal("11"), store.get().orElseThrow().value());
+        assertFalse(store(NOW).get().isPresent());
+
+        tasks.remove(0).run();
+        assertEquals(new BigDecimal("11"), store(NOW).get().orElseThrow().value());
+
+        store.save(new BigDecimal("11"));
+        assertTrue(tasks.isEmpty());
+        store.save(new BigDecimal("12"));
+        assertEquals(1, tasks.size());
+    }
+
+    private PercentageSnapshotStore store(Instant now) {
+        return store(now, Runnable::run);
+    }
+
+    private PercentageSnapshotStore store(Instant now, Executor executor) {
+        return new PercentageSnapshotStore(new PercentageSnapshotProperties(true,
+                directory.resolve("percentage.properties"), Duration.ofDays(1), Duration.ofMinutes(5)),
+                executor, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,181 @@
+package cl.tenpo.calculation.service.external;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import cl.tenpo.calculation.config.PercentageCacheProperties;
+import cl.tenpo.calculation.config.TenantPercentageProperties;
+import cl.tenpo.calculation.service.PercentageService;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test unitarios para {@link TenantPercentageCache}.
+ */
+public class TenantPercentageCacheTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+
+    private final PercentageService percentageService = mock(PercentageService.class);
+
+    private final Map<String, String> redis = new HashMap<>();
+
+    private TenantPercentageCache tenantPercentageCache;
+
+    @SuppressWarnings("unchecked")
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyCollection())).thenAnswer(invocation -> {
+            List<String> values = new ArrayList<>();
+            ((Collection<String>) invocation.getArgument(0)).forEach(key -> values.add(redis.get(key)));
+            return values;
+        });
+        tenantPercentageCache = tenantPercentageCache(Duration.ofMillis(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        tenantPercentageCache.destroy();
+    }
+
+    /**
+     * Verifica que un tenant que está en Redis no se consulta al servicio
+     * externo, que uno que no está se consulta y se escribe en Redis, y que
+     * luego ambos se obtienen desde la cache local.
+     */
+    @Test
+    @DisplayName("Debería leer de Redis y consultar al servicio externo solo los tenants faltantes")
+    void shouldLoadMissingTenantsFromRedisBeforeProvider() {
+        redis.put("percentage:b", "7.5");
+        when(percentageService.getPercentage("c")).thenReturn(new BigDecimal("12"));
+
+        assertEquals(new BigDecimal("7.5"), tenantPercentageCache.get("b"));
+        assertEquals(new BigDecimal("12"), tenantPercentageCache.get("c"));
+
+        verify(percentageService, never()).getPercentage("b");
+        verify(valueOperations, timeout(1000)).set("percentage:c", "12", Duration.ofMinutes(30));
+
+        assertEquals(new BigDecimal("7.5"), tenantPercentageCache.get("b"));
+        assertEquals(new BigDecimal("12"), tenantPercentageCache.get("c"));
+        verify(valueOperations, times(2)).multiGet(anyCollection());
+        verify(percentageService, times(1)).getPercentage("c");
+    }
+
+    /**
+     * Verifica que las lecturas concurrentes de tenants distintos se agrupan en
+     * un mismo MGET al juntar la cantidad máxima de claves.
+     *
+     * @throws Exception si ocurre algún error esperando las lecturas.
+     */
+    @Test
+    @DisplayName("Debería agrupar en un MGET las lecturas concurrentes de tenants distintos")
+    void shouldBatchConcurrentLookupsOfDifferentTenants() throws Exception {
+        tenantPercentageCache.destroy();
+        tenantPercentageCache = tenantPercentageCache(Duration.ofSeconds(10));
+        redis.put("percentage:a", "1");
+        redis.put("percentage:b", "2");
+        redis.put("percentage:c", "3");
+
+        ExecutorService callers = Executors.newFixedThreadPool(3);
+        try {
+            Future<BigDecimal> a = callers.submit(() -> tenantPercentageCache.get("a"));
+            Future<BigDecimal> b = callers.submit(() -> tenantPercentageCache.get("b"));
+            Future<BigDecimal> c = callers.submit(() -> tenantPercentageCache.get("c"));
+
+            assertEquals(new BigDecimal("1"), a.get(5, TimeUnit.SECONDS));
+            assertEquals(new BigDecimal("2"), b.get(5, TimeUnit.SECONDS));
+            assertEquals(new BigDecimal("3"), c.get(5, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+        verify(valueOperations, times(1)).multiGet(anyCollection());
+        verify(percentageService, never()).getPercentage(anyString());
+    }
+
+    /**
+     * Verifica que las consultas concurrentes de un mismo tenant que no está en
+     * Redis comparten una única llamada al servicio externo.
+     *
+     * @throws Exception si ocurre algún error esperando las consultas.
+     */
+    @Test
+    @DisplayName("Debería consultar una única vez al servicio externo por tenant ante consultas concurrentes")
+    void shouldCoalesceConcurrentProviderFetchesOfSameTenant() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(percentageService.getPercentage("t")).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return new BigDecimal("9");
+        });
+
+        List<CompletableFuture<BigDecimal>> lookups = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            lookups.add(CompletableFuture.supplyAsync(() -> tenantPercentageCache.get("t")));
+        }
+        release.countDown();
+
+        for (CompletableFuture<BigDecimal> lookup : lookups) {
+            assertEquals(new BigDecimal("9"), lookup.get(5, TimeUnit.SECONDS));
+        }
+        verify(percentageService, times(1)).getPercentage("t");
+    }
+
+    /**
+     * Verifica que si el tenant no está en Redis y el servicio externo falla se
+     * responde 503, sin guardar ningún valor.
+     */
+    @Test
+    @DisplayName("Debería responder 503 si el tenant no está en Redis y el servicio externo falla")
+    void shouldFailWhenProviderFailsAndRedisHasNoValue() {
+        when(percentageService.getPercentage("x")).thenThrow(new RuntimeException("Servicio externo caído"));
+
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> tenantPercentageCache.get("x"));
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ex.getStatusCode());
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    private TenantPercentageCache tenantPercentageCache(Duration redisBatchDelay) {
+        return new TenantPercentageCache(redisTemplate, percentageService,
+                new PercentageCacheProperties(Duration.ofMinutes(30), Duration.ofSeconds(15)),
+                new TenantPercentageProperties(DataSize.ofMegabytes(1), Duration.ofMinutes(1), 3, redisBatchDelay, 4),
+                CircuitBreakerRegistry.ofDefaults(), new SimpleMeterRegistry());
+    }
+}
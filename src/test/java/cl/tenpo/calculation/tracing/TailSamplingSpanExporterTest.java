@@ -0,0 +1,105 @@
+package cl.tenpo.calculation.tracing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.TraceFlags;
+import io.opentelemetry.api.trace.TraceState;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.data.StatusData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Test unitarios para {@link TailSamplingSpanExporter}.
+ */
+public class TailSamplingSpanExporterTest {
+
+    private static final long SLOW_THRESHOLD_NANOS = Duration.ofMillis(500).toNanos();
+
+    private final SpanExporter delegate = mock(SpanExporter.class);
+
+    private final TailSamplingSpanExporter exporter = new TailSamplingSpanExporter(delegate, SLOW_THRESHOLD_NANOS,
+            0.0, Duration.ofSeconds(30).toNanos(), 100);
+
+    @BeforeEach
+    void setUp() {
+        when(delegate.export(any())).thenReturn(CompletableResultCode.ofSuccess());
+    }
+
+    /**
+     * Verifica que las trazas rápidas y exitosas se descartan.
+     */
+    @Test
+    @DisplayName("Debería descartar las trazas rápidas y exitosas")
+    void shouldDropFastTraces() {
+        exporter.export(List.of(span("t1", "child", "root", 10, false), span("t1", "root", null, 20, false)));
+
+        verify(delegate, never()).export(any());
+        assertEquals(0, exporter.pendingTraces());
+    }
+
+    /**
+     * Verifica que las trazas lentas se exportan completas, incluidos los spans
+     * que finalizan luego del span raíz.
+     */
+    @Test
+    @DisplayName("Debería conservar las trazas lentas completas")
+    @SuppressWarnings("unchecked")
+    void shouldKeepSlowTraces() {
+        exporter.export(List.of(span("t1", "child", "root", 10, false)));
+        exporter.export(List.of(span("t1", "root", null, 600, false)));
+        exporter.export(List.of(span("t1", "async-audit", "root", 5, false)));
+
+        ArgumentCaptor<Collection<SpanData>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(delegate, times(2)).export(captor.capture());
+        assertEquals(2, captor.getAllValues().get(0).size());
+        assertEquals(1, captor.getAllValues().get(1).size());
+    }
+
+    /**
+     * Verifica que las trazas con algún span con error se exportan aunque sean rápidas.
+     */
+    @Test
+    @DisplayName("Debería conservar las trazas con errores")
+    void shouldKeepTracesWithErrors() {
+        exporter.export(List.of(span("t1", "fallback", "root", 10, true), span("t1", "root", null, 20, false)));
+
+        verify(delegate).export(any());
+    }
+
+    private static SpanData span(String traceSuffix, String spanSuffix, String parentSuffix, long durationMillis,
+            boolean error) {
+        String traceId = "%032x".formatted(traceSuffix.hashCode() & 0xffffffffL);
+        SpanContext parent = parentSuffix == null
+                ? SpanContext.getInvalid()
+                : SpanContext.create(traceId, spanId(parentSuffix), TraceFlags.getSampled(), TraceState.getDefault());
+        SpanData span = mock(SpanData.class);
+        when(span.getTraceId()).thenReturn(traceId);
+        when(span.getSpanId()).thenReturn(spanId(spanSuffix));
+        when(span.getParentSpanContext()).thenReturn(parent);
+        when(span.getStartEpochNanos()).thenReturn(0L);
+        when(span.getEndEpochNanos()).thenReturn(Duration.ofMillis(durationMillis).toNanos());
+        when(span.getStatus()).thenReturn(error ? StatusData.error() : StatusData.ok());
+        return span;
+    }
+
+    private static String spanId(String suffix) {
+        return "%016x".formatted(suffix.hashCode() & 0xffffffffL);
+    }
+}
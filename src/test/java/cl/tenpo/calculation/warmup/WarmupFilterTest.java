@@ -0,0 +1,73 @@
+package cl.tenpo.calculation.warmup;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import cl.tenpo.calculation.config.WarmupProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test unitarios para {@link WarmupFilter}.
+ */
+public class WarmupFilterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final WarmupFilter warmupFilter = new WarmupFilter(
+            new WarmupProperties(true, 10, 1, Duration.ofSeconds(1), 2), meterRegistry);
+
+    /**
+     * Verifica que solo los requests con el token generado se marcan como de calentamiento.
+     *
+     * @throws Exception si ocurre algún error en el filtro.
+     */
+    @Test
+    @DisplayName("Debería marcar como calentamiento solo los requests con el token correcto")
+    void shouldMarkOnlyRequestsWithToken() throws Exception {
+        MockHttpServletRequest warmup = request(warmupFilter.token());
+        MockHttpServletRequest forged = request("otro-token");
+
+        warmupFilter.doFilter(warmup, new MockHttpServletResponse(), new MockFilterChain());
+        warmupFilter.doFilter(forged, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(Boolean.TRUE, warmup.getAttribute(WarmupFilter.WARMUP_ATTRIBUTE));
+        assertNull(forged.getAttribute(WarmupFilter.WARMUP_ATTRIBUTE));
+    }
+
+    /**
+     * Verifica que se registra la latencia de los primeros requests reales al
+     * endpoint de cálculo, sin contar los de calentamiento ni los de otras rutas.
+     *
+     * @throws Exception si ocurre algún error en el filtro.
+     */
+    @Test
+    @DisplayName("Debería registrar la latencia de los primeros requests reales")
+    void shouldRecordFirstRequests() throws Exception {
+        warmupFilter.doFilter(request(warmupFilter.token()), new MockHttpServletResponse(), new MockFilterChain());
+        warmupFilter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(),
+                new MockFilterChain());
+        warmupFilter.doFilter(new MockHttpServletRequest("GET", "/audit"), new MockHttpServletResponse(),
+                new MockFilterChain());
+        for (int i = 0; i < 5; i++) {
+            warmupFilter.doFilter(request(null), new MockHttpServletResponse(), new MockFilterChain());
+        }
+
+        assertEquals(2, meterRegistry.get("warmup.first.requests").timer().count());
+    }
+
+    private static MockHttpServletRequest request(String token) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/calculation");
+        if (token != null) {
+            request.addHeader(WarmupFilter.TOKEN_HEADER, token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,98 @@
+package cl.tenpo.calculation.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import cl.tenpo.calculation.controller.GlobalExceptionHandler;
+import cl.tenpo.calculation.dto.ErrorResponseDto;
+
+/**
+ * Test unitarios para los conversores HTTP {@link ErrorResponseHttpMessageConverter}
+ * y {@link BigDecimalHttpMessageConverter}.
+ */
+public class ErrorResponseHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Verifica que la respuesta de error generada es JSON válido, con el mensaje
+     * escapado y la fecha en formato ISO-8601.
+     *
+     * @throws Exception si ocurre algún error al escribir o parsear la respuesta.
+     */
+    @Test
+    @DisplayName("Debería escribir un JSON válido con el mensaje escapado")
+    void shouldWriteEscapedJson() throws Exception {
+        ErrorResponseHttpMessageConverter converter = new ErrorResponseHttpMessageConverter(GlobalExceptionHandler.FIXED_ERRORS);
+        String message = "Parámetro \"num1\" inválido\\\n\tlínea";
+        ZonedDateTime timestamp = ZonedDateTime.of(2024, 1, 2, 3, 4, 5, 0, ZoneOffset.UTC);
+
+        for (int i = 0; i < 2; i++) {
+            MockHttpOutputMessage output = new MockHttpOutputMessage();
+            converter.write(new ErrorResponseDto(400, message, timestamp), MediaType.APPLICATION_JSON, output);
+
+            JsonNode json = objectMapper.readTree(output.getBodyAsBytes());
+            assertEquals(400, json.get("status").asInt());
+            assertEquals(message, json.get("message").asText());
+            assertEquals("2024-01-02T03:04:05Z", json.get("timestamp").asText());
+            assertEquals(output.getBodyAsBytes().length, output.getHeaders().getContentLength());
+        }
+    }
+
+    /**
+     * Verifica que la fecha del reloj cacheado se escribe correctamente y que los
+     * valores nulos se escriben como {@code null}.
+     *
+     * @throws Exception si ocurre algún error al escribir o parsear la respuesta.
+     */
+    @Test
+    @DisplayName("Debería escribir la fecha del reloj cacheado y valores nulos")
+    void shouldWriteCachedTimestampAndNulls() throws Exception {
+        ErrorResponseHttpMessageConverter converter = new ErrorResponseHttpMessageConverter(GlobalExceptionHandler.FIXED_ERRORS);
+        ZonedDateTime now = CachedClock.now();
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(new ErrorResponseDto(429, "Límite de concurrencia excedido", now), null, output);
+        JsonNode json = objectMapper.readTree(output.getBodyAsBytes());
+        assertEquals("Límite de concurrencia excedido", json.get("message").asText());
+        assertEquals(now.toInstant(), ZonedDateTime.parse(json.get("timestamp").asText()).toInstant());
+
+        output = new MockHttpOutputMessage();
+        converter.write(new ErrorResponseDto(500, null, null), null, output);
+        json = objectMapper.readTree(output.getBodyAsBytes());
+        assertTrue(json.get("message").isNull());
+        assertTrue(json.get("timestamp").isNull());
+    }
+
+    /**
+     * Verifica que el resultado numérico se escribe igual que con Jackson.
+     *
+     * @throws Exception si ocurre algún error al escribir la respuesta.
+     */
+    @Test
+    @DisplayName("Debería escribir el resultado numérico igual que Jackson")
+    void shouldWriteBigDecimalLikeJackson() throws Exception {
+        BigDecimalHttpMessageConverter converter = new BigDecimalHttpMessageConverter();
+        BigDecimal value = new BigDecimal("11.50");
+
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+        converter.write(value, MediaType.APPLICATION_JSON, output);
+
+        assertEquals(objectMapper.writeValueAsString(value), output.getBodyAsString(StandardCharsets.US_ASCII));
+        assertEquals(MediaType.APPLICATION_JSON, output.getHeaders().getContentType());
+        assertEquals(5, output.getHeaders().getContentLength());
+    }
+}